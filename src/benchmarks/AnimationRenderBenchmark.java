@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import view.animation.AnimationClip;
+import view.animation.AnimationClock;
+import view.animation.Animator;
+import view.animation.FrameStrip;
+
+/**
+ * Description:
+ * 1. Measures drawing one frame of many animated sprites into an offscreen Full HD Graphics2D.
+ * 2. Every animator plays one of a few clips sharing a frame strip, started at different times,
+ *    and the shared clock advances one tick per frame, so frames keep changing.
+ */
+public class AnimationRenderBenchmark extends Benchmark {
+
+    private static final int SCREEN_WIDTH = 1920;
+    private static final int SCREEN_HEIGHT = 1080;
+
+    private static final int FRAME_COUNT = 8;
+    private static final int FRAME_SIZE = 32;
+    private static final int SPRITE_SIZE = 48;
+    private static final int CLIP_COUNT = 4;
+    private static final double FRAME_SECONDS = 0.1;
+    private static final double TICK_SECONDS = 1.0 / 60;
+
+    private final int animator_count;
+
+    private final AnimationClock animation_clock = AnimationClock.GetInstance();
+
+    private Animator[] animators;
+    private int[] x_positions;
+    private int[] y_positions;
+
+    private BufferedImage frame;
+    private Graphics2D frame_graphics;
+
+    public AnimationRenderBenchmark(final int animator_count){
+        super("Animator.Render sprites=" + animator_count);
+        this.animator_count = animator_count;
+    }
+
+    @Override
+    protected void Setup(){
+        frame = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        frame_graphics = frame.createGraphics();
+        final GraphicsConfiguration graphics_configuration = frame_graphics.getDeviceConfiguration();
+
+        final FrameStrip frame_strip = new FrameStrip(new BufferedImage(FRAME_SIZE * FRAME_COUNT, FRAME_SIZE, BufferedImage.TYPE_INT_ARGB), FRAME_COUNT);
+        frame_strip.SetScaledSize(SPRITE_SIZE, SPRITE_SIZE, graphics_configuration);
+
+        final AnimationClip[] clips = new AnimationClip[CLIP_COUNT];
+        for (int clip = 0; clip < CLIP_COUNT; clip++) {
+            clips[clip] = new AnimationClip(frame_strip, FRAME_SECONDS * (clip + 1), true);
+        }
+
+        animators = new Animator[animator_count];
+        x_positions = new int[animator_count];
+        y_positions = new int[animator_count];
+        for (int animator = 0; animator < animator_count; animator++) {
+            animation_clock.Advance(TICK_SECONDS); // Staggers the clips' start times
+            animators[animator] = new Animator();
+            animators[animator].Play(clips[animator % CLIP_COUNT]);
+            x_positions[animator] = (animator * SPRITE_SIZE) % (SCREEN_WIDTH - SPRITE_SIZE);
+            y_positions[animator] = (animator * SPRITE_SIZE / SCREEN_WIDTH * SPRITE_SIZE) % (SCREEN_HEIGHT - SPRITE_SIZE);
+        }
+    }
+
+    @Override
+    protected long RunOperation(){
+        animation_clock.Advance(TICK_SECONDS);
+        for (int animator = 0; animator < animator_count; animator++) {
+            animators[animator].DrawFrame(frame_graphics, x_positions[animator], y_positions[animator], null);
+        }
+        return frame.getRGB(0, 0);
+    }
+
+    @Override
+    protected void TearDown(){
+        frame_graphics.dispose();
+    }
+}
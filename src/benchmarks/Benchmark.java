@@ -0,0 +1,33 @@
+package benchmarks;
+
+/**
+ * Description:
+ * 1. Abstract base class for every benchmark run by BenchmarkRunner.
+ * 2. Subclasses prepare their state in Setup(), perform one measured operation per
+ *    RunOperation() call and release resources in TearDown().
+ * 3. RunOperation() returns a value derived from its work; the runner consumes it so the JIT
+ *    can't eliminate the measured code as dead.
+ */
+public abstract class Benchmark {
+
+    private final String name;
+
+    /**
+     * Parameters:
+     * - name: Unique, human-readable name including the benchmark's parameters
+     *   (e.g., "Map.Render size=256").
+     */
+    protected Benchmark(final String name){
+        this.name = name;
+    }
+
+    public String GetName(){
+        return name;
+    }
+
+    protected void Setup(){}
+
+    protected abstract long RunOperation();
+
+    protected void TearDown(){}
+}
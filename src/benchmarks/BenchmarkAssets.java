@@ -0,0 +1,111 @@
+package benchmarks;
+
+import controller.atlas.TextureAtlas;
+import controller.files_controllers.ImageController;
+import controller.files_managers.ImageManager;
+import controller.loaders.ImageLoader;
+import controller.maps.TileGrid;
+import java.util.List;
+
+/**
+ * Description:
+ * 1. Shared helpers that prepare the game's real assets and synthetic maps for benchmarks.
+ * 2. Loads the registered images once per process, no matter how many benchmarks need them.
+ *
+ * Restrictions:
+ * - This class must not be instantiated; all methods are static.
+ */
+public class BenchmarkAssets {
+
+    private static boolean are_images_loaded = false;
+
+    // The game's ground tile, opaque like every ground tile
+    private static final String GROUND_IMAGE_NAME = "grass";
+    private static final int DECORATED_LAYER_COUNT = 2;
+    private static final int DECORATION_SPACING = 7;
+
+    private BenchmarkAssets(){}
+
+    /**
+     * Assertives of Departure:
+     * - Every image registered in ImageManager is loaded by ImageLoader and packed in the TextureAtlas.
+     */
+    public static void LoadImages(){
+        if (are_images_loaded) {
+            return;
+        }
+        ImageLoader.GetInstance().Load();
+        TextureAtlas.GetInstance().Build();
+        are_images_loaded = true;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the IDs of every registered image, so synthetic maps mix several tile types.
+     */
+    public static short[] GetImageIDs(){
+        final List<ImageController> images = ImageManager.GetInstance().GetImages();
+        final short[] image_ids = new short[images.size()];
+        for (int index = 0; index < image_ids.length; index++) {
+            image_ids[index] = (short) images.get(index).GetID();
+        }
+        return image_ids;
+    }
+
+    /**
+     * Description:
+     * Builds a square grid whose tiles cycle through every registered image ID.
+     */
+    public static TileGrid CreateGrid(final int map_size){
+        final short[] image_ids = GetImageIDs();
+        final TileGrid grid = new TileGrid(map_size, map_size);
+        for (int row = 0; row < map_size; row++) {
+            for (int column = 0; column < map_size; column++) {
+                grid.SetTile(column, row, image_ids[ (row + column) % image_ids.length ]);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Description:
+     * Builds a square grid shaped like a real map: an opaque ground layer, and a layer with
+     * every DECORATION_SPACING-th tile cycling through every registered image ID (mostly
+     * transparent sprites), blended over the ground.
+     */
+    public static TileGrid CreateDecoratedGrid(final int map_size){
+        final short[] image_ids = GetImageIDs();
+        final short ground_id = (short) ImageManager.GetInstance().GetImage(GROUND_IMAGE_NAME).GetID();
+        final TileGrid grid = new TileGrid(map_size, map_size, DECORATED_LAYER_COUNT);
+        for (int row = 0; row < map_size; row++) {
+            for (int column = 0; column < map_size; column++) {
+                grid.SetTile(0, column, row, ground_id);
+
+                final int cell = row * map_size + column;
+                if (cell % DECORATION_SPACING == 0) {
+                    grid.SetTile(1, column, row, image_ids[ (cell / DECORATION_SPACING) % image_ids.length ]);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Description:
+     * Builds the text representation of CreateGrid(map_size), in the format of the map text files.
+     */
+    public static String CreateMapText(final int map_size){
+        final short[] image_ids = GetImageIDs();
+        final StringBuilder map_text = new StringBuilder();
+        for (int row = 0; row < map_size; row++) {
+            for (int column = 0; column < map_size; column++) {
+                if (column > 0) {
+                    map_text.append(' ');
+                }
+                map_text.append(image_ids[ (row + column) % image_ids.length ]);
+            }
+            map_text.append(System.lineSeparator());
+        }
+        return map_text.toString();
+    }
+}
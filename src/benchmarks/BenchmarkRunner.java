@@ -0,0 +1,159 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description:
+ * 1. Entry point of the benchmark suite; runs headless on any machine with a JDK.
+ * 2. For each benchmark: runs Setup(), warms the JIT up for WARMUP_NANOSECONDS, then measures
+ *    MEASUREMENT_ROUNDS rounds of ROUND_NANOSECONDS each and prints the time per operation
+ *    (mean, best and worst round).
+ * 3. Accepts an optional argument that only runs benchmarks whose name contains it
+ *    (e.g., "Observer").
+ *
+ * Restrictions:
+ * - Prints to the terminal: the console is this tool's only way of reporting results.
+ * - There is no build system to pull JMH in, so this is a minimal harness with the same
+ *   warmup/measurement structure; results are indicative, not JMH-grade.
+ */
+public class BenchmarkRunner {
+
+    private static final long WARMUP_NANOSECONDS = 2_000_000_000L;
+    private static final long ROUND_NANOSECONDS = 1_000_000_000L;
+    private static final int MEASUREMENT_ROUNDS = 5;
+    private static final long MAXIMUM_OPERATIONS_PER_ROUND = 1_000_000_000L;
+
+    private static final double NANOSECONDS_PER_MICROSECOND = 1_000.0;
+
+    // Consumes every benchmark result so the measured code can't be optimized away
+    private static volatile long sink;
+
+    private BenchmarkRunner(){}
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        final String filter = args.length > 0 ? args[0] : "";
+
+        System.out.printf("%-48s %14s %14s %14s%n", "benchmark", "mean us/op", "best us/op", "worst us/op");
+        for (final Benchmark benchmark : CreateBenchmarks()) {
+            if ( benchmark.GetName().contains(filter) ) {
+                RunBenchmark(benchmark);
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * Lists every benchmark of the suite with its parameter variations.
+     */
+    private static List<Benchmark> CreateBenchmarks(){
+        final List<Benchmark> benchmarks = new ArrayList<>();
+
+        final int[] map_sizes = { 16, 256, 1024 };
+        for (final int map_size : map_sizes) {
+            benchmarks.add(new MapRenderBenchmark(map_size, false, false));
+            benchmarks.add(new MapRenderBenchmark(map_size, true, false));
+        }
+        for (final int map_size : map_sizes) {
+            benchmarks.add(new MapLoadBenchmark(map_size, false));
+            benchmarks.add(new MapLoadBenchmark(map_size, true));
+        }
+        final int huge_map_size = 4096;
+        benchmarks.add(new MapLoadBenchmark(huge_map_size, true));
+        benchmarks.add(new MapRenderBenchmark(huge_map_size, true, true));
+
+        final int[] raster_thread_counts = { 0, 1, 2, 4, Runtime.getRuntime().availableProcessors() };
+        for (final int raster_thread_count : raster_thread_counts) {
+            benchmarks.add(new MapRasterBenchmark(raster_thread_count));
+        }
+
+        final int[] asset_counts = { 10, 1_000, 10_000 };
+        for (final int asset_count : asset_counts) {
+            benchmarks.add(new ManagerLookupBenchmark(asset_count));
+        }
+
+        final int[] image_counts = { 10, 100 };
+        for (final int image_count : image_counts) {
+            benchmarks.add(new LoaderBenchmark(image_count));
+        }
+
+        final int[] subscriber_counts = { 1, 100, 10_000 };
+        for (final int subscriber_count : subscriber_counts) {
+            benchmarks.add(new ObserverNotifyBenchmark(subscriber_count));
+        }
+
+        final int[] animator_counts = { 100, 1_000 };
+        for (final int animator_count : animator_counts) {
+            benchmarks.add(new AnimationRenderBenchmark(animator_count));
+        }
+
+        final int[] entity_counts = { 1_000, 10_000, 50_000 };
+        for (final int entity_count : entity_counts) {
+            benchmarks.add(new EntityBenchmark(entity_count));
+        }
+
+        final int[] query_entity_counts = { 1_000, 10_000, 100_000 };
+        for (final int entity_count : query_entity_counts) {
+            benchmarks.add(new SpatialQueryBenchmark(entity_count, true));
+            benchmarks.add(new SpatialQueryBenchmark(entity_count, false));
+        }
+
+        return benchmarks;
+    }
+
+    /**
+     * Description:
+     * 1. Runs Setup().
+     * 2. Runs operations until the warmup time elapses.
+     * 3. Runs MEASUREMENT_ROUNDS timed rounds and computes the time per operation of each.
+     * 4. Runs TearDown() and prints the mean, best and worst rounds in microseconds.
+     */
+    private static void RunBenchmark(final Benchmark benchmark){
+        benchmark.Setup();
+
+        RunRound(benchmark, WARMUP_NANOSECONDS);
+
+        double total_time_per_operation = 0;
+        double best_time_per_operation = Double.MAX_VALUE;
+        double worst_time_per_operation = 0;
+        for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+            final double time_per_operation = RunRound(benchmark, ROUND_NANOSECONDS);
+            total_time_per_operation += time_per_operation;
+            best_time_per_operation = Math.min(best_time_per_operation, time_per_operation);
+            worst_time_per_operation = Math.max(worst_time_per_operation, time_per_operation);
+        }
+
+        benchmark.TearDown();
+
+        System.out.printf("%-48s %14.3f %14.3f %14.3f%n", benchmark.GetName(),
+            total_time_per_operation / MEASUREMENT_ROUNDS / NANOSECONDS_PER_MICROSECOND,
+            best_time_per_operation / NANOSECONDS_PER_MICROSECOND,
+            worst_time_per_operation / NANOSECONDS_PER_MICROSECOND);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the mean time per operation of the round, in nanoseconds.
+     *
+     * Restrictions:
+     * - The round stops after round_nanoseconds or MAXIMUM_OPERATIONS_PER_ROUND operations,
+     *   whichever comes first.
+     */
+    private static double RunRound(final Benchmark benchmark, final long round_nanoseconds){
+        long result = 0;
+        long operation_count = 0;
+
+        final long round_start = System.nanoTime();
+        long elapsed_time = 0;
+        while (elapsed_time < round_nanoseconds && operation_count < MAXIMUM_OPERATIONS_PER_ROUND) {
+            result += benchmark.RunOperation();
+            operation_count++;
+            elapsed_time = System.nanoTime() - round_start;
+        }
+
+        sink += result;
+        return (double) elapsed_time / operation_count;
+    }
+}
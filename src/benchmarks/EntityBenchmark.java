@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import view.animation.AnimationClock;
+import view.camera.Camera;
+import view.camera.CameraTarget;
+import view.renderers.Entities;
+import view.renderers.Map;
+
+/**
+ * Description:
+ * 1. Measures one game tick and frame of many wandering NPCs: EntityStore.Update() through the
+ *    Entities renderer, then Entities.Render() into an offscreen Full HD Graphics2D.
+ * 2. NPCs wander a big map with the camera at its center, so most of them are moved but culled,
+ *    as in a real game.
+ */
+public class EntityBenchmark extends Benchmark implements CameraTarget {
+
+    private static final int SCREEN_WIDTH = 1920;
+    private static final int SCREEN_HEIGHT = 1080;
+    private static final int MAP_SIZE = 1024;
+    private static final double TICK_SECONDS = 1.0 / 60;
+
+    private final int entity_count;
+
+    private final Map map = Map.GetInstance();
+    private final Entities entities = Entities.GetInstance();
+    private final Camera camera = Camera.GetInstance();
+    private final AnimationClock animation_clock = AnimationClock.GetInstance();
+
+    private BufferedImage frame;
+    private Graphics2D frame_graphics;
+
+    public EntityBenchmark(final int entity_count){
+        super("Entities.Update+Render entities=" + entity_count);
+        this.entity_count = entity_count;
+    }
+
+    @Override
+    public float GetWorldX(){
+        return MAP_SIZE / 2f;
+    }
+
+    @Override
+    public float GetWorldY(){
+        return MAP_SIZE / 2f;
+    }
+
+    @Override
+    protected void Setup(){
+        BenchmarkAssets.LoadImages();
+
+        map.SetScreenSize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        map.LoadTileGrid(GetName(), BenchmarkAssets.CreateGrid(MAP_SIZE));
+        camera.Follow(this);
+        camera.Update();
+
+        entities.SetScreenSize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        entities.LoadArchetypes();
+        entities.SpawnWanderers(entity_count, MAP_SIZE, MAP_SIZE);
+
+        frame = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        frame_graphics = frame.createGraphics();
+    }
+
+    @Override
+    protected long RunOperation(){
+        animation_clock.Advance(TICK_SECONDS);
+        entities.Update(TICK_SECONDS);
+        entities.Interpolate(0f);
+        entities.Render(frame_graphics, null);
+        return frame.getRGB(SCREEN_WIDTH / 2, SCREEN_HEIGHT / 2);
+    }
+
+    @Override
+    protected void TearDown(){
+        entities.SpawnWanderers(0, MAP_SIZE, MAP_SIZE);
+        camera.Follow(null);
+        frame_graphics.dispose();
+    }
+}
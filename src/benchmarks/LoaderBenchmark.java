@@ -0,0 +1,137 @@
+package benchmarks;
+
+import controller.files_controllers.Controller;
+import controller.files_managers.Manager;
+import controller.loaders.Loader;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import javax.imageio.ImageIO;
+
+/**
+ * Description:
+ * 1. Measures Loader.Load() decoding many PNG files from disk.
+ * 2. Setup() writes image_count PNGs of IMAGE_SIZE x IMAGE_SIZE to a temporary directory and
+ *    registers them in a SyntheticManager; TearDown() deletes them.
+ */
+public class LoaderBenchmark extends Benchmark {
+
+    private static final int IMAGE_SIZE = 256;
+    private static final String FOLDER_NAME = "tiles/";
+    private static final String EXTENSION = ".png";
+
+    private final int image_count;
+
+    private File directory;
+    private SyntheticImageLoader loader;
+
+    public LoaderBenchmark(final int image_count){
+        super("Loader.Load pngs=" + image_count);
+        this.image_count = image_count;
+    }
+
+    /**
+     * Description:
+     * Minimal image loader over a SyntheticManager, so Loader.Load() runs over the benchmark's files.
+     */
+    private static class SyntheticImageLoader extends Loader<BufferedImage>{
+        private final Manager<?> manager;
+
+        SyntheticImageLoader(final Manager<?> manager){
+            this.manager = manager;
+        }
+
+        @Override
+        protected Manager<?> GetManager(){
+            return manager;
+        }
+
+        @Override
+        protected BufferedImage LoadData(final Controller image_controller, final String file_path){
+            try {
+                return ImageIO.read(new File(file_path));
+            }
+            catch (IOException exception) {
+                throw new IllegalStateException("Benchmark image couldn't be read: " + file_path, exception);
+            }
+        }
+
+        @Override
+        protected void HandleMissingResource(final Controller image_controller){}
+    }
+
+    @Override
+    protected void Setup(){
+        try {
+            directory = Files.createTempDirectory("loader_benchmark").toFile();
+            final File folder = new File(directory, FOLDER_NAME);
+            if ( !folder.mkdirs() ) {
+                throw new IllegalStateException("Benchmark folder couldn't be created: " + folder);
+            }
+
+            final ArrayList<Controller> controllers = new ArrayList<>();
+            for (int image = 0; image < image_count; image++) {
+                final Controller controller = new SyntheticController("image_" + image);
+                ImageIO.write(CreateImage(image), "png", new File(folder, controller.GetName() + EXTENSION));
+                controllers.add(controller);
+            }
+
+            final SyntheticManager manager = new SyntheticManager(directory.getPath() + File.separator, EXTENSION);
+            manager.RegisterFolder(FOLDER_NAME, controllers);
+            loader = new SyntheticImageLoader(manager);
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Benchmark images couldn't be written", exception);
+        }
+    }
+
+    /**
+     * Description:
+     * Draws a gradient that differs per image, so PNG compression has realistic work to undo.
+     */
+    private static BufferedImage CreateImage(final int seed){
+        final BufferedImage image = new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D image_graphics = image.createGraphics();
+        final int color_channels = 256;
+        for (int row = 0; row < IMAGE_SIZE; row++) {
+            image_graphics.setColor(new Color( (row + seed) % color_channels, (row * seed) % color_channels, seed % color_channels ));
+            image_graphics.drawLine(0, row, IMAGE_SIZE - 1, row);
+        }
+        image_graphics.dispose();
+        return image;
+    }
+
+    @Override
+    protected long RunOperation(){
+        loader.Load();
+        return image_count;
+    }
+
+    /**
+     * Description:
+     * Deletes the benchmark's images and directories, deferring to JVM exit whatever can't be
+     * deleted right away.
+     */
+    @Override
+    protected void TearDown(){
+        final File folder = new File(directory, FOLDER_NAME);
+        final File[] files = folder.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                DeleteFile(file);
+            }
+        }
+        DeleteFile(folder);
+        DeleteFile(directory);
+    }
+
+    private static void DeleteFile(final File file){
+        if ( !file.delete() ) {
+            file.deleteOnExit();
+        }
+    }
+}
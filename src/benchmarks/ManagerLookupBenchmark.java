@@ -0,0 +1,62 @@
+package benchmarks;
+
+import controller.files_controllers.Controller;
+import java.util.ArrayList;
+
+/**
+ * Description:
+ * 1. Measures Manager.GetController(int), GetController(String) and GetFilePath() with many
+ *    registered resources spread over FOLDER_COUNT folders.
+ * 2. Every operation looks up a pseudo-random resource, so lookups hit the whole registry.
+ */
+public class ManagerLookupBenchmark extends Benchmark {
+
+    private static final int FOLDER_COUNT = 16;
+
+    // Linear congruential generator constants (Numerical Recipes), cheap and allocation-free
+    private static final int RANDOM_MULTIPLIER = 1664525;
+    private static final int RANDOM_INCREMENT = 1013904223;
+
+    private final int asset_count;
+
+    private SyntheticManager manager;
+    private int[] asset_ids;
+    private String[] asset_names;
+    private int random_state = 1;
+
+    public ManagerLookupBenchmark(final int asset_count){
+        super("Manager lookups assets=" + asset_count);
+        this.asset_count = asset_count;
+    }
+
+    @Override
+    protected void Setup(){
+        manager = new SyntheticManager("src/benchmark_assets/", ".png");
+        asset_ids = new int[asset_count];
+        asset_names = new String[asset_count];
+
+        int asset_index = 0;
+        for (int folder = 0; folder < FOLDER_COUNT; folder++) {
+            final ArrayList<Controller> controllers = new ArrayList<>();
+            final int folder_end = (int) ( (long) asset_count * (folder + 1) / FOLDER_COUNT );
+            for (; asset_index < folder_end; asset_index++) {
+                final Controller controller = new SyntheticController("asset_" + asset_index);
+                controllers.add(controller);
+                asset_ids[asset_index] = controller.GetID();
+                asset_names[asset_index] = controller.GetName();
+            }
+            manager.RegisterFolder("folder_" + folder + "/", controllers);
+        }
+    }
+
+    @Override
+    protected long RunOperation(){
+        random_state = random_state * RANDOM_MULTIPLIER + RANDOM_INCREMENT;
+        final int asset_index = (random_state >>> 1) % asset_count;
+
+        final Controller by_id = manager.GetController(asset_ids[asset_index]);
+        final Controller by_name = manager.GetController(asset_names[asset_index]);
+        final String file_path = manager.GetFilePath(by_id);
+        return by_id.GetID() + by_name.GetID() + file_path.length();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import controller.maps.BinaryMapFormat;
+import controller.maps.TileGrid;
+import java.io.File;
+import java.io.IOException;
+import view.renderers.Map;
+
+/**
+ * Description:
+ * 1. Measures loading a map, either from its text content (parsing it into a TileGrid) or from
+ *    a binary map file (through BinaryMapFormat.Read()), then Map.LoadImages() and
+ *    Map.RegisterMapDimensions() through Map.LoadTileGrid().
+ * 2. For binary maps, Setup() writes the map to a temporary file and TearDown() deletes it.
+ */
+public class MapLoadBenchmark extends Benchmark {
+
+    private static final int SCREEN_WIDTH = 1920;
+    private static final int SCREEN_HEIGHT = 1080;
+
+    private final int map_size;
+    private final boolean is_binary;
+
+    private final Map map = Map.GetInstance();
+
+    private String map_text;
+    private File binary_map_file;
+
+    public MapLoadBenchmark(final int map_size, final boolean is_binary){
+        super("Map.LoadTileGrid(" + (is_binary ? "binary" : "text") + ") size=" + map_size);
+        this.map_size = map_size;
+        this.is_binary = is_binary;
+    }
+
+    @Override
+    protected void Setup(){
+        BenchmarkAssets.LoadImages();
+
+        map.SetScreenSize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        if ( !is_binary ) {
+            map_text = BenchmarkAssets.CreateMapText(map_size);
+            return;
+        }
+
+        try {
+            binary_map_file = File.createTempFile("map_load_benchmark", BinaryMapFormat.EXTENSION);
+        }
+        catch (IOException exception) {
+            throw new IllegalStateException("Benchmark map file couldn't be created", exception);
+        }
+        BinaryMapFormat.Write(BenchmarkAssets.CreateGrid(map_size), binary_map_file.getPath(), BinaryMapFormat.DEFAULT_REGION_SIZE);
+    }
+
+    @Override
+    protected long RunOperation(){
+        final TileGrid grid = is_binary ? BinaryMapFormat.Read(binary_map_file.getPath()) : TileGrid.FromText(map_text);
+        map.LoadTileGrid(GetName(), grid);
+        return grid.GetTile(map_size - 1, map_size - 1);
+    }
+
+    @Override
+    protected void TearDown(){
+        if ( binary_map_file != null && !binary_map_file.delete() ) {
+            binary_map_file.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import view.camera.Camera;
+import view.camera.CameraTarget;
+import view.renderers.Map;
+
+/**
+ * Description:
+ * 1. Measures Map.Render() drawing one scrolling frame into an offscreen 4K Graphics2D, with
+ *    small tiles, so every frame draws about 32 thousand ground tiles again, and the sprites
+ *    decorating a seventh of them (see BenchmarkAssets.CreateDecoratedGrid()).
+ * 2. Zero threads draws the map through the chunk cache; any other count through the
+ *    ParallelTileRasterizer with that many threads, so the variants show how it scales with
+ *    the number of cores.
+ */
+public class MapRasterBenchmark extends Benchmark implements CameraTarget {
+
+    private static final int SCREEN_WIDTH = 3840;
+    private static final int SCREEN_HEIGHT = 2160;
+    private static final int MAP_SIZE = 1024;
+    private static final int TILE_SIZE = 16;
+    private static final float SCROLL_SPEED = 0.25f; // Tiles per frame
+
+    private final int thread_count;
+
+    private final Map map = Map.GetInstance();
+    private final Camera camera = Camera.GetInstance();
+
+    private BufferedImage frame;
+    private Graphics2D frame_graphics;
+
+    private float world_x;
+    private float world_y;
+
+    public MapRasterBenchmark(final int thread_count){
+        super("Map.Render 4K tile=" + TILE_SIZE + " threads=" + thread_count);
+        this.thread_count = thread_count;
+    }
+
+    @Override
+    public float GetWorldX(){
+        return world_x;
+    }
+
+    @Override
+    public float GetWorldY(){
+        return world_y;
+    }
+
+    @Override
+    protected void Setup(){
+        BenchmarkAssets.LoadImages();
+
+        map.SetScreenSize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        map.SetRenderThreads(thread_count);
+        camera.SetTileSize(TILE_SIZE);
+        map.LoadTileGrid(GetName(), BenchmarkAssets.CreateDecoratedGrid(MAP_SIZE));
+
+        frame = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        frame_graphics = frame.createGraphics();
+
+        final float map_center_divisor = 2f;
+        world_x = MAP_SIZE / map_center_divisor;
+        world_y = MAP_SIZE / map_center_divisor;
+        camera.Follow(this);
+    }
+
+    @Override
+    protected long RunOperation(){
+        world_x = (world_x + SCROLL_SPEED) % MAP_SIZE;
+        world_y = (world_y + SCROLL_SPEED) % MAP_SIZE;
+
+        camera.Update();
+        map.Render(frame_graphics, null);
+        return frame.getRGB(0, 0);
+    }
+
+    @Override
+    protected void TearDown(){
+        camera.Follow(null);
+        camera.SetTileSize(Camera.AUTOMATIC_TILE_SIZE);
+        map.SetRenderThreads(0);
+        frame_graphics.dispose();
+    }
+}
@@ -0,0 +1,109 @@
+package benchmarks;
+
+import controller.maps.BinaryMapFormat;
+import controller.maps.RegionStreamer;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import view.camera.Camera;
+import view.camera.CameraTarget;
+import view.renderers.Map;
+
+/**
+ * Description:
+ * 1. Measures Map.Render() drawing one frame into an offscreen Full HD Graphics2D.
+ * 2. The static variant keeps the camera still (steady-state chunk blits); the scrolling
+ *    variant moves the camera every frame, so chunks keep entering and leaving the viewport.
+ * 3. The streamed variant writes the map to a temporary binary file and renders it through a
+ *    RegionStreamer with a small memory budget, so regions keep being loaded and evicted.
+ */
+public class MapRenderBenchmark extends Benchmark implements CameraTarget {
+
+    private static final int SCREEN_WIDTH = 1920;
+    private static final int SCREEN_HEIGHT = 1080;
+    private static final float SCROLL_SPEED = 0.25f; // Tiles per frame
+
+    private static final int STREAMING_RADIUS = 1;
+    private static final long STREAMING_MEMORY_BUDGET = 4L * 1024 * 1024;
+
+    private final int map_size;
+    private final boolean is_scrolling;
+    private final boolean is_streamed;
+
+    private final Map map = Map.GetInstance();
+    private final Camera camera = Camera.GetInstance();
+
+    private BufferedImage frame;
+    private Graphics2D frame_graphics;
+    private File binary_map_file;
+
+    private float world_x;
+    private float world_y;
+
+    public MapRenderBenchmark(final int map_size, final boolean is_scrolling, final boolean is_streamed){
+        super("Map.Render size=" + map_size + (is_scrolling ? " scrolling" : " static") + (is_streamed ? " streamed" : ""));
+        this.map_size = map_size;
+        this.is_scrolling = is_scrolling;
+        this.is_streamed = is_streamed;
+    }
+
+    @Override
+    public float GetWorldX(){
+        return world_x;
+    }
+
+    @Override
+    public float GetWorldY(){
+        return world_y;
+    }
+
+    @Override
+    protected void Setup(){
+        BenchmarkAssets.LoadImages();
+
+        map.SetScreenSize(SCREEN_WIDTH, SCREEN_HEIGHT);
+        if (is_streamed) {
+            try {
+                binary_map_file = File.createTempFile("map_render_benchmark", BinaryMapFormat.EXTENSION);
+            }
+            catch (IOException exception) {
+                throw new IllegalStateException("Benchmark map file couldn't be created", exception);
+            }
+            BinaryMapFormat.Write(BenchmarkAssets.CreateGrid(map_size), binary_map_file.getPath(), BinaryMapFormat.DEFAULT_REGION_SIZE);
+            map.LoadRegionStreamer(GetName(), RegionStreamer.Open(binary_map_file.getPath(), STREAMING_RADIUS, STREAMING_MEMORY_BUDGET));
+        }
+        else {
+            map.LoadTileGrid(GetName(), BenchmarkAssets.CreateGrid(map_size));
+        }
+
+        frame = new BufferedImage(SCREEN_WIDTH, SCREEN_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        frame_graphics = frame.createGraphics();
+
+        final float map_center_divisor = 2f;
+        world_x = map_size / map_center_divisor;
+        world_y = map_size / map_center_divisor;
+        camera.Follow(this);
+    }
+
+    @Override
+    protected long RunOperation(){
+        if (is_scrolling) {
+            world_x = (world_x + SCROLL_SPEED) % map_size;
+            world_y = (world_y + SCROLL_SPEED) % map_size;
+        }
+
+        camera.Update();
+        map.Render(frame_graphics, null);
+        return frame.getRGB(0, 0);
+    }
+
+    @Override
+    protected void TearDown(){
+        camera.Follow(null);
+        frame_graphics.dispose();
+        if ( binary_map_file != null && !binary_map_file.delete() ) {
+            binary_map_file.deleteOnExit();
+        }
+    }
+}
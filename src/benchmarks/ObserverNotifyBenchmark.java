@@ -0,0 +1,65 @@
+package benchmarks;
+
+import controller.utils.Notification;
+import controller.utils.Observer;
+import java.util.ArrayList;
+
+/**
+ * Description:
+ * 1. Measures Observer.Notify() delivering a notification to many subscribers.
+ * 2. Uses IMAGE_LOADING_FAILED, which the game never fires, so no game callback runs.
+ */
+public class ObserverNotifyBenchmark extends Benchmark {
+
+    private static final Notification NOTIFICATION = Notification.IMAGE_LOADING_FAILED;
+
+    private final int subscriber_count;
+
+    private final Observer observer = Observer.GetInstance();
+    private final ArrayList<Runnable> subscribers = new ArrayList<>();
+
+    private long notified_count = 0;
+
+    public ObserverNotifyBenchmark(final int subscriber_count){
+        super("Observer.Notify subscribers=" + subscriber_count);
+        this.subscriber_count = subscriber_count;
+    }
+
+    /**
+     * Description:
+     * Distinct subscriber object per registration (lambdas might be deduplicated by the JVM).
+     */
+    private class CountingSubscriber implements Runnable{
+        @Override
+        public void run(){
+            notified_count++;
+        }
+    }
+
+    @Override
+    protected void Setup(){
+        for (int subscriber = 0; subscriber < subscriber_count; subscriber++) {
+            final Runnable function = new CountingSubscriber();
+            if ( observer.Register(NOTIFICATION, function) ) {
+                subscribers.add(function);
+            }
+        }
+    }
+
+    @Override
+    protected long RunOperation(){
+        final boolean was_notified = observer.Notify(NOTIFICATION);
+        return was_notified ? notified_count : 0;
+    }
+
+    @Override
+    protected void TearDown(){
+        for (final Runnable function : subscribers) {
+            final boolean was_unregistered = observer.Unregister(NOTIFICATION, function);
+            if ( !was_unregistered ) {
+                throw new IllegalStateException("Benchmark subscriber was already unregistered");
+            }
+        }
+        subscribers.clear();
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import controller.entities.EntityStore;
+import controller.entities.SpatialGrid;
+import java.util.Random;
+
+/**
+ * Description:
+ * 1. Measures proximity queries over many entities spread on a big map: each operation runs
+ *    QUERIES_PER_OPERATION radius queries around fixed points.
+ * 2. Runs either through the EntityStore's SpatialGrid or through a linear scan of every slot,
+ *    so both can be compared at the same entity count.
+ * 3. Both variants write the found slots into a preallocated buffer and return the total found,
+ *    so they only differ in how the candidates are found.
+ */
+public class SpatialQueryBenchmark extends Benchmark {
+
+    private static final int MAP_SIZE = 1024;
+    private static final int QUERIES_PER_OPERATION = 64;
+    private static final float QUERY_RADIUS = 8f;
+    private static final int RESULT_CAPACITY = 4096;
+    private static final long SEED = 2024L;
+
+    private final int entity_count;
+    private final boolean is_linear_scan;
+
+    private final EntityStore entity_store = EntityStore.GetInstance();
+
+    private final float[] query_xs = new float[QUERIES_PER_OPERATION];
+    private final float[] query_ys = new float[QUERIES_PER_OPERATION];
+    private final int[] result_slots = new int[RESULT_CAPACITY];
+
+    public SpatialQueryBenchmark(final int entity_count, final boolean is_linear_scan){
+        super("SpatialQuery." + (is_linear_scan ? "LinearScan" : "Grid") + " entities=" + entity_count);
+        this.entity_count = entity_count;
+        this.is_linear_scan = is_linear_scan;
+    }
+
+    @Override
+    protected void Setup(){
+        final Random random = new Random(SEED);
+
+        entity_store.Clear();
+        entity_store.SetBounds(MAP_SIZE, MAP_SIZE);
+        for (int index = 0; index < entity_count; index++) {
+            entity_store.Create(0, random.nextFloat() * MAP_SIZE, random.nextFloat() * MAP_SIZE, 0f, 0f, 0.0);
+        }
+
+        for (int query = 0; query < QUERIES_PER_OPERATION; query++) {
+            query_xs[query] = random.nextFloat() * MAP_SIZE;
+            query_ys[query] = random.nextFloat() * MAP_SIZE;
+        }
+    }
+
+    @Override
+    protected long RunOperation(){
+        final SpatialGrid spatial_grid = entity_store.GetSpatialGrid();
+        long found_count = 0;
+
+        for (int query = 0; query < QUERIES_PER_OPERATION; query++) {
+            if (is_linear_scan) {
+                found_count += QueryLinear(query_xs[query], query_ys[query]);
+            }
+            else {
+                found_count += spatial_grid.QueryRadius(query_xs[query], query_ys[query], QUERY_RADIUS, result_slots);
+            }
+        }
+        return found_count;
+    }
+
+    /**
+     * Description:
+     * The baseline: tests every live slot against the query circle.
+     */
+    private int QueryLinear(final float center_x, final float center_y){
+        final float squared_radius = QUERY_RADIUS * QUERY_RADIUS;
+        final int count = entity_store.GetCount();
+        int found_count = 0;
+
+        for (int slot = 0; slot < count; slot++) {
+            final float delta_x = entity_store.GetPositionX(slot) - center_x;
+            final float delta_y = entity_store.GetPositionY(slot) - center_y;
+            if (delta_x * delta_x + delta_y * delta_y <= squared_radius) {
+                if (found_count < result_slots.length) {
+                    result_slots[found_count] = slot;
+                }
+                found_count++;
+            }
+        }
+        return found_count;
+    }
+
+    @Override
+    protected void TearDown(){
+        entity_store.Clear();
+    }
+}
@@ -0,0 +1,18 @@
+package benchmarks;
+
+import controller.files_controllers.Controller;
+
+/**
+ * Description:
+ * 1. Controller used by benchmarks to register synthetic resources.
+ * 2. Has its own ID tracker, so creating thousands of them doesn't shift the IDs of the
+ *    game's real ImageController and TextFileController instances.
+ */
+public class SyntheticController extends Controller{
+
+    private static int id_tracker = 1;
+
+    public SyntheticController(final String name){
+        super(SyntheticController.id_tracker++, name);
+    }
+}
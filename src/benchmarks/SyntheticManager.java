@@ -0,0 +1,31 @@
+package benchmarks;
+
+import controller.files_controllers.Controller;
+import controller.files_controllers.FolderController;
+import controller.files_managers.Manager;
+import java.util.List;
+
+/**
+ * Description:
+ * 1. Manager used by benchmarks to register an arbitrary number of resources spread over
+ *    several folders, under an arbitrary directory.
+ */
+public class SyntheticManager extends Manager<Controller>{
+
+    /**
+     * Parameters:
+     * - directory: The base directory, including a trailing slash.
+     * - extension: The file extension including the dot (e.g., ".png").
+     */
+    public SyntheticManager(final String directory, final String extension){
+        super(directory, extension);
+    }
+
+    /**
+     * Description:
+     * Registers the given controllers under a new folder, exposing Manager.RegisterControllers().
+     */
+    public void RegisterFolder(final String folder_name, final List<Controller> controllers){
+        RegisterControllers(new FolderController(folder_name), controllers);
+    }
+}
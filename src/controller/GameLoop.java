@@ -0,0 +1,134 @@
+package controller;
+
+import controller.utils.Settings;
+import java.util.concurrent.locks.LockSupport;
+import view.ViewAPI;
+
+/**
+ * Description:
+ * 1. Dedicated thread that drives the game: fixed-timestep updates and interpolated rendering.
+ * 2. Game time advances in ticks of exactly 1 / updates_per_second seconds, no matter the frame
+ *    rate; the time left over after the last tick becomes the interpolation factor passed to
+ *    the render step, so motion stays smooth between ticks.
+ * 3. Frames are paced to the configured cap, or rendered as fast as possible when uncapped.
+ *
+ * Restrictions:
+ * - At most MAXIMUM_UPDATES_PER_FRAME ticks run per frame; if the game falls further behind
+ *   (e.g., after a long stall), the remaining time is dropped instead of spiraling.
+ */
+public class GameLoop {
+
+    private static final long NANOSECONDS_PER_SECOND = 1_000_000_000L;
+    private static final int MAXIMUM_UPDATES_PER_FRAME = 5;
+    private static final int MAXIMUM_SLEEP_ATTEMPTS = 3; // parkNanos() may wake up early
+
+    private final ViewAPI view;
+
+    private final long update_step_nanoseconds;
+    private final double update_step_seconds;
+    private final long frame_step_nanoseconds; // 0 when uncapped
+
+    private final Thread thread = new Thread(this::Run, "game-loop");
+    private volatile boolean is_running = false;
+
+    /**
+     * Parameters:
+     * - view: The view facade that receives update ticks and render requests.
+     * - settings: Source of the update rate and frame cap.
+     */
+    public GameLoop(final ViewAPI view, final Settings settings){
+        this.view = view;
+
+        update_step_nanoseconds = NANOSECONDS_PER_SECOND / settings.GetUpdatesPerSecond();
+        update_step_seconds = (double) update_step_nanoseconds / NANOSECONDS_PER_SECOND;
+
+        final int maximum_frames_per_second = settings.GetMaximumFramesPerSecond();
+        frame_step_nanoseconds = maximum_frames_per_second == Settings.UNCAPPED_FRAMES_PER_SECOND ? 0 : NANOSECONDS_PER_SECOND / maximum_frames_per_second;
+    }
+
+    /**
+     * Assertives of Departure:
+     * - The loop thread is running; calling Start() again has no effect.
+     */
+    public void Start(){
+        if (is_running) {
+            return;
+        }
+        is_running = true;
+        thread.start();
+    }
+
+    /**
+     * Description:
+     * Asks the loop to finish after the current frame. Safe to call from any thread.
+     */
+    public void Stop(){
+        is_running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Description:
+     * Blocks the calling thread until the loop thread finishes.
+     */
+    public void Join(){
+        try {
+            thread.join();
+        }
+        catch (InterruptedException interrupted_exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Objective: Body of the loop thread.
+     *
+     * Description:
+     * 1. Measures the real time elapsed since the previous frame and adds it to the accumulator.
+     * 2. Runs update ticks while the accumulator holds at least one step, up to
+     *    MAXIMUM_UPDATES_PER_FRAME; the excess is dropped if that limit is reached.
+     * 3. Renders a frame with the remaining accumulator fraction as interpolation factor.
+     * 4. Sleeps until the next frame is due: the frame cap when capped, or the next update tick
+     *    when nothing was rendered (e.g., the menu is being displayed).
+     *
+     * Restrictions:
+     * - The loop only ends through Stop(); every iteration is bounded by the update limit.
+     */
+    private void Run(){
+        long previous_time = System.nanoTime();
+        long accumulator = 0;
+
+        while (is_running) {
+            final long frame_start = System.nanoTime();
+            accumulator += frame_start - previous_time;
+            previous_time = frame_start;
+
+            int update_count = 0;
+            while (accumulator >= update_step_nanoseconds && update_count < MAXIMUM_UPDATES_PER_FRAME) {
+                view.Update(update_step_seconds);
+                accumulator -= update_step_nanoseconds;
+                update_count++;
+            }
+            if (accumulator >= update_step_nanoseconds) {
+                accumulator = 0; // Too far behind: drop the remaining time instead of spiraling
+            }
+
+            final float interpolation = (float) accumulator / update_step_nanoseconds;
+            final boolean was_frame_rendered = view.Render(interpolation);
+
+            final long frame_step = was_frame_rendered ? frame_step_nanoseconds : update_step_nanoseconds;
+            SleepUntil(frame_start + frame_step);
+        }
+    }
+
+    private void SleepUntil(final long deadline){
+        int sleep_attempts = 0;
+        long remaining_time = deadline - System.nanoTime();
+        while (remaining_time > 0 && is_running && sleep_attempts < MAXIMUM_SLEEP_ATTEMPTS) {
+            LockSupport.parkNanos(remaining_time);
+            remaining_time = deadline - System.nanoTime();
+            sleep_attempts++;
+        }
+        // Reaching the attempt limit only means the frame starts slightly early
+    }
+}
@@ -1,12 +1,26 @@
 package controller;
 
+import controller.atlas.TextureAtlas;
+import controller.loaders.AssetWatcher;
 import controller.loaders.ImageLoader;
 import controller.loaders.TextFileLoader;
+import controller.profiling.FrameProfiler;
+import controller.saves.SaveManager;
+import controller.utils.ErrorStatus;
+import controller.utils.Notification;
+import controller.utils.Observer;
+import controller.utils.Settings;
+import java.util.concurrent.CompletableFuture;
+import view.HeadlessView;
 import view.ViewAPI;
 
 public class GameRunner {
 
+    // AWT reads this once, the first time it checks for a display
+    private static final String AWT_HEADLESS_PROPERTY = "java.awt.headless";
+
     static ViewAPI view;
+    static GameLoop game_loop;
     
     static ImageLoader image_loader;
     static TextFileLoader textfile_loader;
@@ -19,28 +33,96 @@ public class GameRunner {
         ShutDown();
     }
 
+    /**
+     * Description:
+     * 1. In headless mode, makes AWT run without a display before anything touches it.
+     * 2. Starts loading images and text files in parallel.
+     * 3. Builds the view while they load, since the window doesn't need them until a game
+     *    starts; in headless mode, no window is built.
+     * 4. Blocks until every file is loaded.
+     * 5. Packs the images into the texture atlas, or reads it back from the disk cache.
+     * 6. Starts watching the asset folders, when hot reload is enabled and there is a window.
+     *
+     * Restrictions:
+     * - Loading failures exit the application from the loading threads, through GameExit.
+     */
     private static void StartUp(){
-        LoadImages();
-        LoadTextFiles();
+        final boolean is_headless = Settings.GetInstance().IsHeadless();
+        if (is_headless) {
+            System.setProperty(AWT_HEADLESS_PROPERTY, Boolean.TRUE.toString());
+        }
+
+        final CompletableFuture<Void> images_loading = LoadImages();
+        final CompletableFuture<Void> textfiles_loading = LoadTextFiles();
+
+        if (!is_headless) {
+            view = ViewAPI.GetInstance();
+        }
+
+        CompletableFuture.allOf(images_loading, textfiles_loading).join();
+
+        TextureAtlas.GetInstance().Build();
+        if (!is_headless) {
+            AssetWatcher.GetInstance().Start();
+        }
     }
 
+    /**
+     * Description:
+     * 1. In headless mode, renders the configured frames offscreen through a HeadlessLoop, and
+     *    returns once they are done.
+     * 2. Otherwise, creates the game loop, and stops it when the window is closed.
+     * 3. Shows the menu and starts the game loop thread.
+     * 4. Blocks until the game loop finishes.
+     */
     private static void Run(){
-        view = ViewAPI.GetInstance();
+        if ( Settings.GetInstance().IsHeadless() ) {
+            new HeadlessLoop(HeadlessView.GetInstance(), Settings.GetInstance()).Run();
+            return;
+        }
+
+        game_loop = new GameLoop(view, Settings.GetInstance());
+
+        Observer.GetInstance().Register(Notification.WINDOW_CLOSED, game_loop::Stop);
 
         view.ShowMenu();
+
+        game_loop.Start();
+        game_loop.Join();
     }
 
+    /**
+     * Description:
+     * 1. Closes the window, when there is one.
+     * 2. Dumps the frame timing histograms to CSV when a path is configured.
+     * 3. Waits for saves still being written, since the save thread doesn't keep the application alive.
+     * 4. Exits the application.
+     *
+     * Assertives of Entrance:
+     * - The game loop has finished.
+     */
     private static void ShutDown(){
+        if (view != null) {
+            view.Close();
+        }
+
+        final String profiling_csv_path = Settings.GetInstance().GetProfilingCsvPath();
+        if ( !profiling_csv_path.isEmpty() ) {
+            FrameProfiler.GetInstance().WriteCsv(profiling_csv_path);
+        }
+
+        SaveManager.GetInstance().AwaitPendingWrites();
 
+        System.exit( ErrorStatus.SUCCESS.GetExitCode() );
     }
 
-    private static void LoadImages(){
+    private static CompletableFuture<Void> LoadImages(){
         image_loader = ImageLoader.GetInstance();
-        image_loader.Load();
+        return image_loader.LoadAsync();
     }
 
-    private static void LoadTextFiles(){
+    private static CompletableFuture<Void> LoadTextFiles(){
         textfile_loader = TextFileLoader.GetInstance();
-        textfile_loader.Load();
+        return textfile_loader.LoadAsync();
     }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package controller;
+
+import controller.profiling.FrameProfiler;
+import controller.profiling.TimingHistogram;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import controller.utils.Settings;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import view.HeadlessView;
+
+/**
+ * Description:
+ * 1. Drives headless mode: starts a game offscreen and renders a fixed number of frames, one
+ *    per update tick, as fast as possible and without a window.
+ * 2. Time only advances by the fixed update step, never by the wall clock, so every run with
+ *    the same settings and assets renders the same frames.
+ * 3. Prints a 64-bit FNV-1a hash of every frame's pixels ("frame <n> <hash>") and, at the end, a
+ *    hash of the whole run, so rendering changes can be caught by comparing them.
+ * 4. Optionally writes every frame as a PNG file, and prints the frame and tick timings.
+ *
+ * Restrictions:
+ * - Runs on the calling thread and returns once every frame is rendered.
+ */
+public class HeadlessLoop {
+
+    private static final long NANOSECONDS_PER_SECOND = 1_000_000_000L;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+    private static final double SLOW_FRAME_PERCENTILE = 0.95;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int BYTE_MASK = 0xFF;
+
+    private static final String FRAME_FILE_FORMAT = "frame_%05d.png";
+    private static final String FRAME_IMAGE_FORMAT = "png";
+
+    private final HeadlessView view;
+    private final FrameProfiler profiler = FrameProfiler.GetInstance();
+
+    private final double update_step_seconds;
+    private final int frame_count;
+    private final int width;
+    private final int height;
+    private final String output_directory;
+
+    public HeadlessLoop(final HeadlessView view, final Settings settings){
+        this.view = view;
+
+        final long update_step_nanoseconds = NANOSECONDS_PER_SECOND / settings.GetUpdatesPerSecond();
+        update_step_seconds = (double) update_step_nanoseconds / NANOSECONDS_PER_SECOND;
+
+        frame_count = settings.GetHeadlessFrames();
+        width = settings.GetHeadlessWidth();
+        height = settings.GetHeadlessHeight();
+        output_directory = settings.GetHeadlessOutputDirectory();
+    }
+
+    /**
+     * Objective: Renders every headless frame and reports its hash.
+     *
+     * Description:
+     * 1. Starts a new game at the configured resolution.
+     * 2. For each frame: runs one update tick, renders, hashes the pixels, prints the hash,
+     *    folds it into the run's hash and writes the frame when an output directory is set.
+     * 3. Prints the run's hash, then the frame and tick timings (which, unlike the hashes,
+     *    depend on the machine).
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_WRITING_FRAME if a frame can't be written.
+     */
+    public void Run(){
+        view.StartNewGame(width, height);
+
+        long run_hash = FNV_OFFSET_BASIS;
+        for (int frame = 0; frame < frame_count; frame++) {
+            view.Update(update_step_seconds);
+            final BufferedImage image = view.Render();
+
+            final long frame_hash = HashPixels(image);
+            System.out.println( String.format("frame %d %016x", frame, frame_hash) );
+            run_hash = HashLong(run_hash, frame_hash);
+
+            if ( !output_directory.isEmpty() ) {
+                WriteFrame(image, frame);
+            }
+        }
+
+        System.out.println( String.format("run %dx%d %d frames %016x", width, height, frame_count, run_hash) );
+
+        final TimingHistogram frame_timings = profiler.GetHistogram(FrameProfiler.FRAME_SECTION);
+        final TimingHistogram update_timings = profiler.GetHistogram(FrameProfiler.UPDATE_SECTION);
+        System.out.println( String.format("frame mean %.3f ms, p95 %.3f ms; tick mean %.3f ms",
+            frame_timings.GetTotalMean() / NANOSECONDS_PER_MILLISECOND,
+            frame_timings.GetTotalPercentile(SLOW_FRAME_PERCENTILE) / NANOSECONDS_PER_MILLISECOND,
+            update_timings.GetTotalMean() / NANOSECONDS_PER_MILLISECOND) );
+    }
+
+    /**
+     * Description:
+     * 64-bit FNV-1a over the frame's pixels, 32 bits (one ARGB pixel) at a time, row by row.
+     *
+     * Assertives of Entrance:
+     * - The image is TYPE_INT_ARGB, as created by HeadlessView, so its pixels are one int each.
+     */
+    private static long HashPixels(final BufferedImage image){
+        final int[] pixels = ( (DataBufferInt) image.getRaster().getDataBuffer() ).getData();
+
+        long hash = FNV_OFFSET_BASIS;
+        for (final int pixel : pixels) {
+            hash = (hash ^ pixel) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Description:
+     * Folds a 64-bit value into an FNV-1a hash, one byte at a time.
+     */
+    private static long HashLong(final long hash, final long value){
+        long folded_hash = hash;
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            folded_hash = (folded_hash ^ ((value >>> shift) & BYTE_MASK)) * FNV_PRIME;
+        }
+        return folded_hash;
+    }
+
+    /**
+     * Restrictions:
+     * - Exits the application with FAILED_WRITING_FRAME if the image can't be written.
+     */
+    private void WriteFrame(final BufferedImage image, final int frame){
+        final File frame_file = new File( output_directory, String.format(FRAME_FILE_FORMAT, frame) );
+        try {
+            final File directory = frame_file.getParentFile();
+            if ( !directory.isDirectory() && !directory.mkdirs() ) {
+                throw new IOException("Can't create " + directory);
+            }
+            if ( !ImageIO.write(image, FRAME_IMAGE_FORMAT, frame_file) ) {
+                throw new IOException("No " + FRAME_IMAGE_FORMAT + " writer");
+            }
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_WRITING_FRAME, " - " + frame_file.getPath());
+        }
+    }
+}
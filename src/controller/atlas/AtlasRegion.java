@@ -0,0 +1,42 @@
+package controller.atlas;
+
+/**
+ * Description:
+ * 1. Immutable location of one image inside a TextureAtlas: the page holding it and the
+ *    rectangle it covers there, in pixels.
+ */
+public class AtlasRegion {
+    private final int page;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    public AtlasRegion(final int page, final int x, final int y, final int width, final int height){
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int GetPage(){
+        return page;
+    }
+
+    public int GetX(){
+        return x;
+    }
+
+    public int GetY(){
+        return y;
+    }
+
+    public int GetWidth(){
+        return width;
+    }
+
+    public int GetHeight(){
+        return height;
+    }
+}
@@ -0,0 +1,152 @@
+package controller.atlas;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+/**
+ * Description:
+ * 1. Packs rectangles into a fixed-width area using the skyline bottom-left heuristic.
+ * 2. The skyline is the list of horizontal segments formed by the tops of the rectangles
+ *    placed so far; each new rectangle goes where its top edge ends lowest (leftmost on ties).
+ * 3. Inserting rectangles sorted by decreasing height keeps the wasted space small.
+ *
+ * Restrictions:
+ * - Rectangles are never rotated.
+ */
+public class RectanglePacker {
+
+    private final int width;
+    private final int maximum_height;
+
+    // Skyline segments, left to right, covering the whole width: { x, y, segment width }
+    private final ArrayList<int[]> skyline = new ArrayList<>();
+    private static final int SEGMENT_X = 0;
+    private static final int SEGMENT_Y = 1;
+    private static final int SEGMENT_WIDTH = 2;
+
+    private int used_height = 0;
+
+    /**
+     * Parameters:
+     * - width: Width of the packing area, in pixels.
+     * - maximum_height: Height the packed rectangles can't go past, in pixels.
+     */
+    public RectanglePacker(final int width, final int maximum_height){
+        this.width = width;
+        this.maximum_height = maximum_height;
+        skyline.add(new int[]{ 0, 0, width });
+    }
+
+    /**
+     * Description:
+     * Returns the height actually covered by the packed rectangles.
+     */
+    public int GetUsedHeight(){
+        return used_height;
+    }
+
+    /**
+     * Objective: Places a rectangle in the area.
+     *
+     * Description:
+     * 1. For every skyline segment, computes where the rectangle would rest if its left edge
+     *    started there: on top of the highest segment under its width.
+     * 2. Picks the position with the lowest top edge, then the leftmost.
+     * 3. Raises the skyline under the placed rectangle.
+     *
+     * Expected Returns:
+     * - Returns the top-left position of the placed rectangle.
+     * - Returns null when it doesn't fit anywhere; the packer is unchanged then.
+     */
+    public Point Insert(final int rectangle_width, final int rectangle_height){
+        int best_segment = -1;
+        int best_x = 0;
+        int best_y = 0;
+        int best_top = Integer.MAX_VALUE;
+
+        for (int segment = 0; segment < skyline.size(); segment++) {
+            final int x = skyline.get(segment)[SEGMENT_X];
+            final int y = FindRestingHeight(segment, rectangle_width);
+            if (y < 0 || y + rectangle_height > maximum_height) {
+                continue;
+            }
+
+            if (y + rectangle_height < best_top) {
+                best_segment = segment;
+                best_x = x;
+                best_y = y;
+                best_top = y + rectangle_height;
+            }
+        }
+
+        if (best_segment < 0) {
+            return null;
+        }
+
+        RaiseSkyline(best_segment, best_x, best_y + rectangle_height, rectangle_width);
+        used_height = Math.max(used_height, best_top);
+        return new Point(best_x, best_y);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the height at which a rectangle starting at the segment's left edge would rest.
+     * - Returns -1 when the rectangle would go past the area's right edge.
+     */
+    private int FindRestingHeight(final int first_segment, final int rectangle_width){
+        final int x = skyline.get(first_segment)[SEGMENT_X];
+        if (x + rectangle_width > width) {
+            return -1;
+        }
+
+        int resting_height = 0;
+        int covered_width = 0;
+        for (int segment = first_segment; segment < skyline.size() && covered_width < rectangle_width; segment++) {
+            final int[] skyline_segment = skyline.get(segment);
+            resting_height = Math.max(resting_height, skyline_segment[SEGMENT_Y]);
+            covered_width = skyline_segment[SEGMENT_X] + skyline_segment[SEGMENT_WIDTH] - x;
+        }
+        return resting_height;
+    }
+
+    /**
+     * Description:
+     * 1. Inserts a segment for the placed rectangle's top edge.
+     * 2. Shrinks or removes the following segments it now covers.
+     * 3. Merges neighbouring segments of the same height.
+     */
+    private void RaiseSkyline(final int segment, final int x, final int y, final int segment_width){
+        skyline.add(segment, new int[]{ x, y, segment_width });
+
+        final int right_edge = x + segment_width;
+        while (segment + 1 < skyline.size()) {
+            final int[] next_segment = skyline.get(segment + 1);
+            if (next_segment[SEGMENT_X] >= right_edge) {
+                break;
+            }
+
+            final int next_right_edge = next_segment[SEGMENT_X] + next_segment[SEGMENT_WIDTH];
+            if (next_right_edge <= right_edge) {
+                skyline.remove(segment + 1);
+                continue;
+            }
+
+            next_segment[SEGMENT_WIDTH] = next_right_edge - right_edge;
+            next_segment[SEGMENT_X] = right_edge;
+            break;
+        }
+
+        int merged_segment = 0;
+        while (merged_segment + 1 < skyline.size()) {
+            final int[] current = skyline.get(merged_segment);
+            final int[] next = skyline.get(merged_segment + 1);
+            if (current[SEGMENT_Y] == next[SEGMENT_Y]) {
+                current[SEGMENT_WIDTH] += next[SEGMENT_WIDTH];
+                skyline.remove(merged_segment + 1);
+            }
+            else {
+                merged_segment++;
+            }
+        }
+    }
+}
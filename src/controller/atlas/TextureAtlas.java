@@ -0,0 +1,1026 @@
+package controller.atlas;
+
+import controller.files_controllers.ImageController;
+import controller.files_managers.ImageManager;
+import controller.loaders.ImageCache;
+import controller.loaders.ImageLoader;
+import controller.utils.DaemonThreadFactory;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import controller.utils.Settings;
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Point;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+/**
+ * Description:
+ * 1. Singleton that packs every image registered in ImageManager into a few large pages, so
+ *    renderers draw sub-rectangles of a handful of images instead of one image per asset.
+ * 2. Images are packed with RectanglePacker, tallest first, with a transparent padding between
+ *    them so filtering never samples a neighbour.
+ * 3. The packed pages and the region index are cached on disk, under a key derived from every
+ *    image's ID, name, path, size and modification time; when the key still matches on the next
+ *    startup, the pages are read back and packing is skipped.
+ * 4. Pages are created as compatible images of the default screen, when there is one.
+ * 5. Refresh() brings the pages up to date with images reloaded by ImageLoader (hot reload):
+ *    an image that kept its size is redrawn in place, otherwise every image is packed again.
+ *    Each region has a version, so renderers know which of their views are stale.
+ * 6. Once the pages hold every image, ImageLoader's decoded copies are released, so each pixel
+ *    is only resident once; packing again copies the unchanged images from their regions.
+ * 7. In lazy mode (see ImageLoader), the pages are laid out from the images' headers, without
+ *    decoding any, and a page is only made resident when one of its images is asked for: read
+ *    from the disk cache, or drawn from its images, each decoded once. Resident pages are kept in
+ *    an ImageCache bounded by game.image_cache_budget_mb, and Prefetch() hints make them resident
+ *    on the page threads before they're needed.
+ *
+ * Restrictions:
+ * - Build() must be called after ImageLoader finished loading (in lazy mode, it decodes nothing),
+ *   and before any renderer asks for an image.
+ * - In lazy mode, a page a renderer still holds a view of stays in memory after its eviction;
+ *   asking for it again reuses it instead of drawing a second copy.
+ * - Build(), Refresh(), GetImage() and Prefetch() are meant to be called from a single thread
+ *   (the one that renders); only the lazy pages are made resident elsewhere.
+ * - The disk cache is only an optimization: failing to read or write it never stops the game,
+ *   the atlas is packed again instead.
+ */
+public class TextureAtlas {
+    private static TextureAtlas instance;
+
+    public static TextureAtlas GetInstance(){
+        if (instance == null){
+            instance = new TextureAtlas();
+        }
+        return instance;
+    }
+
+    public static final String CACHE_DIRECTORY = "cache/atlas/";
+    private static final String INDEX_FILE_NAME = "index.txt";
+    private static final String PAGE_FILE_PREFIX = "page_";
+    private static final String PAGE_FILE_FORMAT = "png";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    // Bumped whenever the packing or the cache layout changes, so old caches are ignored
+    private static final int CACHE_VERSION = 2;
+    private static final String KEY_ALGORITHM = "SHA-256";
+
+    public static final int MAXIMUM_PAGE_SIZE = 2048;
+    private static final int PADDING = 1;
+
+    // Tokens of the page count line ("pages", count), of a page size line ("page", width, height)
+    // and of an index line (id, page, x, y, width, height)
+    private static final int PAGE_LINE_TOKENS = 2;
+    private static final int PAGE_SIZE_LINE_TOKENS = 3;
+    private static final int INDEX_LINE_TOKENS = 6;
+
+    // Lazy pages are drawn on their own threads, so drawing one never waits for unrelated image loads
+    private static final ExecutorService page_executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                                                      new DaemonThreadFactory("atlas-page-"));
+
+    private final ImageManager image_manager = ImageManager.GetInstance();
+    private final ImageLoader image_loader = ImageLoader.GetInstance();
+
+    private final boolean is_lazy = image_loader.IsLazy();
+
+    // Every page, resident for the whole run (outside lazy mode)
+    private final List<BufferedImage> pages = new ArrayList<>();
+
+    // Indexed by page
+    private int[] page_widths = new int[0];
+    private int[] page_heights = new int[0];
+
+    // Indexed by image ID; the images are views that share their page's pixels (outside lazy mode)
+    private AtlasRegion[] regions = new AtlasRegion[0];
+    private BufferedImage[] region_images = new BufferedImage[0];
+
+    // Lazy mode: the resident pages, keyed by page, and the pages being made resident
+    private final ImageCache<Integer> page_cache = new ImageCache<>( Settings.GetInstance().GetImageCacheBudget() );
+    private final Map<Integer, CompletableFuture<BufferedImage>> pending_pages = new ConcurrentHashMap<>();
+
+    // Lazy mode, indexed by page: the pixels of each page handed out, alive while a view of it is
+    private WeakReference<WritableRaster>[] page_rasters = NewPageRasters(0);
+    private final ColorModel page_color_model = CreatePage(1, 1).getColorModel();
+
+    // Lazy mode: bumped when the layout or the images change, so pages made resident before are dropped
+    private volatile int layout_generation = 0;
+
+    // Lazy mode: whether the disk cache's index matches the layout, so its page files can be read and written
+    private volatile boolean has_disk_index = false;
+    private final Object disk_cache_lock = new Object();
+
+    // Indexed by image ID: the ImageLoader version each region was drawn from, and how many times it changed
+    private int[] drawn_versions = new int[0];
+    private int[] region_versions = new int[0];
+
+    private boolean is_loaded_from_cache = false;
+
+    private TextureAtlas(){}
+
+    /**
+     * Objective: Makes every registered image available from the atlas pages.
+     *
+     * Description:
+     * 1. Computes the cache key of the registered images.
+     * 2. In lazy mode, only lays the pages out (see BuildLayout()).
+     * 3. Otherwise, reads the pages and the index from the disk cache if its key matches, or packs
+     *    the loaded images into new pages and writes them to the disk cache, then creates the
+     *    per-image views into the pages.
+     * 4. Releases ImageLoader's decoded images, now copied into the pages.
+     *
+     * Assertives of Entrance:
+     * - Every image registered in ImageManager is loaded by ImageLoader, unless it's in lazy mode.
+     *
+     * Assertives of Departure:
+     * - GetImage() and GetRegion() answer for every registered image.
+     */
+    public void Build(){
+        final List<ImageController> images = image_manager.GetImages();
+        final String cache_key = ComputeCacheKey(images);
+
+        if (is_lazy) {
+            BuildLayout(images, cache_key);
+        }
+        else {
+            is_loaded_from_cache = ReadCache(images, cache_key);
+            if (!is_loaded_from_cache) {
+                Pack( images, new BufferedImage[0] );
+                WriteCache(cache_key);
+            }
+            CreateRegionImages();
+        }
+
+        drawn_versions = new int[regions.length];
+        region_versions = new int[regions.length];
+        for (final ImageController image : images) {
+            drawn_versions[image.GetID()] = image_loader.GetVersion(image);
+        }
+        image_loader.ReleaseImages();
+    }
+
+    /**
+     * Description:
+     * 1. Takes the layout from the disk cache's index if its key matches.
+     * 2. Otherwise, lays the pages out from the images' sizes, read from their headers, deletes
+     *    the old page files and writes the new index; pages made resident later are written then.
+     * 3. Forgets every resident page.
+     */
+    private void BuildLayout(final List<ImageController> images, final String cache_key){
+        is_loaded_from_cache = ReadIndex(images, cache_key);
+        if (!is_loaded_from_cache) {
+            final int[] image_widths = new int[GetMaximumID(images) + 1];
+            final int[] image_heights = new int[image_widths.length];
+            for (final ImageController image : images) {
+                final Dimension image_size = image_loader.ReadSize(image);
+                image_widths[image.GetID()] = image_size.width;
+                image_heights[image.GetID()] = image_size.height;
+            }
+            Layout(images, image_widths, image_heights);
+        }
+
+        DropResidentPages();
+        synchronized (disk_cache_lock) {
+            has_disk_index = is_loaded_from_cache || ( DeletePageFiles() && WriteIndex(cache_key) );
+        }
+    }
+
+    /**
+     * Description:
+     * Forgets every resident and pending lazy page, so none made resident with the previous
+     * layout or images is handed out again.
+     */
+    private void DropResidentPages(){
+        synchronized (page_cache) {
+            layout_generation++;
+            page_cache.Clear();
+        }
+        pending_pages.clear();
+        page_rasters = NewPageRasters(page_widths.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeakReference<WritableRaster>[] NewPageRasters(final int page_count){
+        return (WeakReference<WritableRaster>[]) new WeakReference<?>[page_count];
+    }
+
+    private void CreateRegionImages(){
+        region_images = new BufferedImage[regions.length];
+        for (int image_id = 0; image_id < regions.length; image_id++) {
+            final AtlasRegion region = regions[image_id];
+            if (region != null) {
+                region_images[image_id] = pages.get( region.GetPage() ).getSubimage( region.GetX(), region.GetY(), region.GetWidth(), region.GetHeight() );
+            }
+        }
+    }
+
+    /**
+     * Objective: Updates the atlas with the images reloaded since it was built or last refreshed.
+     *
+     * Description:
+     * 1. Finds the images whose ImageLoader version differs from the one drawn in the atlas.
+     * 2. If every one of them kept its size, overwrites its region with the new image;
+     *    the views returned by GetImage() share the page's pixels, so they stay valid.
+     * 3. Otherwise, packs every image again, copying the ones that weren't reloaded from their
+     *    current regions, and creates new views; every region's version is incremented, since
+     *    every old view is stale.
+     * 4. Increments the version of each redrawn region, rewrites the disk cache and releases
+     *    ImageLoader's decoded images.
+     * 5. In lazy mode, only resident pages are redrawn in place; a resize lays the pages out
+     *    again instead of packing them (see RefreshLazyPages()).
+     *
+     * Expected Returns:
+     * - Returns true when at least one region changed.
+     * - Returns false when no image was reloaded.
+     *
+     * Assertives of Entrance:
+     * - Build() was called.
+     */
+    public boolean Refresh(){
+        final List<ImageController> images = image_manager.GetImages();
+
+        final List<ImageController> reloaded_images = new ArrayList<>();
+        boolean is_resized = false;
+        for (final ImageController image : images) {
+            if ( image_loader.GetVersion(image) == drawn_versions[image.GetID()] ) {
+                continue;
+            }
+
+            reloaded_images.add(image);
+            final BufferedImage image_data = image_loader.GetImage(image);
+            final AtlasRegion region = regions[image.GetID()];
+            is_resized |= image_data.getWidth() != region.GetWidth() || image_data.getHeight() != region.GetHeight();
+        }
+        if ( reloaded_images.isEmpty() ) {
+            return false;
+        }
+
+        if (is_lazy) {
+            RefreshLazyPages(images, reloaded_images, is_resized);
+        }
+        else if (is_resized) {
+            // The unchanged images are copied from their current regions instead of being decoded again
+            final BufferedImage[] source_images = region_images.clone();
+            for (final ImageController image : reloaded_images) {
+                source_images[image.GetID()] = null;
+            }
+            Pack(images, source_images);
+            CreateRegionImages();
+            for (int image_id = 0; image_id < region_versions.length; image_id++) {
+                region_versions[image_id]++;
+            }
+        }
+        else {
+            for (final ImageController image : reloaded_images) {
+                final AtlasRegion region = regions[image.GetID()];
+                final Graphics2D page_graphics = pages.get( region.GetPage() ).createGraphics();
+                page_graphics.setComposite(AlphaComposite.Src);
+                page_graphics.drawImage(image_loader.GetImage(image), region.GetX(), region.GetY(), null);
+                page_graphics.dispose();
+                region_versions[image.GetID()]++;
+            }
+        }
+
+        for (final ImageController image : reloaded_images) {
+            drawn_versions[image.GetID()] = image_loader.GetVersion(image);
+        }
+        if (!is_lazy) {
+            WriteCache( ComputeCacheKey(images) );
+        }
+        image_loader.ReleaseImages();
+        return true;
+    }
+
+    /**
+     * Objective: Brings the lazy pages up to date with the reloaded images.
+     *
+     * Description:
+     * 1. If an image was resized, lays every page out again, from the reloaded images' sizes and
+     *    the other images' current regions, forgets every resident page and increments every
+     *    region's version.
+     * 2. Otherwise, forgets the pending pages, which may have decoded the old files, and redraws
+     *    each reloaded image in place in its page, if that page is resident.
+     * 3. Deletes the page files and writes the index again, since its key changed.
+     */
+    private void RefreshLazyPages(final List<ImageController> images, final List<ImageController> reloaded_images, final boolean is_resized){
+        final String cache_key = ComputeCacheKey(images);
+
+        if (is_resized) {
+            final int[] image_widths = new int[GetMaximumID(images) + 1];
+            final int[] image_heights = new int[image_widths.length];
+            for (final ImageController image : images) {
+                image_widths[image.GetID()] = regions[image.GetID()].GetWidth();
+                image_heights[image.GetID()] = regions[image.GetID()].GetHeight();
+            }
+            for (final ImageController image : reloaded_images) {
+                final BufferedImage image_data = image_loader.GetImage(image);
+                image_widths[image.GetID()] = image_data.getWidth();
+                image_heights[image.GetID()] = image_data.getHeight();
+            }
+
+            Layout(images, image_widths, image_heights);
+            DropResidentPages();
+            for (int image_id = 0; image_id < region_versions.length; image_id++) {
+                region_versions[image_id]++;
+            }
+        }
+        else {
+            synchronized (page_cache) {
+                layout_generation++;
+            }
+            pending_pages.clear();
+
+            for (final ImageController image : reloaded_images) {
+                final AtlasRegion region = regions[image.GetID()];
+                final BufferedImage page_image = FindResidentPage( region.GetPage() );
+                if (page_image != null) {
+                    final Graphics2D page_graphics = page_image.createGraphics();
+                    page_graphics.setComposite(AlphaComposite.Src);
+                    page_graphics.drawImage(image_loader.GetImage(image), region.GetX(), region.GetY(), null);
+                    page_graphics.dispose();
+                }
+                region_versions[image.GetID()]++;
+            }
+        }
+
+        synchronized (disk_cache_lock) {
+            has_disk_index = DeletePageFiles() && WriteIndex(cache_key);
+        }
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns how many times the image's region was redrawn or moved by Refresh(); a view
+     *   obtained at an older version must be obtained again through GetImage().
+     * - Returns 0 when no image with that ID was packed.
+     */
+    public int GetVersion(final int image_id){
+        if (image_id < 0 || image_id >= region_versions.length) {
+            return 0;
+        }
+        return region_versions[image_id];
+    }
+
+    public boolean IsLoadedFromCache(){
+        return is_loaded_from_cache;
+    }
+
+    public int GetPageCount(){
+        return page_widths.length;
+    }
+
+    /**
+     * Description:
+     * Returns the page, making it resident first in lazy mode.
+     */
+    public BufferedImage GetPage(final int page){
+        return is_lazy ? LoadPage(page) : pages.get(page);
+    }
+
+    /**
+     * Description:
+     * Returns the cache of resident pages used in lazy mode, whose counters show how well its
+     * budget fits.
+     */
+    public ImageCache<Integer> GetPageCache(){
+        return page_cache;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns where the image lies in the atlas pages.
+     * - Returns null when no image with that ID was packed.
+     */
+    public AtlasRegion GetRegion(final int image_id){
+        if (image_id < 0 || image_id >= regions.length) {
+            return null;
+        }
+        return regions[image_id];
+    }
+
+    /**
+     * Description:
+     * 1. Returns the image as a view into its atlas page, so drawing it reads from the page.
+     * 2. In lazy mode, makes the page resident first, blocking while it's read or drawn; the
+     *    view keeps the page in memory for as long as it's held.
+     *
+     * Restrictions:
+     * - Exits the application with IMAGE_NOT_FOUND if the image wasn't packed.
+     */
+    public BufferedImage GetImage(final ImageController image_controller){
+        if ( image_controller == null || image_controller.GetID() >= regions.length || regions[image_controller.GetID()] == null ) {
+            GameExit.Exit(ErrorStatus.IMAGE_NOT_FOUND, " - " + image_controller);
+            return null;
+        }
+
+        if (is_lazy) {
+            final AtlasRegion region = regions[image_controller.GetID()];
+            return LoadPage( region.GetPage() ).getSubimage( region.GetX(), region.GetY(), region.GetWidth(), region.GetHeight() );
+        }
+        return region_images[image_controller.GetID()];
+    }
+
+    /**
+     * Description:
+     * 1. Hints that the images will be drawn soon; does nothing outside lazy mode.
+     * 2. Every page holding one of them that isn't resident nor pending is made resident on the
+     *    page threads.
+     *
+     * Restrictions:
+     * - Hinting more pages than the cache budget evicts the first ones before they're used.
+     */
+    public void Prefetch(final List<ImageController> image_controllers){
+        if (!is_lazy) {
+            return;
+        }
+
+        final Set<Integer> hinted_pages = new HashSet<>();
+        for (final ImageController image_controller : image_controllers) {
+            if ( image_controller == null || image_controller.GetID() >= regions.length || regions[image_controller.GetID()] == null ) {
+                continue;
+            }
+
+            final int page = regions[image_controller.GetID()].GetPage();
+            if ( !hinted_pages.add(page) || page_cache.Contains(page) || GetPinnedRaster(page) != null ) {
+                continue;
+            }
+
+            final CompletableFuture<BufferedImage> own_load = new CompletableFuture<>();
+            if (pending_pages.putIfAbsent(page, own_load) == null) {
+                final AtlasRegion[] layout_regions = regions;
+                final int generation = layout_generation;
+                final int page_width = page_widths[page];
+                final int page_height = page_heights[page];
+                page_executor.execute( () -> ResolvePage(page, page_width, page_height, layout_regions, generation, own_load) );
+            }
+        }
+    }
+
+    /**
+     * Objective: Returns a lazy page, making it resident if needed.
+     *
+     * Description:
+     * 1. Returns the page if it's resident (see FindResidentPage()).
+     * 2. Otherwise, waits for the page's pending load if a prefetch already started it, or reads
+     *    or draws it on the calling thread (see ResolvePage()).
+     * 3. Remembers the page's pixels, so a page evicted while a view of it is held is found again.
+     */
+    private BufferedImage LoadPage(final int page){
+        BufferedImage page_image = FindResidentPage(page);
+        if (page_image != null) {
+            return page_image;
+        }
+
+        final CompletableFuture<BufferedImage> own_load = new CompletableFuture<>();
+        final CompletableFuture<BufferedImage> pending_load = pending_pages.putIfAbsent(page, own_load);
+        if (pending_load != null) {
+            page_image = pending_load.join();
+        }
+        else {
+            page_image = ResolvePage(page, page_widths[page], page_heights[page], regions, layout_generation, own_load);
+        }
+
+        page_rasters[page] = new WeakReference<>( page_image.getRaster() );
+        return page_image;
+    }
+
+    /**
+     * Description:
+     * 1. Returns the page from the page cache if it's there.
+     * 2. Otherwise, if a view of the page is still held, wraps its pixels into a page again and
+     *    puts it back in the cache, so no second copy of the page is drawn.
+     *
+     * Expected Returns:
+     * - Returns null when the page isn't in memory.
+     */
+    private BufferedImage FindResidentPage(final int page){
+        final BufferedImage cached_page = page_cache.Get(page);
+        if (cached_page != null) {
+            return cached_page;
+        }
+
+        final WritableRaster pinned_raster = GetPinnedRaster(page);
+        if (pinned_raster == null) {
+            return null;
+        }
+
+        final BufferedImage pinned_page = new BufferedImage(page_color_model, pinned_raster, page_color_model.isAlphaPremultiplied(), null);
+        page_cache.Put(page, pinned_page);
+        return pinned_page;
+    }
+
+    private WritableRaster GetPinnedRaster(final int page){
+        final WeakReference<WritableRaster> page_raster = page_rasters[page];
+        return page_raster == null ? null : page_raster.get();
+    }
+
+    /**
+     * Objective: Makes a lazy page resident.
+     *
+     * Description:
+     * 1. Reads the page from the disk cache when its index matches the layout.
+     * 2. Otherwise, draws it from its images, each decoded once without going through
+     *    ImageLoader's cache, and writes it to the disk cache.
+     * 3. Puts the page in the page cache, unless the layout or the images changed meanwhile.
+     * 4. Completes the page's pending load, so every caller waiting for it gets the page, and
+     *    removes it from the pending pages.
+     *
+     * Parameters:
+     * - page, page_width, page_height: The page to make resident and its size.
+     * - layout_regions, generation: The layout the page belongs to.
+     * - own_load: The page's pending load, registered by the caller.
+     */
+    private BufferedImage ResolvePage(final int page, final int page_width, final int page_height, final AtlasRegion[] layout_regions,
+                                      final int generation, final CompletableFuture<BufferedImage> own_load){
+        try {
+            BufferedImage page_image = has_disk_index ? ReadPageFile(page, page_width, page_height) : null;
+            if (page_image == null) {
+                page_image = DrawPage(page, page_width, page_height, layout_regions);
+                synchronized (disk_cache_lock) {
+                    if (has_disk_index && generation == layout_generation) {
+                        WritePageFile(page, page_image);
+                    }
+                }
+            }
+
+            synchronized (page_cache) {
+                if (generation == layout_generation) {
+                    page_cache.Put(page, page_image);
+                }
+            }
+            own_load.complete(page_image);
+            return page_image;
+        }
+        finally {
+            own_load.complete(null);
+            pending_pages.remove(page, own_load);
+        }
+    }
+
+    /**
+     * Description:
+     * Creates a page and draws into it every image the layout places on it, decoding each one
+     * through ImageLoader.ReadFile().
+     */
+    private BufferedImage DrawPage(final int page, final int page_width, final int page_height, final AtlasRegion[] layout_regions){
+        final BufferedImage page_image = CreatePage(page_width, page_height);
+        final Graphics2D page_graphics = page_image.createGraphics();
+        for (int image_id = 0; image_id < layout_regions.length; image_id++) {
+            final AtlasRegion region = layout_regions[image_id];
+            if (region != null && region.GetPage() == page) {
+                page_graphics.drawImage(image_loader.ReadFile( image_manager.GetImage(image_id) ), region.GetX(), region.GetY(), null);
+            }
+        }
+        page_graphics.dispose();
+        return page_image;
+    }
+
+    /**
+     * Objective: Packs the loaded images into as few pages as needed.
+     *
+     * Description:
+     * 1. Reads each image's dimensions once, from its source image or from ImageLoader.
+     * 2. Lays the pages out (see Layout()) and creates them.
+     * 3. Draws every image into its page.
+     *
+     * Parameters:
+     * - images: Every registered image.
+     * - source_images: Indexed by image ID: an up-to-date copy of the image to pack, or null (or
+     *   out of range) to get it from ImageLoader.
+     *
+     * Restrictions:
+     * - Only used outside lazy mode, where every image is already decoded.
+     */
+    private void Pack(final List<ImageController> images, final BufferedImage[] source_images){
+        // Indexed by image ID
+        final int[] image_widths = new int[GetMaximumID(images) + 1];
+        final int[] image_heights = new int[image_widths.length];
+        for (final ImageController image : images) {
+            final BufferedImage image_data = GetSourceImage(image, source_images);
+            image_widths[image.GetID()] = image_data.getWidth();
+            image_heights[image.GetID()] = image_data.getHeight();
+        }
+
+        Layout(images, image_widths, image_heights);
+        pages.clear();
+        for (int page = 0; page < page_widths.length; page++) {
+            pages.add( CreatePage(page_widths[page], page_heights[page]) );
+        }
+
+        for (final ImageController image : images) {
+            final AtlasRegion region = regions[image.GetID()];
+            final Graphics2D page_graphics = pages.get( region.GetPage() ).createGraphics();
+            page_graphics.drawImage(GetSourceImage(image, source_images), region.GetX(), region.GetY(), null);
+            page_graphics.dispose();
+        }
+    }
+
+    /**
+     * Objective: Places the images in as few pages as needed, without drawing them.
+     *
+     * Description:
+     * 1. Sorts the images by decreasing height, which keeps the skyline flat.
+     * 2. Chooses the page width: the smallest power of two that fits the widest image and the
+     *    square root of the total area, capped at MAXIMUM_PAGE_SIZE.
+     * 3. Inserts each image (plus padding) into the current page's packer; when it doesn't fit,
+     *    closes the page, trimmed to its used height, and starts a new one. An image bigger than
+     *    a page gets a page of its own size.
+     * 4. Replaces the regions and the page sizes.
+     *
+     * Parameters:
+     * - images: Every registered image.
+     * - image_widths, image_heights: Indexed by image ID: each image's size.
+     */
+    private void Layout(final List<ImageController> images, final int[] image_widths, final int[] image_heights){
+        long total_area = 0;
+        int widest_image = 1;
+        for (final ImageController image : images) {
+            total_area += (long) (image_widths[image.GetID()] + PADDING) * (image_heights[image.GetID()] + PADDING);
+            widest_image = Math.max(widest_image, image_widths[image.GetID()] + PADDING);
+        }
+
+        final List<ImageController> sorted_images = new ArrayList<>(images);
+        sorted_images.sort( (first, second) -> image_heights[second.GetID()] - image_heights[first.GetID()] );
+
+        final int page_width = Math.min( MAXIMUM_PAGE_SIZE, NextPowerOfTwo( Math.max(widest_image, (int) Math.ceil(Math.sqrt(total_area))) ) );
+
+        final AtlasRegion[] new_regions = new AtlasRegion[image_widths.length];
+        final List<Dimension> page_sizes = new ArrayList<>();
+        int current_page_width = page_width;
+        RectanglePacker packer = new RectanglePacker(current_page_width, MAXIMUM_PAGE_SIZE);
+
+        for (final ImageController image : sorted_images) {
+            final int image_width = image_widths[image.GetID()];
+            final int image_height = image_heights[image.GetID()];
+            final int padded_width = image_width + PADDING;
+            final int padded_height = image_height + PADDING;
+
+            Point position = packer.Insert(padded_width, padded_height);
+            if (position == null) {
+                if (packer.GetUsedHeight() > 0) {
+                    page_sizes.add( new Dimension(current_page_width, packer.GetUsedHeight()) );
+                }
+                current_page_width = Math.max(page_width, padded_width);
+                packer = new RectanglePacker( current_page_width, Math.max(MAXIMUM_PAGE_SIZE, padded_height) );
+                position = packer.Insert(padded_width, padded_height);
+            }
+
+            new_regions[image.GetID()] = new AtlasRegion(page_sizes.size(), position.x, position.y, image_width, image_height);
+        }
+        if (packer.GetUsedHeight() > 0) {
+            page_sizes.add( new Dimension(current_page_width, packer.GetUsedHeight()) );
+        }
+
+        regions = new_regions;
+        page_widths = new int[page_sizes.size()];
+        page_heights = new int[page_sizes.size()];
+        for (int page = 0; page < page_sizes.size(); page++) {
+            page_widths[page] = page_sizes.get(page).width;
+            page_heights[page] = page_sizes.get(page).height;
+        }
+    }
+
+    private static int GetMaximumID(final List<ImageController> images){
+        int maximum_id = 0;
+        for (final ImageController image : images) {
+            maximum_id = Math.max(maximum_id, image.GetID());
+        }
+        return maximum_id;
+    }
+
+    private BufferedImage GetSourceImage(final ImageController image, final BufferedImage[] source_images){
+        if (image.GetID() < source_images.length && source_images[image.GetID()] != null) {
+            return source_images[image.GetID()];
+        }
+        return image_loader.GetImage(image);
+    }
+
+    private static int NextPowerOfTwo(final int value){
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Description:
+     * Creates a translucent page, compatible with the default screen when there is one.
+     */
+    private static BufferedImage CreatePage(final int width, final int height){
+        if ( GraphicsEnvironment.isHeadless() ) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                                  .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Description:
+     * 1. Hashes the cache version and, for every image in registration order, its ID, name,
+     *    file path, file size and modification time.
+     * 2. Any added, removed, renamed or edited image file changes the key.
+     *
+     * Expected Returns:
+     * - Returns the key as a hexadecimal string.
+     */
+    private String ComputeCacheKey(final List<ImageController> images){
+        final StringBuilder key_source = new StringBuilder().append(CACHE_VERSION).append('\n');
+        for (final ImageController image : images) {
+            final String file_path = image_manager.GetFilePath(image);
+            final File image_file = new File(file_path);
+            key_source.append( image.GetID() ).append(' ')
+                      .append( image.GetName() ).append(' ')
+                      .append( file_path ).append(' ')
+                      .append( image_file.length() ).append(' ')
+                      .append( image_file.lastModified() ).append('\n');
+        }
+
+        try {
+            final byte[] digest = MessageDigest.getInstance(KEY_ALGORITHM).digest( key_source.toString().getBytes(StandardCharsets.UTF_8) );
+            final StringBuilder key = new StringBuilder();
+            for (final byte digest_byte : digest) {
+                key.append( String.format("%02x", digest_byte) );
+            }
+            return key.toString();
+        }
+        catch (NoSuchAlgorithmException exception) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Objective: Restores the pages and regions from the disk cache.
+     *
+     * Description:
+     * 1. Reads the index (see ReadIndex()).
+     * 2. Reads every page file (see ReadPageFile()).
+     *
+     * Expected Returns:
+     * - Returns true when the atlas was restored.
+     * - Returns false when there is no usable cache; the atlas is left for Pack() then.
+     */
+    private boolean ReadCache(final List<ImageController> images, final String cache_key){
+        if ( !ReadIndex(images, cache_key) ) {
+            return false;
+        }
+
+        final List<BufferedImage> read_pages = new ArrayList<>();
+        for (int page = 0; page < page_widths.length; page++) {
+            final BufferedImage page_image = ReadPageFile(page, page_widths[page], page_heights[page]);
+            if (page_image == null) {
+                return false;
+            }
+            read_pages.add(page_image);
+        }
+
+        pages.clear();
+        pages.addAll(read_pages);
+        return true;
+    }
+
+    /**
+     * Objective: Restores the layout from the disk cache's index.
+     *
+     * Description:
+     * 1. Reads the index: its version and key must match, then come the page count, one
+     *    "page width height" line per page and one "id page x y width height" line per image.
+     * 2. Checks that every registered image has a region that lies inside its page.
+     *
+     * Expected Returns:
+     * - Returns true when the regions and page sizes were replaced by the index's.
+     * - Returns false when there is no usable index; nothing is changed then.
+     */
+    private boolean ReadIndex(final List<ImageController> images, final String cache_key){
+        final Path index_path = Paths.get(CACHE_DIRECTORY, INDEX_FILE_NAME);
+        if ( !Files.isRegularFile(index_path) ) {
+            return false;
+        }
+
+        try (BufferedReader index_reader = Files.newBufferedReader(index_path, StandardCharsets.UTF_8)) {
+            if ( !("version " + CACHE_VERSION).equals(index_reader.readLine()) || !("key " + cache_key).equals(index_reader.readLine()) ) {
+                return false;
+            }
+
+            final String[] page_line = String.valueOf( index_reader.readLine() ).split(" ");
+            if (page_line.length != PAGE_LINE_TOKENS) {
+                return false;
+            }
+            final int page_count = Integer.parseInt(page_line[1]);
+            if (page_count < 0) {
+                return false;
+            }
+
+            final int[] read_page_widths = new int[page_count];
+            final int[] read_page_heights = new int[page_count];
+            for (int page = 0; page < page_count; page++) {
+                final String[] tokens = String.valueOf( index_reader.readLine() ).split(" ");
+                if (tokens.length != PAGE_SIZE_LINE_TOKENS) {
+                    return false;
+                }
+
+                read_page_widths[page] = Integer.parseInt(tokens[1]);
+                read_page_heights[page] = Integer.parseInt(tokens[2]);
+                if (read_page_widths[page] <= 0 || read_page_heights[page] <= 0) {
+                    return false;
+                }
+            }
+
+            final int maximum_id = GetMaximumID(images);
+            final AtlasRegion[] read_regions = new AtlasRegion[maximum_id + 1];
+
+            for (int line = 0; line < images.size(); line++) {
+                final String[] tokens = String.valueOf( index_reader.readLine() ).split(" ");
+                if (tokens.length != INDEX_LINE_TOKENS) {
+                    return false;
+                }
+
+                final int image_id = Integer.parseInt(tokens[0]);
+                final AtlasRegion region = new AtlasRegion( Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]), Integer.parseInt(tokens[3]),
+                                                            Integer.parseInt(tokens[4]), Integer.parseInt(tokens[5]) );
+                if ( image_id < 0 || image_id > maximum_id || region.GetPage() < 0 || region.GetPage() >= page_count ) {
+                    return false;
+                }
+
+                if ( region.GetX() < 0 || region.GetY() < 0 || region.GetWidth() <= 0 || region.GetHeight() <= 0
+                  || region.GetX() + region.GetWidth() > read_page_widths[region.GetPage()]
+                  || region.GetY() + region.GetHeight() > read_page_heights[region.GetPage()] ) {
+                    return false;
+                }
+                read_regions[image_id] = region;
+            }
+
+            for (final ImageController image : images) {
+                if (read_regions[image.GetID()] == null) {
+                    return false;
+                }
+            }
+
+            regions = read_regions;
+            page_widths = read_page_widths;
+            page_heights = read_page_heights;
+            return true;
+        }
+        catch (IOException | NumberFormatException exception) {
+            return false; // A corrupted cache is packed again
+        }
+    }
+
+    /**
+     * Description:
+     * Reads a page file and copies it into a page created by CreatePage().
+     *
+     * Expected Returns:
+     * - Returns the page.
+     * - Returns null when the file is missing, unreadable or not of the given size.
+     */
+    private static BufferedImage ReadPageFile(final int page, final int page_width, final int page_height){
+        try {
+            final File page_path = Paths.get(CACHE_DIRECTORY, PAGE_FILE_PREFIX + page + "." + PAGE_FILE_FORMAT).toFile();
+            if ( !page_path.isFile() ) {
+                return null;
+            }
+
+            final BufferedImage page_file = ImageIO.read(page_path);
+            if (page_file == null || page_file.getWidth() != page_width || page_file.getHeight() != page_height) {
+                return null;
+            }
+
+            final BufferedImage page_image = CreatePage(page_width, page_height);
+            final Graphics2D page_graphics = page_image.createGraphics();
+            page_graphics.drawImage(page_file, 0, 0, null);
+            page_graphics.dispose();
+            return page_image;
+        }
+        catch (IOException exception) {
+            return null; // The page is drawn from its images instead
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Writes every page as a PNG file, then the index, each to a temporary file that is moved
+     *    over the old one, so an interrupted write never leaves a half-written file.
+     * 2. The index is written last: a cache whose pages failed to be written has no matching index.
+     *
+     * Restrictions:
+     * - Failures are ignored; the atlas is simply packed again on the next startup.
+     */
+    private void WriteCache(final String cache_key){
+        for (int page = 0; page < pages.size(); page++) {
+            if ( !WritePageFile(page, pages.get(page)) ) {
+                return;
+            }
+        }
+        WriteIndex(cache_key);
+    }
+
+    /**
+     * Description:
+     * Writes a page as a PNG file, to a temporary file that is moved over the old one.
+     *
+     * Expected Returns:
+     * - Returns false when the page couldn't be written; failures are otherwise ignored.
+     */
+    private static boolean WritePageFile(final int page, final BufferedImage page_image){
+        try {
+            Files.createDirectories( Paths.get(CACHE_DIRECTORY) );
+
+            final Path page_path = Paths.get(CACHE_DIRECTORY, PAGE_FILE_PREFIX + page + "." + PAGE_FILE_FORMAT);
+            final Path temporary_path = Paths.get(page_path + TEMPORARY_SUFFIX);
+            if ( !ImageIO.write(page_image, PAGE_FILE_FORMAT, temporary_path.toFile()) ) {
+                return false;
+            }
+            Files.move(temporary_path, page_path, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        }
+        catch (IOException exception) {
+            return false; // The cache is only an optimization
+        }
+    }
+
+    /**
+     * Description:
+     * Writes the index of the current layout, to a temporary file that is moved over the old one.
+     *
+     * Expected Returns:
+     * - Returns false when the index couldn't be written; failures are otherwise ignored.
+     */
+    private boolean WriteIndex(final String cache_key){
+        try {
+            Files.createDirectories( Paths.get(CACHE_DIRECTORY) );
+
+            final Path index_path = Paths.get(CACHE_DIRECTORY, INDEX_FILE_NAME);
+            final Path temporary_path = Paths.get(index_path + TEMPORARY_SUFFIX);
+            try (BufferedWriter index_writer = Files.newBufferedWriter(temporary_path, StandardCharsets.UTF_8)) {
+                index_writer.write("version " + CACHE_VERSION + "\n");
+                index_writer.write("key " + cache_key + "\n");
+                index_writer.write("pages " + page_widths.length + "\n");
+                for (int page = 0; page < page_widths.length; page++) {
+                    index_writer.write("page " + page_widths[page] + " " + page_heights[page] + "\n");
+                }
+                for (int image_id = 0; image_id < regions.length; image_id++) {
+                    final AtlasRegion region = regions[image_id];
+                    if (region != null) {
+                        index_writer.write(image_id + " " + region.GetPage() + " " + region.GetX() + " " + region.GetY() + " "
+                                         + region.GetWidth() + " " + region.GetHeight() + "\n");
+                    }
+                }
+            }
+            Files.move(temporary_path, index_path, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        }
+        catch (IOException exception) {
+            return false; // The cache is only an optimization
+        }
+    }
+
+    /**
+     * Description:
+     * Deletes every page file, so none laid out for other images is read with a new index.
+     *
+     * Expected Returns:
+     * - Returns false when a page file couldn't be deleted.
+     */
+    private static boolean DeletePageFiles(){
+        final Path cache_directory = Paths.get(CACHE_DIRECTORY);
+        if ( !Files.isDirectory(cache_directory) ) {
+            return true;
+        }
+
+        try (Stream<Path> cache_files = Files.list(cache_directory)) {
+            for (final Path cache_file : (Iterable<Path>) cache_files::iterator) {
+                if ( cache_file.getFileName().toString().startsWith(PAGE_FILE_PREFIX) ) {
+                    Files.delete(cache_file);
+                }
+            }
+            return true;
+        }
+        catch (IOException exception) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package controller.entities;
+
+import controller.maps.CollisionMap;
+import java.util.Arrays;
+
+/**
+ * Description:
+ * 1. Singleton store of every non-player entity (NPC), laid out as a struct of arrays: each
+ *    attribute (position, previous position, velocity, facing, sprite, animation start) is a
+ *    primitive array, and entity i is index i of every array.
+ * 2. Live entities are packed densely in [0, GetCount()): destroying one moves the last entity
+ *    into its slot, so updating and rendering walk the arrays linearly with no holes.
+ * 3. Entities are referred to by IDs that stay valid while they move between slots; an ID maps
+ *    to its slot through a lookup array, and destroyed IDs are pushed onto a free list and
+ *    reused by the next Create().
+ * 4. Update() moves every entity by its velocity, bouncing off the bounds and, when a
+ *    CollisionMap is set, off SOLID tiles, and keeps its facing and the time its animation
+ *    started up to date.
+ * 5. Keeps a SpatialGrid in sync with the slots, incrementally as entities move, for proximity
+ *    and visibility queries.
+ *
+ * Restrictions:
+ * - Slots change when entities are destroyed; slot indexes are only valid until then, IDs stay valid.
+ * - Like the renderers, the store is only used by the game loop or under its frame lock.
+ */
+public class EntityStore {
+    private static EntityStore instance;
+
+    public static EntityStore GetInstance(){
+        if (instance == null){
+            instance = new EntityStore();
+        }
+        return instance;
+    }
+
+    public static final int NO_ENTITY = -1;
+
+    // Half the side of the square every entity occupies for collisions, in tiles, around its position
+    public static final float COLLISION_HALF_SIZE = 0.3f;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int GROWTH_FACTOR = 2;
+
+    // Indexed by slot
+    private float[] positions_x = new float[INITIAL_CAPACITY];
+    private float[] positions_y = new float[INITIAL_CAPACITY];
+    private float[] previous_positions_x = new float[INITIAL_CAPACITY];
+    private float[] previous_positions_y = new float[INITIAL_CAPACITY];
+    private float[] velocities_x = new float[INITIAL_CAPACITY];
+    private float[] velocities_y = new float[INITIAL_CAPACITY];
+    private byte[] facings = new byte[INITIAL_CAPACITY];
+    private int[] sprite_ids = new int[INITIAL_CAPACITY];
+    private double[] animation_start_times = new double[INITIAL_CAPACITY];
+    private int[] slot_entity_ids = new int[INITIAL_CAPACITY];
+
+    // Indexed by entity ID: its slot, or NO_ENTITY once destroyed
+    private int[] entity_slots = new int[INITIAL_CAPACITY];
+
+    // Destroyed IDs, reused last in first out
+    private int[] free_ids = new int[INITIAL_CAPACITY];
+    private int free_id_count = 0;
+    private int next_id = 0;
+
+    private int count = 0;
+
+    private final SpatialGrid spatial_grid = new SpatialGrid(this);
+
+    private float bounds_width = Float.MAX_VALUE;
+    private float bounds_height = Float.MAX_VALUE;
+
+    private CollisionMap collision_map;
+
+    private EntityStore(){
+        spatial_grid.EnsureCapacity(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Description:
+     * Destroys every entity and forgets every ID; the arrays keep their capacity.
+     */
+    public void Clear(){
+        count = 0;
+        free_id_count = 0;
+        next_id = 0;
+        spatial_grid.Clear();
+    }
+
+    /**
+     * Description:
+     * Sets the area entities move in, in tiles; entities bounce off its borders. The spatial
+     * grid is resized to cover it.
+     */
+    public void SetBounds(final float bounds_width, final float bounds_height){
+        this.bounds_width = bounds_width;
+        this.bounds_height = bounds_height;
+        spatial_grid.Reset(bounds_width, bounds_height, count);
+    }
+
+    /**
+     * Description:
+     * Sets the tile properties entities move against: they bounce off SOLID tiles and slow down
+     * over SLOW ones. Null moves them freely within the bounds.
+     */
+    public void SetCollisionMap(final CollisionMap collision_map){
+        this.collision_map = collision_map;
+    }
+
+    public SpatialGrid GetSpatialGrid(){
+        return spatial_grid;
+    }
+
+    /**
+     * Objective: Adds an entity in the first free slot.
+     *
+     * Description:
+     * 1. Grows every array if the slots are full.
+     * 2. Reuses a destroyed ID when there is one, otherwise takes the next new ID.
+     * 3. Stores the entity's attributes in the slot right after the last live entity, and
+     *    inserts it in the spatial grid.
+     *
+     * Parameters:
+     * - sprite_id: Which sprite set (archetype) draws the entity; its meaning is up to the renderer.
+     * - position_x, position_y: The position, in tiles.
+     * - velocity_x, velocity_y: The velocity, in tiles per second.
+     * - time_seconds: The current animation time, when the entity's animation starts.
+     *
+     * Expected Returns:
+     * - Returns the new entity's ID.
+     */
+    public int Create(final int sprite_id, final float position_x, final float position_y, final float velocity_x, final float velocity_y, final double time_seconds){
+        if (count == positions_x.length) {
+            GrowSlots();
+        }
+
+        final int entity_id;
+        if (free_id_count > 0) {
+            entity_id = free_ids[--free_id_count];
+        }
+        else {
+            entity_id = next_id++;
+            if (entity_id == entity_slots.length) {
+                entity_slots = Arrays.copyOf(entity_slots, entity_slots.length * GROWTH_FACTOR);
+                free_ids = Arrays.copyOf(free_ids, free_ids.length * GROWTH_FACTOR);
+            }
+        }
+
+        final int slot = count++;
+        positions_x[slot] = position_x;
+        positions_y[slot] = position_y;
+        previous_positions_x[slot] = position_x;
+        previous_positions_y[slot] = position_y;
+        velocities_x[slot] = velocity_x;
+        velocities_y[slot] = velocity_y;
+        facings[slot] = (byte) Facing.FromMovement(velocity_x, velocity_y, Facing.FRONT).ordinal();
+        sprite_ids[slot] = sprite_id;
+        animation_start_times[slot] = time_seconds;
+        slot_entity_ids[slot] = entity_id;
+        entity_slots[entity_id] = slot;
+        spatial_grid.Insert(slot, position_x, position_y);
+
+        return entity_id;
+    }
+
+    private void GrowSlots(){
+        final int capacity = positions_x.length * GROWTH_FACTOR;
+        positions_x = Arrays.copyOf(positions_x, capacity);
+        positions_y = Arrays.copyOf(positions_y, capacity);
+        previous_positions_x = Arrays.copyOf(previous_positions_x, capacity);
+        previous_positions_y = Arrays.copyOf(previous_positions_y, capacity);
+        velocities_x = Arrays.copyOf(velocities_x, capacity);
+        velocities_y = Arrays.copyOf(velocities_y, capacity);
+        facings = Arrays.copyOf(facings, capacity);
+        sprite_ids = Arrays.copyOf(sprite_ids, capacity);
+        animation_start_times = Arrays.copyOf(animation_start_times, capacity);
+        slot_entity_ids = Arrays.copyOf(slot_entity_ids, capacity);
+        spatial_grid.EnsureCapacity(capacity);
+    }
+
+    /**
+     * Description:
+     * 1. Removes the entity from the spatial grid.
+     * 2. Moves the last live entity into the destroyed entity's slot, keeping the slots dense.
+     * 3. Pushes the destroyed ID onto the free list.
+     *
+     * Expected Returns:
+     * - Returns true when the entity was destroyed.
+     * - Returns false when the ID isn't a live entity.
+     */
+    public boolean Destroy(final int entity_id){
+        if ( !IsAlive(entity_id) ) {
+            return false;
+        }
+
+        final int slot = entity_slots[entity_id];
+        final int last_slot = --count;
+        spatial_grid.Remove(slot);
+        if (slot != last_slot) {
+            positions_x[slot] = positions_x[last_slot];
+            positions_y[slot] = positions_y[last_slot];
+            previous_positions_x[slot] = previous_positions_x[last_slot];
+            previous_positions_y[slot] = previous_positions_y[last_slot];
+            velocities_x[slot] = velocities_x[last_slot];
+            velocities_y[slot] = velocities_y[last_slot];
+            facings[slot] = facings[last_slot];
+            sprite_ids[slot] = sprite_ids[last_slot];
+            animation_start_times[slot] = animation_start_times[last_slot];
+            slot_entity_ids[slot] = slot_entity_ids[last_slot];
+            entity_slots[ slot_entity_ids[slot] ] = slot;
+            spatial_grid.Relocate(last_slot, slot);
+        }
+
+        entity_slots[entity_id] = NO_ENTITY;
+        free_ids[free_id_count++] = entity_id;
+        return true;
+    }
+
+    public boolean IsAlive(final int entity_id){
+        return entity_id >= 0 && entity_id < next_id && entity_slots[entity_id] != NO_ENTITY;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the entity's current slot, or NO_ENTITY when it isn't alive.
+     */
+    public int GetSlot(final int entity_id){
+        return IsAlive(entity_id) ? entity_slots[entity_id] : NO_ENTITY;
+    }
+
+    /**
+     * Description:
+     * Changes a live entity's velocity; its facing follows on the next Update().
+     */
+    public void SetVelocity(final int entity_id, final float velocity_x, final float velocity_y){
+        final int slot = GetSlot(entity_id);
+        if (slot != NO_ENTITY) {
+            velocities_x[slot] = velocity_x;
+            velocities_y[slot] = velocity_y;
+        }
+    }
+
+    /**
+     * Objective: Advances every entity by one fixed update tick.
+     *
+     * Description:
+     * 1. Stores each position as the previous one, for interpolation.
+     * 2. Moves each entity by its velocity, scaled down over SLOW tiles. With a CollisionMap,
+     *    each axis of the movement is swept against the SOLID tiles; an entity stopped by one
+     *    reverses its velocity on that axis.
+     * 3. An entity that crosses a border is put back on it and its velocity on that axis is
+     *    reversed.
+     * 4. Moves each entity to its new cell of the spatial grid, when it changed.
+     * 5. Updates each entity's facing from its velocity; when the facing changes, or the entity
+     *    starts or stops moving, its animation restarts at time_seconds.
+     *
+     * Parameters:
+     * - step_seconds: The fixed duration of a tick, in seconds.
+     * - time_seconds: The current animation time.
+     *
+     * Restrictions:
+     * - Walks the arrays linearly and allocates nothing: it runs on every tick for every entity.
+     */
+    public void Update(final double step_seconds, final double time_seconds){
+        final float step = (float) step_seconds;
+        for (int slot = 0; slot < count; slot++) {
+            final float previous_x = positions_x[slot];
+            final float previous_y = positions_y[slot];
+            final boolean was_moving = previous_x != previous_positions_x[slot] || previous_y != previous_positions_y[slot];
+            previous_positions_x[slot] = previous_x;
+            previous_positions_y[slot] = previous_y;
+
+            float velocity_x = velocities_x[slot];
+            float velocity_y = velocities_y[slot];
+            float position_x = previous_x + velocity_x * step;
+            float position_y = previous_y + velocity_y * step;
+
+            if (collision_map != null) {
+                final float speed_factor = collision_map.GetSpeedFactor(previous_x, previous_y);
+                final float movement_x = velocity_x * step * speed_factor;
+                final float movement_y = velocity_y * step * speed_factor;
+
+                final float top = previous_y - COLLISION_HALF_SIZE;
+                final float bottom = previous_y + COLLISION_HALF_SIZE;
+                final float allowed_x = collision_map.SweepX(previous_x - COLLISION_HALF_SIZE, top, previous_x + COLLISION_HALF_SIZE, bottom, movement_x);
+                position_x = previous_x + allowed_x;
+                final float allowed_y = collision_map.SweepY(position_x - COLLISION_HALF_SIZE, top, position_x + COLLISION_HALF_SIZE, bottom, movement_y);
+                position_y = previous_y + allowed_y;
+
+                if (allowed_x != movement_x) {
+                    velocity_x = -velocity_x;
+                    velocities_x[slot] = velocity_x;
+                }
+                if (allowed_y != movement_y) {
+                    velocity_y = -velocity_y;
+                    velocities_y[slot] = velocity_y;
+                }
+            }
+
+            if (position_x < 0 || position_x > bounds_width) {
+                position_x = Math.max(0, Math.min(position_x, bounds_width));
+                velocity_x = -velocity_x;
+                velocities_x[slot] = velocity_x;
+            }
+            if (position_y < 0 || position_y > bounds_height) {
+                position_y = Math.max(0, Math.min(position_y, bounds_height));
+                velocity_y = -velocity_y;
+                velocities_y[slot] = velocity_y;
+            }
+
+            positions_x[slot] = position_x;
+            positions_y[slot] = position_y;
+            spatial_grid.Move(slot, position_x, position_y);
+
+            final Facing current_facing = Facing.FromOrdinal(facings[slot]);
+            final Facing facing = Facing.FromMovement(position_x - previous_x, position_y - previous_y, current_facing);
+            final boolean is_moving = position_x != previous_x || position_y != previous_y;
+            if (facing != current_facing) {
+                facings[slot] = (byte) facing.ordinal();
+                animation_start_times[slot] = time_seconds;
+            }
+            else if (was_moving != is_moving) {
+                animation_start_times[slot] = time_seconds;
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * Whether the entity moved during the last tick (from its previous position).
+     */
+    public boolean IsMoving(final int slot){
+        return positions_x[slot] != previous_positions_x[slot] || positions_y[slot] != previous_positions_y[slot];
+    }
+
+    public int GetCount(){
+        return count;
+    }
+
+    // Per-slot accessors, for linear iteration over [0, GetCount())
+
+    public float GetPositionX(final int slot){
+        return positions_x[slot];
+    }
+
+    public float GetPositionY(final int slot){
+        return positions_y[slot];
+    }
+
+    public float GetPreviousPositionX(final int slot){
+        return previous_positions_x[slot];
+    }
+
+    public float GetPreviousPositionY(final int slot){
+        return previous_positions_y[slot];
+    }
+
+    public float GetVelocityX(final int slot){
+        return velocities_x[slot];
+    }
+
+    public float GetVelocityY(final int slot){
+        return velocities_y[slot];
+    }
+
+    public int GetFacing(final int slot){
+        return facings[slot];
+    }
+
+    public int GetSpriteID(final int slot){
+        return sprite_ids[slot];
+    }
+
+    public double GetAnimationStartTime(final int slot){
+        return animation_start_times[slot];
+    }
+
+    public int GetEntityID(final int slot){
+        return slot_entity_ids[slot];
+    }
+}
@@ -0,0 +1,39 @@
+package controller.entities;
+
+/**
+ * Description:
+ * 1. The directions a character can face; ordinals index per-direction arrays (sprites, clips)
+ *    and are what EntityStore stores.
+ * 2. FromMovement() picks the direction of a movement's main axis.
+ */
+public enum Facing {
+    FRONT,
+    BACK,
+    LEFT,
+    RIGHT;
+
+    // values() copies the array on every call
+    private static final Facing[] FACINGS = values();
+
+    public static final int COUNT = FACINGS.length;
+
+    public static Facing FromOrdinal(final int ordinal){
+        return FACINGS[ordinal];
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns RIGHT or LEFT when the movement is mostly horizontal, FRONT (down) or BACK (up)
+     *   otherwise.
+     * - Returns current_facing when there is no movement.
+     */
+    public static Facing FromMovement(final float movement_x, final float movement_y, final Facing current_facing){
+        if (movement_x == 0 && movement_y == 0) {
+            return current_facing;
+        }
+        if ( Math.abs(movement_x) > Math.abs(movement_y) ) {
+            return movement_x > 0 ? RIGHT : LEFT;
+        }
+        return movement_y > 0 ? FRONT : BACK;
+    }
+}
@@ -0,0 +1,286 @@
+package controller.entities;
+
+import java.util.Arrays;
+
+/**
+ * Description:
+ * 1. Uniform grid over the map, aligned to tile coordinates, that buckets the EntityStore's
+ *    entities by position so proximity queries only visit nearby cells.
+ * 2. Every cell is a doubly linked list of entity slots, threaded through slot-indexed arrays:
+ *    moving an entity to another cell, adding or removing one takes constant time and allocates
+ *    nothing, so the grid is updated incrementally as entities move.
+ * 3. Answers rectangle, radius and nearest-neighbour queries; results are written into a buffer
+ *    owned by the caller, so queries allocate nothing either.
+ *
+ * Restrictions:
+ * - Owned by the EntityStore, which keeps it in sync with its slots; it's only read from outside.
+ * - Positions are clamped to the grid's bounds, so entities outside the map fall in border cells.
+ */
+public class SpatialGrid {
+
+    public static final int CELL_SIZE = 4; // Tiles per cell side
+
+    // Caps the grid's memory for huge bounds; positions beyond it fall in the border cells
+    private static final int MAXIMUM_CELLS_PER_SIDE = 1024;
+
+    private static final int NO_SLOT = -1;
+
+    private final EntityStore entity_store;
+
+    private int cell_columns = 1;
+    private int cell_rows = 1;
+
+    // Indexed by cell: its first slot, or NO_SLOT
+    private int[] cell_heads = { NO_SLOT };
+
+    // Indexed by slot: the entity's cell and its neighbours in that cell's list
+    private int[] slot_cells = new int[0];
+    private int[] next_slots = new int[0];
+    private int[] previous_slots = new int[0];
+
+    SpatialGrid(final EntityStore entity_store){
+        this.entity_store = entity_store;
+    }
+
+    /**
+     * Description:
+     * 1. Resizes the grid to cover bounds_width x bounds_height tiles, every cell emptied.
+     * 2. Inserts the first entity_count slots again at their current positions.
+     */
+    void Reset(final float bounds_width, final float bounds_height, final int entity_count){
+        cell_columns = CellsPerSide(bounds_width);
+        cell_rows = CellsPerSide(bounds_height);
+        cell_heads = new int[cell_columns * cell_rows];
+        Clear();
+
+        for (int slot = 0; slot < entity_count; slot++) {
+            Insert( slot, entity_store.GetPositionX(slot), entity_store.GetPositionY(slot) );
+        }
+    }
+
+    private static int CellsPerSide(final float bounds_size){
+        return (int) Math.max( 1, Math.min(MAXIMUM_CELLS_PER_SIDE, Math.ceil(bounds_size / CELL_SIZE) + 1) );
+    }
+
+    /**
+     * Description:
+     * Empties every cell, keeping the grid's size.
+     */
+    void Clear(){
+        Arrays.fill(cell_heads, NO_SLOT);
+    }
+
+    void EnsureCapacity(final int capacity){
+        if (slot_cells.length < capacity) {
+            slot_cells = Arrays.copyOf(slot_cells, capacity);
+            next_slots = Arrays.copyOf(next_slots, capacity);
+            previous_slots = Arrays.copyOf(previous_slots, capacity);
+        }
+    }
+
+    private int CellColumn(final float position_x){
+        return Math.max(0, Math.min(cell_columns - 1, (int) (position_x / CELL_SIZE)));
+    }
+
+    private int CellRow(final float position_y){
+        return Math.max(0, Math.min(cell_rows - 1, (int) (position_y / CELL_SIZE)));
+    }
+
+    private int Cell(final float position_x, final float position_y){
+        return CellRow(position_y) * cell_columns + CellColumn(position_x);
+    }
+
+    void Insert(final int slot, final float position_x, final float position_y){
+        Link( slot, Cell(position_x, position_y) );
+    }
+
+    private void Link(final int slot, final int cell){
+        final int head = cell_heads[cell];
+        slot_cells[slot] = cell;
+        previous_slots[slot] = NO_SLOT;
+        next_slots[slot] = head;
+        if (head != NO_SLOT) {
+            previous_slots[head] = slot;
+        }
+        cell_heads[cell] = slot;
+    }
+
+    void Remove(final int slot){
+        final int previous = previous_slots[slot];
+        final int next = next_slots[slot];
+        if (previous != NO_SLOT) {
+            next_slots[previous] = next;
+        }
+        else {
+            cell_heads[ slot_cells[slot] ] = next;
+        }
+        if (next != NO_SLOT) {
+            previous_slots[next] = previous;
+        }
+    }
+
+    /**
+     * Description:
+     * Moves the slot to the cell of its new position, only when the cell changed.
+     *
+     * Restrictions:
+     * - Must not allocate: it runs for every entity on every tick.
+     */
+    void Move(final int slot, final float position_x, final float position_y){
+        final int cell = Cell(position_x, position_y);
+        if (cell != slot_cells[slot]) {
+            Remove(slot);
+            Link(slot, cell);
+        }
+    }
+
+    /**
+     * Description:
+     * Makes the grid refer to an entity by its new slot, after the EntityStore moved it from
+     * old_slot to new_slot (new_slot must have been removed before).
+     */
+    void Relocate(final int old_slot, final int new_slot){
+        final int previous = previous_slots[old_slot];
+        final int next = next_slots[old_slot];
+        slot_cells[new_slot] = slot_cells[old_slot];
+        previous_slots[new_slot] = previous;
+        next_slots[new_slot] = next;
+
+        if (previous != NO_SLOT) {
+            next_slots[previous] = new_slot;
+        }
+        else {
+            cell_heads[ slot_cells[new_slot] ] = new_slot;
+        }
+        if (next != NO_SLOT) {
+            previous_slots[next] = new_slot;
+        }
+    }
+
+    /**
+     * Description:
+     * Finds the entities whose position lies inside the rectangle (inclusive), visiting only the
+     * cells it overlaps.
+     *
+     * Parameters:
+     * - minimum_x, minimum_y, maximum_x, maximum_y: The rectangle, in tiles.
+     * - result_slots: Receives the slots found, up to its length.
+     *
+     * Expected Returns:
+     * - Returns how many entities were found; when it's bigger than result_slots.length, only the
+     *   first result_slots.length were written, and the query can be repeated with a bigger buffer.
+     */
+    public int QueryRectangle(final float minimum_x, final float minimum_y, final float maximum_x, final float maximum_y, final int[] result_slots){
+        int found_count = 0;
+        for (int cell_row = CellRow(minimum_y); cell_row <= CellRow(maximum_y); cell_row++) {
+            for (int cell_column = CellColumn(minimum_x); cell_column <= CellColumn(maximum_x); cell_column++) {
+                for (int slot = cell_heads[cell_row * cell_columns + cell_column]; slot != NO_SLOT; slot = next_slots[slot]) {
+                    final float position_x = entity_store.GetPositionX(slot);
+                    final float position_y = entity_store.GetPositionY(slot);
+                    if (position_x < minimum_x || position_x > maximum_x || position_y < minimum_y || position_y > maximum_y) {
+                        continue;
+                    }
+
+                    if (found_count < result_slots.length) {
+                        result_slots[found_count] = slot;
+                    }
+                    found_count++;
+                }
+            }
+        }
+        return found_count;
+    }
+
+    /**
+     * Description:
+     * Finds the entities within radius tiles of (center_x, center_y), visiting only the cells
+     * overlapping the circle's bounding square.
+     *
+     * Expected Returns:
+     * - Returns how many entities were found, with the same buffer contract as QueryRectangle().
+     */
+    public int QueryRadius(final float center_x, final float center_y, final float radius, final int[] result_slots){
+        final float squared_radius = radius * radius;
+        int found_count = 0;
+        for (int cell_row = CellRow(center_y - radius); cell_row <= CellRow(center_y + radius); cell_row++) {
+            for (int cell_column = CellColumn(center_x - radius); cell_column <= CellColumn(center_x + radius); cell_column++) {
+                for (int slot = cell_heads[cell_row * cell_columns + cell_column]; slot != NO_SLOT; slot = next_slots[slot]) {
+                    final float distance_x = entity_store.GetPositionX(slot) - center_x;
+                    final float distance_y = entity_store.GetPositionY(slot) - center_y;
+                    if (distance_x * distance_x + distance_y * distance_y > squared_radius) {
+                        continue;
+                    }
+
+                    if (found_count < result_slots.length) {
+                        result_slots[found_count] = slot;
+                    }
+                    found_count++;
+                }
+            }
+        }
+        return found_count;
+    }
+
+    /**
+     * Objective: Finds the entity closest to a point.
+     *
+     * Description:
+     * 1. Visits rings of cells around the point's cell, nearest ring first.
+     * 2. Stops once a ring's cells are all farther than the closest entity found (or than
+     *    maximum_radius), since no later ring can hold a closer one.
+     *
+     * Parameters:
+     * - center_x, center_y: The point, in tiles.
+     * - maximum_radius: Entities farther than this are ignored.
+     * - excluded_slot: A slot to ignore (e.g., the entity asking), or EntityStore.NO_ENTITY.
+     *
+     * Expected Returns:
+     * - Returns the closest entity's slot, or EntityStore.NO_ENTITY when none is within maximum_radius.
+     */
+    public int FindNearest(final float center_x, final float center_y, final float maximum_radius, final int excluded_slot){
+        final int center_column = CellColumn(center_x);
+        final int center_row = CellRow(center_y);
+        final int maximum_ring = (int) Math.min( Math.max(cell_columns, cell_rows), Math.ceil(maximum_radius / CELL_SIZE) + 1 );
+
+        int nearest_slot = EntityStore.NO_ENTITY;
+        float nearest_squared_distance = maximum_radius * maximum_radius;
+
+        for (int ring = 0; ring <= maximum_ring; ring++) {
+            // Every cell of this ring is at least this far from the point
+            final float ring_distance = Math.max(0, ring - 1) * CELL_SIZE;
+            if (ring_distance * ring_distance > nearest_squared_distance) {
+                break;
+            }
+
+            for (int cell_row = center_row - ring; cell_row <= center_row + ring; cell_row++) {
+                if (cell_row < 0 || cell_row >= cell_rows) {
+                    continue;
+                }
+
+                // Inner rows only have the ring's two side cells
+                final boolean is_edge_row = cell_row == center_row - ring || cell_row == center_row + ring;
+                final int column_step = is_edge_row || ring == 0 ? 1 : 2 * ring;
+                for (int cell_column = center_column - ring; cell_column <= center_column + ring; cell_column += column_step) {
+                    if (cell_column < 0 || cell_column >= cell_columns) {
+                        continue;
+                    }
+
+                    for (int slot = cell_heads[cell_row * cell_columns + cell_column]; slot != NO_SLOT; slot = next_slots[slot]) {
+                        if (slot == excluded_slot) {
+                            continue;
+                        }
+
+                        final float distance_x = entity_store.GetPositionX(slot) - center_x;
+                        final float distance_y = entity_store.GetPositionY(slot) - center_y;
+                        final float squared_distance = distance_x * distance_x + distance_y * distance_y;
+                        if (squared_distance <= nearest_squared_distance) {
+                            nearest_squared_distance = squared_distance;
+                            nearest_slot = slot;
+                        }
+                    }
+                }
+            }
+        }
+        return nearest_slot;
+    }
+}
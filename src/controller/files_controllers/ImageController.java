@@ -11,4 +11,18 @@ public class ImageController extends Controller{
     public ImageController(final String name){
         super(ImageController.id_tracker++, name);
     }
+
+    /**
+     * Description:
+     * Creates a controller with a known ID (e.g., read from an asset ID file); later controllers
+     * created without an ID get IDs after it.
+     *
+     * Parameters:
+     * - id: The controller's stable ID.
+     * - name: The file name without extension.
+     */
+    public ImageController(final int id, final String name){
+        super(id, name);
+        ImageController.id_tracker = Math.max(ImageController.id_tracker, id + 1);
+    }
 }
\ No newline at end of file
@@ -11,4 +11,18 @@ public class TextFileController extends Controller{
     public TextFileController(final String name){
         super(TextFileController.id_tracker++, name);
     }
+
+    /**
+     * Description:
+     * Creates a controller with a known ID (e.g., read from an asset ID file); later controllers
+     * created without an ID get IDs after it.
+     *
+     * Parameters:
+     * - id: The controller's stable ID.
+     * - name: The file name without extension.
+     */
+    public TextFileController(final int id, final String name){
+        super(id, name);
+        TextFileController.id_tracker = Math.max(TextFileController.id_tracker, id + 1);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,453 @@
+package controller.files_managers;
+
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Description:
+ * 1. Discovers the assets of a directory tree (every file with the given extension inside a
+ *    folder of the tree), so managers don't need to hard-code file names.
+ * 2. Every asset gets a stable ID from the directory's ID file ("assets.ids"), kept with the
+ *    assets: known assets keep their ID, new ones get the next free ID, and IDs are never reused.
+ *    Maps reference tiles by image ID, so the ID file must be committed along with the assets.
+ * 3. The scan result (folders with their modification time, assets with their size and
+ *    modification time) is written to a manifest in the cache directory. On the next startup,
+ *    only the folders whose modification time changed are listed again; the others are read
+ *    from the manifest.
+ *
+ * Restrictions:
+ * - Files directly inside the directory don't belong to a folder and are ignored.
+ * - Folder and asset names must not contain spaces, which separate the files' fields.
+ * - A folder's modification time only changes when entries are added, removed or renamed in
+ *   it, so the sizes and modification times of files edited in place may be stale.
+ * - The manifest is only an optimization: if it can't be read or written, every folder is listed.
+ */
+public class AssetManifest {
+
+    public static final String ID_FILE_NAME = "assets.ids";
+    public static final String MANIFEST_DIRECTORY = "cache/manifests/";
+    private static final String MANIFEST_EXTENSION = ".manifest";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    // Bumped whenever the manifest layout changes, so old manifests are ignored
+    private static final int MANIFEST_VERSION = 1;
+
+    public static final int FIRST_ID = 1;
+    // Tile IDs are stored as shorts, in maps as in TileGrids
+    public static final int MAXIMUM_ID = Short.MAX_VALUE;
+    private static final String ROOT_FOLDER = "";
+    private static final String FOLDER_SEPARATOR = "/";
+
+    // Tokens of the "next_id", "<id> <folder><name>", "folder" and "asset" lines
+    private static final int NEXT_ID_TOKENS = 2;
+    private static final int ID_LINE_TOKENS = 2;
+    private static final int FOLDER_LINE_TOKENS = 3;
+    private static final int ASSET_LINE_TOKENS = 4;
+
+    /**
+     * Description:
+     * One discovered file: its folder, name without extension, stable ID, size and modification time.
+     */
+    public static final class Asset {
+        private final String folder;
+        private final String name;
+        private final long size;
+        private final long modified_time;
+        private int id;
+
+        private Asset(final String folder, final String name, final long size, final long modified_time){
+            this.folder = folder;
+            this.name = name;
+            this.size = size;
+            this.modified_time = modified_time;
+        }
+
+        public String GetFolder(){
+            return folder;
+        }
+
+        public String GetName(){
+            return name;
+        }
+
+        public int GetID(){
+            return id;
+        }
+
+        public long GetSize(){
+            return size;
+        }
+
+        public long GetModifiedTime(){
+            return modified_time;
+        }
+
+        private String GetKey(){
+            return folder + name;
+        }
+    }
+
+    private final String directory;
+    private final String extension;
+
+    // Stable IDs by "<folder><name>" (e.g., "world/grass"), read from and written to the ID file
+    private final Map<String, Integer> asset_ids = new HashMap<>();
+    private int next_id = FIRST_ID;
+
+    // What the previous manifest recorded: folder modification times and assets, by folder
+    private final Map<String, Long> recorded_folder_times = new HashMap<>();
+    private final Map<String, List<Asset>> recorded_folder_assets = new HashMap<>();
+
+    // What this discovery found, by folder (sorted by name)
+    private final TreeMap<String, List<Asset>> folder_assets = new TreeMap<>();
+    private final Map<String, Long> folder_times = new HashMap<>();
+    private int rescanned_folder_count = 0;
+
+    private AssetManifest(final String directory, final String extension){
+        this.directory = directory;
+        this.extension = extension;
+    }
+
+    /**
+     * Objective: Discovers the assets of a directory tree.
+     *
+     * Description:
+     * 1. Reads the directory's ID file and the cached manifest, if they exist.
+     * 2. Walks the folder tree from the directory: folders whose modification time matches the
+     *    manifest reuse its assets and subfolders; the others are listed again.
+     * 3. Gives every new asset the next free ID, in folder and name order, and writes the ID file
+     *    if any was added.
+     * 4. Writes the manifest if any folder was listed again.
+     *
+     * Parameters:
+     * - directory: The tree's base directory, including a trailing slash (e.g., "src/images/").
+     * - extension: The assets' file extension, including the dot (e.g., ".png").
+     *
+     * Expected Returns:
+     * - Returns the discovered assets, grouped by folder.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_ASSET_IDS if the ID file exists but is corrupted, or if
+     *   a new asset would need an ID past MAXIMUM_ID, and with FAILED_WRITING_ASSET_IDS if new IDs
+     *   can't be saved: either would change IDs between runs.
+     */
+    public static AssetManifest Discover(final String directory, final String extension){
+        final AssetManifest manifest = new AssetManifest(directory, extension);
+        manifest.ReadIDs();
+        manifest.ReadManifest();
+        manifest.WalkFolders();
+        if ( manifest.AssignNewIDs() ) {
+            manifest.WriteIDs();
+        }
+        if (manifest.rescanned_folder_count > 0 || !manifest.recorded_folder_times.keySet().equals( manifest.folder_times.keySet() )) {
+            manifest.WriteManifest();
+        }
+        return manifest;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the names of the folders holding at least one asset (e.g., "world/"), sorted.
+     */
+    public List<String> GetFolders(){
+        final List<String> folders = new ArrayList<>();
+        for (final Map.Entry<String, List<Asset>> folder : folder_assets.entrySet()) {
+            if ( !folder.getValue().isEmpty() ) {
+                folders.add( folder.getKey() );
+            }
+        }
+        return folders;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the folder's assets, sorted by ID.
+     */
+    public List<Asset> GetAssets(final String folder){
+        final List<Asset> assets = folder_assets.get(folder);
+        return assets == null ? Collections.emptyList() : Collections.unmodifiableList(assets);
+    }
+
+    /**
+     * Description:
+     * Returns how many folders had to be listed again, instead of being read from the manifest.
+     */
+    public int GetRescannedFolderCount(){
+        return rescanned_folder_count;
+    }
+
+    /**
+     * Description:
+     * 1. Visits the folder tree breadth-first, starting at the directory itself.
+     * 2. A folder whose modification time matches the manifest takes its assets and subfolders
+     *    from it; any other folder is listed.
+     *
+     * Restrictions:
+     * - The walk is bounded by the number of folders in the tree: each is visited once.
+     */
+    private void WalkFolders(){
+        final ArrayDeque<String> pending_folders = new ArrayDeque<>();
+        pending_folders.add(ROOT_FOLDER);
+
+        while ( !pending_folders.isEmpty() ) {
+            final String folder = pending_folders.poll();
+            final File folder_file = new File(directory + folder);
+            final long modified_time = folder_file.lastModified();
+            if ( !folder_file.isDirectory() ) {
+                continue; // Removed since the manifest was written
+            }
+            folder_times.put(folder, modified_time);
+
+            final Long recorded_time = recorded_folder_times.get(folder);
+            if (recorded_time != null && recorded_time == modified_time) {
+                folder_assets.put( folder, new ArrayList<>( recorded_folder_assets.getOrDefault(folder, Collections.emptyList()) ) );
+                for (final String recorded_folder : recorded_folder_times.keySet()) {
+                    if ( IsChildFolder(folder, recorded_folder) ) {
+                        pending_folders.add(recorded_folder);
+                    }
+                }
+                continue;
+            }
+
+            rescanned_folder_count++;
+            final List<Asset> assets = new ArrayList<>();
+            final File[] entries = folder_file.listFiles();
+            if (entries != null) {
+                Arrays.sort(entries, Comparator.comparing(File::getName));
+                for (final File entry : entries) {
+                    if ( entry.isDirectory() ) {
+                        pending_folders.add(folder + entry.getName() + FOLDER_SEPARATOR);
+                    }
+                    else if ( !folder.equals(ROOT_FOLDER) && entry.getName().endsWith(extension) ) {
+                        final String name = entry.getName().substring(0, entry.getName().length() - extension.length());
+                        assets.add( new Asset(folder, name, entry.length(), entry.lastModified()) );
+                    }
+                }
+            }
+            folder_assets.put(folder, assets);
+        }
+    }
+
+    private static boolean IsChildFolder(final String parent_folder, final String folder){
+        if ( folder.length() <= parent_folder.length() || !folder.startsWith(parent_folder) ) {
+            return false;
+        }
+        // The child's name is the rest, with a single separator, at the end
+        return folder.indexOf(FOLDER_SEPARATOR, parent_folder.length()) == folder.length() - 1;
+    }
+
+    /**
+     * Description:
+     * 1. Sets the ID of every asset the ID file knows.
+     * 2. Gives the others the next free IDs, in folder and name order, so two machines adding
+     *    the same assets get the same IDs.
+     * 3. Sorts every folder's assets by ID.
+     *
+     * Expected Returns:
+     * - Returns true when at least one new ID was given.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_ASSET_IDS if a new ID would be past MAXIMUM_ID.
+     */
+    private boolean AssignNewIDs(){
+        boolean has_new_ids = false;
+        for (final List<Asset> assets : folder_assets.values()) {
+            assets.sort( Comparator.comparing(Asset::GetName) );
+            for (final Asset asset : assets) {
+                Integer id = asset_ids.get( asset.GetKey() );
+                if (id == null) {
+                    if (next_id > MAXIMUM_ID) {
+                        GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + directory + " has more than " + MAXIMUM_ID + " assets");
+                    }
+                    id = next_id++;
+                    asset_ids.put(asset.GetKey(), id);
+                    has_new_ids = true;
+                }
+                asset.id = id;
+            }
+            assets.sort( Comparator.comparingInt(Asset::GetID) );
+        }
+        return has_new_ids;
+    }
+
+    private Path GetIDFilePath(){
+        return Paths.get(directory, ID_FILE_NAME);
+    }
+
+    private Path GetManifestPath(){
+        return Paths.get( MANIFEST_DIRECTORY, directory.replaceAll("[^A-Za-z0-9]+", "_") + MANIFEST_EXTENSION );
+    }
+
+    /**
+     * Description:
+     * Reads the ID file: a "next_id <id>" line, then one "<id> <folder><name>" line per asset.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_ASSET_IDS if the file exists but can't be parsed, if
+     *   next_id is outside [FIRST_ID, MAXIMUM_ID + 1], or if an ID or an asset appears twice.
+     */
+    private void ReadIDs(){
+        final Path id_file_path = GetIDFilePath();
+        if ( !Files.isRegularFile(id_file_path) ) {
+            return;
+        }
+
+        try (BufferedReader id_reader = Files.newBufferedReader(id_file_path, StandardCharsets.UTF_8)) {
+            final String[] next_id_tokens = String.valueOf( id_reader.readLine() ).split(" ");
+            if (next_id_tokens.length != NEXT_ID_TOKENS || !next_id_tokens[0].equals("next_id")) {
+                GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + id_file_path);
+            }
+            next_id = Integer.parseInt(next_id_tokens[1]);
+            if (next_id < FIRST_ID || next_id > MAXIMUM_ID + 1) {
+                GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + id_file_path);
+            }
+            final BitSet used_ids = new BitSet(next_id);
+
+            String line = id_reader.readLine();
+            while (line != null) {
+                if ( !line.isEmpty() ) {
+                    final String[] tokens = line.split(" ");
+                    final int id = Integer.parseInt(tokens[0]);
+                    if (tokens.length != ID_LINE_TOKENS || id < FIRST_ID || id >= next_id || used_ids.get(id)) {
+                        GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + id_file_path);
+                    }
+                    used_ids.set(id);
+                    if (asset_ids.put(tokens[1], id) != null) {
+                        GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + id_file_path); // Same asset twice
+                    }
+                }
+                line = id_reader.readLine();
+            }
+        }
+        catch (IOException | NumberFormatException exception) {
+            GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + id_file_path);
+        }
+    }
+
+    /**
+     * Description:
+     * Writes the ID file, sorted by ID, to a temporary file moved over the old one.
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_WRITING_ASSET_IDS if it can't be written.
+     */
+    private void WriteIDs(){
+        final Path id_file_path = GetIDFilePath();
+        final Path temporary_path = Paths.get(id_file_path + TEMPORARY_SUFFIX);
+
+        final TreeMap<Integer, String> keys_by_id = new TreeMap<>();
+        for (final Map.Entry<String, Integer> asset_id : asset_ids.entrySet()) {
+            keys_by_id.put(asset_id.getValue(), asset_id.getKey());
+        }
+
+        try {
+            try (BufferedWriter id_writer = Files.newBufferedWriter(temporary_path, StandardCharsets.UTF_8)) {
+                id_writer.write("next_id " + next_id + "\n");
+                for (final Map.Entry<Integer, String> key : keys_by_id.entrySet()) {
+                    id_writer.write(key.getKey() + " " + key.getValue() + "\n");
+                }
+            }
+            Files.move(temporary_path, id_file_path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_WRITING_ASSET_IDS, " - " + id_file_path);
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Reads the manifest: its version and directory must match, then come "folder <name>
+     *    <modified time>" lines, each followed by its "asset <name> <size> <modified time>" lines.
+     * 2. Leaves nothing recorded if the manifest is missing or can't be parsed.
+     */
+    private void ReadManifest(){
+        final Path manifest_path = GetManifestPath();
+        if ( !Files.isRegularFile(manifest_path) ) {
+            return;
+        }
+
+        try (BufferedReader manifest_reader = Files.newBufferedReader(manifest_path, StandardCharsets.UTF_8)) {
+            if ( !("version " + MANIFEST_VERSION).equals(manifest_reader.readLine())
+              || !("directory " + directory + " " + extension).equals(manifest_reader.readLine()) ) {
+                return;
+            }
+
+            List<Asset> current_assets = null;
+            String current_folder = null;
+            String line = manifest_reader.readLine();
+            while (line != null) {
+                final String[] tokens = line.split(" ", -1);
+                if (tokens[0].equals("folder") && tokens.length == FOLDER_LINE_TOKENS) {
+                    current_folder = tokens[1];
+                    current_assets = new ArrayList<>();
+                    recorded_folder_times.put( current_folder, Long.parseLong(tokens[2]) );
+                    recorded_folder_assets.put(current_folder, current_assets);
+                }
+                else if (tokens[0].equals("asset") && tokens.length == ASSET_LINE_TOKENS && current_assets != null) {
+                    current_assets.add( new Asset(current_folder, tokens[1], Long.parseLong(tokens[2]), Long.parseLong(tokens[3])) );
+                }
+                else {
+                    // An unrecognized line means every folder is listed again
+                    recorded_folder_times.clear();
+                    recorded_folder_assets.clear();
+                    return;
+                }
+                line = manifest_reader.readLine();
+            }
+        }
+        catch (IOException | NumberFormatException exception) {
+            // A corrupted manifest means every folder is listed again
+            recorded_folder_times.clear();
+            recorded_folder_assets.clear();
+        }
+    }
+
+    /**
+     * Description:
+     * Writes the manifest to a temporary file moved over the old one.
+     *
+     * Restrictions:
+     * - Failures are ignored; every folder is simply listed again on the next startup.
+     */
+    private void WriteManifest(){
+        final Path manifest_path = GetManifestPath();
+        final Path temporary_path = Paths.get(manifest_path + TEMPORARY_SUFFIX);
+
+        try {
+            Files.createDirectories( Paths.get(MANIFEST_DIRECTORY) );
+            try (BufferedWriter manifest_writer = Files.newBufferedWriter(temporary_path, StandardCharsets.UTF_8)) {
+                manifest_writer.write("version " + MANIFEST_VERSION + "\n");
+                manifest_writer.write("directory " + directory + " " + extension + "\n");
+                for (final Map.Entry<String, List<Asset>> folder : folder_assets.entrySet()) {
+                    manifest_writer.write("folder " + folder.getKey() + " " + folder_times.get( folder.getKey() ) + "\n");
+                    for (final Asset asset : folder.getValue()) {
+                        manifest_writer.write("asset " + asset.GetName() + " " + asset.GetSize() + " " + asset.GetModifiedTime() + "\n");
+                    }
+                }
+            }
+            Files.move(temporary_path, manifest_path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException exception) {
+            // The manifest is only an optimization
+        }
+    }
+}
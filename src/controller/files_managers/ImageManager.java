@@ -1,16 +1,32 @@
 package controller.files_managers;
 
-import controller.files_controllers.Controller;
 import controller.files_controllers.FolderController;
 import controller.files_controllers.ImageController;
-import java.util.ArrayList;
+import controller.maps.TileProperty;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Description:
  * 1. Singleton manager responsible for registering and organizing all image resources.
  * 2. Extends Manager with directory "src/images/" and extension ".png".
+ * 3. Registers every image found in the directory's folders (e.g., "world/grass.png"), with the
+ *    IDs kept in "src/images/assets.ids".
+ * 4. Reads the tile set's gameplay properties from "src/images/tile.properties": one
+ *    "<folder><name> <property>..." line per image that has any (e.g., "world/wall solid").
+ *    Empty lines and lines starting with '#' are ignored.
+ *
+ * Restrictions:
+ * - The tile properties are read once; editing the file needs a restart, even with hot reload.
  */
-public class ImageManager extends Manager{
+public class ImageManager extends Manager<ImageController>{
 
     private static ImageManager instance;
 
@@ -21,64 +37,100 @@ public class ImageManager extends Manager{
         return instance;
     }
 
-    /**
-     * Description:
-     * Transform a generic Controller ArrayList to a ImageController Arraylist
-     */
-    private ArrayList<ImageController> ToImageControllers(ArrayList<Controller> controllers){
-         final ArrayList<ImageController> images = new ArrayList<>();
-        
-        for (Controller controller : controllers){
-            images.add( (ImageController) controller );
-        }
-        return images;
-    }
+    private static final String DIRECTORY = "src/images/";
+    private static final String EXTENSION = ".png";
+    private static final String TILE_PROPERTIES_FILE_NAME = "tile.properties";
+    private static final String COMMENT_PREFIX = "#";
 
-    private ImageManager(){
-        super("src/images/", ".png");
+    // Property masks (see TileProperty.GetMask()) indexed by image ID
+    private final int[] tile_properties;
 
-        RegisterWorldImages();
-        RegisterMainCharacter();
-    }
-
-    // TODO: maybe this could be even more generic
-    private void RegisterWorldImages(){
-        final FolderController folder = new FolderController("world/");
-
-        final ArrayList<Controller> images = new ArrayList<>();
-        images.add(new ImageController("grass"));
+    private ImageManager(){
+        super(DIRECTORY, EXTENSION);
 
-        RegisterControllers(folder, images);
+        RegisterDiscoveredControllers(ImageController::new);
+        tile_properties = ReadTileProperties();
     }
 
-    // TODO: maybe this could be even more generic
-    private void RegisterMainCharacter(){
-        final FolderController folder = new FolderController("main_character/");
+    /**
+     * Description:
+     * 1. Allocates one property mask per image ID, every one empty.
+     * 2. If the tile properties file exists, reads it line by line: the first token names an
+     *    image by folder and name, and every other token a TileProperty, whose bit is set in the
+     *    image's mask.
+     *
+     * Expected Returns:
+     * - Returns the property masks indexed by image ID.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_TILE_PROPERTIES if the file can't be read, or if a
+     *   line names an unregistered image or an unknown property.
+     */
+    private int[] ReadTileProperties(){
+        int maximum_id = 0;
+        for (final ImageController image : GetImages()) {
+            maximum_id = Math.max(maximum_id, image.GetID());
+        }
+        final int[] properties = new int[maximum_id + 1];
 
-        final ArrayList<Controller> images = new ArrayList<>();
-        images.add(new ImageController("back"));
-        images.add(new ImageController("front"));
-        images.add(new ImageController("left"));
-        images.add(new ImageController("right"));
+        final Path properties_path = Paths.get(DIRECTORY, TILE_PROPERTIES_FILE_NAME);
+        if ( !Files.isRegularFile(properties_path) ) {
+            return properties;
+        }
 
-        RegisterControllers(folder, images);
+        try (BufferedReader properties_reader = Files.newBufferedReader(properties_path, StandardCharsets.UTF_8)) {
+            String line = properties_reader.readLine();
+            while (line != null) {
+                line = line.trim();
+                if ( !line.isEmpty() && !line.startsWith(COMMENT_PREFIX) ) {
+                    final String[] tokens = line.split("\\s+");
+                    final ImageController image = GetControllerByFilePath(DIRECTORY + tokens[0] + EXTENSION);
+                    if (image == null) {
+                        GameExit.Exit(ErrorStatus.INVALID_TILE_PROPERTIES, " - " + tokens[0]);
+                    }
+
+                    for (int token = 1; token < tokens.length; token++) {
+                        final TileProperty property = TileProperty.FromName(tokens[token]);
+                        if (property == null) {
+                            GameExit.Exit(ErrorStatus.INVALID_TILE_PROPERTIES, " - " + tokens[token]);
+                        }
+                        properties[image.GetID()] |= property.GetMask();
+                    }
+                }
+                line = properties_reader.readLine();
+            }
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.INVALID_TILE_PROPERTIES, " - " + properties_path);
+        }
+        return properties;
     }
 
     public ImageController GetImage(final int id){
-        return (ImageController) GetController(id);
+        return GetController(id);
     }
 
     public ImageController GetImage(final String name){
-        return (ImageController) GetController(name);
+        return GetController(name);
     }
 
-    public ArrayList<ImageController> GetFolderImages(final FolderController folder){
-        final ArrayList<Controller> controllers = GetFolderControllers(folder);
-        return ToImageControllers(controllers);
+    public List<ImageController> GetFolderImages(final FolderController folder){
+        return GetFolderControllers(folder);
     }
 
-    public ArrayList<ImageController> GetImages(){
-        final ArrayList<Controller> controllers = GetControllers();
-        return ToImageControllers(controllers);
+    public List<ImageController> GetImages(){
+        return GetControllers();
+    }
+
+    /**
+     * Description:
+     * Returns the property masks indexed by image ID (which are the maps' tile IDs), for
+     * CollisionMap.Compile().
+     *
+     * Restrictions:
+     * - Callers must not modify the returned array.
+     */
+    public int[] GetTileProperties(){
+        return tile_properties;
     }
 }
\ No newline at end of file
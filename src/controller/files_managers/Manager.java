@@ -2,30 +2,49 @@ package controller.files_managers;
 
 import controller.files_controllers.Controller;
 import controller.files_controllers.FolderController;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * Description:
- * 1. Abstract base class that simplifies file management by organizing resources
+ * 1. Abstract generic base class that simplifies file management by organizing resources
  *    into folder-based groups.
- * 2. Stores a map of FolderController to lists of Controller instances.
+ * 2. Stores a map of FolderController to lists of Resource controllers.
  * 3. Provides lookup by ID or name, path resolution, and full file name construction.
- * 4. Subclasses (ImageManager, TextFileManager) register their specific resources
- *    during construction.
+ * 4. Indexes every resource when it's registered (by ID, by name, and with its file path and
+ *    full name precomputed), so every lookup takes constant time however many resources exist.
+ * 5. Subclasses (ImageManager, TextFileManager) register their resources during construction,
+ *    usually every file discovered under their directory (see AssetManifest).
  *
  * Restrictions:
  * - Every file must belong to a specific folder.
  * - Only one file extension is supported per Manager subclass.
+ * - Resource IDs are expected to be small and dense (as given by the controllers' ID trackers),
+ *   since they index an array.
  */
-public abstract class Manager {
+public abstract class Manager<Resource extends Controller> {
     private final String directory;
     private final String extension; // At the moment, only one extension is supported per file type
 
     // Every file MUST belong to a specific folder
     // Folder manipulation isn't important, therefore not implemented
-    private final Map<FolderController, ArrayList<Controller>> resources = new HashMap<>();
+    private final Map<FolderController, List<Resource>> resources = new HashMap<>();
+
+    // Lookup tables, filled by RegisterControllers()
+    private final ArrayList<Resource> all_resources = new ArrayList<>();
+    private final List<Resource> all_resources_view = Collections.unmodifiableList(all_resources);
+    private final ArrayList<Resource> resources_by_id = new ArrayList<>();
+    private final Map<String, Resource> resources_by_name = new HashMap<>();
+    private final Map<Controller, String> file_paths = new HashMap<>();
+    private final Map<Controller, String> file_full_names = new HashMap<>();
+    private final Map<String, Resource> resources_by_path = new HashMap<>();
+    private final ArrayList<String> folder_paths = new ArrayList<>();
 
     /**
      * Parameters:
@@ -39,46 +58,102 @@ public abstract class Manager {
 
     /**
      * Description:
-     * 1. Registers a group of controllers under the given folder controller.
-     * 2. Adds the folder-controllers mapping to the internal resources map.
+     * 1. Discovers every file with the manager's extension under its directory, through an
+     *    AssetManifest.
+     * 2. For each folder holding files, creates a FolderController and one resource controller
+     *    per file, with the file's stable ID, and registers them.
+     *
+     * Parameters:
+     * - controller_factory: Creates a resource controller from its ID and name.
      */
-    protected void RegisterControllers(final FolderController folder_controller, final ArrayList<Controller> controllers){
-        resources.put(folder_controller, controllers);
-    }
+    protected void RegisterDiscoveredControllers(final BiFunction<Integer, String, Resource> controller_factory){
+        final AssetManifest manifest = AssetManifest.Discover(directory, extension);
 
-    public Controller GetController(final int id){
-        for (ArrayList<Controller> controllers : resources.values()){
-            for (Controller controller : controllers){
-                if (controller.GetID() == id){
-                    return controller;
-                }
+        for (final String folder : manifest.GetFolders()){
+            final List<Resource> controllers = new ArrayList<>();
+            for (final AssetManifest.Asset asset : manifest.GetAssets(folder)){
+                controllers.add( controller_factory.apply(asset.GetID(), asset.GetName()) );
             }
+            RegisterControllers(new FolderController(folder), controllers);
         }
-        return null;
     }
 
-    public Controller GetController(final String name){
-        for (ArrayList<Controller> controllers : resources.values()){
-            for (Controller controller : controllers){
-                if (controller.GetName().equals(name)){
-                    return controller;
-                }
+    /**
+     * Description:
+     * 1. Registers a group of controllers under the given folder controller, keeping an
+     *    unmodifiable copy of the list.
+     * 2. Grows the index by ID once, up to the group's largest ID.
+     * 3. Indexes every controller by ID and by name, and precomputes its file path and full name.
+     *
+     * Restrictions:
+     * - When two resources share a name, lookups by name return the first one registered.
+     * - Exits the application with INVALID_ASSET_IDS if an ID is outside
+     *   [AssetManifest.FIRST_ID, AssetManifest.MAXIMUM_ID].
+     */
+    protected void RegisterControllers(final FolderController folder_controller, final List<Resource> controllers){
+        final List<Resource> folder_resources = Collections.unmodifiableList( new ArrayList<>(controllers) );
+        resources.put(folder_controller, folder_resources);
+        folder_paths.add(directory + folder_controller.GetName());
+
+        int maximum_id = AssetManifest.FIRST_ID;
+        for (final Resource controller : folder_resources){
+            final int id = controller.GetID();
+            if (id < AssetManifest.FIRST_ID || id > AssetManifest.MAXIMUM_ID){
+                GameExit.Exit(ErrorStatus.INVALID_ASSET_IDS, " - " + directory + folder_controller.GetName() + controller.GetName() + " has ID " + id);
             }
+            maximum_id = Math.max(maximum_id, id);
         }
-        return null;
-    }
+        if (resources_by_id.size() <= maximum_id){
+            resources_by_id.addAll( Collections.nCopies(maximum_id + 1 - resources_by_id.size(), null) );
+        }
+
+        for (final Resource controller : folder_resources){
+            all_resources.add(controller);
+            resources_by_id.set(controller.GetID(), controller);
+
+            resources_by_name.putIfAbsent(controller.GetName(), controller);
 
-    public ArrayList<Controller> GetFolderControllers(final FolderController folder){
-        final ArrayList<Controller> controllers = resources.get(folder);
-        return controllers != null ? controllers : new ArrayList<>();
+            final String full_name = controller.GetName() + extension;
+            file_full_names.put(controller, full_name);
+            file_paths.put(controller, directory + folder_controller.GetName() + full_name);
+            resources_by_path.put(directory + folder_controller.GetName() + full_name, controller);
+        }
     }
 
-    public ArrayList<Controller> GetControllers(){
-        final ArrayList<Controller> all_controllers = new ArrayList<>();
-        for (ArrayList<Controller> controllers : resources.values()){
-            all_controllers.addAll(controllers);
+    /**
+     * Expected Returns:
+     * - Returns the controller with the given ID, or null when none is registered.
+     */
+    public Resource GetController(final int id){
+        if (id < 0 || id >= resources_by_id.size()){
+            return null;
         }
-        return all_controllers;
+        return resources_by_id.get(id);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the controller with the given name, or null when none is registered.
+     */
+    public Resource GetController(final String name){
+        return resources_by_name.get(name);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns an unmodifiable view of the folder's controllers, empty when the folder isn't registered.
+     */
+    public List<Resource> GetFolderControllers(final FolderController folder){
+        final List<Resource> controllers = resources.get(folder);
+        return controllers != null ? controllers : Collections.<Resource>emptyList();
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns an unmodifiable view of every registered controller, in registration order.
+     */
+    public List<Resource> GetControllers(){
+        return all_resources_view;
     }
 
     /**
@@ -87,12 +162,7 @@ public abstract class Manager {
      * - Returns null when the controller is not registered in any folder.
      */
     public String GetFileFullName(Controller controller){
-        for (Map.Entry<FolderController, ArrayList<Controller>> entry : resources.entrySet()){
-            if ( entry.getValue().contains(controller) ){
-                return controller.GetName() + extension;
-            }
-        }
-        return null;
+        return file_full_names.get(controller);
     }
 
     /**
@@ -101,12 +171,23 @@ public abstract class Manager {
      * - Returns null when the controller is not registered in any folder.
      */
     public String GetFilePath(Controller controller){
-        for (Map.Entry<FolderController, ArrayList<Controller>> entry : resources.entrySet()){
-            if ( entry.getValue().contains(controller) ){
-                final FolderController folder = entry.getKey();
-                return directory + folder.GetName() + controller.GetName() + extension;
-            }
-        }
-        return null;
+        return file_paths.get(controller);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the controller whose file is at the given path (as returned by GetFilePath()).
+     * - Returns null when no registered controller has that file.
+     */
+    public Resource GetControllerByFilePath(final String file_path){
+        return resources_by_path.get(file_path);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the path of every registered folder (e.g., "src/images/world/"), in registration order.
+     */
+    public List<String> GetFolderPaths(){
+        return Collections.unmodifiableList(folder_paths);
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,17 @@
 package controller.files_managers;
 
-import controller.files_controllers.Controller;
 import controller.files_controllers.FolderController;
 import controller.files_controllers.TextFileController;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Description:
  * 1. Singleton manager responsible for registering and organizing all text file resources.
  * 2. Extends Manager with directory "src/persistance/" and extension ".txt".
+ * 3. Registers every text file found in the directory's folders (e.g., "maps/main.txt"), with
+ *    the IDs kept in "src/persistance/assets.ids".
  */
-public class TextFileManager extends Manager{
+public class TextFileManager extends Manager<TextFileController>{
 
     private static TextFileManager instance;
 
@@ -21,50 +22,25 @@ public class TextFileManager extends Manager{
         return instance;
     }
 
-    /**
-     * Description:
-     * Transform a generic Controller ArrayList to a TextFileController Arraylist
-     */
-    private ArrayList<TextFileController> ToTextFileControllers(ArrayList<Controller> controllers){
-        final ArrayList<TextFileController> textfiles = new ArrayList<>();
-        
-        for (Controller controller : controllers){
-            textfiles.add( (TextFileController) controller );
-        }
-        return textfiles;
-    }
-
     private TextFileManager(){
         super("src/persistance/", ".txt");
 
-        RegisterMapTextFiles();
-    }
-
-    // TODO: maybe this could be even more generic
-    private void RegisterMapTextFiles(){
-        final FolderController folder = new FolderController("maps/");
-
-        final ArrayList<Controller> maps = new ArrayList<>();
-        maps.add(new TextFileController("main"));
-
-        RegisterControllers(folder, maps);
+        RegisterDiscoveredControllers(TextFileController::new);
     }
 
     public TextFileController GetTextFile(final int id){
-        return (TextFileController) GetController(id);
+        return GetController(id);
     }
 
     public TextFileController GetTextFile(final String name){
-        return (TextFileController) GetController(name);
+        return GetController(name);
     }
 
-    public ArrayList<TextFileController> GetFolderTextFiles(final FolderController folder){
-        final ArrayList<Controller> controllers = GetFolderControllers(folder);
-        return ToTextFileControllers(controllers);
+    public List<TextFileController> GetFolderTextFiles(final FolderController folder){
+        return GetFolderControllers(folder);
     }
 
-    public ArrayList<TextFileController> GetTextFiles(){
-        final ArrayList<Controller> controllers = GetControllers();
-        return ToTextFileControllers(controllers);
+    public List<TextFileController> GetTextFiles(){
+        return GetControllers();
     }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package controller.loaders;
+
+import controller.files_controllers.Controller;
+import controller.utils.DaemonThreadFactory;
+import controller.utils.Notification;
+import controller.utils.Observer;
+import controller.utils.Settings;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description:
+ * 1. Singleton development tool that reloads assets while the game runs (game.hot_reload).
+ * 2. Watches every folder registered in ImageManager and TextFileManager with a WatchService.
+ * 3. Changed files are collected until no filesystem event arrives for DEBOUNCE_MILLISECONDS,
+ *    so copying a big file (or many) reloads each one once, after the copy ends.
+ * 4. Each changed file is reloaded through its own loader (only that controller's entry), then
+ *    ASSETS_RELOADED is posted, so renderers refresh just the entries whose version changed.
+ *
+ * Restrictions:
+ * - Only files registered at startup are reloaded; new files need a restart to get an ID.
+ * - A file still unreadable after the debounce window exits the application, as at startup.
+ */
+public class AssetWatcher {
+    private static AssetWatcher instance;
+
+    public static AssetWatcher GetInstance(){
+        if (instance == null){
+            instance = new AssetWatcher();
+        }
+        return instance;
+    }
+
+    private static final long DEBOUNCE_MILLISECONDS = 250;
+
+    private final Observer observer = Observer.GetInstance();
+
+    private final Loader<?>[] loaders = { ImageLoader.GetInstance(), TextFileLoader.GetInstance() };
+
+    // Folder watched by each key, to resolve the events' relative file names
+    private final Map<WatchKey, Path> watched_folders = new HashMap<>();
+
+    // Changed controllers waiting for the debounce window to end, with the loader that reloads them
+    private final Map<Controller, Loader<?>> pending_reloads = new LinkedHashMap<>();
+
+    private WatchService watch_service;
+    private Thread watching_thread;
+
+    private AssetWatcher(){}
+
+    /**
+     * Description:
+     * 1. Does nothing unless hot reload is enabled, or if the watcher already started.
+     * 2. Registers every managed folder in a new WatchService, for created and modified files.
+     * 3. Starts the watching thread.
+     *
+     * Expected Returns:
+     * - Returns true when the folders are being watched.
+     * - Returns false when hot reload is disabled or the filesystem can't be watched.
+     *
+     * Assertives of Entrance:
+     * - Every loader finished loading.
+     */
+    public boolean Start(){
+        if ( !Settings.GetInstance().IsHotReloadEnabled() ) {
+            return false;
+        }
+        if (watching_thread != null) {
+            return true;
+        }
+
+        try {
+            watch_service = FileSystems.getDefault().newWatchService();
+            for (final Loader<?> loader : loaders) {
+                for (final String folder_path : loader.GetManager().GetFolderPaths()) {
+                    final Path folder = Paths.get(folder_path);
+                    watched_folders.put( folder.register(watch_service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY), folder );
+                }
+            }
+        }
+        catch (IOException exception) {
+            return false; // Hot reload is a development convenience; the game runs without it
+        }
+
+        watching_thread = new DaemonThreadFactory("asset-watcher-").newThread(this::Watch);
+        watching_thread.start();
+        return true;
+    }
+
+    /**
+     * Description:
+     * 1. Waits for filesystem events: indefinitely while nothing is pending, or for the rest of
+     *    the debounce window otherwise.
+     * 2. Adds the changed files that belong to a registered controller to the pending reloads.
+     * 3. When the window ends without events, reloads every pending controller and posts
+     *    ASSETS_RELOADED.
+     *
+     * Restrictions:
+     * - Runs until the watch service is closed or the thread is interrupted.
+     */
+    private void Watch(){
+        long last_event_time = 0;
+        try {
+            while ( !Thread.currentThread().isInterrupted() ) {
+                final WatchKey watch_key;
+                if ( pending_reloads.isEmpty() ) {
+                    watch_key = watch_service.take();
+                }
+                else {
+                    final long remaining_milliseconds = DEBOUNCE_MILLISECONDS - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - last_event_time);
+                    watch_key = watch_service.poll(Math.max(0, remaining_milliseconds), TimeUnit.MILLISECONDS);
+                }
+
+                if (watch_key == null) {
+                    ReloadPending();
+                    continue;
+                }
+
+                if ( CollectChanges(watch_key) ) {
+                    last_event_time = System.nanoTime();
+                }
+                watch_key.reset();
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when at least one event was about a registered file.
+     */
+    private boolean CollectChanges(final WatchKey watch_key){
+        final Path folder = watched_folders.get(watch_key);
+        boolean has_changes = false;
+
+        for (final WatchEvent<?> event : watch_key.pollEvents()) {
+            if (folder == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+
+            // Managers store paths with forward slashes, whatever the platform
+            final String file_path = folder.resolve( (Path) event.context() ).toString().replace('\\', '/');
+            for (final Loader<?> loader : loaders) {
+                final Controller controller = loader.GetManager().GetControllerByFilePath(file_path);
+                if (controller != null) {
+                    pending_reloads.put(controller, loader);
+                    has_changes = true;
+                }
+            }
+        }
+        return has_changes;
+    }
+
+    private void ReloadPending(){
+        for (final Map.Entry<Controller, Loader<?>> pending_reload : pending_reloads.entrySet()) {
+            pending_reload.getValue().Reload( pending_reload.getKey() );
+        }
+        pending_reloads.clear();
+
+        observer.Post(Notification.ASSETS_RELOADED);
+    }
+
+    /**
+     * Description:
+     * Stops watching; pending reloads are dropped.
+     */
+    public void Stop(){
+        if (watching_thread == null) {
+            return;
+        }
+
+        watching_thread.interrupt();
+        try {
+            watch_service.close();
+        }
+        catch (IOException exception) {
+            // The watching thread is already interrupted
+        }
+        watching_thread = null;
+    }
+}
@@ -0,0 +1,154 @@
+package controller.loaders;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Description:
+ * 1. Cache of decoded images bounded by the bytes their pixels take, used in lazy mode by
+ *    ImageLoader (keyed by image) and by the TextureAtlas (keyed by page).
+ * 2. Images are kept in least recently used order; once the cached bytes go over the budget,
+ *    the least recently used images are evicted until they fit again.
+ * 3. Eviction is size-aware: an image bigger than the whole budget is never cached, so it can't
+ *    flush every other image out.
+ * 4. Counts hits, misses and evictions, so the budget can be tuned.
+ *
+ * Restrictions:
+ * - Every method is synchronized: images are put by the loading threads and read by the
+ *   rendering thread.
+ */
+public class ImageCache<K> {
+
+    private static final int BITS_PER_BYTE = 8;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final boolean ACCESS_ORDER = true;
+
+    private final long memory_budget;
+
+    // Access-ordered: iteration starts at the least recently used image
+    private final LinkedHashMap<K, BufferedImage> cached_images = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, ACCESS_ORDER);
+    private long cached_bytes = 0;
+
+    private long hit_count = 0;
+    private long miss_count = 0;
+    private long eviction_count = 0;
+
+    /**
+     * Parameters:
+     * - memory_budget: Bytes the cached images' pixels may take.
+     */
+    public ImageCache(final long memory_budget){
+        this.memory_budget = memory_budget;
+    }
+
+    /**
+     * Description:
+     * Returns the bytes the image's pixels take once decoded, from its size and pixel depth.
+     */
+    public static long EstimateBytes(final BufferedImage image){
+        final long bytes_per_pixel = (image.getColorModel().getPixelSize() + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+        return (long) image.getWidth() * image.getHeight() * bytes_per_pixel;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the cached image, marking it as the most recently used, and counts a hit.
+     * - Returns null when it isn't cached, and counts a miss.
+     */
+    public synchronized BufferedImage Get(final K image_key){
+        final BufferedImage image = cached_images.get(image_key);
+        if (image == null) {
+            miss_count++;
+        }
+        else {
+            hit_count++;
+        }
+        return image;
+    }
+
+    /**
+     * Description:
+     * Checks whether the image is cached, without counting a hit or a miss nor changing its
+     * recency; used by prefetch hints.
+     */
+    public synchronized boolean Contains(final K image_key){
+        return cached_images.containsKey(image_key);
+    }
+
+    /**
+     * Description:
+     * Returns the cached image, or null, marking it as the most recently used, without counting a
+     * hit or a miss.
+     */
+    public synchronized BufferedImage Peek(final K image_key){
+        return cached_images.get(image_key);
+    }
+
+    /**
+     * Description:
+     * Drops every cached image, without counting evictions.
+     */
+    public synchronized void Clear(){
+        cached_images.clear();
+        cached_bytes = 0;
+    }
+
+    /**
+     * Description:
+     * 1. Skips images bigger than the whole budget.
+     * 2. Stores the image as the most recently used one.
+     * 3. Evicts the least recently used images until the cached bytes fit the budget.
+     */
+    public synchronized void Put(final K image_key, final BufferedImage image){
+        final long image_bytes = EstimateBytes(image);
+        if (image_bytes > memory_budget) {
+            return;
+        }
+
+        final BufferedImage replaced_image = cached_images.put(image_key, image);
+        if (replaced_image != null) {
+            cached_bytes -= EstimateBytes(replaced_image);
+        }
+        cached_bytes += image_bytes;
+
+        final Iterator<Map.Entry<K, BufferedImage>> least_recently_used = cached_images.entrySet().iterator();
+        while (cached_bytes > memory_budget && least_recently_used.hasNext()) {
+            final Map.Entry<K, BufferedImage> evicted = least_recently_used.next();
+            if (evicted.getKey().equals(image_key)) {
+                continue; // The image just put is the most recently used one
+            }
+
+            cached_bytes -= EstimateBytes( evicted.getValue() );
+            least_recently_used.remove();
+            eviction_count++;
+        }
+    }
+
+    public long GetMemoryBudget(){
+        return memory_budget;
+    }
+
+    public synchronized long GetCachedBytes(){
+        return cached_bytes;
+    }
+
+    public synchronized int GetCachedImageCount(){
+        return cached_images.size();
+    }
+
+    public synchronized long GetHitCount(){
+        return hit_count;
+    }
+
+    public synchronized long GetMissCount(){
+        return miss_count;
+    }
+
+    public synchronized long GetEvictionCount(){
+        return eviction_count;
+    }
+}
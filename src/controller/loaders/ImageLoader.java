@@ -6,10 +6,19 @@ import controller.files_managers.ImageManager;
 import controller.files_managers.Manager;
 import controller.utils.ErrorStatus;
 import controller.utils.GameExit;
+import controller.utils.Settings;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 /**
  * Description:
@@ -18,6 +27,13 @@ import javax.imageio.ImageIO;
  * 3. Uses ImageManager as its corresponding manager for file path resolution.
  * 4. Exits the application with descriptive error codes when images are missing,
  *    corrupted, or in unsupported formats.
+ * 5. In lazy mode (game.lazy_images), nothing is decoded at startup: GetImage() decodes an image
+ *    on its first use and keeps it in an ImageCache bounded by game.image_cache_budget_mb, and
+ *    Prefetch() hints let callers decode images on the loading pool before they're needed. The
+ *    TextureAtlas lays its pages out from ReadSize(), which only reads the files' headers, and
+ *    decodes each page's images through ReadFile() when the page is needed.
+ * 6. Otherwise, every image is decoded at startup, and released through ReleaseImages() once the
+ *    TextureAtlas copied them; an image asked for after that is decoded again, without keeping it.
  */
 public class ImageLoader extends Loader<BufferedImage>{
     private static ImageLoader instance;
@@ -29,14 +45,219 @@ public class ImageLoader extends Loader<BufferedImage>{
         return instance;
     }
 
-    private ImageLoader(){}
-    
+    private final boolean is_lazy;
+    private final ImageCache<Controller> image_cache;
+
+    // Images being decoded in lazy mode, so a GetImage() and a Prefetch() of the same image decode it once
+    private final Map<Controller, CompletableFuture<BufferedImage>> pending_loads = new ConcurrentHashMap<>();
+
+    // Whether the images loaded at startup were released (outside lazy mode)
+    private volatile boolean are_images_released = false;
+
+    private ImageLoader(){
+        final Settings settings = Settings.GetInstance();
+        is_lazy = settings.IsLazyImageLoading();
+        image_cache = new ImageCache<>( settings.GetImageCacheBudget() );
+    }
+
+    public boolean IsLazy(){
+        return is_lazy;
+    }
+
+    /**
+     * Description:
+     * Returns the cache used in lazy mode, whose counters show how well its budget fits.
+     */
+    public ImageCache<Controller> GetImageCache(){
+        return image_cache;
+    }
+
+    /**
+     * Description:
+     * 1. Starts loading every image, as Loader.LoadAsync() does.
+     * 2. In lazy mode, loads nothing: images are decoded by GetImage() and Prefetch().
+     */
+    @Override
+    public CompletableFuture<Void> LoadAsync(){
+        if (is_lazy) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return super.LoadAsync();
+    }
+
+    /**
+     * Description:
+     * Stores a reloaded image: in the cache in lazy mode, with the other loaded images otherwise.
+     */
+    @Override
+    protected void StoreData(final Controller image_controller, final BufferedImage image){
+        if (is_lazy) {
+            image_cache.Put(image_controller, image);
+            return;
+        }
+        super.StoreData(image_controller, image);
+    }
+
+    /**
+     * Description:
+     * 1. Outside lazy mode, drops every loaded image, including reloaded ones; called once their
+     *    pixels were copied elsewhere (see TextureAtlas).
+     * 2. Does nothing in lazy mode, whose images are bounded by the cache's budget.
+     */
+    public void ReleaseImages(){
+        if (is_lazy) {
+            return;
+        }
+        are_images_released = true;
+        loaded_resources.clear();
+    }
+
+    /**
+     * Objective: Returns a decoded image, decoding it first in lazy mode if needed.
+     *
+     * Description:
+     * 1. Outside lazy mode, returns the image loaded at startup, or reloaded since. Once the
+     *    images were released, an image that wasn't reloaded since is decoded again on the
+     *    calling thread, and not kept.
+     * 2. Returns the cached image if there is one.
+     * 3. Otherwise, waits for the image's pending decode if a prefetch already started it, or
+     *    decodes it on the calling thread and caches it.
+     *
+     * Restrictions:
+     * - Exits the application with IMAGE_NOT_FOUND if the image isn't registered, and as
+     *   LoadData() does if it can't be decoded.
+     * - In lazy mode, a miss blocks the caller while the image is decoded.
+     */
     public BufferedImage GetImage(final ImageController image_controller){
-        return GetData(image_controller);
+        if (!is_lazy) {
+            if (!are_images_released) {
+                return GetData(image_controller);
+            }
+            final BufferedImage reloaded_image = loaded_resources.get(image_controller);
+            return reloaded_image != null ? reloaded_image : ReadFile(image_controller);
+        }
+
+        final BufferedImage cached_image = image_cache.Get(image_controller);
+        if (cached_image != null) {
+            return cached_image;
+        }
+
+        final CompletableFuture<BufferedImage> own_load = new CompletableFuture<>();
+        final CompletableFuture<BufferedImage> pending_load = pending_loads.putIfAbsent(image_controller, own_load);
+        if (pending_load != null) {
+            return pending_load.join();
+        }
+
+        return Decode(image_controller, own_load);
+    }
+
+    /**
+     * Description:
+     * 1. Hints that the images will be drawn soon; does nothing outside lazy mode.
+     * 2. Every image that isn't cached nor being decoded is decoded on the loading pool and cached.
+     *
+     * Restrictions:
+     * - Prefetching more than the cache budget evicts the first prefetched images before they're used.
+     */
+    public void Prefetch(final List<ImageController> image_controllers){
+        if (!is_lazy) {
+            return;
+        }
+
+        for (final ImageController image_controller : image_controllers) {
+            if ( image_controller == null || image_cache.Contains(image_controller) ) {
+                continue;
+            }
+
+            final CompletableFuture<BufferedImage> own_load = new CompletableFuture<>();
+            if (pending_loads.putIfAbsent(image_controller, own_load) == null) {
+                loading_executor.execute( () -> Decode(image_controller, own_load) );
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Decodes the image through LoadData() and caches it.
+     * 2. Completes the image's pending load, so every caller waiting for it gets the image, and
+     *    removes it from the pending loads.
+     */
+    private BufferedImage Decode(final ImageController image_controller, final CompletableFuture<BufferedImage> own_load){
+        try {
+            final BufferedImage image = ReadFile(image_controller);
+            image_cache.Put(image_controller, image);
+            own_load.complete(image);
+            return image;
+        }
+        finally {
+            own_load.complete(null);
+            pending_loads.remove(image_controller, own_load);
+        }
+    }
+
+    /**
+     * Description:
+     * Decodes the image's file through LoadData() on the calling thread, without keeping it,
+     * exiting as HandleMissingResource() does if the image isn't registered.
+     */
+    public BufferedImage ReadFile(final ImageController image_controller){
+        final String file_path = GetManager().GetFilePath(image_controller);
+        if (file_path == null) {
+            HandleMissingResource(image_controller);
+        }
+        return LoadData(image_controller, file_path);
+    }
+
+    /**
+     * Objective: Reads an image's dimensions without decoding its pixels.
+     *
+     * Description:
+     * 1. Resolves the image's file path; exits as HandleMissingResource() does if it isn't registered.
+     * 2. Finds an ImageIO reader for the file and reads the first image's width and height from
+     *    its header.
+     *
+     * Expected Returns:
+     * - Returns the image's size, the same a decode would give.
+     * - Returns null only if reading fails (after exiting the application).
+     *
+     * Restrictions:
+     * - Exits the application as LoadData() does when the file is missing, unsupported or unreadable.
+     */
+    public Dimension ReadSize(final ImageController image_controller){
+        final String file_path = GetManager().GetFilePath(image_controller);
+        if (file_path == null) {
+            HandleMissingResource(image_controller);
+        }
+
+        final File image_file = new File(file_path);
+        if ( !image_file.exists() ) {
+            GameExit.Exit(ErrorStatus.IMAGE_NOT_FOUND_OR_UNSUPPORTED_FORMAT, " - " + file_path);
+        }
+
+        try (ImageInputStream image_stream = ImageIO.createImageInputStream(image_file)) {
+            final Iterator<ImageReader> image_readers = image_stream == null ? null : ImageIO.getImageReaders(image_stream);
+            if ( image_readers == null || !image_readers.hasNext() ) {
+                GameExit.Exit(ErrorStatus.IMAGE_NOT_FOUND_OR_UNSUPPORTED_FORMAT, " - " + file_path);
+                return null;
+            }
+
+            final ImageReader image_reader = image_readers.next();
+            try {
+                image_reader.setInput(image_stream, true, true);
+                return new Dimension( image_reader.getWidth(0), image_reader.getHeight(0) );
+            }
+            finally {
+                image_reader.dispose();
+            }
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_LOADING_IMAGE, " - " + file_path);
+            return null;
+        }
     }
 
     @Override
-    protected Manager GetManager(){
+    protected Manager<?> GetManager(){
         return ImageManager.GetInstance();
     }
 
@@ -2,49 +2,134 @@ package controller.loaders;
 
 import controller.files_controllers.Controller;
 import controller.files_managers.Manager;
-import java.util.ArrayList;
-import java.util.HashMap;
+import controller.utils.DaemonThreadFactory;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Description:
  * 1. Abstract generic base class that simplifies file loading using the template method pattern.
  * 2. Iterates over all registered controllers from the corresponding manager, loads each
  *    resource from disk via the subclass's LoadData() implementation, and stores results.
- * 3. Provides access to loaded data by controller, delegating missing resource handling
+ * 3. Loads every resource as its own task on a pool shared by all loaders, with one thread per
+ *    available core, so loading takes about as long as the slowest files rather than all of them.
+ * 4. Provides access to loaded data by controller, delegating missing resource handling
  *    to the subclass.
- * 4. Subclasses (ImageLoader, TextFileLoader) define how to get the manager, load data,
+ * 5. Subclasses (ImageLoader, TextFileLoader) define how to get the manager, load data,
  *    and handle missing resources.
+ * 6. Reload() replaces a single resource (e.g., after its file changed) and increments its
+ *    version, so users of the resource can tell their copy is stale.
+ *
+ * Restrictions:
+ * - LoadData() runs on the pool's threads, so it must not touch state shared with other loads.
  */
 public abstract class Loader<Data> {
-    protected final Map<Controller, Data> loaded_resources = new HashMap<>();
+
+    private static final int LOADING_THREADS = Runtime.getRuntime().availableProcessors();
+    protected static final ExecutorService loading_executor = Executors.newFixedThreadPool(LOADING_THREADS, new DaemonThreadFactory("asset-loader-"));
+
+    protected final Map<Controller, Data> loaded_resources = new ConcurrentHashMap<>();
+
+    // How many times each resource was reloaded; resources never reloaded are at version 0
+    private final Map<Controller, Integer> resource_versions = new ConcurrentHashMap<>();
 
     protected Loader(){}
 
-    protected abstract Manager GetManager();
+    protected abstract Manager<?> GetManager();
     protected abstract Data LoadData(final Controller resource_controller, final String file_path);
     protected abstract void HandleMissingResource(final Controller resource_controller);
 
     /**
      * Description:
-     * 1. Obtains the corresponding manager via GetManager().
-     * 2. Retrieves all registered controllers from the manager.
-     * 3. For each controller, resolves the file path and calls LoadData() to load the resource.
-     * 4. Stores each loaded resource in the loaded_resources map keyed by controller.
+     * 1. Starts loading every resource through LoadAsync().
+     * 2. Blocks until all of them are stored.
      *
      * Assertives of Entrance:
      * - The corresponding Manager singleton must be initialized with all resources registered.
      */
     public void Load(){
-        final Manager manager = GetManager();
+        LoadAsync().join();
+    }
 
-        final ArrayList<Controller> controllers = manager.GetControllers();
+    /**
+     * Objective: Loads every registered resource in parallel without blocking the caller.
+     *
+     * Description:
+     * 1. Obtains the corresponding manager via GetManager().
+     * 2. Retrieves all registered controllers from the manager and resolves their file paths on
+     *    the calling thread.
+     * 3. Submits one task per controller to the loading pool; each calls LoadData() and stores
+     *    the result in the loaded_resources map keyed by controller.
+     * 4. Combines the tasks into a single future.
+     *
+     * Expected Returns:
+     * - Returns a future completed once every resource is stored. It completes exceptionally if
+     *   a LoadData() call throws.
+     *
+     * Assertives of Entrance:
+     * - The corresponding Manager singleton must be initialized with all resources registered.
+     *
+     * Assertives of Departure:
+     * - After the returned future completes, GetData() can be called from any thread.
+     */
+    public CompletableFuture<Void> LoadAsync(){
+        final Manager<?> manager = GetManager();
 
-        for (Controller controller : controllers){
+        final List<? extends Controller> controllers = manager.GetControllers();
+
+        final CompletableFuture<?>[] loads = new CompletableFuture<?>[controllers.size()];
+        for (int load = 0; load < loads.length; load++){
+            final Controller controller = controllers.get(load);
             final String file_path = manager.GetFilePath(controller);
-            final Data loaded_data = LoadData(controller, file_path);
-            loaded_resources.put(controller, loaded_data);
+            loads[load] = CompletableFuture.runAsync(() -> {
+                final Data loaded_data = LoadData(controller, file_path);
+                // Concurrent maps can't hold null; a resource that failed to load is reported by GetData()
+                if (loaded_data != null) {
+                    loaded_resources.put(controller, loaded_data);
+                }
+            }, loading_executor);
+        }
+
+        return CompletableFuture.allOf(loads);
+    }
+
+    /**
+     * Description:
+     * 1. Loads the resource again from its file, through LoadData().
+     * 2. Stores it through StoreData() and increments its version.
+     *
+     * Restrictions:
+     * - Exits the application as HandleMissingResource() does if the resource isn't registered,
+     *   and as LoadData() does if its file can't be loaded.
+     */
+    public void Reload(final Controller resource_controller){
+        final String file_path = GetManager().GetFilePath(resource_controller);
+        if (file_path == null) {
+            HandleMissingResource(resource_controller);
+            return;
         }
+
+        final Data loaded_data = LoadData(resource_controller, file_path);
+        if (loaded_data != null) {
+            StoreData(resource_controller, loaded_data);
+        }
+        resource_versions.merge(resource_controller, 1, Integer::sum);
+    }
+
+    /**
+     * Description:
+     * Stores reloaded data; subclasses that don't keep every resource may store it elsewhere.
+     */
+    protected void StoreData(final Controller resource_controller, final Data loaded_data){
+        loaded_resources.put(resource_controller, loaded_data);
+    }
+
+    public int GetVersion(final Controller resource_controller){
+        return resource_versions.getOrDefault(resource_controller, 0);
     }
 
     public Data GetData(final Controller resource_controller) {
@@ -54,4 +139,4 @@ public abstract class Loader<Data> {
         }
         return resource;
     }
-}
\ No newline at end of file
+}
@@ -35,7 +35,7 @@ public class TextFileLoader extends Loader<String>{
     }
 
     @Override
-    protected Manager GetManager(){
+    protected Manager<?> GetManager(){
         return TextFileManager.GetInstance();
     }
 
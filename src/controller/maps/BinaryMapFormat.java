@@ -0,0 +1,503 @@
+package controller.maps;
+
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Description:
+ * 1. Reads and writes the binary map format (".map"), a compact alternative to the text maps
+ *    that loads without building any intermediate String.
+ * 2. Layout (big-endian):
+ *    - Header: magic (int), version (short), index size in bytes (byte), reserved (byte),
+ *      width (int), height (int), layer count (short), region size (short).
+ *    - Palette: entry count (int), then one tile ID (short) per entry.
+ *    - Tiles: one palette index per tile (1 byte when the palette has up to 256 entries,
+ *      2 bytes otherwise), layer by layer. Inside a layer, tiles are grouped in square regions
+ *      of region size x region size tiles (clipped at the map's borders), stored region row by
+ *      region row, and row by row inside each region.
+ * 3. Grouping tiles by region keeps every region contiguous in the file, so a part of the map
+ *    can be read without touching the rest (ReadRegion()).
+ * 4. Reading copies the file into a heap buffer and decodes it straight into a TileGrid; nothing
+ *    stays mapped, so the file can be replaced right after it's read.
+ * 5. Private constructor prevents instantiation.
+ *
+ * Restrictions:
+ * - This class must not be instantiated; all methods are static.
+ */
+public class BinaryMapFormat {
+
+    public static final String MAPS_DIRECTORY = "src/persistance/maps/";
+    // Binary maps derived at runtime from text maps newer than their binary version
+    public static final String CACHE_DIRECTORY = "cache/maps/";
+    public static final String EXTENSION = ".map";
+
+    // "JMAP" in ASCII
+    private static final int MAGIC = 0x4A4D4150;
+    private static final short VERSION = 1;
+
+    public static final int DEFAULT_REGION_SIZE = 64;
+
+    private static final int BYTE_INDEX_SIZE = Byte.BYTES;
+    private static final int SHORT_INDEX_SIZE = Short.BYTES;
+    private static final int MAXIMUM_BYTE_PALETTE_SIZE = 1 << Byte.SIZE;
+    private static final int UNSIGNED_BYTE_MASK = 0xFF;
+
+    // Magic, version, index size, reserved, width, height, layer count, region size and palette entry count
+    private static final int FIXED_HEADER_SIZE = 24;
+
+    private BinaryMapFormat(){}
+
+    /**
+     * Description:
+     * Header and palette of a binary map, plus where its tiles start in the file.
+     */
+    public static class Header {
+        private final int width;
+        private final int height;
+        private final int layer_count;
+        private final int region_size;
+        private final int index_size;
+        private final short[] palette;
+        private final int tiles_offset;
+
+        private Header(final int width, final int height, final int layer_count, final int region_size,
+                       final int index_size, final short[] palette, final int tiles_offset){
+            this.width = width;
+            this.height = height;
+            this.layer_count = layer_count;
+            this.region_size = region_size;
+            this.index_size = index_size;
+            this.palette = palette;
+            this.tiles_offset = tiles_offset;
+        }
+
+        public int GetWidth(){
+            return width;
+        }
+
+        public int GetHeight(){
+            return height;
+        }
+
+        public int GetLayerCount(){
+            return layer_count;
+        }
+
+        public int GetRegionSize(){
+            return region_size;
+        }
+
+        public int GetIndexSize(){
+            return index_size;
+        }
+
+        /**
+         * Restrictions:
+         * - Callers must not modify the returned array.
+         */
+        public short[] GetPalette(){
+            return palette;
+        }
+
+        public int GetTilesOffset(){
+            return tiles_offset;
+        }
+
+        /**
+         * Description:
+         * Returns how many bytes the whole map's tiles would take in memory, as TileGrids.
+         */
+        public long GetTotalBytes(){
+            return (long) width * height * layer_count * Short.BYTES;
+        }
+    }
+
+    /**
+     * Objective: Loads a binary map file into a TileGrid.
+     *
+     * Description:
+     * 1. Reads the whole file into a heap buffer.
+     * 2. Reads and validates the header and palette through ReadHeader().
+     * 3. For every layer and region, decodes each row of palette indices straight into the grid.
+     *
+     * Parameters:
+     * - file_path: Path of the ".map" file.
+     *
+     * Expected Returns:
+     * - Returns the populated TileGrid.
+     * - Returns null only if reading fails (after exiting the application).
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_LOADING_BINARY_MAP if the file can't be read, and with
+     *   INVALID_BINARY_MAP if its contents don't follow the format.
+     */
+    public static TileGrid Read(final String file_path){
+        try {
+            final ByteBuffer map_buffer = ByteBuffer.wrap( Files.readAllBytes(Paths.get(file_path)) );
+            final Header header = ReadHeader(map_buffer, file_path);
+
+            final TileGrid tile_grid = new TileGrid(header.GetWidth(), header.GetHeight(), header.GetLayerCount());
+            final short[] tiles = tile_grid.GetTiles();
+            final byte[] row_indices = new byte[header.GetRegionSize() * header.GetIndexSize()];
+
+            final int region_size = header.GetRegionSize();
+            for (int layer = 0; layer < header.GetLayerCount(); layer++) {
+                final int layer_offset = layer * tile_grid.GetLayerSize();
+                for (int first_row = 0; first_row < header.GetHeight(); first_row += region_size) {
+                    final int last_row = Math.min(first_row + region_size, header.GetHeight());
+                    for (int first_column = 0; first_column < header.GetWidth(); first_column += region_size) {
+                        final int region_width = Math.min(region_size, header.GetWidth() - first_column);
+                        for (int row = first_row; row < last_row; row++) {
+                            map_buffer.get(row_indices, 0, region_width * header.GetIndexSize());
+                            DecodeRow(header, row_indices, region_width, tiles, layer_offset + row * tile_grid.GetStride() + first_column, file_path);
+                        }
+                    }
+                }
+            }
+
+            return tile_grid;
+        }
+        catch (BufferUnderflowException exception) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+            return null;
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_LOADING_BINARY_MAP, " - " + file_path);
+            return null;
+        }
+    }
+
+    /**
+     * Objective: Reads only the header and palette of a binary map file.
+     *
+     * Description:
+     * 1. Reads the fixed part of the header into a small heap buffer through the FileChannel.
+     * 2. Checks the palette's entry count against the file's size, then reads the palette too.
+     * 3. Validates both through ParseHeader(), using the file's size for the tiles check.
+     *
+     * Parameters:
+     * - file_path: Path of the ".map" file.
+     *
+     * Expected Returns:
+     * - Returns the header.
+     * - Returns null only if reading fails (after exiting the application).
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_LOADING_BINARY_MAP if the file can't be read, and with
+     *   INVALID_BINARY_MAP if its header doesn't follow the format.
+     * - Leaves nothing mapped or open, unlike RegionStreamer.Open().
+     */
+    public static Header ReadHeader(final String file_path){
+        try (FileChannel file_channel = FileChannel.open(Paths.get(file_path), StandardOpenOption.READ)) {
+            final long file_size = file_channel.size();
+            final ByteBuffer fixed_buffer = ByteBuffer.allocate(FIXED_HEADER_SIZE);
+            ReadFully(file_channel, fixed_buffer, file_path);
+
+            final int palette_size = fixed_buffer.getInt(FIXED_HEADER_SIZE - Integer.BYTES);
+            if (palette_size <= 0 || palette_size > (file_size - FIXED_HEADER_SIZE) / Short.BYTES) {
+                GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+            }
+
+            final ByteBuffer header_buffer = ByteBuffer.allocate(FIXED_HEADER_SIZE + palette_size * Short.BYTES);
+            fixed_buffer.flip();
+            header_buffer.put(fixed_buffer);
+            ReadFully(file_channel, header_buffer, file_path);
+            header_buffer.flip();
+
+            return ParseHeader(header_buffer, file_size, file_path);
+        }
+        catch (BufferUnderflowException exception) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+            return null;
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_LOADING_BINARY_MAP, " - " + file_path);
+            return null;
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Fills the buffer from the channel's current position.
+     * 2. Every read moves at least one byte unless the file ended, so the loop is bounded by the
+     *    bytes the buffer still needs.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_BINARY_MAP if the file ends before the buffer is full.
+     */
+    private static void ReadFully(final FileChannel file_channel, final ByteBuffer buffer, final String file_path) throws IOException {
+        final int maximum_reads = buffer.remaining();
+        for (int read_count = 0; buffer.hasRemaining(); read_count++) {
+            if (read_count >= maximum_reads || file_channel.read(buffer) <= 0) {
+                GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * Reads the header and palette of a buffer holding the whole file, through ParseHeader().
+     *
+     * Parameters:
+     * - map_buffer: The file's contents, positioned at its start.
+     * - file_path: Only used in error messages.
+     *
+     * Expected Returns:
+     * - Returns the header, with map_buffer positioned at the first tile.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_BINARY_MAP if any check fails.
+     */
+    public static Header ReadHeader(final ByteBuffer map_buffer, final String file_path){
+        return ParseHeader(map_buffer, map_buffer.limit(), file_path);
+    }
+
+    /**
+     * Description:
+     * 1. Reads the header fields and checks the magic number, version, index size and dimensions.
+     * 2. Reads the palette.
+     * 3. Checks the file is big enough to hold every tile.
+     *
+     * Parameters:
+     * - header_buffer: Holds at least the file's header and palette, positioned at the file's start.
+     * - file_size: Size of the whole file in bytes.
+     * - file_path: Only used in error messages.
+     *
+     * Expected Returns:
+     * - Returns the header, with header_buffer positioned right after the palette.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_BINARY_MAP if any check fails.
+     */
+    private static Header ParseHeader(final ByteBuffer header_buffer, final long file_size, final String file_path){
+        if (header_buffer.getInt() != MAGIC || header_buffer.getShort() != VERSION) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+        }
+
+        final int index_size = header_buffer.get();
+        header_buffer.get(); // Reserved
+        final int width = header_buffer.getInt();
+        final int height = header_buffer.getInt();
+        final int layer_count = header_buffer.getShort();
+        final int region_size = header_buffer.getShort();
+        if ( (index_size != BYTE_INDEX_SIZE && index_size != SHORT_INDEX_SIZE) || width <= 0 || height <= 0 || layer_count <= 0 || region_size <= 0 ) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+        }
+
+        final int palette_size = header_buffer.getInt();
+        if (palette_size <= 0 || palette_size > header_buffer.remaining() / Short.BYTES) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+        }
+        final short[] palette = new short[palette_size];
+        header_buffer.asShortBuffer().get(palette);
+        header_buffer.position(header_buffer.position() + palette_size * Short.BYTES);
+
+        final long tiles_size = (long) width * height * layer_count * index_size;
+        if (tiles_size > file_size - header_buffer.position()) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+        }
+
+        return new Header(width, height, layer_count, region_size, index_size, palette, header_buffer.position());
+    }
+
+    /**
+     * Objective: Reads a single region of a binary map, without touching the rest of the file.
+     *
+     * Description:
+     * 1. Calculates the region's dimensions, clipped at the map's borders.
+     * 2. For every layer, moves to the region's data through ComputeRegionOffset() and decodes
+     *    it row by row into a TileGrid of the region's size.
+     *
+     * Parameters:
+     * - map_buffer: The file's contents. Its position is changed, so concurrent readers must
+     *   each use their own duplicate() of the buffer.
+     * - header: The map's header, as returned by ReadHeader().
+     * - first_column, first_row: The region's first tile; multiples of the header's region size.
+     * - file_path: Only used in error messages.
+     *
+     * Expected Returns:
+     * - Returns a TileGrid with the region's tiles, whose (0, 0) cell is the map's
+     *   (first_column, first_row) cell.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_BINARY_MAP if an index is outside the palette.
+     * - Only supports files up to 2 GB, the limit of a ByteBuffer position.
+     */
+    public static TileGrid ReadRegion(final ByteBuffer map_buffer, final Header header, final int first_column, final int first_row, final String file_path){
+        final int region_width = Math.min(header.GetRegionSize(), header.GetWidth() - first_column);
+        final int region_height = Math.min(header.GetRegionSize(), header.GetHeight() - first_row);
+
+        final TileGrid region = new TileGrid(region_width, region_height, header.GetLayerCount());
+        final byte[] row_indices = new byte[region_width * header.GetIndexSize()];
+        final long layer_tile_count = (long) header.GetWidth() * header.GetHeight();
+
+        for (int layer = 0; layer < header.GetLayerCount(); layer++) {
+            final long region_tile = layer * layer_tile_count + ComputeRegionOffset(header, first_column, first_row);
+            map_buffer.position( (int) (header.GetTilesOffset() + region_tile * header.GetIndexSize()) );
+
+            for (int row = 0; row < region_height; row++) {
+                map_buffer.get(row_indices, 0, row_indices.length);
+                DecodeRow(header, row_indices, region_width, region.GetTiles(), layer * region.GetLayerSize() + row * region.GetStride(), file_path);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Description:
+     * Translates one row of palette indices into tile IDs, writing them from tiles[tiles_offset] on.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_BINARY_MAP if an index is outside the palette.
+     */
+    private static void DecodeRow(final Header header, final byte[] row_indices, final int tile_count,
+                                 final short[] tiles, final int tiles_offset, final String file_path){
+        final short[] palette = header.GetPalette();
+        if (header.GetIndexSize() == BYTE_INDEX_SIZE) {
+            for (int tile = 0; tile < tile_count; tile++) {
+                final int palette_index = row_indices[tile] & UNSIGNED_BYTE_MASK;
+                if (palette_index >= palette.length) {
+                    GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+                }
+                tiles[tiles_offset + tile] = palette[palette_index];
+            }
+            return;
+        }
+
+        for (int tile = 0; tile < tile_count; tile++) {
+            final int high_byte = row_indices[tile * SHORT_INDEX_SIZE] & UNSIGNED_BYTE_MASK;
+            final int low_byte = row_indices[tile * SHORT_INDEX_SIZE + 1] & UNSIGNED_BYTE_MASK;
+            final int palette_index = (high_byte << Byte.SIZE) | low_byte;
+            if (palette_index >= palette.length) {
+                GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+            }
+            tiles[tiles_offset + tile] = palette[palette_index];
+        }
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the position, in tiles from the start of the layer's data, where the region
+     *   starting at (first_column, first_row) is stored. Multiply by the index size for bytes.
+     *
+     * Assertives of Entrance:
+     * - first_column and first_row are multiples of the header's region size.
+     */
+    private static long ComputeRegionOffset(final Header header, final int first_column, final int first_row){
+        final int region_height = Math.min(header.GetRegionSize(), header.GetHeight() - first_row);
+        return (long) first_row * header.GetWidth() + (long) first_column * region_height;
+    }
+
+    /**
+     * Objective: Saves a TileGrid in the binary map format.
+     *
+     * Description:
+     * 1. Builds the palette from the distinct tile IDs of the grid, in order of appearance.
+     * 2. Writes the header, the palette and every tile's palette index, region by region, to a
+     *    temporary file next to the destination.
+     * 3. Moves the temporary file over the destination, so a failed write never leaves a
+     *    truncated map behind.
+     *
+     * Parameters:
+     * - tile_grid: The map to save.
+     * - file_path: Path of the ".map" file to create or replace.
+     * - region_size: Side of the regions, in tiles (e.g., DEFAULT_REGION_SIZE).
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_WRITING_BINARY_MAP if the file can't be written.
+     */
+    public static void Write(final TileGrid tile_grid, final String file_path, final int region_size){
+        if ( !TryWrite(tile_grid, file_path, region_size) ) {
+            GameExit.Exit(ErrorStatus.FAILED_WRITING_BINARY_MAP, " - " + file_path);
+        }
+    }
+
+    /**
+     * Objective: Saves a TileGrid in the binary map format, for callers that can do without the file.
+     *
+     * Description:
+     * Same as Write(), but reports a failed write instead of exiting, and deletes its temporary file.
+     *
+     * Expected Returns:
+     * - Returns true when the file was written; false otherwise, with the destination unchanged.
+     */
+    public static boolean TryWrite(final TileGrid tile_grid, final String file_path, final int region_size){
+        final short[] tiles = tile_grid.GetTiles();
+
+        final int[] palette_indices = new int[tile_grid.GetMaximumTile() + 1];
+        final short[] palette = new short[palette_indices.length];
+        int palette_size = 0;
+        for (final short tile : tiles) {
+            if (palette_indices[tile] == 0) {
+                palette[palette_size] = tile;
+                palette_size++;
+                palette_indices[tile] = palette_size; // Stored + 1, so 0 means "not in the palette yet"
+            }
+        }
+        final int index_size = palette_size <= MAXIMUM_BYTE_PALETTE_SIZE ? BYTE_INDEX_SIZE : SHORT_INDEX_SIZE;
+
+        final Path destination = Paths.get(file_path);
+        final Path temporary_file = Paths.get(file_path + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream( new BufferedOutputStream(Files.newOutputStream(temporary_file)) )) {
+                output.writeInt(MAGIC);
+                output.writeShort(VERSION);
+                output.writeByte(index_size);
+                output.writeByte(0); // Reserved
+                output.writeInt(tile_grid.GetWidth());
+                output.writeInt(tile_grid.GetHeight());
+                output.writeShort(tile_grid.GetLayerCount());
+                output.writeShort(region_size);
+
+                output.writeInt(palette_size);
+                for (int palette_index = 0; palette_index < palette_size; palette_index++) {
+                    output.writeShort(palette[palette_index]);
+                }
+
+                for (int layer = 0; layer < tile_grid.GetLayerCount(); layer++) {
+                    for (int first_row = 0; first_row < tile_grid.GetHeight(); first_row += region_size) {
+                        final int last_row = Math.min(first_row + region_size, tile_grid.GetHeight());
+                        for (int first_column = 0; first_column < tile_grid.GetWidth(); first_column += region_size) {
+                            final int last_column = Math.min(first_column + region_size, tile_grid.GetWidth());
+                            for (int row = first_row; row < last_row; row++) {
+                                for (int column = first_column; column < last_column; column++) {
+                                    final int palette_index = palette_indices[ tile_grid.GetTile(layer, column, row) ] - 1;
+                                    if (index_size == BYTE_INDEX_SIZE) {
+                                        output.writeByte(palette_index);
+                                    }
+                                    else {
+                                        output.writeShort(palette_index);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            Files.move(temporary_file, destination, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        }
+        catch (IOException exception) {
+            try {
+                Files.deleteIfExists(temporary_file);
+            }
+            catch (IOException delete_exception) {
+                // A leftover temporary file is never read
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package controller.maps;
+
+import java.util.Arrays;
+
+/**
+ * Description:
+ * 1. The current map's tile properties compiled into packed bitsets: one long[] per
+ *    TileProperty, one bit per cell, row by row, each row starting on a new word.
+ * 2. A cell has a property when the tile of any of its layers has it.
+ * 3. Resolves axis-aligned box movement against the SOLID bitset (swept AABB): a move is
+ *    checked one axis at a time, and only the columns or rows the box's leading edge enters are
+ *    tested, so its cost depends on the tiles crossed, not on the map's size.
+ * 4. Entering a row tests the box's column span with a few masked word operations; entering a
+ *    column tests one bit per row the box covers.
+ * 5. Cells outside the map block movement, so boxes never leave it.
+ *
+ * Restrictions:
+ * - Compiled once per map (see Map.LoadTileGrid() and Map.LoadRegionStreamer()); only
+ *   Map.SetTile() changes it afterwards.
+ * - Before the first Compile() or Reset(), nothing blocks movement.
+ */
+public class CollisionMap {
+
+    public static final float SLOW_SPEED_FACTOR = 0.5f;
+
+    private static final int WORD_SHIFT = 6; // 64 cells per long
+    private static final int WORD_INDEX_MASK = Long.SIZE - 1;
+    private static final long ALL_BITS = -1L;
+
+    // Keeps a box whose edge lies exactly on a tile border (give or take float rounding) out of
+    // the tile past that border
+    private static final float EDGE_EPSILON = 1e-4f;
+
+    private int width = 0;
+    private int height = 0;
+    private int words_per_row = 0;
+    private final long[][] property_bits = new long[TileProperty.COUNT][];
+
+    // How many cells have each property, so maps without a property skip its lookups
+    private final int[] property_cell_counts = new int[TileProperty.COUNT];
+
+    // Property masks indexed by tile ID, kept to recompile single cells
+    private int[] tile_properties = new int[0];
+
+    public CollisionMap(){
+        for (int property = 0; property < TileProperty.COUNT; property++) {
+            property_bits[property] = new long[0];
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Resizes the bitsets to the map's dimensions, clearing every bit.
+     * 2. Keeps the given tile properties to compile cells with.
+     *
+     * Parameters:
+     * - width, height: The map's dimensions, in tiles.
+     * - tile_properties: Property masks indexed by tile ID (see ImageManager.GetTileProperties()).
+     */
+    public void Reset(final int width, final int height, final int[] tile_properties){
+        this.width = width;
+        this.height = height;
+        this.tile_properties = tile_properties;
+        words_per_row = (width + WORD_INDEX_MASK) >>> WORD_SHIFT;
+
+        final int word_count = words_per_row * height;
+        for (int property = 0; property < TileProperty.COUNT; property++) {
+            property_cell_counts[property] = 0;
+            if (property_bits[property].length == word_count) {
+                Arrays.fill(property_bits[property], 0L);
+            }
+            else {
+                property_bits[property] = new long[word_count];
+            }
+        }
+    }
+
+    /**
+     * Objective: Compiles a whole map's tile properties.
+     *
+     * Description:
+     * 1. Resets the bitsets to the grid's dimensions.
+     * 2. For each cell, ORs the property masks of its tiles in every layer, and sets the cell's
+     *    bit in the bitset of each property of the result.
+     *
+     * Parameters:
+     * - grid: The map's tiles.
+     * - tile_properties: Property masks indexed by tile ID; tiles past its end have none.
+     */
+    public void Compile(final TileGrid grid, final int[] tile_properties){
+        Reset(grid.GetWidth(), grid.GetHeight(), tile_properties);
+
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                SetCellProperties( column, row, GetCellProperties(grid, column, row) );
+            }
+        }
+    }
+
+    /**
+     * Objective: Compiles the tile properties of one region of a map.
+     *
+     * Description:
+     * For each cell of the region, ORs the property masks of its tiles in every layer, and sets
+     * the matching map cell's bits, as Compile() does for a whole map.
+     *
+     * Parameters:
+     * - region: The region's tiles; its (0, 0) cell is the map's (first_column, first_row) cell.
+     * - first_column, first_row: Where the region starts in the map.
+     *
+     * Assertives of Entrance:
+     * - Reset() was called with the map's dimensions, and the region fits inside them.
+     */
+    public void CompileRegion(final TileGrid region, final int first_column, final int first_row){
+        for (int row = 0; row < region.GetHeight(); row++) {
+            for (int column = 0; column < region.GetWidth(); column++) {
+                SetCellProperties( first_column + column, first_row + row, GetCellProperties(region, column, row) );
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * Compiles a single cell again, after one of its tiles changed.
+     */
+    public void UpdateTile(final TileGrid grid, final int column, final int row){
+        SetCellProperties( column, row, GetCellProperties(grid, column, row) );
+    }
+
+    /**
+     * Description:
+     * Compiles a single cell of a streamed map again, after one of its tiles changed.
+     *
+     * Parameters:
+     * - region: The region holding the cell; its (0, 0) cell is the map's (first_column, first_row) cell.
+     * - column, row: The cell, in map coordinates.
+     */
+    public void UpdateTile(final TileGrid region, final int first_column, final int first_row, final int column, final int row){
+        SetCellProperties( column, row, GetCellProperties(region, column - first_column, row - first_row) );
+    }
+
+    private int GetCellProperties(final TileGrid grid, final int column, final int row){
+        int properties = 0;
+        for (int layer = 0; layer < grid.GetLayerCount(); layer++) {
+            final int tile = grid.GetTile(layer, column, row);
+            if (tile < tile_properties.length) {
+                properties |= tile_properties[tile];
+            }
+        }
+        return properties;
+    }
+
+    private void SetCellProperties(final int column, final int row, final int properties){
+        final int word = row * words_per_row + (column >>> WORD_SHIFT);
+        final long bit = 1L << (column & WORD_INDEX_MASK);
+
+        for (int property = 0; property < TileProperty.COUNT; property++) {
+            final boolean had_property = (property_bits[property][word] & bit) != 0;
+            final boolean has_property = (properties & (1 << property)) != 0;
+            if (has_property && !had_property) {
+                property_bits[property][word] |= bit;
+                property_cell_counts[property]++;
+            }
+            else if (!has_property && had_property) {
+                property_bits[property][word] &= ~bit;
+                property_cell_counts[property]--;
+            }
+        }
+    }
+
+    public int GetWidth(){
+        return width;
+    }
+
+    public int GetHeight(){
+        return height;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns how many cells of the map have the property.
+     */
+    public int GetCellCount(final TileProperty property){
+        return property_cell_counts[property.ordinal()];
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when the cell has the property; cells outside the map have none.
+     */
+    public boolean HasProperty(final TileProperty property, final int column, final int row){
+        if (column < 0 || row < 0 || column >= width || row >= height) {
+            return false;
+        }
+        return ( property_bits[property.ordinal()][row * words_per_row + (column >>> WORD_SHIFT)] & (1L << (column & WORD_INDEX_MASK)) ) != 0;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns SLOW_SPEED_FACTOR when the cell under the world position is SLOW, 1 otherwise.
+     */
+    public float GetSpeedFactor(final float world_x, final float world_y){
+        if (property_cell_counts[TileProperty.SLOW.ordinal()] == 0 || world_x < 0 || world_y < 0) {
+            return 1f; // Outside the map nothing is SLOW (and casting wouldn't floor)
+        }
+        return HasProperty( TileProperty.SLOW, (int) world_x, (int) world_y ) ? SLOW_SPEED_FACTOR : 1f;
+    }
+
+    /**
+     * Objective: Resolves a horizontal move of a box against the SOLID tiles.
+     *
+     * Description:
+     * 1. Returns the whole movement when the box's edges stay in their columns, as they do on
+     *    most ticks; this check is kept small so it's inlined into movement loops.
+     * 2. Otherwise, tests the columns the leading edge enters, in movement order, against the
+     *    rows the box covers (see SweepColumns()).
+     *
+     * Parameters:
+     * - left, top, right, bottom: The box's edges before the move, in tiles.
+     * - movement_x: The wanted horizontal movement, in tiles.
+     *
+     * Expected Returns:
+     * - Returns the movement allowed: movement_x when nothing blocks it, less otherwise.
+     */
+    public float SweepX(final float left, final float top, final float right, final float bottom, final float movement_x){
+        if ( width == 0 || StaysInCells(left, right, movement_x) ) {
+            return movement_x;
+        }
+        return SweepColumns(left, top, right, bottom, movement_x);
+    }
+
+    /**
+     * Objective: Resolves a vertical move of a box against the SOLID tiles.
+     *
+     * Description:
+     * Same as SweepX(), along the rows: each row entered is tested against the box's column
+     * span with masked word operations (see SweepRows()).
+     */
+    public float SweepY(final float left, final float top, final float right, final float bottom, final float movement_y){
+        if ( width == 0 || StaysInCells(top, bottom, movement_y) ) {
+            return movement_y;
+        }
+        return SweepRows(left, top, right, bottom, movement_y);
+    }
+
+    /**
+     * Description:
+     * 1. Whether both edges of a box's span stay in the cells they cover, so the move enters no
+     *    new cell whatever its direction.
+     * 2. Written without branching on the direction, which is unpredictable across entities;
+     *    casting only floors positive values, so a span that could reach outside the map isn't
+     *    decided here.
+     */
+    private static boolean StaysInCells(final float low_edge, final float high_edge, final float movement){
+        final float low = low_edge + EDGE_EPSILON;
+        final float high = high_edge - EDGE_EPSILON;
+        return low >= 0 && low + movement >= 0
+            && (int) (low + movement) == (int) low && (int) (high + movement) == (int) high;
+    }
+
+    /**
+     * Description:
+     * Tests each column the box's leading edge enters; the first blocking column stops the box
+     * flush against it.
+     *
+     * Restrictions:
+     * - Bounded by the map's width: a move can't cross more columns than the map has.
+     */
+    private float SweepColumns(final float left, final float top, final float right, final float bottom, final float movement_x){
+        final int first_row = FirstCell(top);
+        final int last_row = LastCell(bottom);
+
+        if (movement_x > 0) {
+            final int last_column = Math.min( LastCell(right + movement_x), width );
+            for (int column = LastCell(right) + 1; column <= last_column; column++) {
+                if ( IsColumnBlocked(column, first_row, last_row) ) {
+                    return column - right;
+                }
+            }
+        }
+        else {
+            final int last_column = Math.max( FirstCell(left + movement_x), -1 );
+            for (int column = FirstCell(left) - 1; column >= last_column; column--) {
+                if ( IsColumnBlocked(column, first_row, last_row) ) {
+                    return column + 1 - left;
+                }
+            }
+        }
+        return movement_x;
+    }
+
+    /**
+     * Description:
+     * Tests each row the box's leading edge enters; the first blocking row stops the box flush
+     * against it.
+     *
+     * Restrictions:
+     * - Bounded by the map's height: a move can't cross more rows than the map has.
+     */
+    private float SweepRows(final float left, final float top, final float right, final float bottom, final float movement_y){
+        final int first_column = FirstCell(left);
+        final int last_column = LastCell(right);
+
+        if (movement_y > 0) {
+            final int last_row = Math.min( LastCell(bottom + movement_y), height );
+            for (int row = LastCell(bottom) + 1; row <= last_row; row++) {
+                if ( IsRowBlocked(row, first_column, last_column) ) {
+                    return row - bottom;
+                }
+            }
+        }
+        else {
+            final int last_row = Math.max( FirstCell(top + movement_y), -1 );
+            for (int row = FirstCell(top) - 1; row >= last_row; row--) {
+                if ( IsRowBlocked(row, first_column, last_column) ) {
+                    return row + 1 - top;
+                }
+            }
+        }
+        return movement_y;
+    }
+
+    // First and last cell a box edge covers; an edge on a border doesn't cover the cell past it
+    private static int FirstCell(final float low_edge){
+        return Floor(low_edge + EDGE_EPSILON);
+    }
+
+    private static int LastCell(final float high_edge){
+        return Floor(high_edge - EDGE_EPSILON);
+    }
+
+    // Casting truncates towards zero; negative values with a fraction need one less
+    private static int Floor(final float value){
+        final int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when the column is outside the map or any of its rows in the range is SOLID
+     *   or outside the map.
+     */
+    private boolean IsColumnBlocked(final int column, final int first_row, final int last_row){
+        if (column < 0 || column >= width || first_row < 0 || last_row >= height) {
+            return true;
+        }
+
+        final long[] solid_bits = property_bits[TileProperty.SOLID.ordinal()];
+        final int column_word = column >>> WORD_SHIFT;
+        final long bit = 1L << (column & WORD_INDEX_MASK);
+        for (int row = first_row; row <= last_row; row++) {
+            if ( (solid_bits[row * words_per_row + column_word] & bit) != 0 ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when the row is outside the map or any of its columns in the range is SOLID
+     *   or outside the map.
+     */
+    private boolean IsRowBlocked(final int row, final int first_column, final int last_column){
+        if (row < 0 || row >= height || first_column < 0 || last_column >= width) {
+            return true;
+        }
+
+        final long[] solid_bits = property_bits[TileProperty.SOLID.ordinal()];
+        final int row_offset = row * words_per_row;
+        final int first_word = first_column >>> WORD_SHIFT;
+        final int last_word = last_column >>> WORD_SHIFT;
+        final long first_mask = ALL_BITS << (first_column & WORD_INDEX_MASK);
+        final long last_mask = ALL_BITS >>> (WORD_INDEX_MASK - (last_column & WORD_INDEX_MASK));
+
+        if (first_word == last_word) {
+            return (solid_bits[row_offset + first_word] & first_mask & last_mask) != 0;
+        }
+        if ( (solid_bits[row_offset + first_word] & first_mask) != 0 || (solid_bits[row_offset + last_word] & last_mask) != 0 ) {
+            return true;
+        }
+        for (int word = first_word + 1; word < last_word; word++) {
+            if (solid_bits[row_offset + word] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,85 @@
+package controller.maps;
+
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Description:
+ * 1. Command-line tool that converts the text maps into the binary map format.
+ * 2. Converts the maps named in its arguments (e.g., "main"), or every ".txt" map of
+ *    BinaryMapFormat.MAPS_DIRECTORY when called without arguments.
+ * 3. Writes each "<name>.map" next to its "<name>.txt", which Map loads in its place.
+ *
+ * Restrictions:
+ * - Prints to the terminal: the console is this tool's only way of reporting progress.
+ * - Must be run from the project's root directory, like the game.
+ */
+public class MapConverter {
+
+    private static final String TEXT_EXTENSION = ".txt";
+
+    private MapConverter(){}
+
+    public static void main(String[] args) {
+        String[] map_names = args;
+        if (map_names.length == 0) {
+            map_names = ListTextMaps();
+        }
+
+        for (final String map_name : map_names) {
+            Convert(map_name);
+        }
+
+        System.exit( ErrorStatus.SUCCESS.GetExitCode() );
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the names (without extension) of every text map in BinaryMapFormat.MAPS_DIRECTORY.
+     */
+    private static String[] ListTextMaps(){
+        final File[] text_maps = new File(BinaryMapFormat.MAPS_DIRECTORY).listFiles( (directory, file_name) -> file_name.endsWith(TEXT_EXTENSION) );
+        if (text_maps == null) {
+            return new String[0];
+        }
+
+        final String[] map_names = new String[text_maps.length];
+        for (int map = 0; map < text_maps.length; map++) {
+            final String file_name = text_maps[map].getName();
+            map_names[map] = file_name.substring(0, file_name.length() - TEXT_EXTENSION.length());
+        }
+        return map_names;
+    }
+
+    /**
+     * Description:
+     * 1. Reads the text map and parses it through TileGrid.FromText().
+     * 2. Writes it in the binary format, with the default region size.
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_LOADING_TEXTFILE if the text map can't be read, and
+     *   with EMPTY_TEXTFILE if it's empty.
+     */
+    private static void Convert(final String map_name){
+        final String text_path = BinaryMapFormat.MAPS_DIRECTORY + map_name + TEXT_EXTENSION;
+        final String binary_path = BinaryMapFormat.MAPS_DIRECTORY + map_name + BinaryMapFormat.EXTENSION;
+
+        try {
+            final String map_text = new String(Files.readAllBytes( new File(text_path).toPath() ), StandardCharsets.UTF_8);
+            if ( map_text.trim().isEmpty() ){
+                GameExit.Exit(ErrorStatus.EMPTY_TEXTFILE, " - " + text_path);
+            }
+
+            final TileGrid tile_grid = TileGrid.FromText(map_text);
+            BinaryMapFormat.Write(tile_grid, binary_path, BinaryMapFormat.DEFAULT_REGION_SIZE);
+            System.out.println(text_path + " -> " + binary_path + " (" + tile_grid.GetWidth() + "x" + tile_grid.GetHeight() + ")");
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_LOADING_TEXTFILE, " - " + text_path);
+        }
+    }
+}
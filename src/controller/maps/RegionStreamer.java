@@ -0,0 +1,382 @@
+package controller.maps;
+
+import controller.utils.DaemonThreadFactory;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Description:
+ * 1. Streams a binary map region by region, so maps bigger than the memory budget can be played.
+ * 2. The map file stays memory-mapped; only the regions around the view are decoded into
+ *    TileGrids, on a background thread, and a region is read from disk only when requested.
+ * 3. Every Update() requests the regions that intersect the view first, then the ones within
+ *    the configured radius around them, looking one radius further ahead in the direction the
+ *    view is moving.
+ * 4. Once the resident regions take more than the memory budget, the least recently used
+ *    regions outside the radius are evicted. Regions changed through SetTile() are never evicted.
+ *
+ * Restrictions:
+ * - Update(), SetTile() and the getters are meant to be called from a single thread (the one
+ *   that renders); only the region decoding runs elsewhere.
+ * - GetRegion() never blocks: it returns null while a region isn't resident. Only LoadRegion()
+ *   blocks, decoding the region on the calling thread.
+ */
+public class RegionStreamer {
+
+    // A single thread reads regions in the order they're requested, so visible regions come first
+    private static final ExecutorService streaming_executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("region-streamer-"));
+
+    private static final int NOT_MOVING = 0;
+
+    private final String file_path;
+    private final MappedByteBuffer map_buffer;
+    private final BinaryMapFormat.Header header;
+
+    private final int region_columns;
+    private final int region_rows;
+
+    private final int radius;
+    private final long memory_budget;
+
+    // Written by the streaming thread when a region is decoded, read by the rendering thread
+    private final AtomicReferenceArray<TileGrid> resident_regions;
+
+    // Only accessed by the thread calling Update()
+    private final boolean[] requested_regions;
+    private final boolean[] modified_regions;
+    private final long[] last_used_updates;
+    private long current_update = 0;
+    private long requested_bytes = 0;
+
+    private int previous_first_column = -1;
+    private int previous_first_row = -1;
+    private int horizontal_movement = NOT_MOVING;
+    private int vertical_movement = NOT_MOVING;
+
+    private RegionStreamer(final String file_path, final MappedByteBuffer map_buffer, final BinaryMapFormat.Header header,
+                           final int radius, final long memory_budget){
+        this.file_path = file_path;
+        this.map_buffer = map_buffer;
+        this.header = header;
+        this.radius = radius;
+        this.memory_budget = memory_budget;
+
+        final int region_size = header.GetRegionSize();
+        region_columns = (header.GetWidth() + region_size - 1) / region_size;
+        region_rows = (header.GetHeight() + region_size - 1) / region_size;
+
+        final int region_count = region_columns * region_rows;
+        resident_regions = new AtomicReferenceArray<>(region_count);
+        requested_regions = new boolean[region_count];
+        modified_regions = new boolean[region_count];
+        last_used_updates = new long[region_count];
+    }
+
+    /**
+     * Objective: Opens a binary map for streaming, reading only its header.
+     *
+     * Parameters:
+     * - file_path: Path of the ".map" file.
+     * - radius: How many regions around the visible ones are kept loaded.
+     * - memory_budget: Bytes the resident regions' tiles may take before eviction starts.
+     *
+     * Expected Returns:
+     * - Returns a streamer with no resident region.
+     * - Returns null only if reading fails (after exiting the application).
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_LOADING_BINARY_MAP if the file can't be read, and with
+     *   INVALID_BINARY_MAP if its header doesn't follow the format.
+     */
+    public static RegionStreamer Open(final String file_path, final int radius, final long memory_budget){
+        try (FileChannel file_channel = FileChannel.open(Paths.get(file_path), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            final MappedByteBuffer map_buffer = file_channel.map(FileChannel.MapMode.READ_ONLY, 0, file_channel.size());
+            final BinaryMapFormat.Header header = BinaryMapFormat.ReadHeader(map_buffer, file_path);
+            return new RegionStreamer(file_path, map_buffer, header, radius, memory_budget);
+        }
+        catch (BufferUnderflowException exception) {
+            GameExit.Exit(ErrorStatus.INVALID_BINARY_MAP, " - " + file_path);
+            return null;
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_LOADING_BINARY_MAP, " - " + file_path);
+            return null;
+        }
+    }
+
+    public int GetWidth(){
+        return header.GetWidth();
+    }
+
+    public int GetHeight(){
+        return header.GetHeight();
+    }
+
+    public int GetRegionSize(){
+        return header.GetRegionSize();
+    }
+
+    /**
+     * Description:
+     * Returns every tile ID the map uses, in no particular order.
+     *
+     * Restrictions:
+     * - Callers must not modify the returned array.
+     */
+    public short[] GetPalette(){
+        return header.GetPalette();
+    }
+
+    /**
+     * Description:
+     * Returns how many bytes the whole map's tiles would take in memory, as TileGrids.
+     */
+    public long GetTotalBytes(){
+        return header.GetTotalBytes();
+    }
+
+    /**
+     * Description:
+     * Returns how many bytes the resident and in-flight regions' tiles take.
+     */
+    public long GetResidentBytes(){
+        return requested_bytes;
+    }
+
+    /**
+     * Objective: Keeps the regions around the view resident, loading ahead and evicting behind.
+     *
+     * Description:
+     * 1. Updates the direction the view is moving in, from the change of its first visible tile.
+     * 2. Requests every region that intersects the view.
+     * 3. Requests every region within the radius around them, plus one more radius in the
+     *    direction of movement.
+     * 4. Evicts least recently used regions outside that area while over the memory budget.
+     *
+     * Parameters:
+     * - first_column, first_row: The first visible tile.
+     * - last_column, last_row: The tile after the last visible one (exclusive).
+     *
+     * Restrictions:
+     * - Never blocks: requested regions are decoded on the streaming thread.
+     */
+    public void Update(final int first_column, final int first_row, final int last_column, final int last_row){
+        current_update++;
+
+        if (previous_first_column >= 0 && first_column != previous_first_column) {
+            horizontal_movement = Integer.signum(first_column - previous_first_column);
+        }
+        if (previous_first_row >= 0 && first_row != previous_first_row) {
+            vertical_movement = Integer.signum(first_row - previous_first_row);
+        }
+        previous_first_column = first_column;
+        previous_first_row = first_row;
+
+        final int region_size = header.GetRegionSize();
+        final int first_region_column = ClampRegion(first_column / region_size, region_columns);
+        final int first_region_row = ClampRegion(first_row / region_size, region_rows);
+        final int last_region_column = ClampRegion( (Math.max(last_column, first_column + 1) - 1) / region_size, region_columns );
+        final int last_region_row = ClampRegion( (Math.max(last_row, first_row + 1) - 1) / region_size, region_rows );
+
+        RequestRegions(first_region_column, first_region_row, last_region_column, last_region_row);
+
+        final int kept_first_column = ClampRegion(first_region_column - radius - (horizontal_movement < 0 ? radius : 0), region_columns);
+        final int kept_first_row = ClampRegion(first_region_row - radius - (vertical_movement < 0 ? radius : 0), region_rows);
+        final int kept_last_column = ClampRegion(last_region_column + radius + (horizontal_movement > 0 ? radius : 0), region_columns);
+        final int kept_last_row = ClampRegion(last_region_row + radius + (vertical_movement > 0 ? radius : 0), region_rows);
+
+        RequestRegions(kept_first_column, kept_first_row, kept_last_column, kept_last_row);
+        EvictLeastRecentlyUsed(kept_first_column, kept_first_row, kept_last_column, kept_last_row);
+    }
+
+    private static int ClampRegion(final int region, final int region_count){
+        return Math.max(0, Math.min(region, region_count - 1));
+    }
+
+    /**
+     * Description:
+     * 1. Marks every region of the inclusive range as used in the current update.
+     * 2. Submits the ones that aren't resident or in flight to the streaming thread, which
+     *    decodes them and publishes them in resident_regions, unless LoadRegion() already did.
+     */
+    private void RequestRegions(final int first_region_column, final int first_region_row, final int last_region_column, final int last_region_row){
+        for (int region_row = first_region_row; region_row <= last_region_row; region_row++) {
+            for (int region_column = first_region_column; region_column <= last_region_column; region_column++) {
+                final int region_index = region_row * region_columns + region_column;
+                last_used_updates[region_index] = current_update;
+                if (requested_regions[region_index]) {
+                    continue;
+                }
+
+                requested_regions[region_index] = true;
+                requested_bytes += GetRegionBytes(region_column, region_row);
+
+                final int first_column = region_column * header.GetRegionSize();
+                final int first_row = region_row * header.GetRegionSize();
+                // Never replaces a region LoadRegion() made resident meanwhile, which may already be changed
+                streaming_executor.execute( () -> resident_regions.compareAndSet(
+                    region_index,
+                    null,
+                    BinaryMapFormat.ReadRegion(map_buffer.duplicate(), header, first_column, first_row, file_path)
+                ) );
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * 1. While the requested regions take more than the memory budget, finds the resident
+     *    region with the oldest last use outside the kept range and drops it.
+     * 2. Regions in flight and regions changed through SetTile() are never evicted.
+     *
+     * Restrictions:
+     * - Each eviction scans the region table; the loop is bounded by the number of regions.
+     */
+    private void EvictLeastRecentlyUsed(final int kept_first_column, final int kept_first_row, final int kept_last_column, final int kept_last_row){
+        final int maximum_evictions = requested_regions.length;
+        int eviction_count = 0;
+
+        while (requested_bytes > memory_budget && eviction_count < maximum_evictions) {
+            int oldest_region = -1;
+            for (int region_index = 0; region_index < requested_regions.length; region_index++) {
+                final int region_column = region_index % region_columns;
+                final int region_row = region_index / region_columns;
+                final boolean is_kept = region_column >= kept_first_column && region_column <= kept_last_column
+                                     && region_row >= kept_first_row && region_row <= kept_last_row;
+                final boolean is_candidate = !is_kept && !modified_regions[region_index] && resident_regions.get(region_index) != null;
+                if (is_candidate && (oldest_region < 0 || last_used_updates[region_index] < last_used_updates[oldest_region])) {
+                    oldest_region = region_index;
+                }
+            }
+
+            if (oldest_region < 0) {
+                return; // Everything left is kept, in flight or modified
+            }
+
+            resident_regions.set(oldest_region, null);
+            requested_regions[oldest_region] = false;
+            requested_bytes -= GetRegionBytes(oldest_region % region_columns, oldest_region / region_columns);
+            eviction_count++;
+        }
+    }
+
+    private long GetRegionBytes(final int region_column, final int region_row){
+        final int region_size = header.GetRegionSize();
+        final long region_width = Math.min(region_size, header.GetWidth() - region_column * region_size);
+        final long region_height = Math.min(region_size, header.GetHeight() - region_row * region_size);
+        return region_width * region_height * header.GetLayerCount() * Short.BYTES;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the resident region that contains the given tile; its (0, 0) cell is the tile at
+     *   (GetRegionFirstColumn(column), GetRegionFirstRow(row)).
+     * - Returns null while the region isn't resident.
+     */
+    public TileGrid GetRegion(final int column, final int row){
+        final int region_size = header.GetRegionSize();
+        return resident_regions.get( (row / region_size) * region_columns + (column / region_size) );
+    }
+
+    public int GetRegionFirstColumn(final int column){
+        return column - column % header.GetRegionSize();
+    }
+
+    public int GetRegionFirstRow(final int row){
+        return row - row % header.GetRegionSize();
+    }
+
+    public int GetRegionColumns(){
+        return region_columns;
+    }
+
+    public int GetRegionRows(){
+        return region_rows;
+    }
+
+    /**
+     * Description:
+     * Decodes a region on the calling thread without making it resident, so a whole map can be
+     * walked holding a single region at a time.
+     *
+     * Parameters:
+     * - region_column, region_row: The region's position, in regions.
+     *
+     * Expected Returns:
+     * - Returns the region's tiles as they are on disk; its (0, 0) cell is the map's
+     *   (region_column * GetRegionSize(), region_row * GetRegionSize()) cell.
+     *
+     * Restrictions:
+     * - Blocks on the disk: meant for loading a map, not for rendering.
+     */
+    public TileGrid ReadRegion(final int region_column, final int region_row){
+        final int region_size = header.GetRegionSize();
+        return BinaryMapFormat.ReadRegion(map_buffer.duplicate(), header, region_column * region_size, region_row * region_size, file_path);
+    }
+
+    /**
+     * Objective: Makes the region that contains the given tile resident right away.
+     *
+     * Description:
+     * 1. Returns the region if it's already resident.
+     * 2. Otherwise decodes it on the calling thread and publishes it, unless the streaming
+     *    thread published it meanwhile; either way, it counts as requested from then on.
+     *
+     * Expected Returns:
+     * - Returns the resident region, as GetRegion() would.
+     *
+     * Restrictions:
+     * - Blocks on the disk: meant for loading a save, not for rendering.
+     */
+    public TileGrid LoadRegion(final int column, final int row){
+        final int region_size = header.GetRegionSize();
+        final int region_column = column / region_size;
+        final int region_row = row / region_size;
+        final int region_index = region_row * region_columns + region_column;
+
+        final TileGrid resident_region = resident_regions.get(region_index);
+        if (resident_region != null) {
+            return resident_region;
+        }
+
+        if ( !requested_regions[region_index] ) {
+            requested_regions[region_index] = true;
+            requested_bytes += GetRegionBytes(region_column, region_row);
+        }
+        last_used_updates[region_index] = current_update;
+
+        final TileGrid region = BinaryMapFormat.ReadRegion(map_buffer.duplicate(), header, region_column * region_size, region_row * region_size, file_path);
+        resident_regions.compareAndSet(region_index, null, region);
+        return resident_regions.get(region_index);
+    }
+
+    /**
+     * Description:
+     * Changes a tile of the bottom layer and pins its region in memory, so the change isn't
+     * lost to eviction.
+     *
+     * Expected Returns:
+     * - Returns true when the tile was changed.
+     * - Returns false when its region isn't resident.
+     */
+    public boolean SetTile(final int column, final int row, final short tile){
+        final TileGrid region = GetRegion(column, row);
+        if (region == null) {
+            return false;
+        }
+
+        region.SetTile(column - GetRegionFirstColumn(column), row - GetRegionFirstRow(row), tile);
+        modified_regions[ (row / header.GetRegionSize()) * region_columns + (column / header.GetRegionSize()) ] = true;
+        return true;
+    }
+}
@@ -0,0 +1,195 @@
+package controller.maps;
+
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+
+/**
+ * Description:
+ * 1. Compact primitive storage for a tile-based map, holding one short tile ID per cell and layer.
+ * 2. Tiles are stored layer by layer, row by row, in a single flat array; the cell at
+ *    (column, row) of a layer lives at index layer * layer_size + row * stride + column.
+ * 3. Layers are drawn bottom (layer 0) to top; EMPTY_TILE marks cells a layer doesn't cover.
+ * 4. Built once when a map is loaded, so rendering reads plain array elements instead of
+ *    parsing the map file again.
+ *
+ * Restrictions:
+ * - Tile IDs must fit in a short (0 to 32767).
+ */
+public class TileGrid {
+
+    // No image is registered with ID 0, so it marks the cells of a layer that have no tile
+    public static final short EMPTY_TILE = 0;
+
+    private final int width;
+    private final int height;
+    private final int stride;
+    private final int layer_count;
+    private final int layer_size;
+    private final short[] tiles;
+
+    /**
+     * Description:
+     * Creates a single-layer grid.
+     */
+    public TileGrid(final int width, final int height){
+        this(width, height, 1);
+    }
+
+    /**
+     * Parameters:
+     * - width: Number of columns of the map. Must be greater than zero.
+     * - height: Number of rows of the map. Must be greater than zero.
+     * - layer_count: Number of tile layers. Must be greater than zero.
+     *
+     * Assertives of Departure:
+     * - Every tile of every layer is initialized with EMPTY_TILE.
+     */
+    public TileGrid(final int width, final int height, final int layer_count){
+        this.width = width;
+        this.height = height;
+        this.stride = width;
+        this.layer_count = layer_count;
+        this.layer_size = width * height;
+        this.tiles = new short[layer_size * layer_count];
+    }
+
+    /**
+     * Objective: Builds a TileGrid from the text map format, validating every element once.
+     *
+     * Description:
+     * 1. Splits the map content by newlines to get the rows, and the first row by whitespace
+     *    to get the number of columns.
+     * 2. Allocates a grid with those dimensions.
+     * 3. Parses every element of every row as a tile ID and stores it in the grid.
+     *
+     * Parameters:
+     * - map_text: The full map text content with whitespace-separated integer tile IDs.
+     *
+     * Expected Returns:
+     * - Returns the populated TileGrid.
+     *
+     * Assertives of Entrance:
+     * - map_text is non-empty.
+     *
+     * Restrictions:
+     * - Exits the application with UNRECOGNIZED_MAP_ELEMENT if an element isn't a valid tile ID.
+     * - Exits the application with IRREGULAR_MAP_DIMENSIONS if the rows have different lengths.
+     */
+    public static TileGrid FromText(final String map_text){
+        final String[] lines = map_text.trim().split("\\n");
+        final int map_height = lines.length;
+        final int map_width = lines[0].trim().split("\\s+").length;
+
+        final TileGrid tile_grid = new TileGrid(map_width, map_height);
+        for (int row = 0; row < map_height; row++) {
+            final String[] row_elements = lines[row].trim().split("\\s+");
+            if (row_elements.length != map_width) {
+                GameExit.Exit(ErrorStatus.IRREGULAR_MAP_DIMENSIONS, " - row " + row);
+            }
+
+            for (int column = 0; column < map_width; column++) {
+                tile_grid.SetTile(column, row, ParseTile(row_elements[column]));
+            }
+        }
+        return tile_grid;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the tile ID represented by the given element.
+     *
+     * Restrictions:
+     * - Exits the application with UNRECOGNIZED_MAP_ELEMENT if the element isn't numeric
+     *   or doesn't fit in a short.
+     */
+    private static short ParseTile(final String map_element){
+        try {
+            final int tile = Integer.parseInt(map_element);
+            if (tile < 0 || tile > Short.MAX_VALUE) {
+                GameExit.Exit(ErrorStatus.UNRECOGNIZED_MAP_ELEMENT, " - " + map_element);
+            }
+            return (short) tile;
+        }
+        catch (NumberFormatException number_format_exception) {
+            GameExit.Exit(ErrorStatus.UNRECOGNIZED_MAP_ELEMENT, " - " + map_element);
+            return 0;
+        }
+    }
+
+    public int GetWidth(){
+        return width;
+    }
+
+    public int GetHeight(){
+        return height;
+    }
+
+    public int GetLayerCount(){
+        return layer_count;
+    }
+
+    /**
+     * Description:
+     * Returns the number of array elements per layer; layer N starts at index N * GetLayerSize().
+     */
+    public int GetLayerSize(){
+        return layer_size;
+    }
+
+    /**
+     * Description:
+     * Returns the distance, in array elements, between the same column of two consecutive rows.
+     */
+    public int GetStride(){
+        return stride;
+    }
+
+    /**
+     * Description:
+     * Returns the backing array itself (not a copy) so hot loops can index it directly.
+     *
+     * Restrictions:
+     * - Callers must not modify the returned array; use SetTile() instead.
+     */
+    public short[] GetTiles(){
+        return tiles;
+    }
+
+    /**
+     * Description:
+     * Returns the tile of the bottom layer at (column, row).
+     */
+    public int GetTile(final int column, final int row){
+        return GetTile(0, column, row);
+    }
+
+    public int GetTile(final int layer, final int column, final int row){
+        return tiles[layer * layer_size + row * stride + column];
+    }
+
+    /**
+     * Description:
+     * Changes the tile of the bottom layer at (column, row).
+     */
+    public void SetTile(final int column, final int row, final short tile){
+        SetTile(0, column, row, tile);
+    }
+
+    public void SetTile(final int layer, final int column, final int row, final short tile){
+        tiles[layer * layer_size + row * stride + column] = tile;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the highest tile ID stored in any layer, or EMPTY_TILE for an empty grid.
+     */
+    public int GetMaximumTile(){
+        int maximum_tile = EMPTY_TILE;
+        for (final short tile : tiles) {
+            if (tile > maximum_tile) {
+                maximum_tile = tile;
+            }
+        }
+        return maximum_tile;
+    }
+}
@@ -0,0 +1,41 @@
+package controller.maps;
+
+/**
+ * Description:
+ * 1. The gameplay properties a tile can have, defined per image in the tile properties file
+ *    (see ImageManager).
+ * 2. A tile's properties are packed in an int mask, one bit per property (GetMask()); a
+ *    CollisionMap compiles them into one bitset per property.
+ */
+public enum TileProperty {
+    SOLID,   // Blocks movement
+    SLOW,    // Movement over it is slowed down by CollisionMap.SLOW_SPEED_FACTOR
+    TRIGGER; // Marks the tiles that start something when entered
+
+    // values() copies the array on every call
+    private static final TileProperty[] PROPERTIES = values();
+
+    public static final int COUNT = PROPERTIES.length;
+
+    public static TileProperty FromOrdinal(final int ordinal){
+        return PROPERTIES[ordinal];
+    }
+
+    public int GetMask(){
+        return 1 << ordinal();
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the property with the given name, ignoring case (e.g., "solid"), or null when
+     *   there is none.
+     */
+    public static TileProperty FromName(final String name){
+        for (final TileProperty property : PROPERTIES) {
+            if ( property.name().equalsIgnoreCase(name) ) {
+                return property;
+            }
+        }
+        return null;
+    }
+}
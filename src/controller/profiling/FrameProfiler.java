@@ -0,0 +1,144 @@
+package controller.profiling;
+
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Description:
+ * 1. Singleton registry of frame timing sections, each backed by a lock-free TimingHistogram.
+ * 2. Always tracks the whole frame, the update tick and the interval between frames; every
+ *    renderer registers its own section, so new renderers are measured automatically.
+ * 3. Provides live statistics for the performance overlay and dumps every histogram to a CSV
+ *    file when the game shuts down.
+ *
+ * Restrictions:
+ * - Sections are registered at startup; Record() is safe to call from any thread and never
+ *   allocates.
+ */
+public class FrameProfiler {
+
+    private static FrameProfiler instance;
+
+    public static FrameProfiler GetInstance(){
+        if (instance == null){
+            instance = new FrameProfiler();
+        }
+        return instance;
+    }
+
+    // Sections registered by the constructor, always in this order
+    public static final int FRAME_SECTION = 0;
+    public static final int UPDATE_SECTION = 1;
+    public static final int FRAME_INTERVAL_SECTION = 2;
+
+    private static final int MAXIMUM_SECTIONS = 32;
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
+
+    private final String[] section_names = new String[MAXIMUM_SECTIONS];
+    private final TimingHistogram[] histograms = new TimingHistogram[MAXIMUM_SECTIONS];
+    private volatile int section_count = 0;
+
+    /**
+     * Assertives of Departure:
+     * - FRAME_SECTION, UPDATE_SECTION and FRAME_INTERVAL_SECTION are registered.
+     */
+    private FrameProfiler(){
+        RegisterSection("frame");
+        RegisterSection("update");
+        RegisterSection("frame_interval");
+    }
+
+    /**
+     * Description:
+     * 1. Returns the existing section if one with the same name was already registered.
+     * 2. Otherwise, stores the name and a new histogram in the next free slot.
+     *
+     * Expected Returns:
+     * - Returns the section's index, to be passed to Record().
+     *
+     * Restrictions:
+     * - Exits the application with TOO_MANY_PROFILING_SECTIONS past MAXIMUM_SECTIONS sections.
+     */
+    public synchronized int RegisterSection(final String name){
+        for (int section = 0; section < section_count; section++) {
+            if (section_names[section].equals(name)) {
+                return section;
+            }
+        }
+
+        if (section_count >= MAXIMUM_SECTIONS) {
+            GameExit.Exit(ErrorStatus.TOO_MANY_PROFILING_SECTIONS, " - " + name);
+        }
+
+        final int section = section_count;
+        section_names[section] = name;
+        histograms[section] = new TimingHistogram();
+        section_count = section + 1;
+        return section;
+    }
+
+    public void Record(final int section, final long nanoseconds){
+        histograms[section].Record(nanoseconds);
+    }
+
+    public int GetSectionCount(){
+        return section_count;
+    }
+
+    public String GetSectionName(final int section){
+        return section_names[section];
+    }
+
+    public TimingHistogram GetHistogram(final int section){
+        return histograms[section];
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the frames per second over the rolling window, or 0 before two frames were drawn.
+     */
+    public double GetFramesPerSecond(){
+        final double mean_interval = histograms[FRAME_INTERVAL_SECTION].GetWindowMean();
+        return mean_interval > 0 ? NANOSECONDS_PER_SECOND / mean_interval : 0;
+    }
+
+    /**
+     * Objective: Dumps every section's cumulative histogram so a whole session can be analyzed.
+     *
+     * Description:
+     * 1. Writes the header "section,bucket_lower_ns,bucket_upper_ns,count".
+     * 2. For every section, writes one row per non-empty bucket.
+     *
+     * Parameters:
+     * - file_path: Where to write the CSV file; an existing file is overwritten.
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_WRITING_PROFILING_CSV if the file can't be written.
+     */
+    public void WriteCsv(final String file_path){
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file_path))) {
+            writer.write("section,bucket_lower_ns,bucket_upper_ns,count");
+            writer.newLine();
+
+            for (int section = 0; section < section_count; section++) {
+                final TimingHistogram histogram = histograms[section];
+                for (int bucket = 0; bucket < TimingHistogram.GetBucketCount(); bucket++) {
+                    final long bucket_count = histogram.GetTotalBucketCount(bucket);
+                    if (bucket_count == 0) {
+                        continue;
+                    }
+
+                    writer.write(section_names[section] + "," + TimingHistogram.GetBucketLowerBound(bucket) + ","
+                        + TimingHistogram.GetBucketUpperBound(bucket) + "," + bucket_count);
+                    writer.newLine();
+                }
+            }
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_WRITING_PROFILING_CSV, " - " + file_path);
+        }
+    }
+}
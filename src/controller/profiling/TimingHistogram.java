@@ -0,0 +1,192 @@
+package controller.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Description:
+ * 1. Lock-free histogram of durations, in nanoseconds, with log-linear buckets: each power of
+ *    two (of ~1 microsecond units) is split into SUB_BUCKETS equal buckets, keeping the relative
+ *    error of percentiles below 1 / SUB_BUCKETS.
+ * 2. Keeps two views of the samples: a rolling one over the last WINDOW_SIZE samples (used for
+ *    live statistics) and a cumulative one over every sample (used for the CSV dump).
+ * 3. The rolling view is a ring buffer: recording a sample removes the oldest one from the
+ *    rolling buckets, so percentiles never need to sort anything.
+ *
+ * Restrictions:
+ * - Recording never blocks or allocates; concurrent readers may observe a sample that is
+ *   half-recorded, which only shifts percentiles by one sample.
+ */
+public class TimingHistogram {
+
+    public static final int WINDOW_SIZE = 1024;
+
+    private static final int UNIT_SHIFT = 10; // Buckets count units of 1024 ns (~1 microsecond)
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAXIMUM_EXPONENT = 40; // ~13 days in units, far beyond any frame
+    private static final int BUCKET_COUNT = (MAXIMUM_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private static final long EMPTY_SLOT = -1;
+
+    private final AtomicLongArray window_samples = new AtomicLongArray(WINDOW_SIZE);
+    private final AtomicLong next_window_slot = new AtomicLong();
+    private final AtomicLongArray window_buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong window_sum = new AtomicLong();
+
+    private final AtomicLongArray total_buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong total_count = new AtomicLong();
+    private final AtomicLong total_sum = new AtomicLong();
+
+    public TimingHistogram(){
+        for (int slot = 0; slot < WINDOW_SIZE; slot++) {
+            window_samples.set(slot, EMPTY_SLOT);
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Claims the next ring buffer slot and swaps the new sample in.
+     * 2. Removes the replaced sample (if any) from the rolling buckets and sum.
+     * 3. Adds the new sample to the rolling and cumulative buckets and sums.
+     *
+     * Parameters:
+     * - nanoseconds: The measured duration. Negative values are recorded as zero.
+     */
+    public void Record(final long nanoseconds){
+        final long sample = Math.max(0, nanoseconds);
+        final int bucket = BucketOf(sample);
+
+        final int slot = (int) (next_window_slot.getAndIncrement() % WINDOW_SIZE);
+        final long replaced_sample = window_samples.getAndSet(slot, sample);
+        if (replaced_sample != EMPTY_SLOT) {
+            window_buckets.decrementAndGet( BucketOf(replaced_sample) );
+            window_sum.addAndGet(-replaced_sample);
+        }
+
+        window_buckets.incrementAndGet(bucket);
+        window_sum.addAndGet(sample);
+
+        total_buckets.incrementAndGet(bucket);
+        total_count.incrementAndGet();
+        total_sum.addAndGet(sample);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns how many samples are currently in the rolling window (at most WINDOW_SIZE).
+     */
+    public long GetWindowCount(){
+        return Math.min(next_window_slot.get(), WINDOW_SIZE);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the mean of the rolling window in nanoseconds, or 0 if it's empty.
+     */
+    public double GetWindowMean(){
+        final long window_count = GetWindowCount();
+        return window_count > 0 ? (double) window_sum.get() / window_count : 0;
+    }
+
+    /**
+     * Parameters:
+     * - percentile: A value between 0 and 100 (e.g., 99 for p99).
+     *
+     * Expected Returns:
+     * - Returns the percentile of the rolling window in nanoseconds (bucket midpoint), or 0 if empty.
+     */
+    public long GetWindowPercentile(final double percentile){
+        return Percentile(window_buckets, percentile);
+    }
+
+    public long GetTotalCount(){
+        return total_count.get();
+    }
+
+    public double GetTotalMean(){
+        final long count = total_count.get();
+        return count > 0 ? (double) total_sum.get() / count : 0;
+    }
+
+    public long GetTotalPercentile(final double percentile){
+        return Percentile(total_buckets, percentile);
+    }
+
+    public static int GetBucketCount(){
+        return BUCKET_COUNT;
+    }
+
+    public long GetTotalBucketCount(final int bucket){
+        return total_buckets.get(bucket);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the smallest duration, in nanoseconds, that falls in the given bucket.
+     */
+    public static long GetBucketLowerBound(final int bucket){
+        if (bucket < SUB_BUCKETS) {
+            return (long) bucket << UNIT_SHIFT;
+        }
+
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long mantissa = bucket % SUB_BUCKETS;
+        return ( (SUB_BUCKETS + mantissa) << (exponent - SUB_BUCKET_BITS) ) << UNIT_SHIFT;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the smallest duration, in nanoseconds, that falls in the next bucket.
+     */
+    public static long GetBucketUpperBound(final int bucket){
+        return GetBucketLowerBound(bucket + 1);
+    }
+
+    /**
+     * Description:
+     * 1. Converts the duration to ~1 microsecond units.
+     * 2. Small values map linearly to the first SUB_BUCKETS buckets.
+     * 3. Bigger values use their highest set bit as exponent and the next SUB_BUCKET_BITS bits
+     *    as the position inside that power of two.
+     */
+    private static int BucketOf(final long nanoseconds){
+        final long units = nanoseconds >>> UNIT_SHIFT;
+        if (units < SUB_BUCKETS) {
+            return (int) units;
+        }
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(units);
+        final int mantissa = (int) ( (units >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1) );
+        final int bucket = (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Description:
+     * 1. Sums the bucket counts to get the number of samples.
+     * 2. Walks the buckets until the cumulative count reaches the requested rank.
+     * 3. Returns the midpoint of that bucket.
+     */
+    private static long Percentile(final AtomicLongArray buckets, final double percentile){
+        long sample_count = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            sample_count += buckets.get(bucket);
+        }
+        if (sample_count <= 0) {
+            return 0;
+        }
+
+        final double percentage_divisor = 100.0;
+        final long rank = Math.max(1, (long) Math.ceil(sample_count * percentile / percentage_divisor));
+
+        long cumulative_count = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            cumulative_count += buckets.get(bucket);
+            if (cumulative_count >= rank) {
+                return (GetBucketLowerBound(bucket) + GetBucketUpperBound(bucket)) / 2;
+            }
+        }
+        return GetBucketLowerBound(BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,111 @@
+package controller.saves;
+
+import java.util.Arrays;
+
+/**
+ * Description:
+ * 1. Tracks which square regions of the loaded map have tiles edited in game, so a save only
+ *    carries those regions instead of the whole map.
+ * 2. Keeps two sets of regions: the ones edited since the map was loaded, written by full saves,
+ *    and the ones changed since the last snapshot, written by delta saves.
+ * 3. A delta is only complete once a snapshot was taken since the map was loaded: before that,
+ *    the changes since the last snapshot (of another map, or of this one before it was reloaded)
+ *    aren't known, and a full save is needed.
+ *
+ * Restrictions:
+ * - Like the map it tracks, only used by the game loop or under its frame lock.
+ */
+public class RegionEdits {
+
+    private int width = 0;
+    private int height = 0;
+    private int region_size = 1;
+    private int region_columns = 0;
+    private int region_rows = 0;
+
+    // Indexed by region_row * region_columns + region_column
+    private boolean[] edited_regions = new boolean[0];
+    private boolean[] changed_regions = new boolean[0];
+
+    private boolean has_snapshot = false;
+
+    /**
+     * Description:
+     * Forgets every edit and starts tracking a map of the given size, with no snapshot taken.
+     *
+     * Parameters:
+     * - width, height: The map's size, in tiles.
+     * - region_size: Side of the tracked regions, in tiles; regions are clipped at the map's borders.
+     */
+    public void Reset(final int width, final int height, final int region_size){
+        this.width = width;
+        this.height = height;
+        this.region_size = region_size;
+        region_columns = (width + region_size - 1) / region_size;
+        region_rows = (height + region_size - 1) / region_size;
+
+        edited_regions = new boolean[region_columns * region_rows];
+        changed_regions = new boolean[region_columns * region_rows];
+        has_snapshot = false;
+    }
+
+    /**
+     * Description:
+     * Marks the region that contains the tile as edited and as changed since the last snapshot.
+     *
+     * Assertives of Entrance:
+     * - (column, row) is inside the map.
+     */
+    public void MarkTile(final int column, final int row){
+        final int region_index = (row / region_size) * region_columns + (column / region_size);
+        edited_regions[region_index] = true;
+        changed_regions[region_index] = true;
+    }
+
+    /**
+     * Description:
+     * Called once a snapshot captured the regions: clears the changed regions, and makes the
+     * following changes a complete delta.
+     */
+    public void CompleteSnapshot(){
+        Arrays.fill(changed_regions, false);
+        has_snapshot = true;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when a snapshot was taken since the map was loaded, so the changed
+     *   regions hold everything a delta save must write.
+     */
+    public boolean HasSnapshot(){
+        return has_snapshot;
+    }
+
+    public boolean IsEdited(final int region_column, final int region_row){
+        return edited_regions[region_row * region_columns + region_column];
+    }
+
+    public boolean IsChanged(final int region_column, final int region_row){
+        return changed_regions[region_row * region_columns + region_column];
+    }
+
+    public int GetRegionSize(){
+        return region_size;
+    }
+
+    public int GetRegionColumns(){
+        return region_columns;
+    }
+
+    public int GetRegionRows(){
+        return region_rows;
+    }
+
+    public int GetWidth(){
+        return width;
+    }
+
+    public int GetHeight(){
+        return height;
+    }
+}
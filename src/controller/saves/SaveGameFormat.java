@@ -0,0 +1,247 @@
+package controller.saves;
+
+import controller.entities.Facing;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Description:
+ * 1. Reads and writes the save game format (".sav" for full snapshots, ".delta" for deltas).
+ * 2. Layout (big-endian, the whole file GZIP-compressed, whose CRC catches corrupted files):
+ *    - Header: magic (int), version (short), reserved (short), chain ID (long), sequence (int).
+ *    - Map: name (modified UTF-8), width (int), height (int), region size (short).
+ *    - Regions: region count (int), then for each one its region column (int), region row (int)
+ *      and its bottom-layer tiles (one short each, row by row, clipped at the map's borders).
+ *    - Character: x (float), y (float), facing ordinal (byte).
+ *    - Entities: entity count (int), then every sprite ID (int), every x, y, velocity x and
+ *      velocity y (floats), one attribute after the other.
+ * 3. Edited regions are mostly the map's repeated tiles, which the compression shrinks to a
+ *    fraction of their size.
+ * 4. Writing goes to a temporary file next to the destination, atomically renamed over it, so a
+ *    crash while saving leaves the previous save intact.
+ * 5. Private constructor prevents instantiation.
+ *
+ * Restrictions:
+ * - This class must not be instantiated; all methods are static.
+ */
+public class SaveGameFormat {
+
+    public static final String FULL_EXTENSION = ".sav";
+    public static final String DELTA_EXTENSION = ".delta";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    // "JSAV" in ASCII
+    private static final int MAGIC = 0x4A534156;
+    private static final short VERSION = 1;
+
+    // Bounds a corrupted count may not exceed, checked before allocating (the CRC is only checked at the end)
+    private static final int MAXIMUM_REGION_SIZE = 1024;
+    private static final int MAXIMUM_ENTITY_COUNT = 1 << 24;
+
+    private static final int END_OF_STREAM = -1;
+
+    private SaveGameFormat(){}
+
+    /**
+     * Objective: Saves a snapshot, replacing the destination atomically.
+     *
+     * Description:
+     * 1. Writes the header, map, regions, character and entities to a temporary file next to
+     *    the destination.
+     * 2. Moves the temporary file over the destination in a single atomic rename, falling back
+     *    to a plain replacing move where the file system can't rename atomically.
+     *
+     * Parameters:
+     * - snapshot: The world state to save; must not be modified while it's written.
+     * - file_path: Path of the file to create or replace.
+     *
+     * Restrictions:
+     * - Exits the application with FAILED_WRITING_SAVE_GAME if the file can't be written, or if
+     *   the snapshot's region size is one Read() would reject.
+     */
+    public static void Write(final WorldSnapshot snapshot, final String file_path){
+        if (snapshot.GetRegionSize() <= 0 || snapshot.GetRegionSize() > MAXIMUM_REGION_SIZE) {
+            GameExit.Exit(ErrorStatus.FAILED_WRITING_SAVE_GAME, " - region size " + snapshot.GetRegionSize() + " of " + file_path);
+            return;
+        }
+
+        final Path destination = Paths.get(file_path);
+        final Path temporary_file = Paths.get(file_path + TEMPORARY_SUFFIX);
+        try {
+            Files.createDirectories( destination.toAbsolutePath().getParent() );
+
+            try (DataOutputStream output = new DataOutputStream( new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary_file))) )) {
+                output.writeInt(MAGIC);
+                output.writeShort(VERSION);
+                output.writeShort(0); // Reserved
+                output.writeLong( snapshot.GetChainId() );
+                output.writeInt( snapshot.GetSequence() );
+
+                output.writeUTF( snapshot.GetMapName() );
+                output.writeInt( snapshot.GetMapWidth() );
+                output.writeInt( snapshot.GetMapHeight() );
+                output.writeShort( snapshot.GetRegionSize() );
+
+                output.writeInt( snapshot.GetRegionCount() );
+                for (final WorldSnapshot.Region region : snapshot.GetRegions()) {
+                    output.writeInt( region.GetRegionColumn() );
+                    output.writeInt( region.GetRegionRow() );
+                    for (final short tile : region.GetTiles()) {
+                        output.writeShort(tile);
+                    }
+                }
+
+                output.writeFloat( snapshot.GetCharacterX() );
+                output.writeFloat( snapshot.GetCharacterY() );
+                output.writeByte( snapshot.GetCharacterFacing() );
+
+                final int entity_count = snapshot.GetEntityCount();
+                output.writeInt(entity_count);
+                for (int entity = 0; entity < entity_count; entity++) {
+                    output.writeInt( snapshot.GetEntitySpriteID(entity) );
+                }
+                for (int entity = 0; entity < entity_count; entity++) {
+                    output.writeFloat( snapshot.GetEntityPositionX(entity) );
+                }
+                for (int entity = 0; entity < entity_count; entity++) {
+                    output.writeFloat( snapshot.GetEntityPositionY(entity) );
+                }
+                for (int entity = 0; entity < entity_count; entity++) {
+                    output.writeFloat( snapshot.GetEntityVelocityX(entity) );
+                }
+                for (int entity = 0; entity < entity_count; entity++) {
+                    output.writeFloat( snapshot.GetEntityVelocityY(entity) );
+                }
+            }
+
+            try {
+                Files.move(temporary_file, destination, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporary_file, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException exception) {
+            GameExit.Exit(ErrorStatus.FAILED_WRITING_SAVE_GAME, " - " + file_path);
+        }
+    }
+
+    /**
+     * Objective: Loads a snapshot written by Write().
+     *
+     * Description:
+     * 1. Reads and checks the header and the map.
+     * 2. Reads every region, checking it lies inside the map.
+     * 3. Reads the character and the entities.
+     * 4. Reads up to the end of the compressed stream, which checks its CRC and length.
+     *
+     * Parameters:
+     * - file_path: Path of the file to read.
+     *
+     * Expected Returns:
+     * - Returns the snapshot.
+     * - Returns null when the file doesn't exist, can't be read, is truncated or corrupted, or
+     *   has an unsupported version; callers decide whether that's fatal.
+     */
+    public static WorldSnapshot Read(final String file_path){
+        final Path source = Paths.get(file_path);
+        if ( !Files.isRegularFile(source) ) {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream( new BufferedInputStream(new GZIPInputStream(Files.newInputStream(source))) )) {
+            if (input.readInt() != MAGIC || input.readShort() != VERSION) {
+                return null;
+            }
+            input.readShort(); // Reserved
+
+            final long chain_id = input.readLong();
+            final int sequence = input.readInt();
+            final String map_name = input.readUTF();
+            final int map_width = input.readInt();
+            final int map_height = input.readInt();
+            final int region_size = input.readShort();
+            if (sequence < WorldSnapshot.FULL_SEQUENCE || map_name.isEmpty() || map_width <= 0 || map_height <= 0
+                || region_size <= 0 || region_size > MAXIMUM_REGION_SIZE) {
+                return null;
+            }
+
+            final WorldSnapshot snapshot = new WorldSnapshot(chain_id, sequence);
+            snapshot.SetMap(map_name, map_width, map_height, region_size);
+
+            final int region_columns = (map_width + region_size - 1) / region_size;
+            final int region_rows = (map_height + region_size - 1) / region_size;
+            final int region_count = input.readInt();
+            if ( region_count < 0 || (long) region_count > (long) region_columns * region_rows ) {
+                return null;
+            }
+
+            for (int region = 0; region < region_count; region++) {
+                final int region_column = input.readInt();
+                final int region_row = input.readInt();
+                if (region_column < 0 || region_column >= region_columns || region_row < 0 || region_row >= region_rows) {
+                    return null;
+                }
+
+                final short[] tiles = new short[ snapshot.GetRegionWidth(region_column) * snapshot.GetRegionHeight(region_row) ];
+                for (int tile = 0; tile < tiles.length; tile++) {
+                    tiles[tile] = input.readShort();
+                }
+                snapshot.AddRegion(region_column, region_row, tiles);
+            }
+
+            final float character_x = input.readFloat();
+            final float character_y = input.readFloat();
+            final int character_facing = input.readByte();
+            if (character_facing < 0 || character_facing >= Facing.COUNT) {
+                return null;
+            }
+            snapshot.SetCharacter(character_x, character_y, character_facing);
+
+            final int entity_count = input.readInt();
+            if (entity_count < 0 || entity_count > MAXIMUM_ENTITY_COUNT) {
+                return null;
+            }
+            final int[] sprite_ids = new int[entity_count];
+            final float[] positions_x = new float[entity_count];
+            final float[] positions_y = new float[entity_count];
+            final float[] velocities_x = new float[entity_count];
+            final float[] velocities_y = new float[entity_count];
+            for (int entity = 0; entity < entity_count; entity++) {
+                sprite_ids[entity] = input.readInt();
+            }
+            ReadFloats(input, positions_x);
+            ReadFloats(input, positions_y);
+            ReadFloats(input, velocities_x);
+            ReadFloats(input, velocities_y);
+            snapshot.SetEntities(entity_count, sprite_ids, positions_x, positions_y, velocities_x, velocities_y);
+
+            // Reaching the end makes the GZIP stream check its trailer
+            if (input.read() != END_OF_STREAM) {
+                return null;
+            }
+            return snapshot;
+        }
+        catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private static void ReadFloats(final DataInputStream input, final float[] values) throws IOException {
+        for (int index = 0; index < values.length; index++) {
+            values[index] = input.readFloat();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package controller.saves;
+
+import controller.utils.DaemonThreadFactory;
+import controller.utils.ErrorStatus;
+import controller.utils.GameExit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Description:
+ * 1. Singleton that saves and loads the game's quick save slot.
+ * 2. A slot is a chain: a full snapshot ("quicksave.sav") followed by up to MAXIMUM_DELTA_COUNT
+ *    deltas ("quicksave.1.delta", ...), each holding only the regions changed since the
+ *    previous save. Once the chain is full, or when its map changed, the next save is full
+ *    again and the old deltas are deleted.
+ * 3. Snapshots are captured on the game side and handed to Save(), which writes them on a
+ *    background thread, so saving never stalls a frame; writes run one at a time, in order.
+ * 4. Load() reads the full snapshot and applies every delta that continues it, stopping at the
+ *    first missing, corrupted or stale one.
+ *
+ * Restrictions:
+ * - BeginSnapshot(), Save() and Load() are meant to be called from a single thread (the Event
+ *   Dispatch Thread); only the file writing runs elsewhere.
+ */
+public class SaveManager {
+
+    private static SaveManager instance;
+
+    public static SaveManager GetInstance(){
+        if (instance == null){
+            instance = new SaveManager();
+        }
+        return instance;
+    }
+
+    public static final String SAVES_DIRECTORY = "saves/";
+    private static final String SLOT_NAME = "quicksave";
+    private static final String SEQUENCE_SEPARATOR = ".";
+
+    // Deltas written before the next save is a full one; bounds how many files a load reads
+    public static final int MAXIMUM_DELTA_COUNT = 8;
+
+    // A single thread writes the saves in the order they were taken
+    private static final ExecutorService save_executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("save-writer-"));
+
+    // The chain the next delta continues; only accessed by the thread calling BeginSnapshot()
+    private boolean has_chain = false;
+    private long chain_id = 0;
+    private int delta_count = 0;
+    private String chain_map_name = "";
+
+    // The latest write submitted; writes finish in order, so waiting for it waits for all of them
+    private volatile Future<?> last_write;
+
+    private SaveManager(){}
+
+    /**
+     * Expected Returns:
+     * - Returns true when the slot holds a full snapshot to load.
+     */
+    public boolean HasSave(){
+        return Files.isRegularFile( Paths.get(GetFullPath()) );
+    }
+
+    /**
+     * Objective: Starts the snapshot the next Save() writes, deciding whether it's full or a delta.
+     *
+     * Description:
+     * 1. Continues the current chain with a delta when there is one, it belongs to the same map,
+     *    it isn't full yet and the caller can tell which regions changed since the last save.
+     * 2. Otherwise starts a new chain, with a chain ID different from the previous one.
+     *
+     * Parameters:
+     * - map_name: The name of the map being saved.
+     * - can_write_delta: Whether the regions changed since the last snapshot are known (see
+     *   RegionEdits.HasSnapshot()).
+     *
+     * Expected Returns:
+     * - Returns an empty snapshot; the caller fills it with the map's regions (all edited ones
+     *   when it's full, the changed ones when IsDelta()), the character and the entities.
+     */
+    public WorldSnapshot BeginSnapshot(final String map_name, final boolean can_write_delta){
+        if (has_chain && can_write_delta && delta_count < MAXIMUM_DELTA_COUNT && chain_map_name.equals(map_name)) {
+            delta_count++;
+            return new WorldSnapshot(chain_id, delta_count);
+        }
+
+        has_chain = true;
+        chain_id = Math.max(System.currentTimeMillis(), chain_id + 1);
+        delta_count = 0;
+        chain_map_name = map_name;
+        return new WorldSnapshot(chain_id, WorldSnapshot.FULL_SEQUENCE);
+    }
+
+    /**
+     * Description:
+     * 1. Submits the snapshot to the save thread and returns immediately.
+     * 2. A full snapshot replaces the slot's full save and then deletes its deltas; a delta is
+     *    written next to them, under its sequence number.
+     *
+     * Parameters:
+     * - snapshot: A snapshot from BeginSnapshot(), filled; it must not be modified afterwards.
+     *
+     * Restrictions:
+     * - Exits the application (from the save thread, through SaveGameFormat) with
+     *   FAILED_WRITING_SAVE_GAME if the file can't be written.
+     */
+    public void Save(final WorldSnapshot snapshot){
+        last_write = save_executor.submit( () -> {
+            if ( snapshot.IsDelta() ) {
+                SaveGameFormat.Write( snapshot, GetDeltaPath(snapshot.GetSequence()) );
+                return;
+            }
+
+            SaveGameFormat.Write( snapshot, GetFullPath() );
+            DeleteDeltas();
+        } );
+    }
+
+    /**
+     * Description:
+     * Deletes every delta of the slot. Leftovers are harmless (their chain ID no longer matches
+     * the full save), so deletion failures are ignored.
+     */
+    private static void DeleteDeltas(){
+        for (int sequence = 1; sequence <= MAXIMUM_DELTA_COUNT; sequence++) {
+            try {
+                Files.deleteIfExists( Paths.get(GetDeltaPath(sequence)) );
+            }
+            catch (IOException exception) {
+                // Ignored: a stale delta is skipped when loading
+            }
+        }
+    }
+
+    /**
+     * Objective: Loads the slot's latest state.
+     *
+     * Description:
+     * 1. Waits for pending writes, so the latest save is read back.
+     * 2. Reads the full snapshot, and applies each following delta while it continues the chain.
+     * 3. Makes the next save continue the loaded chain; unless a delta was left unapplied after
+     *    the last applied one, which the next delta would be mixed with, then it starts a new one.
+     *
+     * Expected Returns:
+     * - Returns the loaded snapshot, with every applied delta's regions, character and entities.
+     * - Returns null when the slot is empty.
+     *
+     * Restrictions:
+     * - Exits the application with INVALID_SAVE_GAME if the full save exists but can't be read.
+     */
+    public WorldSnapshot Load(){
+        AwaitPendingWrites();
+
+        if ( !HasSave() ) {
+            return null;
+        }
+
+        WorldSnapshot snapshot = SaveGameFormat.Read( GetFullPath() );
+        if (snapshot == null || snapshot.IsDelta()) {
+            GameExit.Exit(ErrorStatus.INVALID_SAVE_GAME, " - " + GetFullPath());
+            return null;
+        }
+
+        for (int sequence = 1; sequence <= MAXIMUM_DELTA_COUNT; sequence++) {
+            final WorldSnapshot delta = SaveGameFormat.Read( GetDeltaPath(sequence) );
+            final WorldSnapshot merged = delta != null ? snapshot.ApplyDelta(delta) : null;
+            if (merged == null) {
+                break;
+            }
+            snapshot = merged;
+        }
+
+        chain_id = snapshot.GetChainId();
+        delta_count = snapshot.GetSequence();
+        chain_map_name = snapshot.GetMapName();
+        has_chain = !Files.exists( Paths.get(GetDeltaPath(delta_count + 1)) );
+        return snapshot;
+    }
+
+    /**
+     * Description:
+     * Blocks until every submitted save is written; called before the application exits, since
+     * the save thread is a daemon.
+     */
+    public void AwaitPendingWrites(){
+        final Future<?> pending_write = last_write;
+        if (pending_write == null) {
+            return;
+        }
+
+        try {
+            pending_write.get();
+        }
+        catch (InterruptedException interrupted_exception) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException execution_exception) {
+            // Write failures exit the application from the save thread
+        }
+    }
+
+    private static String GetFullPath(){
+        return SAVES_DIRECTORY + SLOT_NAME + SaveGameFormat.FULL_EXTENSION;
+    }
+
+    private static String GetDeltaPath(final int sequence){
+        return SAVES_DIRECTORY + SLOT_NAME + SEQUENCE_SEPARATOR + sequence + SaveGameFormat.DELTA_EXTENSION;
+    }
+}
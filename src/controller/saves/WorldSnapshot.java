@@ -0,0 +1,279 @@
+package controller.saves;
+
+import controller.entities.EntityStore;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+
+/**
+ * Description:
+ * 1. A copy of the world state a save holds: the current map's name and size, the bottom-layer
+ *    tiles of its edited regions, the character's position and facing, and every NPC.
+ * 2. Captured on the game loop (under its frame lock) and then only read, so it can be written
+ *    on the save thread while the game keeps changing.
+ * 3. A full snapshot holds every region edited since the map was loaded; a delta only holds the
+ *    regions changed since the previous snapshot of its chain, and is applied on top of it
+ *    through ApplyDelta(). The character and NPCs change every tick, so every snapshot holds them whole.
+ * 4. Snapshots of the same chain share a chain ID; the full snapshot has sequence 0 and each
+ *    delta the next sequence number.
+ */
+public class WorldSnapshot {
+
+    public static final int FULL_SEQUENCE = 0;
+
+    /**
+     * Description:
+     * The bottom-layer tiles of one edited region, row by row, clipped at the map's borders.
+     */
+    public static class Region {
+        private final int region_column;
+        private final int region_row;
+        private final short[] tiles;
+
+        public Region(final int region_column, final int region_row, final short[] tiles){
+            this.region_column = region_column;
+            this.region_row = region_row;
+            this.tiles = tiles;
+        }
+
+        public int GetRegionColumn(){
+            return region_column;
+        }
+
+        public int GetRegionRow(){
+            return region_row;
+        }
+
+        /**
+         * Restrictions:
+         * - Callers must not modify the returned array.
+         */
+        public short[] GetTiles(){
+            return tiles;
+        }
+    }
+
+    private final long chain_id;
+    private final int sequence;
+
+    private String map_name = "";
+    private int map_width = 0;
+    private int map_height = 0;
+    private int region_size = 1;
+    private int region_columns = 0;
+
+    // Keyed by region index (region_row * region_columns + region_column), so a delta replaces older tiles
+    private final LinkedHashMap<Integer, Region> regions = new LinkedHashMap<>();
+
+    private float character_x = 0f;
+    private float character_y = 0f;
+    private int character_facing = 0;
+
+    private int entity_count = 0;
+    private int[] entity_sprite_ids = new int[0];
+    private float[] entity_positions_x = new float[0];
+    private float[] entity_positions_y = new float[0];
+    private float[] entity_velocities_x = new float[0];
+    private float[] entity_velocities_y = new float[0];
+
+    /**
+     * Parameters:
+     * - chain_id: Identifies the full snapshot and the deltas applied on top of it.
+     * - sequence: FULL_SEQUENCE for a full snapshot; 1, 2, ... for the chain's deltas.
+     */
+    public WorldSnapshot(final long chain_id, final int sequence){
+        this.chain_id = chain_id;
+        this.sequence = sequence;
+    }
+
+    public long GetChainId(){
+        return chain_id;
+    }
+
+    public int GetSequence(){
+        return sequence;
+    }
+
+    public boolean IsDelta(){
+        return sequence != FULL_SEQUENCE;
+    }
+
+    /**
+     * Description:
+     * Sets the map the snapshot belongs to, and the size of the regions its tiles are grouped in.
+     *
+     * Assertives of Entrance:
+     * - Called before any AddRegion().
+     */
+    public void SetMap(final String map_name, final int map_width, final int map_height, final int region_size){
+        this.map_name = map_name;
+        this.map_width = map_width;
+        this.map_height = map_height;
+        this.region_size = region_size;
+        region_columns = (map_width + region_size - 1) / region_size;
+    }
+
+    public String GetMapName(){
+        return map_name;
+    }
+
+    public int GetMapWidth(){
+        return map_width;
+    }
+
+    public int GetMapHeight(){
+        return map_height;
+    }
+
+    public int GetRegionSize(){
+        return region_size;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the width, in tiles, of the regions in the given region column (the last
+     *   column is clipped at the map's border).
+     */
+    public int GetRegionWidth(final int region_column){
+        return Math.min(region_size, map_width - region_column * region_size);
+    }
+
+    public int GetRegionHeight(final int region_row){
+        return Math.min(region_size, map_height - region_row * region_size);
+    }
+
+    /**
+     * Description:
+     * Adds (or replaces) an edited region.
+     *
+     * Parameters:
+     * - tiles: The region's bottom-layer tiles, GetRegionWidth() x GetRegionHeight(), row by row.
+     */
+    public void AddRegion(final int region_column, final int region_row, final short[] tiles){
+        regions.put( region_row * region_columns + region_column, new Region(region_column, region_row, tiles) );
+    }
+
+    public Collection<Region> GetRegions(){
+        return regions.values();
+    }
+
+    public int GetRegionCount(){
+        return regions.size();
+    }
+
+    public void SetCharacter(final float character_x, final float character_y, final int character_facing){
+        this.character_x = character_x;
+        this.character_y = character_y;
+        this.character_facing = character_facing;
+    }
+
+    public float GetCharacterX(){
+        return character_x;
+    }
+
+    public float GetCharacterY(){
+        return character_y;
+    }
+
+    /**
+     * Description:
+     * Returns the character's Facing ordinal.
+     */
+    public int GetCharacterFacing(){
+        return character_facing;
+    }
+
+    /**
+     * Description:
+     * Copies the sprite, position and velocity of every entity in the store, in slot order.
+     * Entity IDs, previous positions and animation times aren't kept: restored entities get new
+     * IDs and restart their animations.
+     */
+    public void CaptureEntities(final EntityStore entity_store){
+        entity_count = entity_store.GetCount();
+        entity_sprite_ids = new int[entity_count];
+        entity_positions_x = new float[entity_count];
+        entity_positions_y = new float[entity_count];
+        entity_velocities_x = new float[entity_count];
+        entity_velocities_y = new float[entity_count];
+
+        for (int slot = 0; slot < entity_count; slot++) {
+            entity_sprite_ids[slot] = entity_store.GetSpriteID(slot);
+            entity_positions_x[slot] = entity_store.GetPositionX(slot);
+            entity_positions_y[slot] = entity_store.GetPositionY(slot);
+            entity_velocities_x[slot] = entity_store.GetVelocityX(slot);
+            entity_velocities_y[slot] = entity_store.GetVelocityY(slot);
+        }
+    }
+
+    /**
+     * Description:
+     * Sets every entity at once; the arrays are kept, not copied.
+     *
+     * Assertives of Entrance:
+     * - Every array holds at least entity_count elements.
+     */
+    public void SetEntities(final int entity_count, final int[] sprite_ids, final float[] positions_x, final float[] positions_y,
+                            final float[] velocities_x, final float[] velocities_y){
+        this.entity_count = entity_count;
+        entity_sprite_ids = sprite_ids;
+        entity_positions_x = positions_x;
+        entity_positions_y = positions_y;
+        entity_velocities_x = velocities_x;
+        entity_velocities_y = velocities_y;
+    }
+
+    public int GetEntityCount(){
+        return entity_count;
+    }
+
+    public int GetEntitySpriteID(final int entity){
+        return entity_sprite_ids[entity];
+    }
+
+    public float GetEntityPositionX(final int entity){
+        return entity_positions_x[entity];
+    }
+
+    public float GetEntityPositionY(final int entity){
+        return entity_positions_y[entity];
+    }
+
+    public float GetEntityVelocityX(final int entity){
+        return entity_velocities_x[entity];
+    }
+
+    public float GetEntityVelocityY(final int entity){
+        return entity_velocities_y[entity];
+    }
+
+    /**
+     * Objective: Brings a loaded snapshot up to date with the next delta of its chain.
+     *
+     * Description:
+     * 1. Checks the delta continues this snapshot: same chain, next sequence number, same map
+     *    and region size.
+     * 2. Replaces the delta's regions, keeping the others.
+     * 3. Takes the delta's character and entities.
+     *
+     * Expected Returns:
+     * - Returns the updated snapshot, which carries the delta's sequence number.
+     * - Returns null when the delta doesn't continue this snapshot; this snapshot is unchanged.
+     */
+    public WorldSnapshot ApplyDelta(final WorldSnapshot delta){
+        final boolean is_next_delta = delta.IsDelta() && delta.chain_id == chain_id && delta.sequence == sequence + 1;
+        final boolean is_same_map = delta.map_name.equals(map_name) && delta.map_width == map_width
+                                 && delta.map_height == map_height && delta.region_size == region_size;
+        if (!is_next_delta || !is_same_map) {
+            return null;
+        }
+
+        final WorldSnapshot merged = new WorldSnapshot(chain_id, delta.sequence);
+        merged.SetMap(map_name, map_width, map_height, region_size);
+        merged.regions.putAll(regions);
+        merged.regions.putAll(delta.regions);
+        merged.SetCharacter(delta.character_x, delta.character_y, delta.character_facing);
+        merged.SetEntities( delta.entity_count, delta.entity_sprite_ids, delta.entity_positions_x, delta.entity_positions_y,
+                            delta.entity_velocities_x, delta.entity_velocities_y );
+        return merged;
+    }
+}
@@ -0,0 +1,16 @@
+package controller.utils;
+
+/**
+ * Description:
+ * 1. Enum defining how Observer.Post() merges bursts of the same queued notification.
+ * 2. Notifications carry no data, so merging never loses information: only how many times,
+ *    and when, the callbacks run.
+ */
+public enum CoalescingPolicy {
+    // Every post is delivered, in order
+    NONE,
+    // Posts made while a delivery is still pending are merged into it
+    LATEST_WINS,
+    // Delivered once, when no post was made for the whole debounce window
+    DEBOUNCE
+}
@@ -0,0 +1,30 @@
+package controller.utils;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description:
+ * 1. Creates numbered daemon threads for background executors (e.g., "asset-loader-1").
+ * 2. Daemon threads never keep the application alive, so idle executors don't need shutting down.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String name_prefix;
+    private final AtomicInteger created_threads = new AtomicInteger();
+
+    /**
+     * Parameters:
+     * - name_prefix: Thread name prefix; each thread's number is appended to it (e.g., "asset-loader-").
+     */
+    public DaemonThreadFactory(final String name_prefix){
+        this.name_prefix = name_prefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable task){
+        final Thread thread = new Thread(task, name_prefix + created_threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -16,7 +16,19 @@ public enum ErrorStatus {
     FAILED_LOADING_TEXTFILE("The textfile's file is corrupted"),
     TEXTFILE_NOT_FOUND("The textfile wasn't loaded"),
     EMPTY_TEXTFILE("A necessary textfile is empty"),
-    UNRECOGNIZED_MAP_ELEMENT("A unrecognized element was found during map loading");
+    UNRECOGNIZED_MAP_ELEMENT("A unrecognized element was found during map loading"),
+    IRREGULAR_MAP_DIMENSIONS("The map's rows don't have the same number of elements"),
+    TOO_MANY_PROFILING_SECTIONS("There are more profiling sections than supported"),
+    FAILED_WRITING_PROFILING_CSV("The profiling CSV file couldn't be written"),
+    INVALID_BINARY_MAP("The binary map file is corrupted OR it has an unsupported version"),
+    FAILED_LOADING_BINARY_MAP("The binary map file couldn't be read"),
+    FAILED_WRITING_BINARY_MAP("The binary map file couldn't be written"),
+    INVALID_ASSET_IDS("The asset ID file is corrupted"),
+    FAILED_WRITING_ASSET_IDS("The asset ID file couldn't be written"),
+    INVALID_TILE_PROPERTIES("The tile properties file is corrupted OR it names an unknown image or property"),
+    INVALID_SAVE_GAME("The save game file is corrupted OR it has an unsupported version OR its map doesn't exist"),
+    FAILED_WRITING_SAVE_GAME("The save game file couldn't be written"),
+    FAILED_WRITING_FRAME("The headless frame image couldn't be written");
 
     private final String error_message;
 
@@ -12,7 +12,9 @@ public enum Notification{
     SETTINGS,
     IMAGE_LOADING_FAILED,
     IMAGE_NOT_FOUND,
-    WINDOW_RESIZED;
+    WINDOW_RESIZED,
+    WINDOW_CLOSED,
+    ASSETS_RELOADED;
 
     /**
      * Description:
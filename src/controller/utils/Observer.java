@@ -1,37 +1,160 @@
 package controller.utils;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Description:
  * 1. Singleton central event/notification system for decoupled component communication.
- * 2. Maintains a map of Notification to lists of Runnable callbacks.
+ * 2. Keeps, for every Notification (indexed by its ID), an array of Runnable callbacks.
  * 3. Components register interest in specific notifications and are invoked when
  *    those notifications are triggered.
+ * 4. The callback arrays are copy-on-write: Register() and Unregister() publish a new array, so
+ *    Notify() reads a snapshot without locking or allocating, from any thread.
+ * 5. Post() queues a notification instead of delivering it on the calling thread: each
+ *    notification is delivered on its own executor (the dispatch thread by default) and bursts
+ *    are merged according to its CoalescingPolicy, set through SetDispatch().
+ *
+ * Restrictions:
+ * - A callback registered or unregistered while a notification is being delivered only takes
+ *   effect on the next Notify(); unregistering itself from its own callback is safe.
  */
 public class Observer{
-    private static Observer instance;
+    // Declared first: the constructor below uses them
+    private static final Runnable[] NO_FUNCTIONS = new Runnable[0];
+    // Delivers queued notifications by default, and runs the debounce timers
+    private static final ScheduledExecutorService dispatch_executor = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("observer-dispatcher-"));
+
+    // Created eagerly, since notifications can be fired from any thread
+    private static final Observer instance = new Observer();
 
     public static Observer GetInstance(){
-        if (instance == null){
-            instance = new Observer();
-        }
         return instance;
     }
-    
-    private final Map< Notification, List<Runnable> > observers = new HashMap<>();
 
-    private Observer(){}
+    // Indexed by Notification.GetID(); never null
+    private final AtomicReferenceArray<Runnable[]> observers = new AtomicReferenceArray<>( Notification.values().length );
+    private final AtomicReferenceArray<QueuedDispatch> queued_dispatches = new AtomicReferenceArray<>( Notification.values().length );
+
+    private Observer(){
+        for (int notification_id = 0; notification_id < observers.length(); notification_id++) {
+            observers.set(notification_id, NO_FUNCTIONS);
+            queued_dispatches.set( notification_id, new QueuedDispatch(Notification.values()[notification_id], CoalescingPolicy.NONE, 0, dispatch_executor) );
+        }
+    }
+
+    /**
+     * Description:
+     * 1. How Post() delivers one notification: its coalescing policy, debounce window and executor.
+     * 2. Keeps the state of the pending delivery, so bursts can be merged without locking.
+     */
+    private final class QueuedDispatch {
+        private final CoalescingPolicy policy;
+        private final long debounce_nanoseconds;
+        private final Executor executor;
+
+        private final AtomicBoolean is_pending = new AtomicBoolean(false);
+        private final AtomicLong last_post_time = new AtomicLong();
+
+        // Created once, so posting a notification doesn't allocate a task each time
+        private final Runnable delivery;
+        private final Runnable merged_delivery;
+        private final Runnable debounce_check;
+
+        QueuedDispatch(final Notification notification, final CoalescingPolicy policy, final long debounce_nanoseconds, final Executor executor){
+            this.policy = policy;
+            this.debounce_nanoseconds = debounce_nanoseconds;
+            this.executor = executor;
+
+            delivery = () -> Notify(notification);
+            merged_delivery = () -> {
+                // Cleared first, so a post made while the callbacks run is delivered again
+                is_pending.set(false);
+                Notify(notification);
+            };
+            debounce_check = this::CheckDebounce;
+        }
+
+        void Post(){
+            switch (policy) {
+                case LATEST_WINS:
+                    if ( is_pending.compareAndSet(false, true) ) {
+                        executor.execute(merged_delivery);
+                    }
+                    break;
+
+                case DEBOUNCE:
+                    last_post_time.set( System.nanoTime() );
+                    if ( is_pending.compareAndSet(false, true) ) {
+                        dispatch_executor.schedule(debounce_check, debounce_nanoseconds, TimeUnit.NANOSECONDS);
+                    }
+                    break;
+
+                default:
+                    executor.execute(delivery);
+                    break;
+            }
+        }
+
+        /**
+         * Description:
+         * 1. If a post was made less than the debounce window ago, checks again when the window
+         *    since that post ends.
+         * 2. Otherwise, hands the merged delivery to the executor.
+         */
+        private void CheckDebounce(){
+            final long quiet_nanoseconds = System.nanoTime() - last_post_time.get();
+            if (quiet_nanoseconds < debounce_nanoseconds) {
+                dispatch_executor.schedule(debounce_check, debounce_nanoseconds - quiet_nanoseconds, TimeUnit.NANOSECONDS);
+                return;
+            }
+            executor.execute(merged_delivery);
+        }
+    }
+
+    /**
+     * Description:
+     * Sets how Post() delivers a notification from now on.
+     *
+     * Parameters:
+     * - notification: The notification to configure.
+     * - policy: How bursts of posts are merged.
+     * - debounce_milliseconds: With DEBOUNCE, how long no post must be made before delivering; ignored otherwise.
+     * - executor: Runs the callbacks (e.g., SwingUtilities::invokeLater to deliver on the EDT).
+     *
+     * Restrictions:
+     * - A delivery already pending with the previous settings still happens.
+     */
+    public void SetDispatch(final Notification notification, final CoalescingPolicy policy, final long debounce_milliseconds, final Executor executor){
+        queued_dispatches.set( notification.GetID(), new QueuedDispatch(notification, policy, TimeUnit.MILLISECONDS.toNanos(debounce_milliseconds), executor) );
+    }
+
+    /**
+     * Description:
+     * 1. Queues the notification for delivery through Notify(), on its configured executor.
+     * 2. Merges it with the pending delivery, or delays it, according to its coalescing policy.
+     *
+     * Parameters:
+     * - notification: The notification type to trigger.
+     *
+     * Restrictions:
+     * - Never runs callbacks on the calling thread, unless the configured executor does so.
+     * - Safe to call from any thread; it doesn't allocate, except through the executor.
+     */
+    public void Post(final Notification notification){
+        queued_dispatches.get( notification.GetID() ).Post();
+    }
 
     /**
      * Description:
-     * 1. If no callbacks exist for the given notification, creates a new list with the function
-     *    and stores it in the map.
-     * 2. If callbacks already exist, checks whether the function is already registered.
-     * 3. If not already registered, adds the function to the existing list.
+     * 1. Checks whether the function is already registered for the notification.
+     * 2. If not, publishes a copy of the notification's callbacks with the function appended.
      *
      * Parameters:
      * - notification: The notification type to register for.
@@ -40,30 +163,26 @@ public class Observer{
      * Expected Returns:
      * - Returns true when the function was successfully registered.
      * - Returns false when the function was already registered for this notification.
+     *
+     * Restrictions:
+     * - Writers are serialized; Notify() never waits for them.
      */
-    public boolean Register(Notification notification, Runnable function){
-        if ( !observers.containsKey(notification) ) {
-            List<Runnable> function_list = new ArrayList<>();
-            function_list.add(function);
-
-            observers.put(notification, function_list);
-            return true;
-        }
-        
-        List<Runnable> function_list = observers.get(notification);
-        if ( function_list.contains(function) ) {
+    public synchronized boolean Register(Notification notification, Runnable function){
+        final Runnable[] functions = observers.get( notification.GetID() );
+        if ( IndexOf(functions, function) >= 0 ) {
             return false; // Function already registered
         }
-        
-        function_list.add(function);
+
+        final Runnable[] registered_functions = Arrays.copyOf(functions, functions.length + 1);
+        registered_functions[functions.length] = function;
+        observers.set(notification.GetID(), registered_functions);
         return true;
     }
 
     /**
      * Description:
-     * 1. Checks if any callbacks are registered for the given notification.
-     * 2. If found, checks whether the specific function exists in the list.
-     * 3. If found, removes the function from the list.
+     * 1. Finds the function among the notification's callbacks.
+     * 2. If found, publishes a copy of the callbacks without it.
      *
      * Parameters:
      * - notification: The notification type to unregister from.
@@ -73,24 +192,33 @@ public class Observer{
      * - Returns true when the function was successfully removed.
      * - Returns false when the notification has no registered callbacks or the function is not found.
      */
-    public boolean Unregister(Notification notification, Runnable function){
-        if ( !observers.containsKey(notification) ) {
-            return false;
-        }
-        
-        List<Runnable> function_list = observers.get(notification);
-        if ( !function_list.contains(function) ) {
+    public synchronized boolean Unregister(Notification notification, Runnable function){
+        final Runnable[] functions = observers.get( notification.GetID() );
+        final int function_index = IndexOf(functions, function);
+        if (function_index < 0) {
             return false; // Function not registered
         }
-        
-        function_list.remove(function);
+
+        final Runnable[] remaining_functions = new Runnable[functions.length - 1];
+        System.arraycopy(functions, 0, remaining_functions, 0, function_index);
+        System.arraycopy(functions, function_index + 1, remaining_functions, function_index, remaining_functions.length - function_index);
+        observers.set(notification.GetID(), remaining_functions.length == 0 ? NO_FUNCTIONS : remaining_functions);
         return true;
     }
 
+    private static int IndexOf(final Runnable[] functions, final Runnable function){
+        for (int function_index = 0; function_index < functions.length; function_index++) {
+            if ( functions[function_index].equals(function) ) {
+                return function_index;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Description:
-     * 1. Checks if any callbacks are registered for the given notification.
-     * 2. If found, iterates over all registered callbacks and invokes each one.
+     * 1. Reads the current snapshot of the notification's callbacks.
+     * 2. Invokes each one, in registration order.
      *
      * Parameters:
      * - notification: The notification type to trigger.
@@ -98,16 +226,19 @@ public class Observer{
      * Expected Returns:
      * - Returns true when at least one callback was registered and all were invoked.
      * - Returns false when no callbacks are registered for this notification.
+     *
+     * Restrictions:
+     * - Must not allocate nor lock: callbacks run on the thread that calls it.
      */
     public boolean Notify(Notification notification){
-        if ( !observers.containsKey(notification) ) {
+        final Runnable[] functions = observers.get( notification.GetID() );
+        if (functions.length == 0) {
             return false;
         }
-        
-        List<Runnable> function_list = observers.get(notification);
-        for (Runnable function : function_list) {
+
+        for (final Runnable function : functions) {
             function.run();
         }
         return true;
     }
-}
\ No newline at end of file
+}
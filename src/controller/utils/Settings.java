@@ -0,0 +1,245 @@
+package controller.utils;
+
+/**
+ * Description:
+ * 1. Singleton access point for the game's tunable settings.
+ * 2. Every setting is read from a Java system property (e.g., -Dgame.maximum_fps=144), falling
+ *    back to a default value when the property is missing or can't be parsed.
+ * 3. Values are read once, when the singleton is created.
+ */
+public class Settings {
+
+    private static Settings instance;
+
+    public static Settings GetInstance(){
+        if (instance == null){
+            instance = new Settings();
+        }
+        return instance;
+    }
+
+    public static final int UNCAPPED_FRAMES_PER_SECOND = 0;
+
+    private static final String PROPERTY_PREFIX = "game.";
+
+    private static final int DEFAULT_UPDATES_PER_SECOND = 60;
+    private static final int DEFAULT_MAXIMUM_FRAMES_PER_SECOND = 60;
+    private static final boolean DEFAULT_ACTIVE_RENDERING = true;
+    private static final boolean DEFAULT_PERFORMANCE_OVERLAY = false;
+    private static final String DEFAULT_PROFILING_CSV = ""; // Empty: don't dump
+    private static final int DEFAULT_REGION_RADIUS = 1;
+    private static final int DEFAULT_REGION_MEMORY_BUDGET_MEGABYTES = 64;
+    private static final boolean DEFAULT_LAZY_IMAGES = false;
+    private static final int DEFAULT_IMAGE_CACHE_BUDGET_MEGABYTES = 256;
+    private static final boolean DEFAULT_HOT_RELOAD = false;
+    private static final int DEFAULT_NPC_COUNT = 0;
+    private static final boolean DEFAULT_HEADLESS = false;
+    private static final int DEFAULT_HEADLESS_WIDTH = 1920;
+    private static final int DEFAULT_HEADLESS_HEIGHT = 1080;
+    private static final int DEFAULT_HEADLESS_FRAMES = 120;
+    private static final String DEFAULT_HEADLESS_OUTPUT = ""; // Empty: don't dump frames
+    private static final int DEFAULT_MAP_RENDER_THREADS = 0; // Zero: draw the map through its chunk cache
+
+    private static final int BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final int updates_per_second = ReadPositiveInteger("updates_per_second", DEFAULT_UPDATES_PER_SECOND);
+    private final int maximum_frames_per_second = ReadInteger("maximum_fps", DEFAULT_MAXIMUM_FRAMES_PER_SECOND);
+    private final boolean active_rendering = ReadBoolean("active_rendering", DEFAULT_ACTIVE_RENDERING);
+    private final boolean performance_overlay = ReadBoolean("performance_overlay", DEFAULT_PERFORMANCE_OVERLAY);
+    private final String profiling_csv = ReadString("profiling_csv", DEFAULT_PROFILING_CSV);
+    private final int region_radius = ReadInteger("region_radius", DEFAULT_REGION_RADIUS);
+    private final int region_memory_budget = ReadPositiveInteger("region_memory_budget_mb", DEFAULT_REGION_MEMORY_BUDGET_MEGABYTES);
+    private final boolean lazy_images = ReadBoolean("lazy_images", DEFAULT_LAZY_IMAGES);
+    private final int image_cache_budget = ReadPositiveInteger("image_cache_budget_mb", DEFAULT_IMAGE_CACHE_BUDGET_MEGABYTES);
+    private final boolean hot_reload = ReadBoolean("hot_reload", DEFAULT_HOT_RELOAD);
+    private final int npc_count = ReadInteger("npc_count", DEFAULT_NPC_COUNT);
+    private final boolean headless = ReadBoolean("headless", DEFAULT_HEADLESS);
+    private final int headless_width = ReadPositiveInteger("headless_width", DEFAULT_HEADLESS_WIDTH);
+    private final int headless_height = ReadPositiveInteger("headless_height", DEFAULT_HEADLESS_HEIGHT);
+    private final int headless_frames = ReadPositiveInteger("headless_frames", DEFAULT_HEADLESS_FRAMES);
+    private final String headless_output = ReadString("headless_output", DEFAULT_HEADLESS_OUTPUT);
+    private final int map_render_threads = ReadInteger("map_render_threads", DEFAULT_MAP_RENDER_THREADS);
+
+    private Settings(){}
+
+    /**
+     * Description:
+     * Number of fixed-timestep update ticks per second of game time.
+     */
+    public int GetUpdatesPerSecond(){
+        return updates_per_second;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the frame rate cap, or UNCAPPED_FRAMES_PER_SECOND (0) when frames are rendered
+     *   as fast as possible.
+     */
+    public int GetMaximumFramesPerSecond(){
+        return Math.max(UNCAPPED_FRAMES_PER_SECOND, maximum_frames_per_second);
+    }
+
+    /**
+     * Description:
+     * Whether the game panel is drawn through a BufferStrategy by the game loop (true) or through
+     * Swing's repaint mechanism (false).
+     */
+    public boolean IsActiveRendering(){
+        return active_rendering;
+    }
+
+    /**
+     * Description:
+     * Whether the performance overlay starts visible; it can be toggled in game with F3.
+     */
+    public boolean IsPerformanceOverlayVisible(){
+        return performance_overlay;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the path of the CSV file the frame timings are dumped to on shutdown.
+     * - Returns an empty string when the timings shouldn't be dumped.
+     */
+    public String GetProfilingCsvPath(){
+        return profiling_csv;
+    }
+
+    /**
+     * Description:
+     * How many map regions around the visible ones are kept loaded (and loaded ahead, in the
+     * direction the view moves) when a map is streamed.
+     */
+    public int GetRegionRadius(){
+        return Math.max(0, region_radius);
+    }
+
+    /**
+     * Description:
+     * 1. Memory, in bytes, that the tiles of a map may take.
+     * 2. Maps bigger than this are streamed region by region, and resident regions outside the
+     *    radius are evicted once their tiles exceed it.
+     */
+    public long GetRegionMemoryBudget(){
+        return (long) region_memory_budget * BYTES_PER_MEGABYTE;
+    }
+
+    /**
+     * Description:
+     * Whether images are decoded on first use and kept in a memory-budgeted cache (true) instead
+     * of all being decoded at startup and kept forever (false).
+     */
+    public boolean IsLazyImageLoading(){
+        return lazy_images;
+    }
+
+    /**
+     * Description:
+     * Memory, in bytes, that the decoded images may take in lazy image loading mode.
+     */
+    public long GetImageCacheBudget(){
+        return (long) image_cache_budget * BYTES_PER_MEGABYTE;
+    }
+
+    /**
+     * Description:
+     * Whether the asset folders are watched, so changed images and maps are reloaded while the
+     * game runs (a development mode).
+     */
+    public boolean IsHotReloadEnabled(){
+        return hot_reload;
+    }
+
+    /**
+     * Description:
+     * How many wandering NPCs are created when a game starts.
+     */
+    public int GetNpcCount(){
+        return Math.max(0, npc_count);
+    }
+
+    /**
+     * Description:
+     * Whether the game runs without a window: a new game is rendered offscreen for a fixed
+     * number of ticks, printing a hash of every frame, and then the application exits.
+     */
+    public boolean IsHeadless(){
+        return headless;
+    }
+
+    /**
+     * Description:
+     * Resolution, in pixels, of the offscreen frames rendered in headless mode.
+     */
+    public int GetHeadlessWidth(){
+        return headless_width;
+    }
+
+    public int GetHeadlessHeight(){
+        return headless_height;
+    }
+
+    /**
+     * Description:
+     * How many frames are rendered in headless mode, one per update tick.
+     */
+    public int GetHeadlessFrames(){
+        return headless_frames;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the directory the headless frames are written to, as PNG files.
+     * - Returns an empty string when only their hashes are printed.
+     */
+    public String GetHeadlessOutputDirectory(){
+        return headless_output;
+    }
+
+    /**
+     * Description:
+     * How many threads rasterize the visible map straight into one image, in horizontal bands
+     * (see ParallelTileRasterizer); 0 draws it through the chunk cache instead.
+     */
+    public int GetMapRenderThreads(){
+        return Math.max(0, map_render_threads);
+    }
+
+    private static String ReadProperty(final String key){
+        return System.getProperty(PROPERTY_PREFIX + key);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the property's integer value when it's present and numeric.
+     * - Returns default_value otherwise.
+     */
+    private static int ReadInteger(final String key, final int default_value){
+        final String value = ReadProperty(key);
+        if (value == null) {
+            return default_value;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException number_format_exception) {
+            return default_value;
+        }
+    }
+
+    private static int ReadPositiveInteger(final String key, final int default_value){
+        final int value = ReadInteger(key, default_value);
+        return value > 0 ? value : default_value;
+    }
+
+    private static String ReadString(final String key, final String default_value){
+        final String value = ReadProperty(key);
+        return value != null ? value.trim() : default_value;
+    }
+
+    private static boolean ReadBoolean(final String key, final boolean default_value){
+        final String value = ReadProperty(key);
+        return value != null ? Boolean.parseBoolean(value.trim()) : default_value;
+    }
+}
@@ -0,0 +1,147 @@
+package view;
+
+import controller.profiling.FrameProfiler;
+import controller.utils.Settings;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import view.animation.AnimationClock;
+import view.camera.Camera;
+import view.renderers.Character;
+import view.renderers.Entities;
+import view.renderers.Map;
+import view.renderers.Renderer;
+
+/**
+ * Description:
+ * 1. Singleton facade of the view layer for headless mode: drives the Map, Entities and
+ *    Character renderers into an offscreen BufferedImage, without creating the Window or any
+ *    Panel, so it works on machines with no display.
+ * 2. Starts a game as the game panel does for NEW_GAME, with the screen sized to the
+ *    configured resolution.
+ * 3. Renders exactly at the update ticks (no interpolation) and without the performance
+ *    overlay, so the same settings always produce the same frames.
+ * 4. Measures the update tick, the whole frame and every renderer through the FrameProfiler,
+ *    like the game panel.
+ *
+ * Restrictions:
+ * - Only used by the thread running the headless loop; nothing else touches the renderers.
+ */
+public class HeadlessView {
+
+    private static HeadlessView instance;
+
+    public static HeadlessView GetInstance(){
+        if (instance == null){
+            instance = new HeadlessView();
+        }
+        return instance;
+    }
+
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    // Frames are drawn at the tick's positions, which interpolating all the way gives
+    private static final float TICK_INTERPOLATION = 1f;
+
+    private final Settings settings = Settings.GetInstance();
+    private final FrameProfiler profiler = FrameProfiler.GetInstance();
+
+    private final Camera camera = Camera.GetInstance();
+    private final AnimationClock animation_clock = AnimationClock.GetInstance();
+
+    private final Map map = Map.GetInstance();
+    private final Entities entities = Entities.GetInstance();
+    private final Character character = Character.GetInstance();
+
+    private BufferedImage frame;
+
+    private HeadlessView(){}
+
+    /**
+     * Objective: Starts a new game rendered into an offscreen image.
+     *
+     * Description:
+     * 1. Creates the frame image, with one int per pixel (TYPE_INT_ARGB).
+     * 2. Loads the main map, the main character's sprites and the NPC archetypes, and spawns the
+     *    configured number of wandering NPCs (from a fixed seed).
+     * 3. Places the character at the center of the map and makes the Camera follow it.
+     * 4. Sizes the renderers' screen to the frame and calculates the block dimensions.
+     *
+     * Parameters:
+     * - width, height: The frames' resolution, in pixels.
+     */
+    public void StartNewGame(final int width, final int height){
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+        map.LoadMainMap();
+        character.LoadMainCharacter();
+        entities.LoadArchetypes();
+        entities.SpawnWanderers( settings.GetNpcCount(), map.GetMapWidth(), map.GetMapHeight() );
+
+        final float map_center_divisor = 2f;
+        character.SetPosition(map.GetMapWidth() / map_center_divisor, map.GetMapHeight() / map_center_divisor);
+        camera.Follow(character);
+
+        map.SetScreenSize(width, height);
+        entities.SetScreenSize(width, height);
+        map.CalculateBlockDimensions();
+    }
+
+    /**
+     * Description:
+     * Advances the animation clock and every renderer by one fixed update tick, recording the
+     * tick's duration.
+     */
+    public void Update(final double step_seconds){
+        final long update_start = System.nanoTime();
+        animation_clock.Advance(step_seconds);
+        map.Update(step_seconds);
+        entities.Update(step_seconds);
+        character.Update(step_seconds);
+        profiler.Record(FrameProfiler.UPDATE_SECTION, System.nanoTime() - update_start);
+    }
+
+    /**
+     * Description:
+     * 1. Clears the frame with BACKGROUND_COLOR.
+     * 2. Places the moving renderers at the last tick and updates the Camera.
+     * 3. Delegates rendering to the Map, Entities and Character renderers, timing each one and
+     *    the whole frame.
+     *
+     * Expected Returns:
+     * - Returns the frame image; it's redrawn in place by the next Render().
+     *
+     * Assertives of Entrance:
+     * - StartNewGame() was called.
+     */
+    public BufferedImage Render(){
+        final long frame_start = System.nanoTime();
+
+        final Graphics2D graphics_2d = frame.createGraphics();
+        graphics_2d.setColor(BACKGROUND_COLOR);
+        graphics_2d.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+
+        entities.Interpolate(TICK_INTERPOLATION);
+        character.Interpolate(TICK_INTERPOLATION);
+        camera.Update();
+
+        RenderProfiled(map, graphics_2d);
+        RenderProfiled(entities, graphics_2d);
+        RenderProfiled(character, graphics_2d);
+        graphics_2d.dispose();
+
+        profiler.Record(FrameProfiler.FRAME_SECTION, System.nanoTime() - frame_start);
+        return frame;
+    }
+
+    /**
+     * Restrictions:
+     * - There is no Panel, so the renderers draw without an ImageObserver; every image they draw
+     *   is already loaded.
+     */
+    private void RenderProfiled(final Renderer renderer, final Graphics2D graphics_2d){
+        final long render_start = System.nanoTime();
+        renderer.Render(graphics_2d, null);
+        profiler.Record(renderer.GetProfilerSection(), System.nanoTime() - render_start);
+    }
+}
@@ -23,4 +23,25 @@ public class ViewAPI{
     public void ShowMenu(){ 
         window.ShowMenu(); 
     }
+
+    /**
+     * Description:
+     * Advances the displayed screen by one fixed update tick.
+     */
+    public void Update(final double step_seconds){
+        window.Update(step_seconds);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when a frame was rendered.
+     * - Returns false when the displayed screen doesn't render through the game loop (e.g., the menu).
+     */
+    public boolean Render(final float interpolation){
+        return window.Render(interpolation);
+    }
+
+    public void Close(){
+        window.Close();
+    }
 }
\ No newline at end of file
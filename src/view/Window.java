@@ -1,9 +1,15 @@
 package view;
 
+import controller.utils.CoalescingPolicy;
 import controller.utils.Notification;
 import controller.utils.Observer;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import view.panels.Game;
 import view.panels.Menu;
 
@@ -11,6 +17,9 @@ import view.panels.Menu;
  * Description:
  * 1. Singleton main game window extending JFrame.
  * 2. Manages the application window lifecycle including panel switching and window configuration.
+ * 3. Posts WINDOW_RESIZED whenever the user resizes the window. Those posts are debounced and
+ *    delivered on the EDT, so dragging the window's border rebuilds the map's caches once, after
+ *    the drag stops, instead of on every intermediate size.
  */
 public class Window extends JFrame {
     
@@ -24,9 +33,14 @@ public class Window extends JFrame {
     }
 
     private final Observer observer = Observer.GetInstance();
+
+    // How long the window size must stay still before WINDOW_RESIZED is delivered
+    private static final long RESIZE_DEBOUNCE_MILLISECONDS = 100;
     
     private final Menu menu = Menu.GetInstance();
     private final Game game = Game.GetInstance();
+
+    private volatile boolean is_game_displayed = false;
     
     /**
      * Assertives of Departure:
@@ -36,13 +50,28 @@ public class Window extends JFrame {
         RegisterObservers();
 
         setTitle("Java 2D Game");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // Closing is reported through WINDOW_CLOSED so the game loop can stop before the application exits
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent event) {
+                observer.Notify(Notification.WINDOW_CLOSED);
+            }
+        });
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent event) {
+                observer.Post(Notification.WINDOW_RESIZED);
+            }
+        });
         setResizable(true);
         pack(); setLocationRelativeTo(null);
     }
 
     private void RegisterObservers(){
         observer.Register(Notification.NEW_GAME, this::ShowGame);
+        observer.Register(Notification.LOAD_GAME, this::ShowGame);
+        observer.SetDispatch(Notification.WINDOW_RESIZED, CoalescingPolicy.DEBOUNCE, RESIZE_DEBOUNCE_MILLISECONDS, SwingUtilities::invokeLater);
     }
 
     private void Show(){
@@ -67,10 +96,36 @@ public class Window extends JFrame {
     }
 
     public void ShowMenu(){
+        is_game_displayed = false;
         ChangePanel(menu);
     }
 
     public void ShowGame(){
         ChangePanel(game);
+        is_game_displayed = true;
+    }
+
+    /**
+     * Description:
+     * Forwards the update tick to the game panel while it's displayed.
+     */
+    public void Update(final double step_seconds){
+        if (is_game_displayed) {
+            game.Update(step_seconds);
+        }
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when the game panel is displayed and rendered a frame.
+     * - Returns false otherwise.
+     */
+    public boolean Render(final float interpolation){
+        return is_game_displayed && game.Render(interpolation);
+    }
+
+    public void Close(){
+        is_game_displayed = false;
+        dispose();
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package view.animation;
+
+/**
+ * Description:
+ * 1. Immutable description of an animation: the frames of a FrameStrip, shown for the same
+ *    duration each, looping or stopping on the last frame.
+ * 2. Holds no playback state, so one clip is shared by every animator playing it.
+ */
+public class AnimationClip {
+
+    private final FrameStrip frame_strip;
+    private final double frame_duration_seconds;
+    private final boolean is_looping;
+
+    /**
+     * Parameters:
+     * - frame_strip: The frames to show, in order.
+     * - frame_duration_seconds: How long each frame is shown; must be greater than zero.
+     * - is_looping: Whether the clip starts over after its last frame, or stays on it.
+     */
+    public AnimationClip(final FrameStrip frame_strip, final double frame_duration_seconds, final boolean is_looping){
+        this.frame_strip = frame_strip;
+        this.frame_duration_seconds = frame_duration_seconds;
+        this.is_looping = is_looping;
+    }
+
+    public FrameStrip GetFrameStrip(){
+        return frame_strip;
+    }
+
+    public double GetFrameDurationSeconds(){
+        return frame_duration_seconds;
+    }
+
+    public boolean IsLooping(){
+        return is_looping;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the index of the frame shown after playing the clip for elapsed_seconds.
+     */
+    public int GetFrameIndex(final double elapsed_seconds){
+        final int frame_count = frame_strip.GetFrameCount();
+        final long frame = (long) (Math.max(0, elapsed_seconds) / frame_duration_seconds);
+        if (is_looping) {
+            return (int) (frame % frame_count);
+        }
+        return (int) Math.min(frame, frame_count - 1);
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when a non-looping clip played past its last frame's duration.
+     * - Returns false for looping clips.
+     */
+    public boolean IsFinished(final double elapsed_seconds){
+        return !is_looping && elapsed_seconds >= frame_duration_seconds * frame_strip.GetFrameCount();
+    }
+}
@@ -0,0 +1,38 @@
+package view.animation;
+
+/**
+ * Description:
+ * 1. Singleton clock shared by every animation, advanced once per fixed update tick.
+ * 2. Animators only remember when their clip started, so advancing every animation in the game
+ *    costs a single addition, however many animators exist.
+ *
+ * Restrictions:
+ * - Only the game loop advances the clock; its time is read while rendering, on the same thread
+ *   or under the same lock.
+ */
+public class AnimationClock {
+    private static AnimationClock instance;
+
+    public static AnimationClock GetInstance(){
+        if (instance == null){
+            instance = new AnimationClock();
+        }
+        return instance;
+    }
+
+    private double time_seconds = 0;
+
+    private AnimationClock(){}
+
+    /**
+     * Parameters:
+     * - step_seconds: The fixed duration of an update tick, in seconds.
+     */
+    public void Advance(final double step_seconds){
+        time_seconds += step_seconds;
+    }
+
+    public double GetTime(){
+        return time_seconds;
+    }
+}
@@ -0,0 +1,77 @@
+package view.animation;
+
+import java.awt.Graphics2D;
+import java.awt.image.ImageObserver;
+
+/**
+ * Description:
+ * 1. Playback state of one animated element: the clip it plays and when the clip started on
+ *    the shared AnimationClock.
+ * 2. Resolving the current frame is a subtraction, a division and an array read: no lookup,
+ *    no allocation, so hundreds of animators can be drawn every frame.
+ */
+public class Animator {
+
+    private final AnimationClock animation_clock = AnimationClock.GetInstance();
+
+    private AnimationClip clip;
+    private double start_time_seconds;
+
+    /**
+     * Description:
+     * 1. Starts playing the clip from its first frame.
+     * 2. Does nothing if the clip is already playing, so it can be called on every tick.
+     */
+    public void Play(final AnimationClip clip){
+        if (this.clip == clip) {
+            return;
+        }
+
+        this.clip = clip;
+        start_time_seconds = animation_clock.GetTime();
+    }
+
+    /**
+     * Description:
+     * Starts playing the clip from its first frame, even if it's already playing.
+     */
+    public void Restart(final AnimationClip clip){
+        this.clip = clip;
+        start_time_seconds = animation_clock.GetTime();
+    }
+
+    public AnimationClip GetClip(){
+        return clip;
+    }
+
+    public boolean IsFinished(){
+        return clip != null && clip.IsFinished( animation_clock.GetTime() - start_time_seconds );
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the index of the clip's current frame in its FrameStrip.
+     * - Returns 0 when no clip was played.
+     */
+    public int GetFrameIndex(){
+        if (clip == null) {
+            return 0;
+        }
+        return clip.GetFrameIndex(animation_clock.GetTime() - start_time_seconds);
+    }
+
+    /**
+     * Description:
+     * Draws the current frame of the clip, scaled as set in its FrameStrip, with its top-left
+     * corner at (x_position, y_position). Draws nothing when no clip was played.
+     *
+     * Restrictions:
+     * - Must not allocate: it runs for every animated element on every frame.
+     */
+    public void DrawFrame(final Graphics2D graphics_2d, final int x_position, final int y_position, final ImageObserver observer){
+        if (clip == null) {
+            return;
+        }
+        clip.GetFrameStrip().DrawFrame(graphics_2d, GetFrameIndex(), x_position, y_position, observer);
+    }
+}
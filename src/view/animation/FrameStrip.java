@@ -0,0 +1,154 @@
+package view.animation;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+/**
+ * Description:
+ * 1. The frames of an animation, taken from a single image where they lie side by side,
+ *    left to right, all with the same width.
+ * 2. Frames are drawn as sub-rectangles of a sheet: at first the strip image itself (usually a
+ *    view into the TextureAtlas), so no pixel is copied.
+ * 3. Once scaled, the sheet is a compatible image of the destination holding every frame
+ *    pre-scaled to the size it's drawn at, in one row, so drawing a frame is a plain 1:1 copy.
+ *    A SpriteSet scales all its strips into rows of a single shared sheet (see ScaleInto()), so
+ *    its sprites are drawn from one image. The sheet is only rebuilt when that size changes.
+ *
+ * Restrictions:
+ * - A strip can be shared by any number of clips and animators; it holds no playback state.
+ */
+public class FrameStrip {
+
+    private BufferedImage strip_image;
+    private int frame_count;
+    private int frame_width;
+    private int frame_height;
+
+    // Where the frames are drawn from: the first one's top-left corner, and the size of each
+    private BufferedImage sheet;
+    private int sheet_y;
+    private int cell_width;
+    private int cell_height;
+    private boolean is_scaled = false;
+
+    /**
+     * Parameters:
+     * - strip_image: The frames side by side; its width must be a multiple of frame_count.
+     * - frame_count: How many frames the image holds, at least one.
+     */
+    public FrameStrip(final BufferedImage strip_image, final int frame_count){
+        Slice(strip_image, frame_count);
+    }
+
+    /**
+     * Description:
+     * 1. Computes the size of a frame from the image's width and the frame count.
+     * 2. Until the strip is scaled again, the frames are drawn from the image, at their source size.
+     */
+    private void Slice(final BufferedImage strip_image, final int frame_count){
+        this.strip_image = strip_image;
+        this.frame_count = frame_count;
+        frame_width = strip_image.getWidth() / frame_count;
+        frame_height = strip_image.getHeight();
+
+        sheet = strip_image;
+        sheet_y = 0;
+        cell_width = frame_width;
+        cell_height = frame_height;
+        is_scaled = false;
+    }
+
+    /**
+     * Description:
+     * Slices a new image (e.g., the strip's file was reloaded) with the same frame count.
+     */
+    public void Reload(final BufferedImage strip_image){
+        Slice(strip_image, frame_count);
+    }
+
+    public int GetFrameCount(){
+        return frame_count;
+    }
+
+    public int GetFrameWidth(){
+        return frame_width;
+    }
+
+    public int GetFrameHeight(){
+        return frame_height;
+    }
+
+    /**
+     * Description:
+     * Returns the image the frames are currently drawn from; a new one after every rescale or reload.
+     */
+    public BufferedImage GetSheet(){
+        return sheet;
+    }
+
+    /**
+     * Description:
+     * 1. Does nothing when the frames are already scaled to that size.
+     * 2. Otherwise, creates a compatible translucent sheet one row of frames high and scales
+     *    every frame into it (see ScaleInto()).
+     *
+     * Parameters:
+     * - width, height: The on-screen size of a frame; non-positive sizes are ignored.
+     * - graphics_configuration: The configuration of the surface the frames will be drawn on.
+     */
+    public void SetScaledSize(final int width, final int height, final GraphicsConfiguration graphics_configuration){
+        if (width <= 0 || height <= 0 || (is_scaled && width == cell_width && height == cell_height)) {
+            return;
+        }
+
+        final BufferedImage new_sheet = graphics_configuration.createCompatibleImage(frame_count * width, height, Transparency.TRANSLUCENT);
+        final Graphics2D sheet_graphics = new_sheet.createGraphics();
+        ScaleInto(new_sheet, sheet_graphics, 0, width, height);
+        sheet_graphics.dispose();
+    }
+
+    /**
+     * Description:
+     * 1. Draws every frame scaled to width x height into one row of the sheet, left to right.
+     * 2. From then on, draws its frames from that row.
+     *
+     * Parameters:
+     * - sheet: The image to scale into; at least frame_count * width wide.
+     * - sheet_graphics: A Graphics2D of the sheet.
+     * - sheet_y: The row's top, in pixels.
+     * - width, height: The on-screen size of a frame.
+     */
+    public void ScaleInto(final BufferedImage sheet, final Graphics2D sheet_graphics, final int sheet_y, final int width, final int height){
+        sheet_graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        for (int frame = 0; frame < frame_count; frame++) {
+            final int source_x = frame * frame_width;
+            sheet_graphics.drawImage(strip_image, frame * width, sheet_y, (frame + 1) * width, sheet_y + height,
+                                     source_x, 0, source_x + frame_width, frame_height, null);
+        }
+
+        this.sheet = sheet;
+        this.sheet_y = sheet_y;
+        cell_width = width;
+        cell_height = height;
+        is_scaled = true;
+    }
+
+    /**
+     * Description:
+     * Draws the frame with its top-left corner at (x_position, y_position), scaled to the size
+     * given to SetScaledSize() or ScaleInto(), or at its source size if the strip wasn't scaled
+     * since it was sliced.
+     *
+     * Restrictions:
+     * - Must not allocate: it runs for every animated element on every frame.
+     */
+    public void DrawFrame(final Graphics2D graphics_2d, final int frame, final int x_position, final int y_position, final ImageObserver observer){
+        final int source_x = frame * cell_width;
+        graphics_2d.drawImage(sheet, x_position, y_position, x_position + cell_width, y_position + cell_height,
+                              source_x, sheet_y, source_x + cell_width, sheet_y + cell_height, observer);
+    }
+}
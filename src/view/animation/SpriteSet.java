@@ -0,0 +1,108 @@
+package view.animation;
+
+import controller.entities.Facing;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Description:
+ * 1. The animations of a kind of character (an archetype): one FrameStrip per Facing, each
+ *    shared by that direction's idle and walking clips.
+ * 2. Clips are kept in arrays indexed by Facing ordinal, so choosing one needs no lookup.
+ * 3. Remembers the image each strip was sliced from, so a hot reloaded image is sliced again.
+ * 4. Scales every strip into one shared sheet, a row of frames per Facing, so all its sprites
+ *    are drawn from a single image.
+ *
+ * Restrictions:
+ * - Every sprite must have the same size.
+ */
+public class SpriteSet {
+
+    private final int[] image_ids;
+    private final FrameStrip[] frame_strips = new FrameStrip[Facing.COUNT];
+    private final AnimationClip[] idle_clips = new AnimationClip[Facing.COUNT];
+    private final AnimationClip[] walk_clips = new AnimationClip[Facing.COUNT];
+
+    // Size of a frame in the shared scaled sheet; zero while the strips aren't all scaled into it
+    private int scaled_width = 0;
+    private int scaled_height = 0;
+
+    /**
+     * Parameters:
+     * - image_ids: The ID of each direction's image, indexed by Facing ordinal.
+     * - images: Each direction's frames side by side, indexed by Facing ordinal.
+     * - frames_per_strip: How many frames each image holds.
+     * - idle_frame_seconds, walk_frame_seconds: How long each frame of the idle and walking clips is shown.
+     */
+    public SpriteSet(final int[] image_ids, final BufferedImage[] images, final int frames_per_strip,
+                     final double idle_frame_seconds, final double walk_frame_seconds){
+        this.image_ids = image_ids.clone();
+        for (int facing = 0; facing < Facing.COUNT; facing++) {
+            frame_strips[facing] = new FrameStrip(images[facing], frames_per_strip);
+            idle_clips[facing] = new AnimationClip(frame_strips[facing], idle_frame_seconds, true);
+            walk_clips[facing] = new AnimationClip(frame_strips[facing], walk_frame_seconds, true);
+        }
+    }
+
+    public AnimationClip GetIdleClip(final int facing){
+        return idle_clips[facing];
+    }
+
+    public AnimationClip GetWalkClip(final int facing){
+        return walk_clips[facing];
+    }
+
+    public AnimationClip GetClip(final int facing, final boolean is_moving){
+        return is_moving ? walk_clips[facing] : idle_clips[facing];
+    }
+
+    public int GetFrameWidth(){
+        return frame_strips[0].GetFrameWidth();
+    }
+
+    public int GetFrameHeight(){
+        return frame_strips[0].GetFrameHeight();
+    }
+
+    /**
+     * Description:
+     * 1. Does nothing when the strips are already scaled to that size.
+     * 2. Otherwise, creates a compatible translucent sheet with a row of frames per Facing, and
+     *    scales each strip into its row (see FrameStrip.ScaleInto()).
+     *
+     * Parameters:
+     * - width, height: The on-screen size of a frame; non-positive sizes are ignored.
+     * - graphics_configuration: The configuration of the surface the frames will be drawn on.
+     */
+    public void SetScaledSize(final int width, final int height, final GraphicsConfiguration graphics_configuration){
+        if (width <= 0 || height <= 0 || (width == scaled_width && height == scaled_height)) {
+            return;
+        }
+
+        final BufferedImage sheet = graphics_configuration.createCompatibleImage(frame_strips[0].GetFrameCount() * width, Facing.COUNT * height, Transparency.TRANSLUCENT);
+        final Graphics2D sheet_graphics = sheet.createGraphics();
+        for (int facing = 0; facing < Facing.COUNT; facing++) {
+            frame_strips[facing].ScaleInto(sheet, sheet_graphics, facing * height, width, height);
+        }
+        sheet_graphics.dispose();
+
+        scaled_width = width;
+        scaled_height = height;
+    }
+
+    /**
+     * Description:
+     * Slices the image again in every strip sliced from it; clips keep playing with the new frames.
+     */
+    public void Reload(final int image_id, final BufferedImage image){
+        for (int facing = 0; facing < Facing.COUNT; facing++) {
+            if (image_ids[facing] == image_id) {
+                frame_strips[facing].Reload(image);
+                scaled_width = 0; // The next SetScaledSize() builds the sheet again
+                scaled_height = 0;
+            }
+        }
+    }
+}
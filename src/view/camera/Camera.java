@@ -0,0 +1,209 @@
+package view.camera;
+
+/**
+ * Description:
+ * 1. Singleton viewport over the map that owns the world-to-screen transform.
+ * 2. Decides the on-screen tile (block) size: small maps are stretched to fill the screen as
+ *    before, while maps that would get tiles smaller than MINIMUM_FIT_TILE_SIZE use a fixed
+ *    tile size and only show the part of the map around the camera.
+ * 3. Optionally follows a CameraTarget, keeping it centered while clamping the view to the map.
+ * 4. Exposes the range of tile columns and rows that intersect the viewport, so renderers
+ *    only iterate what is visible.
+ *
+ * Restrictions:
+ * - World coordinates are in tiles; screen coordinates are in pixels relative to the panel.
+ */
+public class Camera {
+
+    private static Camera instance;
+
+    public static Camera GetInstance(){
+        if (instance == null){
+            instance = new Camera();
+        }
+        return instance;
+    }
+
+    public static final int AUTOMATIC_TILE_SIZE = 0;
+
+    private static final int MINIMUM_FIT_TILE_SIZE = 32;
+    private static final int DEFAULT_FIXED_TILE_SIZE = 48;
+
+    private int screen_width;
+    private int screen_height;
+
+    private int map_width;
+    private int map_height;
+
+    private int tile_size = AUTOMATIC_TILE_SIZE;
+
+    private float block_width;
+    private float block_height;
+
+    // World pixel shown at the top-left corner of the screen; negative when the map is centered
+    private int offset_x;
+    private int offset_y;
+
+    private CameraTarget target;
+
+    private Camera(){}
+
+    public void SetScreenSize(final int screen_width, final int screen_height){
+        this.screen_width = screen_width;
+        this.screen_height = screen_height;
+        CalculateBlockDimensions();
+    }
+
+    /**
+     * Parameters:
+     * - map_width, map_height: The map's dimensions, in tiles.
+     */
+    public void SetMapSize(final int map_width, final int map_height){
+        this.map_width = map_width;
+        this.map_height = map_height;
+        CalculateBlockDimensions();
+    }
+
+    /**
+     * Parameters:
+     * - tile_size: The on-screen tile size in pixels, or AUTOMATIC_TILE_SIZE to stretch small
+     *   maps to the screen and fall back to a fixed size for big ones.
+     */
+    public void SetTileSize(final int tile_size){
+        this.tile_size = tile_size;
+        CalculateBlockDimensions();
+    }
+
+    /**
+     * Parameters:
+     * - target: The target to keep centered, or null to stop following.
+     */
+    public void Follow(final CameraTarget target){
+        this.target = target;
+    }
+
+    /**
+     * Description:
+     * 1. With a configured tile size, uses it for both axes.
+     * 2. Otherwise, stretches the map to the screen if that gives tiles of at least
+     *    MINIMUM_FIT_TILE_SIZE pixels in both axes, or uses DEFAULT_FIXED_TILE_SIZE if not.
+     * 3. Re-clamps the offsets to the new map size in pixels.
+     */
+    private void CalculateBlockDimensions(){
+        if (map_width <= 0 || map_height <= 0) {
+            block_width = 0;
+            block_height = 0;
+            return;
+        }
+
+        if (tile_size != AUTOMATIC_TILE_SIZE) {
+            block_width = tile_size;
+            block_height = tile_size;
+        }
+        else {
+            final float fit_block_width = (float) screen_width / map_width;
+            final float fit_block_height = (float) screen_height / map_height;
+            final boolean should_fit = fit_block_width >= MINIMUM_FIT_TILE_SIZE && fit_block_height >= MINIMUM_FIT_TILE_SIZE;
+
+            block_width = should_fit ? fit_block_width : DEFAULT_FIXED_TILE_SIZE;
+            block_height = should_fit ? fit_block_height : DEFAULT_FIXED_TILE_SIZE;
+        }
+
+        ClampOffsets();
+    }
+
+    /**
+     * Description:
+     * 1. If a target is being followed, centers the viewport on it.
+     * 2. Clamps the offsets so the view never leaves the map.
+     *
+     * Restrictions:
+     * - Meant to be called once per frame (or update tick), before rendering.
+     */
+    public void Update(){
+        if (target != null) {
+            offset_x = (int) (target.GetWorldX() * block_width) - screen_width / 2;
+            offset_y = (int) (target.GetWorldY() * block_height) - screen_height / 2;
+        }
+
+        ClampOffsets();
+    }
+
+    /**
+     * Description:
+     * 1. For each axis where the map is bigger than the screen, keeps the offset between zero
+     *    and the last position that still fills the screen.
+     * 2. For each axis where the map is smaller than the screen, centers the map.
+     */
+    private void ClampOffsets(){
+        offset_x = ClampOffset(offset_x, (int) (map_width * block_width), screen_width);
+        offset_y = ClampOffset(offset_y, (int) (map_height * block_height), screen_height);
+    }
+
+    private static int ClampOffset(final int offset, final int map_size, final int screen_size){
+        if (map_size <= screen_size) {
+            return (map_size - screen_size) / 2;
+        }
+        return Math.max(0, Math.min(offset, map_size - screen_size));
+    }
+
+    public float GetBlockWidth(){
+        return block_width;
+    }
+
+    public float GetBlockHeight(){
+        return block_height;
+    }
+
+    public int GetOffsetX(){
+        return offset_x;
+    }
+
+    public int GetOffsetY(){
+        return offset_y;
+    }
+
+    public int WorldToScreenX(final float world_x){
+        return (int) (world_x * block_width) - offset_x;
+    }
+
+    public int WorldToScreenY(final float world_y){
+        return (int) (world_y * block_height) - offset_y;
+    }
+
+    public float ScreenToWorldX(final int screen_x){
+        return (screen_x + offset_x) / block_width;
+    }
+
+    public float ScreenToWorldY(final int screen_y){
+        return (screen_y + offset_y) / block_height;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the first tile column that intersects the viewport (inclusive), clamped to the map.
+     */
+    public int GetFirstVisibleColumn(){
+        return ClampTile( (int) Math.floor(offset_x / block_width), map_width );
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the column after the last one that intersects the viewport (exclusive), clamped to the map.
+     */
+    public int GetLastVisibleColumn(){
+        return ClampTile( (int) Math.floor( (offset_x + screen_width) / block_width ) + 1, map_width );
+    }
+
+    public int GetFirstVisibleRow(){
+        return ClampTile( (int) Math.floor(offset_y / block_height), map_height );
+    }
+
+    public int GetLastVisibleRow(){
+        return ClampTile( (int) Math.floor( (offset_y + screen_height) / block_height ) + 1, map_height );
+    }
+
+    private static int ClampTile(final int tile, final int map_size){
+        return Math.max(0, Math.min(tile, map_size));
+    }
+}
@@ -0,0 +1,12 @@
+package view.camera;
+
+/**
+ * Description:
+ * 1. Anything the Camera can follow, exposing its position in world (tile) coordinates.
+ * 2. Coordinates are floats so targets can sit between tiles while moving;
+ *    (0, 0) is the top-left corner of the map and (1, 1) is the bottom-right corner of the first tile.
+ */
+public interface CameraTarget {
+    float GetWorldX();
+    float GetWorldY();
+}
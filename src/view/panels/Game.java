@@ -1,16 +1,57 @@
 package view.panels;
 
+import controller.atlas.TextureAtlas;
+import controller.entities.Facing;
+import controller.profiling.FrameProfiler;
+import controller.saves.SaveManager;
+import controller.saves.WorldSnapshot;
+import controller.utils.CoalescingPolicy;
 import controller.utils.Notification;
 import controller.utils.Observer;
+import controller.utils.Settings;
+import java.awt.BorderLayout;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferStrategy;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import view.animation.AnimationClock;
+import view.camera.Camera;
 import view.renderers.Character;
+import view.renderers.DirtyRegions;
+import view.renderers.Entities;
 import view.renderers.Map;
+import view.renderers.PerformanceOverlay;
+import view.renderers.Renderer;
 
 /**
  * Description:
  * 1. Singleton main game screen extending Panel where gameplay rendering occurs.
- * 2. Delegates rendering to Map and Character renderers via paintComponent().
+ * 2. Receives fixed update ticks and render requests from the game loop.
+ * 3. With active rendering (default), draws every frame through a BufferStrategy on a Canvas
+ *    that fills the panel; otherwise, asks Swing to repaint and draws in paintComponent().
+ * 4. Delegates rendering to Map, Entities and Character renderers.
+ * 5. Measures the update tick, the whole frame and every renderer through the FrameProfiler,
+ *    and draws the PerformanceOverlay on top (toggled with F3).
+ * 6. Walks the character with the arrow keys while they are held.
+ * 7. When assets are hot reloaded (see AssetWatcher), refreshes the TextureAtlas and then every
+ *    renderer, between two frames.
+ * 8. Quick saves the world with F5 (see SaveManager), and restores it when Load Game is chosen.
+ * 9. Only repaints what changed: before each frame, the renderers report the screen areas they
+ *    change (DirtyRegions), and the frame is drawn clipped to them, into a back buffer that
+ *    keeps the previous frame; frames where nothing changed aren't drawn at all.
+ *
+ * Restrictions:
+ * - Frames are drawn on the game loop thread while notifications arrive on the Event Dispatch
+ *   Thread; every access to renderer state is guarded by frame_lock.
  */
 public class Game extends Panel{
 
@@ -23,48 +64,526 @@ public class Game extends Panel{
         return instance;
     }
 
+    private static final int BUFFER_COUNT = 2;
+    private static final int MAXIMUM_BUFFER_ATTEMPTS = 3;
+
+    private static final String TOGGLE_OVERLAY_ACTION = "toggle_performance_overlay";
+    private static final String QUICK_SAVE_ACTION = "quick_save";
+    private static final String WALK_ACTION_PREFIX = "walk_";
+
+    // Walking keys indexed by Facing ordinal: down, up, left, right
+    private static final int[] WALK_KEYS = { KeyEvent.VK_DOWN, KeyEvent.VK_UP, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT };
+
     private final Observer observer = Observer.GetInstance();
+    private final Settings settings = Settings.GetInstance();
+    private final FrameProfiler profiler = FrameProfiler.GetInstance();
+    private final SaveManager save_manager = SaveManager.GetInstance();
+
+    private final Camera camera = Camera.GetInstance();
+    private final AnimationClock animation_clock = AnimationClock.GetInstance();
+
+    private final TextureAtlas texture_atlas = TextureAtlas.GetInstance();
 
     private final Map map = Map.GetInstance();
+    private final Entities entities = Entities.GetInstance();
     private final Character character = Character.GetInstance();
+    private final PerformanceOverlay performance_overlay = PerformanceOverlay.GetInstance();
+
+    // Drawn in this order, each one on top of the previous ones
+    private final Renderer[] renderers = { map, entities, character, performance_overlay };
+
+    // Time spent by each renderer (same order) over the clipped passes of a frame
+    private final long[] render_times = new long[renderers.length];
+
+    private final Object frame_lock = new Object();
+
+    // Screen areas the next frame changes, collected from the renderers
+    private final DirtyRegions dirty_regions = new DirtyRegions();
+
+    // Set when the screen no longer shows the last frame drawn (new buffers, resize, partial Swing paints)
+    private boolean needs_full_repaint = true;
+
+    // Whether the BufferStrategy's back buffer still holds the previous frame after show()
+    private boolean is_back_buffer_kept = false;
+
+    // Only used with active rendering
+    private final Canvas canvas = new Canvas();
+
+    // Interpolation requested by the game loop, consumed by paintComponent() with passive rendering
+    private volatile float pending_interpolation = 0f;
+
+    private long previous_frame_start = 0;
+
+    // Walking keys currently held, indexed by Facing ordinal; only touched on the Event Dispatch Thread
+    private final boolean[] held_walk_keys = new boolean[Facing.COUNT];
 
     private Game(){
         RegisterObservers();
+        SetupKeyBindings();
+
+        if ( settings.IsActiveRendering() ) {
+            SetupCanvas();
+        }
+
+        performance_overlay.SetVisible( settings.IsPerformanceOverlayVisible() );
     }
 
     private void RegisterObservers(){
         observer.Register(Notification.NEW_GAME, this::OnNewGame);
+        observer.Register(Notification.LOAD_GAME, this::OnLoadGame);
         observer.Register(Notification.WINDOW_RESIZED, this::OnWindowResize);
+        observer.Register(Notification.ASSETS_RELOADED, this::OnAssetsReloaded);
+        // Reloads posted while the EDT is busy are handled once: every refresh picks up all reloaded assets
+        observer.SetDispatch(Notification.ASSETS_RELOADED, CoalescingPolicy.LATEST_WINS, 0, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Description:
+     * 1. Binds F3 to toggling the performance overlay while the game window is focused.
+     * 2. Binds F5 to quick saving.
+     * 3. Binds pressing and releasing each arrow key to updating the character's walk direction.
+     */
+    private void SetupKeyBindings(){
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), TOGGLE_OVERLAY_ACTION);
+        getActionMap().put(TOGGLE_OVERLAY_ACTION, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                synchronized (frame_lock) {
+                    performance_overlay.ToggleVisible();
+                }
+            }
+        });
+
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0), QUICK_SAVE_ACTION);
+        getActionMap().put(QUICK_SAVE_ACTION, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                OnQuickSave();
+            }
+        });
+
+        for (int facing = 0; facing < Facing.COUNT; facing++) {
+            BindWalkKey(facing, true);
+            BindWalkKey(facing, false);
+        }
+    }
+
+    private void BindWalkKey(final int facing, final boolean is_pressed){
+        final String action_name = WALK_ACTION_PREFIX + Facing.FromOrdinal(facing).name() + (is_pressed ? "_pressed" : "_released");
+        getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(WALK_KEYS[facing], 0, !is_pressed), action_name);
+        getActionMap().put(action_name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                held_walk_keys[facing] = is_pressed;
+                OnWalkKeysChanged();
+            }
+        });
+    }
+
+    /**
+     * Description:
+     * Walks the character towards the held arrow keys; opposite keys cancel each other out.
+     */
+    private void OnWalkKeysChanged(){
+        final int direction_x = (held_walk_keys[Facing.RIGHT.ordinal()] ? 1 : 0) - (held_walk_keys[Facing.LEFT.ordinal()] ? 1 : 0);
+        final int direction_y = (held_walk_keys[Facing.FRONT.ordinal()] ? 1 : 0) - (held_walk_keys[Facing.BACK.ordinal()] ? 1 : 0);
+        synchronized (frame_lock) {
+            character.SetWalkDirection(direction_x, direction_y);
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Makes the canvas ignore Swing/AWT repaint requests, since the game loop draws it.
+     * 2. Keeps the canvas from taking the keyboard focus, so the panel's key bindings still work.
+     * 3. Adds the canvas so it fills the whole panel.
+     */
+    private void SetupCanvas(){
+        canvas.setIgnoreRepaint(true);
+        canvas.setFocusable(false);
+        setLayout(new BorderLayout());
+        add(canvas, BorderLayout.CENTER);
+    }
+
+    /**
+     * Description:
+     * Advances the animation clock and every renderer by one fixed update tick, recording the
+     * tick's duration.
+     */
+    public void Update(final double step_seconds){
+        final long update_start = System.nanoTime();
+        synchronized (frame_lock) {
+            animation_clock.Advance(step_seconds);
+            map.Update(step_seconds);
+            entities.Update(step_seconds);
+            character.Update(step_seconds);
+        }
+        profiler.Record(FrameProfiler.UPDATE_SECTION, System.nanoTime() - update_start);
+    }
+
+    /**
+     * Objective: Presents one frame, either actively or by scheduling a Swing repaint.
+     *
+     * Description:
+     * 1. With passive rendering, stores the interpolation, collects the dirty regions and asks
+     *    Swing to repaint each of them (see RenderPassively()).
+     * 2. With active rendering, creates the canvas' BufferStrategy on first use.
+     * 3. Collects the dirty regions, reporting their share of the screen to the performance
+     *    overlay; if nothing changed, the frame is skipped.
+     * 4. Draws the frame into the strategy's back buffer, clipped to the dirty regions, and shows
+     *    it; if the buffer contents were restored or lost, redraws it whole, up to
+     *    MAXIMUM_BUFFER_ATTEMPTS times.
+     * 5. Records the interval since the previous frame and the time spent on this one.
+     *
+     * Expected Returns:
+     * - Returns true when a frame was drawn (or scheduled, with passive rendering).
+     * - Returns false when the canvas isn't displayable yet, or nothing changed since the last frame.
+     *
+     * Restrictions:
+     * - Collecting and drawing hold the frame lock throughout, so the renderers draw exactly the
+     *   state whose changes they reported.
+     */
+    public boolean Render(final float interpolation){
+        if ( !settings.IsActiveRendering() ) {
+            return RenderPassively(interpolation);
+        }
+
+        if ( !canvas.isDisplayable() ) {
+            return false;
+        }
+
+        if (canvas.getBufferStrategy() == null) {
+            canvas.createBufferStrategy(BUFFER_COUNT);
+            is_back_buffer_kept = IsBackBufferKept( canvas.getBufferStrategy().getCapabilities() );
+            synchronized (frame_lock) {
+                needs_full_repaint = true;
+            }
+        }
+        final BufferStrategy buffer_strategy = canvas.getBufferStrategy();
+
+        synchronized (frame_lock) {
+            PrepareFrame( interpolation, canvas.getWidth(), canvas.getHeight() );
+            if (!is_back_buffer_kept) {
+                dirty_regions.AddAll();
+            }
+            RecordRepaint();
+            if ( dirty_regions.IsEmpty() ) {
+                return false;
+            }
+
+            final long frame_start = System.nanoTime();
+            if (previous_frame_start != 0) {
+                profiler.Record(FrameProfiler.FRAME_INTERVAL_SECTION, frame_start - previous_frame_start);
+            }
+            previous_frame_start = frame_start;
+
+            int buffer_attempts = 0;
+            do {
+                do {
+                    final Graphics2D graphics_2d = (Graphics2D) buffer_strategy.getDrawGraphics();
+                    DrawDirtyRegions(graphics_2d);
+                    graphics_2d.dispose();
+                    buffer_attempts++;
+
+                    // Restored or lost contents are undefined, so any retry redraws everything
+                    dirty_regions.AddAll();
+                } while (buffer_strategy.contentsRestored() && buffer_attempts < MAXIMUM_BUFFER_ATTEMPTS);
+
+                buffer_strategy.show();
+            } while (buffer_strategy.contentsLost() && buffer_attempts < MAXIMUM_BUFFER_ATTEMPTS);
+            // Reaching the attempt limit only drops this frame; the next one tries again, whole
+            if (buffer_attempts > 1) {
+                needs_full_repaint = true;
+            }
+
+            Toolkit.getDefaultToolkit().sync();
+
+            profiler.Record(FrameProfiler.FRAME_SECTION, System.nanoTime() - frame_start);
+        }
+        return true;
+    }
+
+    /**
+     * Description:
+     * Partial repaints need the back buffer to hold the previous frame after show(): true when
+     * it's copied to the screen (blit), or when page flipping copies it back.
+     */
+    private static boolean IsBackBufferKept(final BufferCapabilities capabilities){
+        return !capabilities.isPageFlipping() || capabilities.getFlipContents() == BufferCapabilities.FlipContents.COPIED;
+    }
+
+    /**
+     * Description:
+     * 1. Stores the interpolation for paintComponent().
+     * 2. Collects the dirty regions, reporting their share of the screen to the performance
+     *    overlay; if nothing changed, no repaint is requested.
+     * 3. Asks Swing to repaint each dirty region, or the whole panel.
+     *
+     * Expected Returns:
+     * - Returns true when a repaint was requested.
+     */
+    private boolean RenderPassively(final float interpolation){
+        synchronized (frame_lock) {
+            pending_interpolation = interpolation;
+            PrepareFrame( interpolation, getWidth(), getHeight() );
+            RecordRepaint();
+            if ( dirty_regions.IsEmpty() ) {
+                return false;
+            }
+
+            if ( dirty_regions.IsFull() ) {
+                repaint();
+                return true;
+            }
+            for (int region = 0; region < dirty_regions.GetRegionCount(); region++) {
+                repaint( dirty_regions.GetX(region), dirty_regions.GetY(region), dirty_regions.GetWidth(region), dirty_regions.GetHeight(region) );
+            }
+        }
+        return true;
     }
 
     /**
      * Description:
      * 1. Calls the parent paintComponent() for default painting behavior.
-     * 2. Casts the Graphics object to Graphics2D.
-     * 3. Delegates rendering to the correct Renderers.
+     * 2. With passive rendering, collects the dirty regions again: when Swing's clip doesn't
+     *    cover them (the state changed since the repaint was requested, or Swing repaints for
+     *    its own reasons), the next frame repaints the whole panel, since this one can't draw
+     *    every change.
+     * 3. Draws the frame requested by the game loop, clipped by Swing, and records the frame
+     *    interval and duration.
      */
     @Override
     protected void paintComponent(Graphics graphics) {
         super.paintComponent(graphics);
 
-        final Graphics2D graphics_2d = (Graphics2D)graphics;
+        if ( !settings.IsActiveRendering() ) {
+            final long frame_start = System.nanoTime();
+            if (previous_frame_start != 0) {
+                profiler.Record(FrameProfiler.FRAME_INTERVAL_SECTION, frame_start - previous_frame_start);
+            }
+            previous_frame_start = frame_start;
+
+            synchronized (frame_lock) {
+                PrepareFrame( pending_interpolation, getWidth(), getHeight() );
+                if ( !IsCoveredByClip(graphics.getClipBounds()) ) {
+                    needs_full_repaint = true;
+                }
+
+                final Graphics2D graphics_2d = (Graphics2D) graphics;
+                for (int renderer = 0; renderer < renderers.length; renderer++) {
+                    final long render_start = System.nanoTime();
+                    renderers[renderer].Render(graphics_2d, this);
+                    profiler.Record(renderers[renderer].GetProfilerSection(), System.nanoTime() - render_start);
+                }
+            }
+
+            profiler.Record(FrameProfiler.FRAME_SECTION, System.nanoTime() - frame_start);
+        }
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when the clip contains every collected dirty region (a null clip is the
+     *   whole panel).
+     */
+    private boolean IsCoveredByClip(final Rectangle clip){
+        if (clip == null || dirty_regions.IsEmpty()) {
+            return true;
+        }
+        if ( dirty_regions.IsFull() ) {
+            return clip.contains(0, 0, getWidth(), getHeight());
+        }
+
+        for (int region = 0; region < dirty_regions.GetRegionCount(); region++) {
+            if ( !clip.contains(dirty_regions.GetX(region), dirty_regions.GetY(region), dirty_regions.GetWidth(region), dirty_regions.GetHeight(region)) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Description:
+     * 1. Interpolates moving renderers between the last two update ticks.
+     * 2. Updates the Camera so it follows its target.
+     * 3. Collects every renderer's dirty regions, or the whole screen when a full repaint is pending.
+     *
+     * Parameters:
+     * - width, height: The size of the surface drawn on.
+     *
+     * Assertives of Entrance:
+     * - The caller holds the frame lock.
+     */
+    private void PrepareFrame(final float interpolation, final int width, final int height){
+        entities.Interpolate(interpolation);
+        character.Interpolate(interpolation);
+        camera.Update();
+
+        if (width != dirty_regions.GetScreenWidth() || height != dirty_regions.GetScreenHeight()) {
+            dirty_regions.SetScreenSize(width, height);
+            needs_full_repaint = true;
+        }
+
+        dirty_regions.Clear();
+        if (needs_full_repaint) {
+            dirty_regions.AddAll();
+            needs_full_repaint = false;
+        }
+        for (final Renderer renderer : renderers) {
+            renderer.CollectDirtyRegions(dirty_regions);
+        }
+    }
+
+    /**
+     * Description:
+     * Reports the frame's dirty pixels, as a share of the screen, to the performance overlay.
+     */
+    private void RecordRepaint(){
+        performance_overlay.RecordRepaint( dirty_regions.GetPixelCount(), (long) dirty_regions.GetScreenWidth() * dirty_regions.GetScreenHeight() );
+    }
+
+    /**
+     * Description:
+     * 1. Draws the whole frame, or each dirty region: clips to it, fills it with the background
+     *    color and delegates rendering to every renderer, in order.
+     * 2. Records each renderer's time over all the regions as one sample.
+     *
+     * Assertives of Entrance:
+     * - The caller holds the frame lock, and the dirty regions were collected for this frame.
+     */
+    private void DrawDirtyRegions(final Graphics2D graphics_2d){
+        for (int renderer = 0; renderer < renderers.length; renderer++) {
+            render_times[renderer] = 0;
+        }
+
+        if ( dirty_regions.IsFull() ) {
+            DrawRegion( graphics_2d, 0, 0, dirty_regions.GetScreenWidth(), dirty_regions.GetScreenHeight() );
+        }
+        else {
+            for (int region = 0; region < dirty_regions.GetRegionCount(); region++) {
+                DrawRegion( graphics_2d, dirty_regions.GetX(region), dirty_regions.GetY(region), dirty_regions.GetWidth(region), dirty_regions.GetHeight(region) );
+            }
+        }
 
-        map.Render(graphics_2d, this);
-        character.Render(graphics_2d, this);
+        for (int renderer = 0; renderer < renderers.length; renderer++) {
+            profiler.Record(renderers[renderer].GetProfilerSection(), render_times[renderer]);
+        }
     }
 
+    private void DrawRegion(final Graphics2D graphics_2d, final int x, final int y, final int width, final int height){
+        graphics_2d.setClip(x, y, width, height);
+        graphics_2d.setColor(getBackground());
+        graphics_2d.fillRect(x, y, width, height);
+
+        for (int renderer = 0; renderer < renderers.length; renderer++) {
+            final long render_start = System.nanoTime();
+            renderers[renderer].Render(graphics_2d, this);
+            render_times[renderer] += System.nanoTime() - render_start;
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Loads the main map and the main character's sprites.
+     * 2. Loads the NPC archetypes and spawns the configured number of wandering NPCs.
+     * 3. Places the character at the center of the map and makes the Camera follow it.
+     */
     private void OnNewGame(){
-        map.LoadMainMap();
+        synchronized (frame_lock) {
+            map.LoadMainMap();
+            character.LoadMainCharacter();
+            entities.LoadArchetypes();
+            entities.SpawnWanderers( settings.GetNpcCount(), map.GetMapWidth(), map.GetMapHeight() );
+
+            final float map_center_divisor = 2f;
+            character.SetPosition(map.GetMapWidth() / map_center_divisor, map.GetMapHeight() / map_center_divisor);
+            camera.Follow(character);
+        }
     }
     
     /**
      * Description:
-     * 1. Updates the map renderer's screen dimensions with the current panel size.
+     * 1. Reads the quick save back through the SaveManager; does nothing if there's none.
+     * 2. Loads the saved map with its edited tiles, and the character's and NPCs' sprites.
+     * 3. Restores the NPCs and the character, and makes the Camera follow it.
+     *
+     * Restrictions:
+     * - Exits the application (through SaveManager or Map) with INVALID_SAVE_GAME if the save
+     *   is corrupted or its map doesn't exist anymore.
+     */
+    private void OnLoadGame(){
+        final WorldSnapshot snapshot = save_manager.Load();
+        if (snapshot == null) {
+            return;
+        }
+
+        synchronized (frame_lock) {
+            map.RestoreSnapshot(snapshot);
+            character.LoadMainCharacter();
+            entities.LoadArchetypes();
+            entities.RestoreSnapshot( snapshot, map.GetMapWidth(), map.GetMapHeight() );
+
+            character.RestoreSnapshot(snapshot);
+            camera.Follow(character);
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Between two ticks, captures the edited map regions (all of them, or only the ones
+     *    changed since the last save when the SaveManager continues its chain with a delta),
+     *    the character and the NPCs.
+     * 2. Hands the snapshot to the SaveManager, which writes it on its own thread.
+     *
+     * Restrictions:
+     * - Only the capture holds the frame lock; the file is written while the game keeps running.
+     */
+    private void OnQuickSave(){
+        final WorldSnapshot snapshot;
+        synchronized (frame_lock) {
+            if ( map.GetMapName().isEmpty() ) {
+                return; // No game started yet
+            }
+
+            snapshot = save_manager.BeginSnapshot( map.GetMapName(), map.CanWriteDelta() );
+            map.CaptureSnapshot(snapshot);
+            character.CaptureSnapshot(snapshot);
+            entities.CaptureSnapshot(snapshot);
+        }
+        save_manager.Save(snapshot);
+    }
+
+    /**
+     * Description:
+     * 1. Updates the map and entity renderers' screen dimensions with the current panel size.
      * 2. Recalculates block (tile) dimensions based on the new screen size.
+     *
+     * Restrictions:
+     * - Runs on the EDT: directly when the displayed panel changes, and debounced through
+     *   Observer.Post() when the user resizes the window.
      */
-    // Might cause problems: Window's constructor doesn't notify resizing, only when changing the displayed panel
     private void OnWindowResize(){
-        map.SetScreenSize(getWidth(), getHeight());
-        map.CalculateBlockDimensions();
+        synchronized (frame_lock) {
+            map.SetScreenSize(getWidth(), getHeight());
+            entities.SetScreenSize(getWidth(), getHeight());
+            map.CalculateBlockDimensions();
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Redraws the reloaded images into the TextureAtlas.
+     * 2. Lets every renderer replace its stale images (and the map, its reloaded text map).
+     *
+     * Restrictions:
+     * - Runs on the EDT, posted by the AssetWatcher's thread.
+     */
+    private void OnAssetsReloaded(){
+        synchronized (frame_lock) {
+            texture_atlas.Refresh();
+            map.RefreshAssets();
+            entities.RefreshAssets();
+            character.RefreshAssets();
+        }
     }
-}
\ No newline at end of file
+}
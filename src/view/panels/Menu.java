@@ -1,5 +1,6 @@
 package view.panels;
 
+import controller.saves.SaveManager;
 import controller.utils.Notification;
 import controller.utils.Observer;
 import java.awt.Color;
@@ -14,6 +15,7 @@ import javax.swing.JButton;
  * Description:
  * 1. Singleton main menu screen extending Panel.
  * 2. Displays three buttons: "New Game", "Load Game", and "Settings".
+ * 3. "Load Game" is only enabled when there is a quick save to load.
  */
 public class Menu extends Panel {
 
@@ -44,8 +46,9 @@ public class Menu extends Panel {
         // Temporary behavior while the proper actions aren't implemented
         final boolean should_enable_buttons = false;
         // new_game.setEnabled(should_enable_buttons);
-        load_game.setEnabled(should_enable_buttons);
         settings.setEnabled(should_enable_buttons);
+
+        load_game.setEnabled( SaveManager.GetInstance().HasSave() );
     }
 
     /**
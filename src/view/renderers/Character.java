@@ -1,20 +1,35 @@
 package view.renderers;
 
-import controller.files_controllers.ImageController;
+import controller.entities.EntityStore;
+import controller.entities.Facing;
+import controller.maps.CollisionMap;
+import controller.saves.WorldSnapshot;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Arrays;
+import view.animation.Animator;
+import view.animation.FrameStrip;
+import view.animation.SpriteSet;
+import view.camera.Camera;
+import view.camera.CameraTarget;
 import view.panels.Panel;
 
 /**
  * Description:
  * 1. Singleton renderer responsible for loading and rendering the player character.
  * 2. Loads directional character sprite images (front, back, left, right) into the
- *    used_images cache.
- * 3. Rendering logic is not yet implemented.
+ *    used_images cache, and slices them once into a SpriteSet.
+ * 3. Holds the character's world position and can be followed by the Camera.
+ * 4. Walks in the direction set by the player (see SetWalkDirection()), resolving every move
+ *    against the map's CollisionMap: it slides along SOLID tiles and slows down over SLOW ones.
+ * 5. Plays an idle or a walking clip facing the direction of its last movement, timed by the
+ *    shared AnimationClock, and draws the current frame centered on its position.
+ * 6. Reports its old and new sprite bounds as dirty regions when it moved or its frame changed.
+ *
+ * Restrictions:
+ * - The current sprites hold a single frame each; more frames can be drawn side by side in
+ *   each file, with FRAMES_PER_STRIP updated to match.
  */
-public class Character extends Renderer{
+public class Character extends Renderer implements CameraTarget{
 
     private static Character instance;
 
@@ -33,8 +48,156 @@ public class Character extends Renderer{
         return instance;
     }
 
+    // The character archetype's sprites, indexed by Facing ordinal; also used by NPCs (see Entities)
+    public static final String[] SPRITE_NAMES = { "front", "back", "left", "right" };
+
+    public static final int FRAMES_PER_STRIP = 1;
+    public static final double IDLE_FRAME_SECONDS = 0.5;
+    public static final double WALK_FRAME_SECONDS = 0.15;
+
+    // Drawn width in tiles; the sprites have a wide transparent margin around the character
+    public static final float WIDTH_IN_TILES = 2f;
+
+    public static final float WALK_SPEED = 4f; // Tiles per second
+    private static final float DIAGONAL_SPEED_FACTOR = (float) (1 / Math.sqrt(2));
+
+    // Same body as the NPCs, which share the character's sprites
+    private static final float COLLISION_HALF_SIZE = EntityStore.COLLISION_HALF_SIZE;
+
+    private final Camera camera = Camera.GetInstance();
+    private final CollisionMap collision_map = Map.GetInstance().GetCollisionMap();
+
+    private SpriteSet sprite_set;
+
+    private final Animator animator = new Animator();
+    private Facing facing = Facing.FRONT;
+
+    // -1, 0 or 1 on each axis, as set by the player's input
+    private int walk_direction_x = 0;
+    private int walk_direction_y = 0;
+
+    // Position in world (tile) coordinates at the latest and the previous update tick
+    private float world_x;
+    private float world_y;
+    private float previous_world_x;
+    private float previous_world_y;
+
+    // Position drawn in the current frame, interpolated between the two ticks above
+    private float render_x;
+    private float render_y;
+
+    // Frame and screen bounds drawn by the last Render(), for CollectDirtyRegions(); zero-sized before the first one
+    private FrameStrip drawn_strip;
+    private BufferedImage drawn_sheet;
+    private int drawn_frame = 0;
+    private int drawn_x = 0;
+    private int drawn_y = 0;
+    private int drawn_width = 0;
+    private int drawn_height = 0;
+
     private Character(){}
 
+    /**
+     * Description:
+     * Returns the position drawn in the current frame, so the Camera follows what is on screen.
+     */
+    @Override
+    public float GetWorldX(){
+        return render_x;
+    }
+
+    @Override
+    public float GetWorldY(){
+        return render_y;
+    }
+
+    /**
+     * Description:
+     * Moves the character instantly, without interpolating from the previous position.
+     *
+     * Parameters:
+     * - world_x, world_y: The new position, in tiles (fractional values place the character between tiles).
+     */
+    public void SetPosition(final float world_x, final float world_y){
+        this.world_x = world_x;
+        this.world_y = world_y;
+        previous_world_x = world_x;
+        previous_world_y = world_y;
+        render_x = world_x;
+        render_y = world_y;
+    }
+
+    /**
+     * Description:
+     * Copies the character's position, at the last update tick, and facing into a save snapshot.
+     */
+    public void CaptureSnapshot(final WorldSnapshot snapshot){
+        snapshot.SetCharacter( world_x, world_y, facing.ordinal() );
+    }
+
+    /**
+     * Description:
+     * Moves the character to the snapshot's position, facing its direction.
+     */
+    public void RestoreSnapshot(final WorldSnapshot snapshot){
+        SetPosition( snapshot.GetCharacterX(), snapshot.GetCharacterY() );
+        facing = Facing.FromOrdinal( snapshot.GetCharacterFacing() );
+    }
+
+    /**
+     * Description:
+     * Sets the direction the character walks in from the next tick on; (0, 0) stops it.
+     *
+     * Parameters:
+     * - direction_x: -1 (left), 0 or 1 (right).
+     * - direction_y: -1 (up), 0 or 1 (down).
+     */
+    public void SetWalkDirection(final int direction_x, final int direction_y){
+        walk_direction_x = Integer.signum(direction_x);
+        walk_direction_y = Integer.signum(direction_y);
+    }
+
+    /**
+     * Description:
+     * 1. Stores the position of the finished tick as the starting point for interpolation.
+     * 2. When a walk direction is set, moves the character by WALK_SPEED in it (scaled down
+     *    diagonally and over SLOW tiles), sweeping its box against the CollisionMap one axis at
+     *    a time, so it slides along walls instead of sticking to them.
+     * 3. When the character moved, faces the movement's main axis and plays the walking clip;
+     *    otherwise plays the idle clip.
+     */
+    @Override
+    public void Update(final double step_seconds){
+        previous_world_x = world_x;
+        previous_world_y = world_y;
+
+        if (walk_direction_x != 0 || walk_direction_y != 0) {
+            float distance = WALK_SPEED * (float) step_seconds * collision_map.GetSpeedFactor(world_x, world_y);
+            if (walk_direction_x != 0 && walk_direction_y != 0) {
+                distance *= DIAGONAL_SPEED_FACTOR;
+            }
+
+            world_x += collision_map.SweepX( world_x - COLLISION_HALF_SIZE, world_y - COLLISION_HALF_SIZE,
+                                             world_x + COLLISION_HALF_SIZE, world_y + COLLISION_HALF_SIZE, walk_direction_x * distance );
+            world_y += collision_map.SweepY( world_x - COLLISION_HALF_SIZE, world_y - COLLISION_HALF_SIZE,
+                                             world_x + COLLISION_HALF_SIZE, world_y + COLLISION_HALF_SIZE, walk_direction_y * distance );
+        }
+
+        final float movement_x = world_x - previous_world_x;
+        final float movement_y = world_y - previous_world_y;
+        facing = Facing.FromMovement(movement_x, movement_y, facing);
+
+        if (sprite_set != null) {
+            animator.Play( sprite_set.GetClip(facing.ordinal(), movement_x != 0 || movement_y != 0) );
+        }
+    }
+
+    @Override
+    public void Interpolate(final float interpolation){
+        render_x = previous_world_x + (world_x - previous_world_x) * interpolation;
+        render_y = previous_world_y + (world_y - previous_world_y) * interpolation;
+    }
+
     /**
      * Description:
      * 1. Delegates to LoadCharacter("main") to load the main character sprites.
@@ -50,8 +213,10 @@ public class Character extends Renderer{
      * Description:
      * 1. Clears the used_images cache if it contains data from a previous character.
      * 2. Iterates over the directional sprite names ("front", "back", "left", "right").
-     * 3. For each sprite, retrieves the ImageController by name, loads the image via
-     *    ImageLoader, and stores it in the used_images cache keyed by image ID.
+     * 3. For each sprite, retrieves the ImageController by name, gets the image from
+     *    the TextureAtlas, and stores it in the used_images cache keyed by image ID.
+     * 4. Slices the sprites into a SpriteSet, with an idle and a walking clip per direction.
+     * 5. Starts the idle clip of the current facing.
      *
      * Parameters:
      * - character_name: The name of the character to load. Currently unused for path
@@ -61,35 +226,101 @@ public class Character extends Renderer{
      * - Returns true when all character sprites are loaded.
      *
      * Assertives of Entrance:
-     * - ImageManager and ImageLoader must be initialized with character sprites registered and loaded.
+     * - ImageManager and the TextureAtlas must be initialized with character sprites registered and packed.
      *
      * Assertives of Departure:
      * - used_images contains BufferedImages for "front", "back", "left", and "right".
+     * - Every direction has an idle and a walking clip.
      */
     // TODO: should it return false?
     public boolean LoadCharacter(final String character_name){
         if ( !used_images.isEmpty() ){
-            used_images.clear();
+            ClearUsedImages();
         }
 
-        // Storing a possible empty map isn't a problem with the current implementation because it throws an exception that ends the program
-        final ArrayList<String> searched_images = new ArrayList<>( Arrays.asList( "front", "back", "left", "right" ) );
-        for (final String searched_image : searched_images){
-            final ImageController image_controller = image_manager.GetImage(searched_image);
-            final int image_id = image_controller.GetID();
-            final BufferedImage image = image_loader.GetImage(image_controller);
-            used_images.put(image_id, image);
-        }
+        sprite_set = LoadSpriteSet(SPRITE_NAMES, FRAMES_PER_STRIP, IDLE_FRAME_SECONDS, WALK_FRAME_SECONDS);
 
+        animator.Restart( sprite_set.GetIdleClip(facing.ordinal()) );
         return true;
     }
 
     /**
      * Description:
-     * 1. Placeholder for character rendering logic. Not yet implemented.
+     * Slices the reloaded sprite again; its clips keep playing with the new frames.
+     */
+    @Override
+    protected void OnImageRefreshed(final int image_id, final BufferedImage image){
+        if (sprite_set != null) {
+            sprite_set.Reload(image_id, image);
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Computes the sprite's on-screen size from the Camera's block width, keeping the
+     *    sprite's aspect ratio.
+     * 2. Rescales the frame strips when that size changed (only after a resize).
+     * 3. Draws the animator's current frame centered on the interpolated position.
+     * 4. Records the frame and its bounds, for CollectDirtyRegions().
+     *
+     * Assertives of Entrance:
+     * - The Camera has been updated for this frame.
+     *
+     * Restrictions:
+     * - Must not allocate in steady state: it runs on every frame.
      */
     @Override
     public void Render(final Graphics2D graphics_2d, final Panel panel){
-        // Fuck this will be so much work
+        if (animator.GetClip() == null) {
+            return; // No character loaded yet
+        }
+
+        final int sprite_width = (int) (camera.GetBlockWidth() * WIDTH_IN_TILES);
+        final int sprite_height = sprite_width * sprite_set.GetFrameHeight() / sprite_set.GetFrameWidth();
+        if (sprite_width <= 0 || sprite_height <= 0) {
+            return;
+        }
+
+        sprite_set.SetScaledSize( sprite_width, sprite_height, graphics_2d.getDeviceConfiguration() );
+
+        final int x_position = camera.WorldToScreenX(render_x) - sprite_width / 2;
+        final int y_position = camera.WorldToScreenY(render_y) - sprite_height / 2;
+        animator.DrawFrame(graphics_2d, x_position, y_position, panel);
+
+        drawn_strip = animator.GetClip().GetFrameStrip();
+        drawn_sheet = drawn_strip.GetSheet();
+        drawn_frame = animator.GetFrameIndex();
+        drawn_x = x_position;
+        drawn_y = y_position;
+        drawn_width = sprite_width;
+        drawn_height = sprite_height;
+    }
+
+    /**
+     * Description:
+     * 1. Computes where the next Render() draws the sprite, and which frame.
+     * 2. When the position, size or frame differ from the last Render()'s, adds both the old
+     *    and the new sprite bounds.
+     *
+     * Assertives of Entrance:
+     * - The character was interpolated and the Camera updated for this frame.
+     */
+    @Override
+    public void CollectDirtyRegions(final DirtyRegions dirty_regions){
+        if (animator.GetClip() == null) {
+            return; // No character loaded yet
+        }
+
+        final int sprite_width = (int) (camera.GetBlockWidth() * WIDTH_IN_TILES);
+        final int sprite_height = sprite_width * sprite_set.GetFrameHeight() / sprite_set.GetFrameWidth();
+        final int x_position = camera.WorldToScreenX(render_x) - sprite_width / 2;
+        final int y_position = camera.WorldToScreenY(render_y) - sprite_height / 2;
+        final FrameStrip frame_strip = animator.GetClip().GetFrameStrip();
+        final boolean is_frame_changed = frame_strip != drawn_strip || frame_strip.GetSheet() != drawn_sheet || animator.GetFrameIndex() != drawn_frame;
+
+        if (x_position != drawn_x || y_position != drawn_y || sprite_width != drawn_width || sprite_height != drawn_height || is_frame_changed) {
+            dirty_regions.Add(drawn_x, drawn_y, drawn_width, drawn_height);
+            dirty_regions.Add(x_position, y_position, sprite_width, sprite_height);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package view.renderers;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Description:
+ * 1. Storage for the map's static layer split into fixed-size square chunks of tiles,
+ *    each one pre-rendered into an offscreen image.
+ * 2. Tracks which chunks are dirty; a chunk is only redrawn after its tiles change or the
+ *    block size changes, so steady-state rendering is one blit per chunk.
+ * 3. Chunk images are reused when a dirty chunk keeps its pixel size (e.g., a tile edit),
+ *    and only reallocated when the size changes.
+ * 4. Only the chunks used recently are kept in memory: when more chunk images than the
+ *    given budget are resident, the least recently used ones are dropped (and become dirty).
+ *
+ * Restrictions:
+ * - The cache doesn't know how to draw tiles; the owner renderer (Map) paints the image
+ *   returned by PrepareChunk() and then calls MarkClean().
+ */
+public class ChunkCache {
+
+    public static final int CHUNK_SIZE = 16; // Tiles per chunk side
+
+    private BufferedImage[] chunk_images = new BufferedImage[0];
+    private boolean[] dirty_chunks = new boolean[0];
+
+    // Frame in which each chunk was last drawn, used to pick eviction victims
+    private long[] last_used_frames = new long[0];
+    private long current_frame = 0;
+    private int resident_count = 0;
+
+    private int chunk_columns;
+    private int chunk_rows;
+
+    /**
+     * Description:
+     * 1. Calculates how many chunks are needed to cover the map, rounding up.
+     * 2. Drops every previous chunk image and marks all chunks as dirty.
+     *
+     * Parameters:
+     * - map_width: Number of tile columns of the map.
+     * - map_height: Number of tile rows of the map.
+     */
+    public void Reset(final int map_width, final int map_height){
+        chunk_columns = (map_width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunk_rows = (map_height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        final int chunk_count = chunk_columns * chunk_rows;
+        chunk_images = new BufferedImage[chunk_count];
+        dirty_chunks = new boolean[chunk_count];
+        last_used_frames = new long[chunk_count];
+        resident_count = 0;
+        InvalidateAll();
+    }
+
+    public int GetChunkColumns(){
+        return chunk_columns;
+    }
+
+    public int GetChunkRows(){
+        return chunk_rows;
+    }
+
+    public void InvalidateAll(){
+        Arrays.fill(dirty_chunks, true);
+    }
+
+    /**
+     * Description:
+     * Marks as dirty the chunk that contains the given tile.
+     */
+    public void InvalidateTile(final int column, final int row){
+        dirty_chunks[ (row / CHUNK_SIZE) * chunk_columns + (column / CHUNK_SIZE) ] = true;
+    }
+
+    public boolean IsDirty(final int chunk_column, final int chunk_row){
+        return dirty_chunks[chunk_row * chunk_columns + chunk_column];
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the chunk's pre-rendered image; it's only meaningful when the chunk isn't dirty.
+     */
+    public BufferedImage GetChunk(final int chunk_column, final int chunk_row){
+        return chunk_images[chunk_row * chunk_columns + chunk_column];
+    }
+
+    /**
+     * Description:
+     * 1. Reuses the chunk's current image if it already has the requested size.
+     * 2. Otherwise creates a new compatible image of that size from the given configuration.
+     *
+     * Parameters:
+     * - chunk_width, chunk_height: The chunk's size in pixels. Must be greater than zero.
+     *
+     * Expected Returns:
+     * - Returns the image that the caller must repaint entirely before calling MarkClean().
+     */
+    public BufferedImage PrepareChunk(final int chunk_column, final int chunk_row, final int chunk_width, final int chunk_height, final GraphicsConfiguration graphics_configuration){
+        final int chunk_index = chunk_row * chunk_columns + chunk_column;
+
+        final BufferedImage current_image = chunk_images[chunk_index];
+        if (current_image != null && current_image.getWidth() == chunk_width && current_image.getHeight() == chunk_height) {
+            return current_image;
+        }
+
+        final BufferedImage chunk_image = graphics_configuration.createCompatibleImage(chunk_width, chunk_height, Transparency.TRANSLUCENT);
+        if (current_image == null) {
+            resident_count++;
+        }
+        chunk_images[chunk_index] = chunk_image;
+        return chunk_image;
+    }
+
+    /**
+     * Description:
+     * Starts a new frame for the least recently used bookkeeping.
+     */
+    public void BeginFrame(){
+        current_frame++;
+    }
+
+    /**
+     * Description:
+     * Records that the chunk was drawn in the current frame.
+     */
+    public void MarkUsed(final int chunk_column, final int chunk_row){
+        last_used_frames[chunk_row * chunk_columns + chunk_column] = current_frame;
+    }
+
+    /**
+     * Description:
+     * 1. While more chunk images than maximum_resident_chunks are held, finds the resident
+     *    chunk with the oldest last used frame and drops its image, marking it dirty.
+     * 2. Chunks used in the current frame are never evicted.
+     *
+     * Parameters:
+     * - maximum_resident_chunks: How many chunk images may stay in memory.
+     *
+     * Restrictions:
+     * - Each eviction scans the chunk table; the loop is bounded by the number of resident chunks.
+     */
+    public void EvictLeastRecentlyUsed(final int maximum_resident_chunks){
+        final int maximum_evictions = resident_count;
+        int eviction_count = 0;
+
+        while (resident_count > maximum_resident_chunks && eviction_count < maximum_evictions) {
+            int oldest_chunk = -1;
+            for (int chunk_index = 0; chunk_index < chunk_images.length; chunk_index++) {
+                final boolean is_candidate = chunk_images[chunk_index] != null && last_used_frames[chunk_index] < current_frame;
+                if (is_candidate && (oldest_chunk < 0 || last_used_frames[chunk_index] < last_used_frames[oldest_chunk])) {
+                    oldest_chunk = chunk_index;
+                }
+            }
+
+            if (oldest_chunk < 0) {
+                return; // Every resident chunk is visible in this frame
+            }
+
+            chunk_images[oldest_chunk] = null;
+            dirty_chunks[oldest_chunk] = true;
+            resident_count--;
+            eviction_count++;
+        }
+    }
+
+    public void MarkClean(final int chunk_column, final int chunk_row){
+        dirty_chunks[chunk_row * chunk_columns + chunk_column] = false;
+    }
+}
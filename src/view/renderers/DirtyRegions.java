@@ -0,0 +1,266 @@
+package view.renderers;
+
+/**
+ * Description:
+ * 1. The screen areas whose pixels change in the next frame, reported by the renderers (see
+ *    Renderer.CollectDirtyRegions()) so the game panel only repaints those.
+ * 2. Holds up to MAXIMUM_REGION_COUNT rectangles, clipped to the screen. A new rectangle is
+ *    merged into a region when their bounds cover no more than both of them apart (they
+ *    overlap or touch); once every slot is taken, into the region whose bounds grow the least.
+ * 3. The whole screen is dirty when a renderer asks for it (AddAll()), or once the regions cover
+ *    more than FULL_REPAINT_FRACTION of it: one full repaint is then cheaper than several
+ *    clipped ones.
+ * 4. Kept in primitive arrays, so adding never allocates; renderers add a rectangle per
+ *    changed sprite on every frame.
+ */
+public class DirtyRegions {
+
+    public static final int MAXIMUM_REGION_COUNT = 8;
+
+    private static final double FULL_REPAINT_FRACTION = 0.5;
+
+    private int screen_width;
+    private int screen_height;
+
+    // Region bounds: left and top inclusive, right and bottom exclusive
+    private final int[] lefts = new int[MAXIMUM_REGION_COUNT];
+    private final int[] tops = new int[MAXIMUM_REGION_COUNT];
+    private final int[] rights = new int[MAXIMUM_REGION_COUNT];
+    private final int[] bottoms = new int[MAXIMUM_REGION_COUNT];
+    private int region_count = 0;
+
+    private boolean is_full = false;
+
+    /**
+     * Description:
+     * Sets the screen the regions are clipped to; takes effect for the rectangles added next.
+     */
+    public void SetScreenSize(final int screen_width, final int screen_height){
+        this.screen_width = screen_width;
+        this.screen_height = screen_height;
+    }
+
+    public int GetScreenWidth(){
+        return screen_width;
+    }
+
+    public int GetScreenHeight(){
+        return screen_height;
+    }
+
+    /**
+     * Description:
+     * Removes every region, before collecting the next frame's.
+     */
+    public void Clear(){
+        region_count = 0;
+        is_full = false;
+    }
+
+    /**
+     * Description:
+     * Marks the whole screen as dirty; further rectangles are ignored until Clear().
+     */
+    public void AddAll(){
+        region_count = 0;
+        is_full = true;
+    }
+
+    /**
+     * Objective: Adds a changed screen area.
+     *
+     * Description:
+     * 1. Clips the rectangle to the screen; does nothing if it's empty or the screen is already full.
+     * 2. Merges it into the first region worth merging with; otherwise stores it as a new
+     *    region, or merges it into the region that grows the least when there's no slot left.
+     * 3. A region that grew is merged with the other regions it's now worth merging with.
+     * 4. Marks the whole screen as dirty once the regions cover more than FULL_REPAINT_FRACTION of it.
+     *
+     * Parameters:
+     * - x, y: The top-left corner, in screen pixels (may lie outside the screen).
+     * - width, height: The size, in pixels.
+     */
+    public void Add(final int x, final int y, final int width, final int height){
+        if (is_full) {
+            return;
+        }
+
+        final int left = Math.max(0, x);
+        final int top = Math.max(0, y);
+        final int right = Math.min(screen_width, x + width);
+        final int bottom = Math.min(screen_height, y + height);
+        if (right <= left || bottom <= top) {
+            return;
+        }
+
+        int region = FindMergeableRegion(left, top, right, bottom);
+        if (region < 0 && region_count < MAXIMUM_REGION_COUNT) {
+            lefts[region_count] = left;
+            tops[region_count] = top;
+            rights[region_count] = right;
+            bottoms[region_count] = bottom;
+            region_count++;
+            CheckCoverage();
+            return;
+        }
+        if (region < 0) {
+            region = FindCheapestRegion(left, top, right, bottom);
+        }
+
+        Grow(region, left, top, right, bottom);
+        MergeOverlappingRegions(region);
+        CheckCoverage();
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the first region worth merging the rectangle into (see IsWorthMerging()).
+     * - Returns -1 when there's none.
+     */
+    private int FindMergeableRegion(final int left, final int top, final int right, final int bottom){
+        for (int region = 0; region < region_count; region++) {
+            if ( IsWorthMerging(lefts[region], tops[region], rights[region], bottoms[region], left, top, right, bottom) ) {
+                return region;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the region whose area grows the least when merged with the rectangle.
+     *
+     * Assertives of Entrance:
+     * - There is at least one region.
+     */
+    private int FindCheapestRegion(final int left, final int top, final int right, final int bottom){
+        int cheapest_region = 0;
+        long cheapest_growth = Long.MAX_VALUE;
+        for (int region = 0; region < region_count; region++) {
+            final long growth = Area( Math.min(left, lefts[region]), Math.min(top, tops[region]),
+                                      Math.max(right, rights[region]), Math.max(bottom, bottoms[region]) )
+                              - Area(lefts[region], tops[region], rights[region], bottoms[region]);
+            if (growth < cheapest_growth) {
+                cheapest_growth = growth;
+                cheapest_region = region;
+            }
+        }
+        return cheapest_region;
+    }
+
+    /**
+     * Description:
+     * Absorbs every other region worth merging with the given one, until none is left; each
+     * merge removes a region, so it runs at most MAXIMUM_REGION_COUNT times.
+     */
+    private void MergeOverlappingRegions(final int grown_region){
+        int region = grown_region;
+        boolean has_merged = true;
+        while (has_merged) {
+            has_merged = false;
+            for (int other = 0; other < region_count; other++) {
+                if ( other == region || !IsWorthMerging(lefts[region], tops[region], rights[region], bottoms[region],
+                                                        lefts[other], tops[other], rights[other], bottoms[other]) ) {
+                    continue;
+                }
+
+                Grow(region, lefts[other], tops[other], rights[other], bottoms[other]);
+
+                // The last region takes the removed one's slot
+                region_count--;
+                lefts[other] = lefts[region_count];
+                tops[other] = tops[region_count];
+                rights[other] = rights[region_count];
+                bottoms[other] = bottoms[region_count];
+                if (region == region_count) {
+                    region = other;
+                }
+
+                has_merged = true;
+                break;
+            }
+        }
+    }
+
+    private void Grow(final int region, final int left, final int top, final int right, final int bottom){
+        lefts[region] = Math.min(lefts[region], left);
+        tops[region] = Math.min(tops[region], top);
+        rights[region] = Math.max(rights[region], right);
+        bottoms[region] = Math.max(bottoms[region], bottom);
+    }
+
+    private void CheckCoverage(){
+        final long screen_area = (long) screen_width * screen_height;
+        if (GetPixelCount() > screen_area * FULL_REPAINT_FRACTION) {
+            AddAll();
+        }
+    }
+
+    /**
+     * Description:
+     * Two rectangles are worth merging when their common bounds cover no more pixels than both
+     * of them apart: repainting the bounds then costs no more than repainting each one.
+     */
+    private static boolean IsWorthMerging(final int left_a, final int top_a, final int right_a, final int bottom_a,
+                                          final int left_b, final int top_b, final int right_b, final int bottom_b){
+        final long bounds_area = Area( Math.min(left_a, left_b), Math.min(top_a, top_b), Math.max(right_a, right_b), Math.max(bottom_a, bottom_b) );
+        return bounds_area <= Area(left_a, top_a, right_a, bottom_a) + Area(left_b, top_b, right_b, bottom_b);
+    }
+
+    private static long Area(final int left, final int top, final int right, final int bottom){
+        return (long) (right - left) * (bottom - top);
+    }
+
+    public boolean IsFull(){
+        return is_full;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when nothing on screen changes.
+     */
+    public boolean IsEmpty(){
+        return !is_full && region_count == 0;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the number of regions; 0 when the whole screen is dirty (see IsFull()).
+     */
+    public int GetRegionCount(){
+        return region_count;
+    }
+
+    public int GetX(final int region){
+        return lefts[region];
+    }
+
+    public int GetY(final int region){
+        return tops[region];
+    }
+
+    public int GetWidth(final int region){
+        return rights[region] - lefts[region];
+    }
+
+    public int GetHeight(final int region){
+        return bottoms[region] - tops[region];
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns how many pixels the regions cover (the whole screen's when full); pixels where
+     *   regions overlap are counted once per region.
+     */
+    public long GetPixelCount(){
+        if (is_full) {
+            return (long) screen_width * screen_height;
+        }
+
+        long pixel_count = 0;
+        for (int region = 0; region < region_count; region++) {
+            pixel_count += Area(lefts[region], tops[region], rights[region], bottoms[region]);
+        }
+        return pixel_count;
+    }
+}
@@ -0,0 +1,317 @@
+package view.renderers;
+
+import controller.entities.EntityStore;
+import controller.entities.SpatialGrid;
+import controller.maps.CollisionMap;
+import controller.maps.TileProperty;
+import controller.saves.WorldSnapshot;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import view.animation.AnimationClip;
+import view.animation.AnimationClock;
+import view.animation.SpriteSet;
+import view.camera.Camera;
+import view.panels.Panel;
+
+/**
+ * Description:
+ * 1. Singleton renderer of every entity in the EntityStore (NPCs), so the game isn't limited to
+ *    one character per renderer.
+ * 2. Entities are drawn through sprite sets (archetypes) indexed by the store's sprite IDs;
+ *    the character's sprites are the first archetype, CHARACTER_ARCHETYPE.
+ * 3. Update() advances the store; Render() asks the store's SpatialGrid for the entities around
+ *    the viewport, so its cost depends on how many entities are visible, not on how many exist,
+ *    and draws them interpolating each one's position.
+ * 4. Reports as dirty regions the sprites drawn by the last Render() and the ones the next
+ *    Render() draws. NPCs wander all the time, so every visible sprite is reported rather than
+ *    matching each one with where it was drawn before.
+ *
+ * Restrictions:
+ * - Render() must not allocate nor look anything up in maps: it runs on every frame for
+ *   every entity.
+ */
+public class Entities extends Renderer{
+
+    private static Entities instance;
+
+    public static Entities GetInstance(){
+        if (instance == null){
+            instance = new Entities();
+        }
+        return instance;
+    }
+
+    public static final int CHARACTER_ARCHETYPE = 0;
+
+    // Wandering NPCs move between these speeds, in tiles per second
+    private static final float MINIMUM_WANDER_SPEED = 0.5f;
+    private static final float MAXIMUM_WANDER_SPEED = 2f;
+    private static final long SPAWN_SEED = 2024;
+
+    // Random positions tried per NPC before accepting one on a SOLID tile, from which it walks out
+    private static final int MAXIMUM_SPAWN_ATTEMPTS = 8;
+
+    private static final int INITIAL_VISIBLE_CAPACITY = 256;
+
+    // Ints per rectangle in drawn_rectangles: x, y, width and height
+    private static final int RECTANGLE_LENGTH = 4;
+
+    private final EntityStore entity_store = EntityStore.GetInstance();
+    private final AnimationClock animation_clock = AnimationClock.GetInstance();
+    private final Camera camera = Camera.GetInstance();
+
+    // Indexed by the store's sprite IDs
+    private SpriteSet[] sprite_sets = new SpriteSet[0];
+
+    private float interpolation = 0f;
+
+    // Slots found around the viewport; grown (rarely) when more entities are visible at once
+    private int[] visible_slots = new int[INITIAL_VISIBLE_CAPACITY];
+
+    // Screen bounds of every sprite drawn by the last Render(), one rectangle after the other
+    private int[] drawn_rectangles = new int[INITIAL_VISIBLE_CAPACITY * RECTANGLE_LENGTH];
+    private int drawn_count = 0;
+
+    private Entities(){}
+
+    /**
+     * Description:
+     * Loads every archetype's sprites; for now, only the character's (CHARACTER_ARCHETYPE).
+     *
+     * Restrictions:
+     * - Exits the application (through TextureAtlas) if a sprite isn't registered.
+     */
+    public void LoadArchetypes(){
+        if ( !used_images.isEmpty() ){
+            ClearUsedImages();
+        }
+
+        sprite_sets = new SpriteSet[] {
+            LoadSpriteSet(Character.SPRITE_NAMES, Character.FRAMES_PER_STRIP, Character.IDLE_FRAME_SECONDS, Character.WALK_FRAME_SECONDS)
+        };
+    }
+
+    /**
+     * Description:
+     * 1. Destroys every entity, bounds the store to the map and makes it move entities against
+     *    the map's CollisionMap.
+     * 2. Creates entity_count character NPCs at random positions off SOLID tiles, each walking
+     *    in a random direction at a random speed; the seed is fixed, so every game starts the same.
+     *
+     * Parameters:
+     * - entity_count: How many NPCs to create.
+     * - map_width, map_height: The map's size, in tiles.
+     */
+    public void SpawnWanderers(final int entity_count, final int map_width, final int map_height){
+        final CollisionMap collision_map = Map.GetInstance().GetCollisionMap();
+        entity_store.Clear();
+        entity_store.SetBounds(map_width, map_height);
+        entity_store.SetCollisionMap(collision_map);
+
+        final Random random = new Random(SPAWN_SEED);
+        for (int entity = 0; entity < entity_count; entity++) {
+            final double angle = random.nextDouble() * 2 * Math.PI;
+            final float speed = MINIMUM_WANDER_SPEED + random.nextFloat() * (MAXIMUM_WANDER_SPEED - MINIMUM_WANDER_SPEED);
+
+            float x = random.nextFloat() * map_width;
+            float y = random.nextFloat() * map_height;
+            for (int attempt = 1; attempt < MAXIMUM_SPAWN_ATTEMPTS && collision_map.HasProperty(TileProperty.SOLID, (int) x, (int) y); attempt++) {
+                x = random.nextFloat() * map_width;
+                y = random.nextFloat() * map_height;
+            }
+
+            entity_store.Create( CHARACTER_ARCHETYPE, x, y, (float) (Math.cos(angle) * speed), (float) (Math.sin(angle) * speed), animation_clock.GetTime() );
+        }
+    }
+
+    /**
+     * Description:
+     * Copies every entity into a save snapshot (see WorldSnapshot.CaptureEntities()).
+     */
+    public void CaptureSnapshot(final WorldSnapshot snapshot){
+        snapshot.CaptureEntities(entity_store);
+    }
+
+    /**
+     * Description:
+     * 1. Destroys every entity, bounds the store to the map and makes it move entities against
+     *    the map's CollisionMap, as SpawnWanderers() does.
+     * 2. Creates the snapshot's entities, restarting their animations; entities whose sprite
+     *    ID isn't a loaded archetype are skipped.
+     *
+     * Assertives of Entrance:
+     * - The archetypes are loaded (LoadArchetypes()) and the snapshot's map is the current map.
+     */
+    public void RestoreSnapshot(final WorldSnapshot snapshot, final int map_width, final int map_height){
+        entity_store.Clear();
+        entity_store.SetBounds(map_width, map_height);
+        entity_store.SetCollisionMap( Map.GetInstance().GetCollisionMap() );
+
+        for (int entity = 0; entity < snapshot.GetEntityCount(); entity++) {
+            final int sprite_id = snapshot.GetEntitySpriteID(entity);
+            if (sprite_id < 0 || sprite_id >= sprite_sets.length) {
+                continue;
+            }
+
+            entity_store.Create( sprite_id, snapshot.GetEntityPositionX(entity), snapshot.GetEntityPositionY(entity),
+                                 snapshot.GetEntityVelocityX(entity), snapshot.GetEntityVelocityY(entity), animation_clock.GetTime() );
+        }
+    }
+
+    @Override
+    public void Update(final double step_seconds){
+        entity_store.Update( step_seconds, animation_clock.GetTime() );
+    }
+
+    @Override
+    public void Interpolate(final float interpolation){
+        this.interpolation = interpolation;
+    }
+
+    @Override
+    protected void OnImageRefreshed(final int image_id, final BufferedImage image){
+        for (final SpriteSet sprite_set : sprite_sets) {
+            sprite_set.Reload(image_id, image);
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Rescales every sprite set to the current block size, when it changed.
+     * 2. Queries the spatial grid for the entities around the viewport (QueryVisibleSlots()).
+     * 3. For each of them: interpolates its position between the last two ticks, skips it if
+     *    its sprite lies outside the screen, and draws its archetype's current frame, for its
+     *    facing and whether it's moving, centered on its position.
+     * 4. Records the bounds of every sprite drawn, for CollectDirtyRegions().
+     *
+     * Assertives of Entrance:
+     * - The Camera has been updated for this frame.
+     */
+    @Override
+    public void Render(final Graphics2D graphics_2d, final Panel panel){
+        drawn_count = 0;
+
+        final int entity_count = entity_store.GetCount();
+        if (entity_count == 0 || sprite_sets.length == 0) {
+            return;
+        }
+
+        final float block_width = camera.GetBlockWidth();
+        final float block_height = camera.GetBlockHeight();
+        final int offset_x = camera.GetOffsetX();
+        final int offset_y = camera.GetOffsetY();
+        final double time_seconds = animation_clock.GetTime();
+
+        final int sprite_width = (int) (block_width * Character.WIDTH_IN_TILES);
+        if (sprite_width <= 0) {
+            return;
+        }
+        for (final SpriteSet sprite_set : sprite_sets) {
+            sprite_set.SetScaledSize( sprite_width, sprite_width * sprite_set.GetFrameHeight() / sprite_set.GetFrameWidth(), graphics_2d.getDeviceConfiguration() );
+        }
+
+        final int visible_count = QueryVisibleSlots();
+        if (visible_count * RECTANGLE_LENGTH > drawn_rectangles.length) {
+            drawn_rectangles = new int[Integer.highestOneBit(visible_count) * 2 * RECTANGLE_LENGTH];
+        }
+
+        for (int visible = 0; visible < visible_count; visible++) {
+            final int slot = visible_slots[visible];
+            final SpriteSet sprite_set = sprite_sets[ entity_store.GetSpriteID(slot) ];
+            final int sprite_height = sprite_width * sprite_set.GetFrameHeight() / sprite_set.GetFrameWidth();
+
+            final int x_position = (int) (GetInterpolatedX(slot) * block_width) - offset_x - sprite_width / 2;
+            final int y_position = (int) (GetInterpolatedY(slot) * block_height) - offset_y - sprite_height / 2;
+            if (x_position >= screen_width || y_position >= screen_height || x_position + sprite_width <= 0 || y_position + sprite_height <= 0) {
+                continue;
+            }
+
+            final AnimationClip clip = sprite_set.GetClip( entity_store.GetFacing(slot), entity_store.IsMoving(slot) );
+            final int frame = clip.GetFrameIndex( time_seconds - entity_store.GetAnimationStartTime(slot) );
+            clip.GetFrameStrip().DrawFrame(graphics_2d, frame, x_position, y_position, panel);
+
+            final int rectangle = drawn_count * RECTANGLE_LENGTH;
+            drawn_rectangles[rectangle] = x_position;
+            drawn_rectangles[rectangle + 1] = y_position;
+            drawn_rectangles[rectangle + 2] = sprite_width;
+            drawn_rectangles[rectangle + 3] = sprite_height;
+            drawn_count++;
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Adds the bounds of every sprite drawn by the last Render().
+     * 2. Adds the bounds of every sprite around the viewport at its interpolated position, as
+     *    the next Render() draws them.
+     *
+     * Assertives of Entrance:
+     * - The Camera has been updated for this frame.
+     */
+    @Override
+    public void CollectDirtyRegions(final DirtyRegions dirty_regions){
+        for (int drawn = 0; drawn < drawn_count; drawn++) {
+            final int rectangle = drawn * RECTANGLE_LENGTH;
+            dirty_regions.Add( drawn_rectangles[rectangle], drawn_rectangles[rectangle + 1],
+                               drawn_rectangles[rectangle + 2], drawn_rectangles[rectangle + 3] );
+        }
+
+        if (entity_store.GetCount() == 0 || sprite_sets.length == 0 || dirty_regions.IsFull()) {
+            return;
+        }
+
+        final float block_width = camera.GetBlockWidth();
+        final float block_height = camera.GetBlockHeight();
+        final int offset_x = camera.GetOffsetX();
+        final int offset_y = camera.GetOffsetY();
+        final int sprite_width = (int) (block_width * Character.WIDTH_IN_TILES);
+
+        final int visible_count = QueryVisibleSlots();
+        for (int visible = 0; visible < visible_count && !dirty_regions.IsFull(); visible++) {
+            final int slot = visible_slots[visible];
+            final SpriteSet sprite_set = sprite_sets[ entity_store.GetSpriteID(slot) ];
+            final int sprite_height = sprite_width * sprite_set.GetFrameHeight() / sprite_set.GetFrameWidth();
+
+            final int x_position = (int) (GetInterpolatedX(slot) * block_width) - offset_x - sprite_width / 2;
+            final int y_position = (int) (GetInterpolatedY(slot) * block_height) - offset_y - sprite_height / 2;
+            dirty_regions.Add(x_position, y_position, sprite_width, sprite_height);
+        }
+    }
+
+    /**
+     * Description:
+     * Queries the spatial grid for the entities inside the viewport, widened by a sprite's size
+     * so sprites partly on screen are included; the slot buffer grows if it was too small.
+     *
+     * Expected Returns:
+     * - Returns how many slots were written to visible_slots.
+     */
+    private int QueryVisibleSlots(){
+        final SpatialGrid spatial_grid = entity_store.GetSpatialGrid();
+        final float minimum_x = camera.ScreenToWorldX(0) - Character.WIDTH_IN_TILES;
+        final float minimum_y = camera.ScreenToWorldY(0) - Character.WIDTH_IN_TILES;
+        final float maximum_x = camera.ScreenToWorldX(screen_width) + Character.WIDTH_IN_TILES;
+        final float maximum_y = camera.ScreenToWorldY(screen_height) + Character.WIDTH_IN_TILES;
+        int visible_count = spatial_grid.QueryRectangle(minimum_x, minimum_y, maximum_x, maximum_y, visible_slots);
+        if (visible_count > visible_slots.length) {
+            visible_slots = new int[Integer.highestOneBit(visible_count) << 1];
+            visible_count = spatial_grid.QueryRectangle(minimum_x, minimum_y, maximum_x, maximum_y, visible_slots);
+        }
+        return visible_count;
+    }
+
+    /**
+     * Description:
+     * Returns the slot's x position, in tiles, interpolated between its last two ticks.
+     */
+    private float GetInterpolatedX(final int slot){
+        final float previous_x = entity_store.GetPreviousPositionX(slot);
+        return previous_x + (entity_store.GetPositionX(slot) - previous_x) * interpolation;
+    }
+
+    private float GetInterpolatedY(final int slot){
+        final float previous_y = entity_store.GetPreviousPositionY(slot);
+        return previous_y + (entity_store.GetPositionY(slot) - previous_y) * interpolation;
+    }
+}
@@ -2,19 +2,54 @@ package view.renderers;
 
 import controller.files_controllers.ImageController;
 import controller.files_controllers.TextFileController;
+import controller.maps.BinaryMapFormat;
+import controller.maps.CollisionMap;
+import controller.maps.RegionStreamer;
+import controller.maps.TileGrid;
+import controller.saves.RegionEdits;
+import controller.saves.WorldSnapshot;
 import controller.utils.ErrorStatus;
 import controller.utils.GameExit;
+import controller.utils.Settings;
+import java.awt.AlphaComposite;
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import view.camera.Camera;
 import view.panels.Panel;
 
 /**
  * Description:
- * 1. Singleton renderer responsible for parsing and rendering tile-based maps from text files.
- * 2. Loads map data from text files, parses tile IDs, resolves corresponding images,
- *    and renders the full map as a grid of tiles.
- * 3. Calculates tile (block) dimensions based on screen size and map dimensions.
- * 4. Currently renders the entire map to fill the screen (no viewport implemented yet).
+ * 1. Singleton renderer responsible for loading and rendering tile-based maps.
+ * 2. Loads map data from binary map files (or, when a map has none, from text files) once into
+ *    a primitive TileGrid, resolves corresponding images, and renders the map's layers as grids of tiles.
+ * 3. Calculates tile (block) dimensions through the Camera, based on screen size and map dimensions.
+ * 4. Keeps the static map layer pre-rendered in chunks (ChunkCache), so each frame is a few
+ *    blits; a chunk is only redrawn when its tiles or the block size change.
+ * 5. Only renders the chunks that intersect the Camera's viewport; small maps are still
+ *    stretched to fill the whole screen.
+ * 6. Binary maps bigger than the region memory budget are streamed through a RegionStreamer
+ *    instead of being loaded whole; chunks whose region isn't resident yet are drawn as a
+ *    placeholder, so rendering never waits for the disk.
+ * 7. On hot reload, a reloaded tile image replaces just its cell in the scaled tile cache, and a
+ *    reloaded text map replaces the current map (and its binary map, when it has one).
+ * 8. Compiles the map's tile properties (see ImageManager) into a CollisionMap when it's loaded,
+ *    which character and NPC movement is resolved against.
+ * 9. Tracks the regions whose tiles were changed through SetTile() (RegionEdits), so a save only
+ *    captures those, and reapplies them when a save is loaded.
+ * 10. Reports its dirty regions: only the edited tiles while the Camera stands still, and the
+ *     whole screen when it moved, the tiles were resized or redrawn, or placeholders are shown.
+ * 11. With game.map_render_threads set, whole maps are drawn by a ParallelTileRasterizer instead
+ *     of the chunk cache: the screen is rasterized in bands on several threads, then blitted once.
  */
 public class Map extends Renderer{
 
@@ -34,8 +69,29 @@ public class Map extends Renderer{
         return instance;
     }
 
+    private final Settings settings = Settings.GetInstance();
+
     private String current_map_name = "";
-    private String current_map = "";
+
+    // Between the map's name and its text map's modification time, in derived binary map names
+    private static final String DERIVED_MAP_SEPARATOR = "-";
+
+    // TextFileLoader version of the current map's text file when it was loaded, to notice it was reloaded
+    private int map_text_version = 0;
+
+    // Exactly one of these holds the current map's tiles: the whole map, or the streamed regions around the view
+    private TileGrid tile_grid;
+    private RegionStreamer region_streamer;
+
+    private static final Color PLACEHOLDER_COLOR = Color.DARK_GRAY;
+
+    // Indexed by tile ID, so rendering resolves a tile's image without boxing or hashing
+    private BufferedImage[] tile_images = new BufferedImage[0];
+
+    private final Camera camera = Camera.GetInstance();
+
+    // Chunk images kept in memory, relative to how many chunks are visible at once
+    private static final int RESIDENT_CHUNKS_PER_VISIBLE_CHUNK = 2;
 
     private int map_width;
     private int map_height;
@@ -43,6 +99,40 @@ public class Map extends Renderer{
     private float block_width;
     private float block_height;
 
+    // Pixel position of every column/row border, recalculated only when the block dimensions change
+    private int[] column_positions = new int[0];
+    private int[] row_positions = new int[0];
+
+    // Tile images pre-scaled to the current block size, rebuilt only when the block size changes
+    private final ScaledTileCache scaled_tile_cache = new ScaledTileCache();
+
+    // The static map layer pre-rendered in chunks, composed with one blit per chunk
+    private final ChunkCache chunk_cache = new ChunkCache();
+
+    // Rasterizes whole maps on several threads instead of through the chunk cache; null when disabled
+    private ParallelTileRasterizer tile_rasterizer = CreateTileRasterizer( settings.GetMapRenderThreads() );
+
+    // Compiled again for every map, but never replaced, so movement code can keep a reference
+    private final CollisionMap collision_map = new CollisionMap();
+
+    private final RegionEdits region_edits = new RegionEdits();
+
+    // Side of the regions whose edits a save captures, in tiles; the same for every map
+    private static final int EDIT_REGION_SIZE = BinaryMapFormat.DEFAULT_REGION_SIZE;
+
+    // Edited tiles reported as dirty regions individually; more edits between two frames repaint the whole screen
+    private static final int MAXIMUM_DIRTY_TILES = 64;
+
+    // What the last Render() drew, for CollectDirtyRegions()
+    private boolean is_fully_dirty = true;
+    private boolean has_drawn_placeholders = false;
+    private int drawn_offset_x = 0;
+    private int drawn_offset_y = 0;
+
+    // Column and row of each tile changed through SetTile() since the last Render(), one pair after the other
+    private final int[] dirty_tiles = new int[MAXIMUM_DIRTY_TILES * 2];
+    private int dirty_tile_count = 0;
+
     private Map(){}
 
     /**
@@ -62,11 +152,14 @@ public class Map extends Renderer{
      *
      * Description:
      * 1. Checks if the requested map is already loaded; returns false if so.
-     * 2. Clears the used_images cache if it contains data from a previous map.
-     * 3. Retrieves the map text file content via TextFileLoader.
-     * 4. Exits with EMPTY_TEXTFILE if the map content is empty.
-     * 5. Calls LoadImages() to parse tile IDs and cache their corresponding images.
-     * 6. Calls RegisterMapDimensions() to determine map width/height and calculate block sizes.
+     * 2. If the map has a binary map file older than its text map (edited since MapConverter last
+     *    ran, or checked out in any order), leaves it alone and uses a binary map derived from the
+     *    text map in CACHE_DIRECTORY instead, writing it through WriteDerivedMap() when missing.
+     *    If that write fails, loads the parsed text map directly.
+     * 3. Otherwise, if the map has a binary map file, loads it through LoadBinaryMap().
+     * 4. Otherwise, falls back to the text map: retrieves the map text file content via
+     *    TextFileLoader, exits with EMPTY_TEXTFILE if it's empty, and parses it once into a TileGrid,
+     *    passed to LoadTileGrid().
      *
      * Parameters:
      * - map_name: The name of the map to load (e.g., "main"), matching a registered TextFileController.
@@ -79,148 +172,813 @@ public class Map extends Renderer{
      * - The TextFileManager and TextFileLoader must be initialized with the map registered and loaded.
      *
      * Assertives of Departure:
-     * - current_map_name and current_map are updated to the new map.
-     * - used_images contains all tile images referenced by the map.
+     * - current_map_name and tile_grid are updated to the new map.
+     * - used_images and tile_images contain all tile images referenced by the map.
      * - map_width, map_height, block_width, and block_height are calculated.
+     *
+     * Restrictions:
+     * - Never writes into MAPS_DIRECTORY; regenerating its binary maps is left to MapConverter.
      */
     private boolean LoadMap(final String map_name){
         if (current_map_name.equals(map_name)){
             return false; // Map already loaded
         }
-        current_map_name = map_name;
 
-        if ( !used_images.isEmpty() ){
-            used_images.clear();
+        final TextFileController map_controller = textfile_manager.GetTextFile(map_name);
+        map_text_version = map_controller != null ? textfile_loader.GetVersion(map_controller) : 0;
+
+        final String binary_map_path = BinaryMapFormat.MAPS_DIRECTORY + map_name + BinaryMapFormat.EXTENSION;
+        final File binary_map_file = new File(binary_map_path);
+        if ( !binary_map_file.exists() ) {
+            LoadTileGrid( map_name, ParseMapText(map_controller) );
+            return true;
+        }
+
+        final File text_map_file = map_controller != null ? new File( textfile_manager.GetFilePath(map_controller) ) : null;
+        if ( text_map_file == null || text_map_file.lastModified() <= binary_map_file.lastModified() ) {
+            LoadBinaryMap(map_name, binary_map_path);
+            return true;
+        }
+
+        // Named after the text map's modification time, so a mapped older version is never replaced
+        final String derived_map_path = BinaryMapFormat.CACHE_DIRECTORY + map_name + DERIVED_MAP_SEPARATOR
+                                      + text_map_file.lastModified() + BinaryMapFormat.EXTENSION;
+        if ( !new File(derived_map_path).exists() ) {
+            final TileGrid grid = ParseMapText(map_controller);
+            if ( !WriteDerivedMap(map_name, grid, derived_map_path) ) {
+                LoadTileGrid(map_name, grid);
+                return true;
+            }
         }
+        LoadBinaryMap(map_name, derived_map_path);
+        return true;
+    }
 
+    /**
+     * Description:
+     * 1. Reads only the binary map's header.
+     * 2. When its tiles take more than the region memory budget, opens it through a RegionStreamer
+     *    and streams it through LoadRegionStreamer().
+     * 3. Otherwise, reads it whole into a TileGrid through BinaryMapFormat, leaving nothing mapped,
+     *    and passes it to LoadTileGrid().
+     */
+    private void LoadBinaryMap(final String map_name, final String binary_map_path){
+        final BinaryMapFormat.Header header = BinaryMapFormat.ReadHeader(binary_map_path);
+        // A chunk must fall inside a single region, so it can be drawn from that region alone
+        final boolean is_streamable = header.GetRegionSize() % ChunkCache.CHUNK_SIZE == 0;
+        if (is_streamable && header.GetTotalBytes() > settings.GetRegionMemoryBudget()) {
+            LoadRegionStreamer( map_name, RegionStreamer.Open(binary_map_path, settings.GetRegionRadius(), settings.GetRegionMemoryBudget()) );
+        }
+        else {
+            LoadTileGrid(map_name, BinaryMapFormat.Read(binary_map_path));
+        }
+    }
+
+    /**
+     * Objective: Writes a binary map derived from a text map into the cache, without ever exiting.
+     *
+     * Description:
+     * 1. Creates CACHE_DIRECTORY and writes the grid through BinaryMapFormat.TryWrite().
+     * 2. Deletes the map's other derived binary maps, made from older versions of its text map.
+     *    Deleting one that is still mapped can fail on some systems; it is then left for a later load.
+     *
+     * Expected Returns:
+     * - Returns false when the derived map couldn't be written; the caller then loads the grid itself.
+     */
+    private static boolean WriteDerivedMap(final String map_name, final TileGrid grid, final String derived_map_path){
+        try {
+            Files.createDirectories( Paths.get(BinaryMapFormat.CACHE_DIRECTORY) );
+        }
+        catch (IOException exception) {
+            return false; // The derived map is only an optimization
+        }
+        if ( !BinaryMapFormat.TryWrite(grid, derived_map_path, BinaryMapFormat.DEFAULT_REGION_SIZE) ) {
+            return false;
+        }
+
+        final Pattern derived_map_pattern = Pattern.compile( Pattern.quote(map_name + DERIVED_MAP_SEPARATOR) + "\\d+" + Pattern.quote(BinaryMapFormat.EXTENSION) );
+        final File[] cached_maps = new File(BinaryMapFormat.CACHE_DIRECTORY).listFiles();
+        if (cached_maps != null) {
+            for (final File cached_map : cached_maps) {
+                if ( derived_map_pattern.matcher(cached_map.getName()).matches() && !cached_map.getPath().equals( new File(derived_map_path).getPath() ) ) {
+                    cached_map.delete(); // Failures are ignored
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Description:
+     * Parses the map's loaded text into a TileGrid.
+     *
+     * Restrictions:
+     * - Exits the application with EMPTY_TEXTFILE if the text map is empty.
+     */
+    private TileGrid ParseMapText(final TextFileController map_controller){
         // Storing a possible empty map isn't a problem with the current implementation because it throws an exception that ends the program
-        final TextFileController map_controller = textfile_manager.GetTextFile(map_name);
-        current_map = textfile_loader.GetTextFile(map_controller);
-        if ( current_map.isEmpty() ){
+        final String map_text = textfile_loader.GetTextFile(map_controller);
+        if ( map_text.trim().isEmpty() ){
             GameExit.Exit(ErrorStatus.EMPTY_TEXTFILE, " - " + textfile_manager.GetFileFullName(map_controller));
         }
-        
-        LoadImages(current_map);
-        RegisterMapDimensions(current_map);
-        return true;
+        return TileGrid.FromText(map_text);
+    }
+
+    /**
+     * Objective: Makes an already parsed grid the current map, whatever its source.
+     *
+     * Description:
+     * 1. Stores the map name and the grid.
+     * 2. Clears the used_images cache if it contains data from a previous map.
+     * 3. Calls LoadImages() to cache the images of every tile ID used by the grid.
+     * 4. Calls RegisterMapDimensions() to determine map width/height and calculate block sizes.
+     * 5. Compiles the grid's tile properties into the CollisionMap.
+     * 6. Forgets the previous map's edits.
+     *
+     * Parameters:
+     * - map_name: The name identifying the map; LoadMap() uses it to skip reloading the same map.
+     * - grid: The map's tiles. Its tile IDs must be registered in ImageManager.
+     *
+     * Assertives of Departure:
+     * - The grid is rendered from the next frame on.
+     */
+    public void LoadTileGrid(final String map_name, final TileGrid grid){
+        current_map_name = map_name;
+
+        if ( !used_images.isEmpty() ){
+            ClearUsedImages();
+        }
+
+        tile_grid = grid;
+        region_streamer = null;
+        LoadImages( tile_grid.GetTiles() );
+        RegisterMapDimensions( tile_grid.GetWidth(), tile_grid.GetHeight() );
+        collision_map.Compile( tile_grid, image_manager.GetTileProperties() );
+        region_edits.Reset(map_width, map_height, EDIT_REGION_SIZE);
     }
 
     /**
+     * Objective: Makes a streamed map the current map; its regions are loaded while rendering.
+     *
      * Description:
-     * 1. Splits the entire map content by whitespace to extract all tile element strings.
-     * 2. Parses each element as an integer tile ID.
-     * 3. Resolves each ID to an ImageController via ImageManager, then loads the image
-     *    via ImageLoader.
-     * 4. Stores each tile ID and its corresponding BufferedImage in the used_images cache.
+     * 1. Stores the map name and the streamer.
+     * 2. Clears the used_images cache if it contains data from a previous map.
+     * 3. Calls LoadImages() with the map's palette, so every image it can use is cached up front.
+     * 4. Calls RegisterMapDimensions() with the map's dimensions.
+     * 5. Compiles the CollisionMap in one pass over the map file, decoding a single region at a
+     *    time, so it costs a region's memory on top of the bitsets.
+     * 6. Forgets the previous map's edits.
      *
      * Parameters:
-     * - map: The full map text content with space-separated integer tile IDs.
+     * - map_name: The name identifying the map; LoadMap() uses it to skip reloading the same map.
+     * - streamer: The opened map. Its region size must be a multiple of ChunkCache.CHUNK_SIZE.
+     *
+     * Assertives of Departure:
+     * - The map is rendered from the next frame on, with placeholders until its regions arrive.
      *
      * Restrictions:
-     * - Exits the application with UNRECOGNIZED_MAP_ELEMENT if a non-numeric element is found.
-     */
-    private void LoadImages(final String map){
-        final String[] map_elements = map.trim().split("\\s+");
-        for (final String map_element : map_elements) {
-            try {
-                final int element_id = Integer.parseInt(map_element);
-                final ImageController element_controller = image_manager.GetImage(element_id);
-                final BufferedImage element_image = image_loader.GetImage(element_controller);
-                used_images.put(element_id, element_image);
-            } 
-            catch (NumberFormatException number_format_exception) {
-                GameExit.Exit(ErrorStatus.UNRECOGNIZED_MAP_ELEMENT, " - " + map_element);
+     * - Blocks until every region was read once.
+     */
+    public void LoadRegionStreamer(final String map_name, final RegionStreamer streamer){
+        current_map_name = map_name;
+
+        if ( !used_images.isEmpty() ){
+            ClearUsedImages();
+        }
+
+        tile_grid = null;
+        region_streamer = streamer;
+        LoadImages( region_streamer.GetPalette() );
+        RegisterMapDimensions( region_streamer.GetWidth(), region_streamer.GetHeight() );
+        CompileStreamedCollisions();
+        // Not per streamed region: the map file's region size may exceed what a save accepts
+        region_edits.Reset(map_width, map_height, EDIT_REGION_SIZE);
+    }
+
+    /**
+     * Description:
+     * Resets the CollisionMap to the streamed map's dimensions, then compiles every region's
+     * tile properties into it, reading the regions one by one without making them resident.
+     */
+    private void CompileStreamedCollisions(){
+        collision_map.Reset( region_streamer.GetWidth(), region_streamer.GetHeight(), image_manager.GetTileProperties() );
+
+        final int region_size = region_streamer.GetRegionSize();
+        for (int region_row = 0; region_row < region_streamer.GetRegionRows(); region_row++) {
+            for (int region_column = 0; region_column < region_streamer.GetRegionColumns(); region_column++) {
+                final TileGrid region = region_streamer.ReadRegion(region_column, region_row);
+                collision_map.CompileRegion(region, region_column * region_size, region_row * region_size);
             }
         }
     }
 
     /**
      * Description:
-     * 1. Splits the map content by newlines to determine the number of rows.
-     * 2. Splits the first row by whitespace to determine the number of columns.
-     * 3. Sets map_height and map_width accordingly.
-     * 4. Calls CalculateBlockDimensions() to compute tile sizes based on screen and map dimensions.
+     * 1. Allocates the tile_images lookup table, sized by the highest tile ID given.
+     * 2. Hints the TextureAtlas with every distinct tile's image, so in lazy mode their pages are
+     *    made resident on the page threads while the first ones are resolved.
+     * 3. Walks every tile ID, skipping empty tiles; the first time an ID is seen, resolves it to
+     *    an ImageController via ImageManager and gets its image from the TextureAtlas.
+     * 4. Stores each resolved image both in the used_images cache and in tile_images.
      *
      * Parameters:
-     * - map: The full map text content.
+     * - tile_ids: The tile IDs that must be resolved (a grid's tiles, or a streamed map's palette).
      *
-     * Assertives of Entrance:
-     * - The map content is non-empty (validated earlier by LoadMap).
+     * Restrictions:
+     * - Exits the application (through TextureAtlas) if a tile ID has no registered image.
+     */
+    private void LoadImages(final short[] tile_ids){
+        int maximum_tile = TileGrid.EMPTY_TILE;
+        for (final short tile_id : tile_ids) {
+            maximum_tile = Math.max(maximum_tile, tile_id);
+        }
+        tile_images = new BufferedImage[maximum_tile + 1];
+
+        final boolean[] is_hinted = new boolean[maximum_tile + 1];
+        final List<ImageController> tile_controllers = new ArrayList<>();
+        for (final short element_id : tile_ids) {
+            if (element_id != TileGrid.EMPTY_TILE && !is_hinted[element_id]) {
+                is_hinted[element_id] = true;
+                tile_controllers.add( image_manager.GetImage(element_id) );
+            }
+        }
+        texture_atlas.Prefetch(tile_controllers);
+
+        for (final short element_id : tile_ids) {
+            if (element_id == TileGrid.EMPTY_TILE || tile_images[element_id] != null) {
+                continue;
+            }
+
+            final ImageController element_controller = image_manager.GetImage(element_id);
+            tile_images[element_id] = UseImage(element_controller);
+        }
+
+        scaled_tile_cache.Invalidate();
+    }
+
+    /**
+     * Description:
+     * 1. Refreshes the used images (see Renderer.RefreshAssets()).
+     * 2. If the current map's text file was reloaded since the map was loaded, loads the map again
+     *    through LoadMap(), which converts the newer text map into a derived binary map and decides
+     *    again whether to stream it or load it whole.
+     *
+     * Restrictions:
+     * - Exits the application with EMPTY_TEXTFILE if the reloaded text map is empty.
+     * - Never writes over a binary map that a RegionStreamer may still have mapped.
+     */
+    @Override
+    public void RefreshAssets(){
+        super.RefreshAssets();
+
+        final TextFileController map_controller = textfile_manager.GetTextFile(current_map_name);
+        if ( map_controller == null || textfile_loader.GetVersion(map_controller) == map_text_version ) {
+            return;
+        }
+
+        final String map_name = current_map_name;
+        current_map_name = ""; // Forces LoadMap() to load it again
+        LoadMap(map_name);
+    }
+
+    /**
+     * Description:
+     * Replaces the tile's image and redraws its cell in the scaled tile cache; every chunk is
+     * redrawn, since any of them may hold the tile.
+     */
+    @Override
+    protected void OnImageRefreshed(final int image_id, final BufferedImage image){
+        if (image_id < tile_images.length && tile_images[image_id] != null) {
+            tile_images[image_id] = image;
+            scaled_tile_cache.RefreshTile(image_id, image);
+            chunk_cache.InvalidateAll();
+            is_fully_dirty = true;
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Sets map_height and map_width to the map's number of rows and columns.
+     * 2. Calls CalculateBlockDimensions() to compute tile sizes based on screen and map dimensions.
      *
      * Assertives of Departure:
      * - map_width and map_height reflect the map's column and row counts.
      * - block_width and block_height are calculated.
+     * - The chunk cache covers the whole map, with every chunk dirty.
      */
-    private void RegisterMapDimensions(final String map){
-        // No need to check if there is any element in the file because it would have been caught by TextFileLoader
-        final String[] lines = map.trim().split("\\n");
-        final String[] first_row_elements = lines[0].trim().split("\\s+");
-
-        map_height = lines.length;
-        map_width = first_row_elements.length;
+    private void RegisterMapDimensions(final int width, final int height){
+        map_height = height;
+        map_width = width;
 
+        chunk_cache.Reset(map_width, map_height);
         CalculateBlockDimensions();
     }
 
     /**
      * Description:
-     * 1. Divides the screen width by the map width to get the tile width.
-     * 2. Divides the screen height by the map height to get the tile height.
+     * 1. Passes the screen and map dimensions to the Camera, which decides the on-screen tile
+     *    size (stretched to the screen for small maps, fixed for big ones).
+     * 2. Reads the tile width and height back from the Camera.
+     * 3. Recalculates the tile border positions, in world pixels.
+     * 4. Passes the truncated tile size to the scaled tile cache, which is invalidated only
+     *    if the size actually changed.
+     * 5. Invalidates every chunk, since the tile borders inside them moved, and makes the next
+     *    frame repaint the whole screen.
      *
      * Assertives of Entrance:
      * - map_width and map_height must be greater than zero.
      * - screen_width and screen_height should be set via SetScreenSize().
      */
     public void CalculateBlockDimensions(){
-        block_width = (float) screen_width / map_width;
-        block_height = (float) screen_height / map_height;
+        camera.SetScreenSize(screen_width, screen_height);
+        camera.SetMapSize(map_width, map_height);
+
+        block_width = camera.GetBlockWidth();
+        block_height = camera.GetBlockHeight();
+
+        column_positions = CalculateBorderPositions(map_width, block_width);
+        row_positions = CalculateBorderPositions(map_height, block_height);
+
+        scaled_tile_cache.SetTileDimensions( (int) block_width, (int) block_height );
+        chunk_cache.InvalidateAll();
+        is_fully_dirty = true;
+    }
+
+    /**
+     * Description:
+     * 1. Replaces the tile rasterizer with one using thread_count threads, stopping the old one's
+     *    threads; 0 draws the map through the chunk cache again.
+     * 2. Makes the next frame repaint the whole screen.
+     *
+     * Parameters:
+     * - thread_count: How many threads rasterize the map; 0 disables the tile rasterizer.
+     */
+    public void SetRenderThreads(final int thread_count){
+        if (tile_rasterizer != null) {
+            tile_rasterizer.ShutDown();
+        }
+        tile_rasterizer = CreateTileRasterizer(thread_count);
+        is_fully_dirty = true;
+    }
+
+    private static ParallelTileRasterizer CreateTileRasterizer(final int thread_count){
+        return thread_count > 0 ? new ParallelTileRasterizer(thread_count) : null;
+    }
+
+    public int GetMapWidth(){
+        return map_width;
+    }
+
+    public int GetMapHeight(){
+        return map_height;
+    }
+
+    /**
+     * Description:
+     * Returns the name of the current map, or an empty string before one is loaded.
+     */
+    public String GetMapName(){
+        return current_map_name;
+    }
+
+    /**
+     * Description:
+     * Returns the current map's compiled tile properties; the same instance for every map.
+     */
+    public CollisionMap GetCollisionMap(){
+        return collision_map;
+    }
+
+    /**
+     * Description:
+     * 1. Computes the pixel position of each of the element_count + 1 borders of a row or column
+     *    of tiles, truncating each position individually.
+     * 2. Truncating the positions (instead of the sizes) makes some tiles one pixel bigger,
+     *    compensating for the fractional block size and avoiding unpainted areas.
+     */
+    private static int[] CalculateBorderPositions(final int element_count, final float block_size){
+        final int[] positions = new int[element_count + 1];
+        for (int index = 0; index <= element_count; index++) {
+            positions[index] = (int) (index * block_size);
+        }
+        return positions;
     }
     
     /**
+     * Objective: Changes a single tile of the loaded map's bottom layer, redrawing only the chunk
+     * that contains it.
+     *
      * Description:
-     * 1. Splits the current map content into rows by newline.
-     * 2. For each row, splits by whitespace to get individual tile IDs.
-     * 3. For each tile, parses the integer ID and retrieves the cached BufferedImage.
-     * 4. Calculates the tile's position using the column/row index multiplied by block dimensions.
-     * 5. Calculates the tile's rendered width and height by computing the difference between
-     *    the current and next tile positions, compensating for fractional pixel rounding
-     *    to avoid unpainted areas.
-     * 6. Draws each tile image at the calculated position with the calculated dimensions.
+     * 1. Resolves the new tile's image if the map didn't use that tile ID yet, growing the
+     *    tile_images table and invalidating the scaled tile cache.
+     * 2. Writes the tile ID into the grid, or into its region when the map is streamed.
+     * 3. Marks the tile's chunk as dirty, compiles the cell's tile properties again and marks
+     *    its region as edited.
+     * 4. Records the tile as a dirty region for the next frame; past MAXIMUM_DIRTY_TILES edits,
+     *    the whole screen is repainted instead.
+     *
+     * Expected Returns:
+     * - Returns true when the tile was changed.
+     * - Returns false when the map is streamed and the tile's region isn't resident.
+     *
+     * Assertives of Entrance:
+     * - A map is loaded and (column, row) is inside it.
+     *
+     * Restrictions:
+     * - Exits the application (through TextureAtlas) if the tile ID has no registered image.
+     */
+    public boolean SetTile(final int column, final int row, final short tile){
+        if ( tile != TileGrid.EMPTY_TILE && (tile >= tile_images.length || tile_images[tile] == null) ) {
+            if (tile >= tile_images.length) {
+                tile_images = Arrays.copyOf(tile_images, tile + 1);
+            }
+
+            final ImageController tile_controller = image_manager.GetImage(tile);
+            tile_images[tile] = UseImage(tile_controller);
+            scaled_tile_cache.Invalidate();
+        }
+
+        if (region_streamer == null) {
+            tile_grid.SetTile(column, row, tile);
+            collision_map.UpdateTile(tile_grid, column, row);
+        }
+        else if ( region_streamer.SetTile(column, row, tile) ) {
+            collision_map.UpdateTile( region_streamer.GetRegion(column, row), region_streamer.GetRegionFirstColumn(column),
+                                      region_streamer.GetRegionFirstRow(row), column, row );
+        }
+        else {
+            return false;
+        }
+
+        chunk_cache.InvalidateTile(column, row);
+        region_edits.MarkTile(column, row);
+
+        if (dirty_tile_count < MAXIMUM_DIRTY_TILES) {
+            dirty_tiles[dirty_tile_count * 2] = column;
+            dirty_tiles[dirty_tile_count * 2 + 1] = row;
+            dirty_tile_count++;
+        }
+        else {
+            is_fully_dirty = true;
+        }
+        return true;
+    }
+
+    /**
+     * Description:
+     * Whether a delta save would be complete: a snapshot was taken since the map was loaded, so
+     * the regions changed since then are known.
+     */
+    public boolean CanWriteDelta(){
+        return region_edits.HasSnapshot();
+    }
+
+    /**
+     * Objective: Copies the map's part of the world state into a save snapshot.
+     *
+     * Description:
+     * 1. Sets the snapshot's map name, size and region size.
+     * 2. Copies the bottom-layer tiles of every region edited since the map was loaded, or only
+     *    of the ones changed since the last snapshot when the snapshot is a delta.
+     * 3. Marks the changes as captured, so the next delta starts from here.
+     *
+     * Parameters:
+     * - snapshot: A snapshot from SaveManager.BeginSnapshot(), for the current map.
+     *
+     * Assertives of Entrance:
+     * - A map is loaded. When the snapshot is a delta, CanWriteDelta() returned true.
+     */
+    public void CaptureSnapshot(final WorldSnapshot snapshot){
+        final int region_size = region_edits.GetRegionSize();
+        snapshot.SetMap(current_map_name, map_width, map_height, region_size);
+
+        for (int region_row = 0; region_row < region_edits.GetRegionRows(); region_row++) {
+            for (int region_column = 0; region_column < region_edits.GetRegionColumns(); region_column++) {
+                final boolean is_captured = snapshot.IsDelta() ? region_edits.IsChanged(region_column, region_row)
+                                                               : region_edits.IsEdited(region_column, region_row);
+                if (!is_captured) {
+                    continue;
+                }
+
+                final int first_column = region_column * region_size;
+                final int first_row = region_row * region_size;
+                final int region_width = snapshot.GetRegionWidth(region_column);
+                final int region_height = snapshot.GetRegionHeight(region_row);
+                final short[] tiles = new short[region_width * region_height];
+                for (int row = 0; row < region_height; row++) {
+                    for (int column = 0; column < region_width; column++) {
+                        tiles[row * region_width + column] = (short) GetBottomTile(first_column + column, first_row + row);
+                    }
+                }
+                snapshot.AddRegion(region_column, region_row, tiles);
+            }
+        }
+
+        region_edits.CompleteSnapshot();
+    }
+
+    /**
+     * Description:
+     * Reads a bottom-layer tile. When the map is streamed, loads the tile's region first if it
+     * isn't resident: edited streamed regions are kept resident, but an edit region may also
+     * cover unedited streamed regions, whose tiles are read back from the map file.
+     *
+     * Restrictions:
+     * - May block on the disk while a streamed region is decoded.
+     */
+    private int GetBottomTile(final int column, final int row){
+        if (region_streamer == null) {
+            return tile_grid.GetTile(column, row);
+        }
+
+        final TileGrid region = region_streamer.LoadRegion(column, row);
+        return region.GetTile( column - region_streamer.GetRegionFirstColumn(column), row - region_streamer.GetRegionFirstRow(row) );
+    }
+
+    /**
+     * Objective: Makes a loaded save's map the current map, with its edits.
+     *
+     * Description:
+     * 1. Exits with INVALID_SAVE_GAME if the saved map has neither a binary map nor a text map.
+     * 2. Loads the map again, even when it's the current one, so earlier edits are dropped.
+     * 3. Writes every saved region's tiles through SetTile(), skipping tiles outside the map
+     *    (when the map shrank since it was saved); streamed regions are loaded first.
+     * 4. Marks the edits as captured, since the save already holds them; unless the save's
+     *    region size differs from the edits', so the next save is a full one, as a delta of
+     *    differently sized regions couldn't be merged into it.
+     *
+     * Parameters:
+     * - snapshot: A snapshot returned by SaveManager.Load().
+     *
+     * Restrictions:
+     * - Blocks while the edited regions of a streamed map are decoded.
+     * - Exits the application (through TextureAtlas) if a saved tile ID has no registered image.
+     */
+    public void RestoreSnapshot(final WorldSnapshot snapshot){
+        final String map_name = snapshot.GetMapName();
+        final boolean has_binary_map = new File(BinaryMapFormat.MAPS_DIRECTORY + map_name + BinaryMapFormat.EXTENSION).exists();
+        if ( !has_binary_map && textfile_manager.GetTextFile(map_name) == null ) {
+            GameExit.Exit(ErrorStatus.INVALID_SAVE_GAME, " - " + map_name);
+        }
+
+        current_map_name = ""; // Forces LoadMap() to load it again
+        LoadMap(map_name);
+
+        final int region_size = snapshot.GetRegionSize();
+        for (final WorldSnapshot.Region region : snapshot.GetRegions()) {
+            final int first_column = region.GetRegionColumn() * region_size;
+            final int first_row = region.GetRegionRow() * region_size;
+            final int region_width = snapshot.GetRegionWidth( region.GetRegionColumn() );
+            final int last_column = Math.min(first_column + region_width, map_width);
+            final int last_row = Math.min(first_row + snapshot.GetRegionHeight( region.GetRegionRow() ), map_height);
+            final short[] tiles = region.GetTiles();
+
+            for (int row = first_row; row < last_row; row++) {
+                for (int column = first_column; column < last_column; column++) {
+                    if (region_streamer != null && region_streamer.GetRegion(column, row) == null) {
+                        region_streamer.LoadRegion(column, row);
+                    }
+                    SetTile( column, row, tiles[(row - first_row) * region_width + (column - first_column)] );
+                }
+            }
+        }
+
+        if (region_size == region_edits.GetRegionSize()) {
+            region_edits.CompleteSnapshot();
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Rebuilds the scaled tile cache if the block size or the map's tile images changed,
+     *    using the destination's GraphicsConfiguration, and invalidates every chunk if so.
+     * 2. Asks the Camera for the tile columns and rows that intersect the viewport and
+     *    converts them to a range of chunks. When the map is streamed, also passes that range to
+     *    the RegionStreamer, which loads and evicts regions around it.
+     * 3. For each visible chunk, redraws it through RenderChunk() if it's dirty; if its region
+     *    isn't resident yet, draws a placeholder instead and leaves it dirty.
+     * 4. Blits each visible chunk image at the screen position of its first tile.
+     * 5. Drops the least recently used chunk images once more than a few screens' worth
+     *    are resident.
+     * 6. Records what it drew (the Camera offsets, whether placeholders were shown) and forgets
+     *    the edited tiles, for CollectDirtyRegions().
+     * 7. When the tile rasterizer is enabled and the map isn't streamed, steps 2 to 5 are replaced
+     *    by the rasterizer, which draws the whole screen again after any tile or block size change.
      *
      * Parameters:
      * - graphics_2d: The Graphics2D context used for rendering.
      * - panel: The Panel used as the ImageObserver for drawImage().
      *
      * Assertives of Entrance:
-     * - A map must be loaded (current_map is non-empty, used_images is populated).
      * - Screen dimensions and block dimensions must be calculated.
+     * - The Camera has been updated for this frame.
+     *
+     * Restrictions:
+     * - Must not allocate in steady state: it runs on every frame. Allocation only happens
+     *   while rebuilding caches after a resize or when new chunks scroll into view.
+     * - The cost depends on the number of visible chunks, not on the size of the map.
      */
-    // Before creating a viewport, the whole map will be rendered in the screen
     @Override
     public void Render(final Graphics2D graphics_2d, final Panel panel){
+        if (tile_grid == null && region_streamer == null) {
+            return; // No map loaded yet
+        }
+
+        final GraphicsConfiguration graphics_configuration = graphics_2d.getDeviceConfiguration();
+        if ( !scaled_tile_cache.IsValid() ) {
+            scaled_tile_cache.Build(tile_images, graphics_configuration);
+            chunk_cache.InvalidateAll();
+            is_fully_dirty = true;
+        }
+
+        final int offset_x = camera.GetOffsetX();
+        final int offset_y = camera.GetOffsetY();
+
+        if (tile_rasterizer != null && region_streamer == null) {
+            if (is_fully_dirty || dirty_tile_count > 0) {
+                tile_rasterizer.Invalidate();
+            }
+            tile_rasterizer.Render(graphics_2d, panel, tile_grid, scaled_tile_cache, column_positions, row_positions,
+                                   offset_x, offset_y, screen_width, screen_height);
+            RecordDrawnState(offset_x, offset_y, false);
+            return;
+        }
+
+        if (region_streamer != null) {
+            region_streamer.Update(camera.GetFirstVisibleColumn(), camera.GetFirstVisibleRow(), camera.GetLastVisibleColumn(), camera.GetLastVisibleRow());
+        }
+
+        final int first_chunk_column = camera.GetFirstVisibleColumn() / ChunkCache.CHUNK_SIZE;
+        final int first_chunk_row = camera.GetFirstVisibleRow() / ChunkCache.CHUNK_SIZE;
+        final int last_chunk_column = Math.min(chunk_cache.GetChunkColumns() - 1, camera.GetLastVisibleColumn() / ChunkCache.CHUNK_SIZE);
+        final int last_chunk_row = Math.min(chunk_cache.GetChunkRows() - 1, camera.GetLastVisibleRow() / ChunkCache.CHUNK_SIZE);
+
+        boolean has_placeholders = false;
+        chunk_cache.BeginFrame();
+        for (int chunk_row = first_chunk_row; chunk_row <= last_chunk_row; chunk_row++) {
+            for (int chunk_column = first_chunk_column; chunk_column <= last_chunk_column; chunk_column++) {
+                if ( chunk_cache.IsDirty(chunk_column, chunk_row) && !RenderChunk(chunk_column, chunk_row, graphics_configuration) ) {
+                    DrawPlaceholder(graphics_2d, chunk_column, chunk_row, offset_x, offset_y);
+                    has_placeholders = true;
+                    continue;
+                }
+                chunk_cache.MarkUsed(chunk_column, chunk_row);
+
+                final BufferedImage chunk_image = chunk_cache.GetChunk(chunk_column, chunk_row);
+                final int chunk_x_position = column_positions[chunk_column * ChunkCache.CHUNK_SIZE] - offset_x;
+                final int chunk_y_position = row_positions[chunk_row * ChunkCache.CHUNK_SIZE] - offset_y;
+                graphics_2d.drawImage(chunk_image, chunk_x_position, chunk_y_position, panel);
+            }
+        }
+
+        final int visible_chunks = (last_chunk_column - first_chunk_column + 1) * (last_chunk_row - first_chunk_row + 1);
+        chunk_cache.EvictLeastRecentlyUsed(visible_chunks * RESIDENT_CHUNKS_PER_VISIBLE_CHUNK);
+
+        RecordDrawnState(offset_x, offset_y, has_placeholders);
+    }
+
+    private void RecordDrawnState(final int offset_x, final int offset_y, final boolean has_placeholders){
+        is_fully_dirty = false;
+        has_drawn_placeholders = has_placeholders;
+        drawn_offset_x = offset_x;
+        drawn_offset_y = offset_y;
+        dirty_tile_count = 0;
+    }
+
+    /**
+     * Description:
+     * 1. Does nothing before a map is loaded.
+     * 2. Marks the whole screen as dirty when the Camera moved since the last Render(), when
+     *    every chunk was invalidated (new map, block size or tile image), or while placeholders
+     *    are shown (their regions may have arrived).
+     * 3. Otherwise adds the screen area of every tile edited since the last Render().
+     *
+     * Assertives of Entrance:
+     * - The Camera has been updated for this frame.
+     */
+    @Override
+    public void CollectDirtyRegions(final DirtyRegions dirty_regions){
+        if (tile_grid == null && region_streamer == null) {
+            return; // No map loaded yet
+        }
+
+        final int offset_x = camera.GetOffsetX();
+        final int offset_y = camera.GetOffsetY();
+        if (is_fully_dirty || has_drawn_placeholders || offset_x != drawn_offset_x || offset_y != drawn_offset_y) {
+            dirty_regions.AddAll();
+            return;
+        }
+
+        for (int dirty_tile = 0; dirty_tile < dirty_tile_count; dirty_tile++) {
+            final int column = dirty_tiles[dirty_tile * 2];
+            final int row = dirty_tiles[dirty_tile * 2 + 1];
+            dirty_regions.Add( column_positions[column] - offset_x, row_positions[row] - offset_y,
+                               column_positions[column + 1] - column_positions[column], row_positions[row + 1] - row_positions[row] );
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Determines the chunk's tile range, clamped to the map's borders, and its pixel bounds
+     *    from the precalculated border positions.
+     * 2. Finds the grid holding the chunk's tiles: the whole map, or the chunk's streamed region.
+     * 3. Obtains a (possibly reused) chunk image of that size from the chunk cache and clears it.
+     * 4. For each layer, bottom to top, and each non-empty tile of the chunk, fetches the tile image
+     *    pre-scaled to its on-screen size from the scaled tile cache's page and copies it 1:1
+     *    relative to the chunk's origin.
+     * 5. Marks the chunk as clean.
+     *
+     * Expected Returns:
+     * - Returns false when the chunk's region isn't resident yet; the chunk is left untouched.
+     * - Returns true otherwise.
+     *
+     * Assertives of Entrance:
+     * - The scaled tile cache is valid.
+     *
+     * Assertives of Departure:
+     * - The chunk is clean, unless its pixel size is zero (screen not sized yet); then it
+     *   stays dirty and has no image.
+     */
+    private boolean RenderChunk(final int chunk_column, final int chunk_row, final GraphicsConfiguration graphics_configuration){
+        final int first_column = chunk_column * ChunkCache.CHUNK_SIZE;
+        final int first_row = chunk_row * ChunkCache.CHUNK_SIZE;
+        final int last_column = Math.min(first_column + ChunkCache.CHUNK_SIZE, map_width);
+        final int last_row = Math.min(first_row + ChunkCache.CHUNK_SIZE, map_height);
+
+        final int chunk_x_position = column_positions[first_column];
+        final int chunk_y_position = row_positions[first_row];
+        final int chunk_width = column_positions[last_column] - chunk_x_position;
+        final int chunk_height = row_positions[last_row] - chunk_y_position;
+        if (chunk_width <= 0 || chunk_height <= 0) {
+            return true;
+        }
+
+        // Map coordinates of the source grid's (0, 0) cell
+        TileGrid source_grid = tile_grid;
+        int source_first_column = 0;
+        int source_first_row = 0;
+        if (region_streamer != null) {
+            source_grid = region_streamer.GetRegion(first_column, first_row);
+            if (source_grid == null) {
+                return false;
+            }
+            source_first_column = region_streamer.GetRegionFirstColumn(first_column);
+            source_first_row = region_streamer.GetRegionFirstRow(first_row);
+        }
+
+        final BufferedImage chunk_image = chunk_cache.PrepareChunk(chunk_column, chunk_row, chunk_width, chunk_height, graphics_configuration);
+        final Graphics2D chunk_graphics = chunk_image.createGraphics();
+        chunk_graphics.setComposite(AlphaComposite.Clear);
+        chunk_graphics.fillRect(0, 0, chunk_width, chunk_height);
+        chunk_graphics.setComposite(AlphaComposite.SrcOver);
 
-        final String[] map_rows = current_map.trim().split("\\n");
-        for (int row = 0; row < map_rows.length; row++) {
-            
-            final String[] row_elements = map_rows[row].trim().split("\\s+");
-            for (int column = 0; column < row_elements.length; column++) {
-                
-                // No need to try catch because it would have been caught before in LoadImages()
-                final int element_id = Integer.parseInt(row_elements[column]);
-                final BufferedImage element_image = used_images.get(element_id);
+        final short[] tiles = source_grid.GetTiles();
+        final int stride = source_grid.GetStride();
 
-                final int current_x_position = (int) (column * block_width);
-                final int current_y_position = (int) (row * block_height);
+        for (int layer = 0; layer < source_grid.GetLayerCount(); layer++) {
+            final int layer_offset = layer * source_grid.GetLayerSize();
 
-                final int next_x_position = (int) ( (column + 1) * block_width);
-                final int next_y_position = (int) ( (row + 1) * block_height);
+            for (int row = first_row; row < last_row; row++) {
+                // Offset of the row's column 0, in the source grid
+                final int row_offset = layer_offset + (row - source_first_row) * stride - source_first_column;
+                final int tile_y_position = row_positions[row] - chunk_y_position;
+                final int tile_height = row_positions[row + 1] - row_positions[row];
 
-                // Some tiles will have a slighty bigger size to compensate for the unexact screen size, avoiding unpainted areas
-                final int tile_width = next_x_position - current_x_position;
-                final int tile_height = next_y_position - current_y_position;
+                for (int column = first_column; column < last_column; column++) {
+                    final short tile = tiles[row_offset + column];
+                    if (tile == TileGrid.EMPTY_TILE) {
+                        continue;
+                    }
 
-                graphics_2d.drawImage(element_image, current_x_position, current_y_position, tile_width, tile_height, panel);
+                    final int tile_x_position = column_positions[column] - chunk_x_position;
+                    final int tile_width = column_positions[column + 1] - column_positions[column];
+
+                    scaled_tile_cache.DrawTile(chunk_graphics, tile, tile_x_position, tile_y_position, tile_width, tile_height);
+                }
             }
         }
+
+        chunk_graphics.dispose();
+        chunk_cache.MarkClean(chunk_column, chunk_row);
+        return true;
+    }
+
+    /**
+     * Description:
+     * Fills the chunk's screen area with PLACEHOLDER_COLOR, while its streamed region loads.
+     */
+    private void DrawPlaceholder(final Graphics2D graphics_2d, final int chunk_column, final int chunk_row, final int offset_x, final int offset_y){
+        final int first_column = chunk_column * ChunkCache.CHUNK_SIZE;
+        final int first_row = chunk_row * ChunkCache.CHUNK_SIZE;
+        final int last_column = Math.min(first_column + ChunkCache.CHUNK_SIZE, map_width);
+        final int last_row = Math.min(first_row + ChunkCache.CHUNK_SIZE, map_height);
+
+        graphics_2d.setColor(PLACEHOLDER_COLOR);
+        graphics_2d.fillRect(
+            column_positions[first_column] - offset_x,
+            row_positions[first_row] - offset_y,
+            column_positions[last_column] - column_positions[first_column],
+            row_positions[last_row] - row_positions[first_row]
+        );
     }
 }
\ No newline at end of file
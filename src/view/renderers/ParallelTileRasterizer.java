@@ -0,0 +1,378 @@
+package view.renderers;
+
+import controller.maps.TileGrid;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import view.panels.Panel;
+
+/**
+ * Description:
+ * 1. Draws the visible part of a map by copying the scaled tiles' pixels itself, straight into
+ *    one screen-sized image backed by an int array (premultiplied ARGB), which is then drawn to
+ *    the destination with a single blit.
+ * 2. The screen is split into horizontal bands, rasterized in parallel on a ForkJoinPool with
+ *    thread_count threads. Each band clears and writes only its own rows of the shared array,
+ *    so bands need no locking; several bands per thread even out their costs.
+ * 3. The image is kept between frames and only rasterized again when it was invalidated (the
+ *    map's tiles or block size changed) or the Camera offsets or screen size changed.
+ * 4. Layers are blended with the source-over rule on the premultiplied pixels; fully opaque
+ *    tiles are copied a row at a time, and fully opaque or transparent pixels take a shortcut.
+ * 5. When opaque bottom-layer tiles cover the whole screen, the pixels are blitted through an
+ *    opaque RGB view of the same array, which Java2D copies instead of blending (several
+ *    times faster at 4K).
+ *
+ * Restrictions:
+ * - Only draws whole maps (TileGrid); streamed maps keep using the chunk cache.
+ * - Rasterize() must be called from a single thread; only the bands run elsewhere.
+ */
+public class ParallelTileRasterizer {
+
+    // Bands per thread, so a thread that finishes early takes over the remaining bands
+    private static final int BANDS_PER_THREAD = 4;
+
+    private static final int ALPHA_SHIFT = 24;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int CHANNEL_MASK = 0xFF;
+    private static final int CHANNEL_MAXIMUM = 255;
+
+    private static final int TRANSPARENT = 0;
+
+    private static final int RGB_BITS = 24;
+    private static final int[] RGB_MASKS = { 0xFF0000, 0xFF00, 0xFF };
+
+    private final int thread_count;
+
+    // Only created with more than one thread; a single thread rasterizes on the caller's
+    private final ForkJoinPool band_pool;
+
+    private BufferedImage image;
+    // Same pixels as image, read as opaque RGB
+    private BufferedImage opaque_image;
+    private int[] pixels = new int[0];
+    private int image_width = 0;
+    private int image_height = 0;
+
+    private boolean is_valid = false;
+    private int rasterized_offset_x = 0;
+    private int rasterized_offset_y = 0;
+
+    // The frame being rasterized, set before the bands are forked and only read by them
+    private TileGrid grid;
+    private ScaledTileCache scaled_tile_cache;
+    private int[] column_positions;
+    private int[] row_positions;
+    private int map_width;
+    private int map_height;
+    private int offset_x;
+    private int offset_y;
+    private int band_height;
+
+    // Whether each band's pixels are all opaque; each band only writes its own entry
+    private final boolean[] opaque_bands;
+    private int band_count;
+
+    /**
+     * Parameters:
+     * - thread_count: How many threads rasterize the bands; at least 1.
+     */
+    public ParallelTileRasterizer(final int thread_count){
+        this.thread_count = Math.max(1, thread_count);
+        band_pool = this.thread_count > 1 ? new ForkJoinPool(this.thread_count) : null;
+        opaque_bands = new boolean[this.thread_count * BANDS_PER_THREAD];
+    }
+
+    public int GetThreadCount(){
+        return thread_count;
+    }
+
+    /**
+     * Description:
+     * Makes the next Render() rasterize again, after the map's tiles or block size changed.
+     */
+    public void Invalidate(){
+        is_valid = false;
+    }
+
+    /**
+     * Description:
+     * Stops the band threads; called when the rasterizer is replaced. Running bands finish first.
+     */
+    public void ShutDown(){
+        if (band_pool != null) {
+            band_pool.shutdown();
+        }
+    }
+
+    /**
+     * Objective: Draws the visible map, rasterizing it again only when it changed.
+     *
+     * Description:
+     * 1. Reallocates the image when the screen size changed.
+     * 2. When the image was invalidated or the Camera offsets changed: extracts the scaled tiles'
+     *    pixels if needed, then rasterizes every band, in parallel when there are several threads.
+     * 3. Draws the image at the screen's origin, through its opaque view when every band is opaque.
+     *
+     * Parameters:
+     * - graphics_2d: The destination; the screen's origin is its (0, 0).
+     * - panel: The ImageObserver for drawImage(), or null.
+     * - grid: The map's tiles.
+     * - scaled_tile_cache: The tiles scaled to the block size; must be valid.
+     * - column_positions, row_positions: The pixel position of every column and row border.
+     * - offset_x, offset_y: The Camera offsets, in pixels.
+     * - screen_width, screen_height: The screen's size, in pixels.
+     *
+     * Restrictions:
+     * - Doesn't allocate in steady state; only after a resize, or when the tile pages were rebuilt.
+     */
+    public void Render(final Graphics2D graphics_2d, final Panel panel, final TileGrid grid, final ScaledTileCache scaled_tile_cache,
+                       final int[] column_positions, final int[] row_positions, final int offset_x, final int offset_y,
+                       final int screen_width, final int screen_height){
+        if (screen_width <= 0 || screen_height <= 0) {
+            return;
+        }
+
+        if (screen_width != image_width || screen_height != image_height) {
+            image = new BufferedImage(screen_width, screen_height, BufferedImage.TYPE_INT_ARGB_PRE);
+            final DataBufferInt data_buffer = (DataBufferInt) image.getRaster().getDataBuffer();
+            pixels = data_buffer.getData();
+            opaque_image = new BufferedImage( new DirectColorModel(RGB_BITS, RGB_MASKS[0], RGB_MASKS[1], RGB_MASKS[2]),
+                                              Raster.createPackedRaster(data_buffer, screen_width, screen_height, screen_width, RGB_MASKS, null),
+                                              false, null );
+            image_width = screen_width;
+            image_height = screen_height;
+            is_valid = false;
+        }
+
+        if (!is_valid || offset_x != rasterized_offset_x || offset_y != rasterized_offset_y) {
+            Rasterize(grid, scaled_tile_cache, column_positions, row_positions, offset_x, offset_y);
+            is_valid = true;
+            rasterized_offset_x = offset_x;
+            rasterized_offset_y = offset_y;
+        }
+
+        graphics_2d.drawImage(AreBandsOpaque() ? opaque_image : image, 0, 0, panel);
+    }
+
+    private boolean AreBandsOpaque(){
+        for (int band = 0; band < band_count; band++) {
+            if (!opaque_bands[band]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Description:
+     * 1. Stores the frame's parameters for the bands.
+     * 2. Splits the image into thread_count * BANDS_PER_THREAD bands of equal height (the last
+     *    one shorter), and rasterizes them through a BandTask on the pool, or one after the other
+     *    on the calling thread when there's a single thread.
+     */
+    private void Rasterize(final TileGrid grid, final ScaledTileCache scaled_tile_cache, final int[] column_positions, final int[] row_positions,
+                           final int offset_x, final int offset_y){
+        scaled_tile_cache.PreparePagePixels();
+
+        this.grid = grid;
+        this.scaled_tile_cache = scaled_tile_cache;
+        this.column_positions = column_positions;
+        this.row_positions = row_positions;
+        this.map_width = column_positions.length - 1;
+        this.map_height = row_positions.length - 1;
+        this.offset_x = offset_x;
+        this.offset_y = offset_y;
+
+        band_count = Math.min(image_height, thread_count * BANDS_PER_THREAD);
+        band_height = (image_height + band_count - 1) / band_count;
+
+        if (band_pool == null) {
+            for (int band = 0; band < band_count; band++) {
+                RasterizeBand(band);
+            }
+        }
+        else {
+            band_pool.invoke( new BandTask(0, band_count) );
+        }
+    }
+
+    /**
+     * Description:
+     * Rasterizes a range of bands, splitting it in halves forked on the pool until a single
+     * band is left.
+     */
+    private class BandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int first_band;
+        private final int end_band;
+
+        BandTask(final int first_band, final int end_band){
+            this.first_band = first_band;
+            this.end_band = end_band;
+        }
+
+        @Override
+        protected void compute(){
+            if (end_band - first_band == 1) {
+                RasterizeBand(first_band);
+                return;
+            }
+
+            final int middle_band = (first_band + end_band) >>> 1;
+            invokeAll( new BandTask(first_band, middle_band), new BandTask(middle_band, end_band) );
+        }
+    }
+
+    /**
+     * Description:
+     * 1. Clears the band's rows to transparent.
+     * 2. Finds the map columns and rows that intersect the band.
+     * 3. For each layer, bottom to top, and each non-empty tile among them, copies the rows of
+     *    its pre-scaled cell that fall inside the band and the screen, blending them over what
+     *    the lower layers drew.
+     * 4. Records the band as opaque when the tiles span the whole band and every bottom-layer
+     *    tile among them is opaque: blending over opaque pixels keeps them opaque.
+     *
+     * Restrictions:
+     * - Writes only the band's rows of pixels, so bands can run at the same time.
+     */
+    private void RasterizeBand(final int band){
+        final int band_top = band * band_height;
+        final int band_bottom = Math.min(image_height, band_top + band_height);
+        if (band_top >= band_bottom) {
+            return;
+        }
+        Arrays.fill(pixels, band_top * image_width, band_bottom * image_width, TRANSPARENT);
+
+        final int first_column = FindBorderIndex(column_positions, offset_x);
+        final int end_column = Math.min( map_width, FindBorderIndex(column_positions, offset_x + image_width - 1) + 1 );
+        final int first_row = FindBorderIndex(row_positions, offset_y + band_top);
+        final int end_row = Math.min( map_height, FindBorderIndex(row_positions, offset_y + band_bottom - 1) + 1 );
+
+        boolean is_opaque = column_positions[first_column] - offset_x <= 0 && column_positions[end_column] - offset_x >= image_width
+                         && row_positions[first_row] - offset_y <= band_top && row_positions[end_row] - offset_y >= band_bottom;
+
+        final short[] tiles = grid.GetTiles();
+        final int stride = grid.GetStride();
+
+        for (int layer = 0; layer < grid.GetLayerCount(); layer++) {
+            final int layer_offset = layer * grid.GetLayerSize();
+
+            for (int row = first_row; row < end_row; row++) {
+                final int tile_top = row_positions[row] - offset_y;
+                final int tile_height = row_positions[row + 1] - row_positions[row];
+                final int top = Math.max(tile_top, band_top);
+                final int bottom = Math.min(tile_top + tile_height, band_bottom);
+
+                for (int column = first_column; column < end_column; column++) {
+                    final short tile = tiles[layer_offset + row * stride + column];
+                    if (tile == TileGrid.EMPTY_TILE) {
+                        is_opaque &= layer > 0;
+                        continue;
+                    }
+
+                    final int tile_left = column_positions[column] - offset_x;
+                    final int tile_width = column_positions[column + 1] - column_positions[column];
+                    final boolean is_tile_opaque = CopyTile(tile, tile_left, tile_top, tile_width, tile_height, top, bottom);
+                    is_opaque &= layer > 0 || is_tile_opaque;
+                }
+            }
+        }
+
+        opaque_bands[band] = is_opaque;
+    }
+
+    /**
+     * Description:
+     * Copies the rows [top, bottom) of a tile placed at (tile_left, tile_top), clipped to the
+     * screen's width, from its cell in the page of its size; rows of fully opaque cells are
+     * copied as they are, the others blended.
+     *
+     * Expected Returns:
+     * - Returns true when the tile was drawn from a fully opaque cell.
+     * - Returns false when it was blended, or skipped (no cell, or not a cached size).
+     */
+    private boolean CopyTile(final short tile, final int tile_left, final int tile_top, final int tile_width, final int tile_height,
+                          final int top, final int bottom){
+        final int variant = scaled_tile_cache.GetVariant(tile_width, tile_height);
+        final int cell = scaled_tile_cache.GetCell(tile);
+        if (variant == ScaledTileCache.NO_VARIANT || cell == ScaledTileCache.NO_CELL) {
+            return false;
+        }
+
+        final int[] page_pixels = scaled_tile_cache.GetPagePixels(variant);
+        if (page_pixels == null) {
+            return false;
+        }
+        final int page_width = scaled_tile_cache.GetPageWidth(variant);
+        final int cell_columns = scaled_tile_cache.GetCellColumns();
+        final int cell_x = (cell % cell_columns) * tile_width;
+        final int cell_y = (cell / cell_columns) * tile_height;
+
+        final int left = Math.max(0, tile_left);
+        final int right = Math.min(image_width, tile_left + tile_width);
+        if (left >= right) {
+            return true; // Outside the screen, so it can't leave a hole
+        }
+
+        final boolean is_opaque = scaled_tile_cache.IsCellOpaque(variant, cell);
+        for (int y = top; y < bottom; y++) {
+            final int source_start = (cell_y + y - tile_top) * page_width + cell_x + (left - tile_left);
+            final int destination_start = y * image_width + left;
+            if (is_opaque) {
+                System.arraycopy(page_pixels, source_start, pixels, destination_start, right - left);
+            }
+            else {
+                BlendRow(page_pixels, source_start, destination_start, right - left);
+            }
+        }
+        return is_opaque;
+    }
+
+    /**
+     * Description:
+     * Blends length premultiplied pixels over the image's, source over destination.
+     */
+    private void BlendRow(final int[] source, final int source_start, final int destination_start, final int length){
+        for (int index = 0; index < length; index++) {
+            final int source_pixel = source[source_start + index];
+            final int alpha = source_pixel >>> ALPHA_SHIFT;
+            if (alpha == CHANNEL_MAXIMUM) {
+                pixels[destination_start + index] = source_pixel;
+            }
+            else if (alpha != 0) {
+                final int destination_pixel = pixels[destination_start + index];
+                final int remaining = CHANNEL_MAXIMUM - alpha;
+                // Premultiplied channels can't overflow: each sum is at most alpha + (255 - alpha)
+                pixels[destination_start + index] = source_pixel
+                    + (ScaleChannel(destination_pixel >>> ALPHA_SHIFT, remaining) << ALPHA_SHIFT)
+                    + (ScaleChannel((destination_pixel >>> RED_SHIFT) & CHANNEL_MASK, remaining) << RED_SHIFT)
+                    + (ScaleChannel((destination_pixel >>> GREEN_SHIFT) & CHANNEL_MASK, remaining) << GREEN_SHIFT)
+                    + ScaleChannel(destination_pixel & CHANNEL_MASK, remaining);
+            }
+        }
+    }
+
+    private static int ScaleChannel(final int channel, final int factor){
+        return (channel * factor + CHANNEL_MAXIMUM / 2) / CHANNEL_MAXIMUM;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the index of the element (column or row) whose pixel span contains position,
+     *   clamped to the first element; may be past the last element when position is beyond it.
+     */
+    private static int FindBorderIndex(final int[] border_positions, final int position){
+        final int found = Arrays.binarySearch(border_positions, position);
+        final int border = found >= 0 ? found : -found - 2;
+        return Math.max(0, border);
+    }
+}
@@ -0,0 +1,227 @@
+package view.renderers;
+
+import controller.loaders.ImageCache;
+import controller.profiling.FrameProfiler;
+import controller.profiling.TimingHistogram;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import view.panels.Panel;
+
+/**
+ * Description:
+ * 1. Singleton renderer that draws the frame timing statistics on top of the game.
+ * 2. Shows the FPS and the rolling p50/p95/p99 of every FrameProfiler section (frame, update
+ *    and each renderer).
+ * 3. In lazy image loading mode, also shows the TextureAtlas page cache's usage, hits, misses
+ *    and evictions.
+ * 4. Shows the share of the screen the game panel repainted per frame (see DirtyRegions), when
+ *    it reports it through RecordRepaint().
+ * 5. The text is rebuilt at most every REFRESH_INTERVAL_NANOSECONDS, so the overlay itself
+ *    barely affects the frame times it shows; its box is only a dirty region when it's rebuilt,
+ *    shown or hidden.
+ */
+public class PerformanceOverlay extends Renderer{
+
+    private static PerformanceOverlay instance;
+
+    public static PerformanceOverlay GetInstance(){
+        if (instance == null){
+            instance = new PerformanceOverlay();
+        }
+        return instance;
+    }
+
+    private static final long REFRESH_INTERVAL_NANOSECONDS = 500_000_000L;
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final double PERCENT = 100.0;
+
+    private static final double MEDIAN_PERCENTILE = 50;
+    private static final double HIGH_PERCENTILE = 95;
+    private static final double TAIL_PERCENTILE = 99;
+
+    private static final int MARGIN = 8;
+    private static final int PADDING = 6;
+    private static final int FONT_SIZE = 12;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, FONT_SIZE);
+    private static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 160);
+    private static final Color TEXT_COLOR = Color.WHITE;
+
+    private final FrameProfiler profiler = FrameProfiler.GetInstance();
+
+    private volatile boolean is_visible = false;
+
+    private String[] lines = new String[0];
+    private long last_refresh_time = 0;
+
+    // Pixels repainted and screen pixels of the frames since the last refresh, reported by the game panel
+    private long repainted_pixel_count = 0;
+    private long screen_pixel_count = 0;
+
+    // Metrics of FONT on the last Render()'s Graphics2D, and the box it drew (zero-sized when hidden)
+    private FontMetrics font_metrics;
+    private int drawn_box_width = 0;
+    private int drawn_box_height = 0;
+
+    private PerformanceOverlay(){}
+
+    public void SetVisible(final boolean is_visible){
+        this.is_visible = is_visible;
+    }
+
+    public void ToggleVisible(){
+        is_visible = !is_visible;
+    }
+
+    /**
+     * Description:
+     * Accumulates one frame's repainted pixels, shown as a share of the screen at the next refresh.
+     */
+    public void RecordRepaint(final long repainted_pixel_count, final long screen_pixel_count){
+        this.repainted_pixel_count += repainted_pixel_count;
+        this.screen_pixel_count += screen_pixel_count;
+    }
+
+    /**
+     * Description:
+     * 1. Does nothing while the overlay is hidden.
+     * 2. Rebuilds the text lines if the refresh interval elapsed.
+     * 3. Draws a translucent box in the top-left corner and the lines inside it.
+     * 4. Records the box's size, for CollectDirtyRegions().
+     */
+    @Override
+    public void Render(final Graphics2D graphics_2d, final Panel panel){
+        if ( !is_visible ) {
+            drawn_box_width = 0;
+            drawn_box_height = 0;
+            return;
+        }
+
+        RefreshIfDue();
+
+        graphics_2d.setFont(FONT);
+        font_metrics = graphics_2d.getFontMetrics();
+        final int box_width = MeasureBoxWidth();
+        final int box_height = MeasureBoxHeight();
+
+        graphics_2d.setColor(BACKGROUND_COLOR);
+        graphics_2d.fillRect(MARGIN, MARGIN, box_width, box_height);
+
+        graphics_2d.setColor(TEXT_COLOR);
+        int baseline = MARGIN + PADDING + font_metrics.getAscent();
+        for (final String line : lines) {
+            graphics_2d.drawString(line, MARGIN + PADDING, baseline);
+            baseline += font_metrics.getHeight();
+        }
+
+        drawn_box_width = box_width;
+        drawn_box_height = box_height;
+    }
+
+    /**
+     * Description:
+     * 1. Once hidden, adds the box drawn last.
+     * 2. While visible, rebuilds the text lines if the refresh interval elapsed; when they were
+     *    rebuilt or the box wasn't drawn yet, adds the old and the new box.
+     * 3. Before the first Render(), the font's size is unknown, so the whole screen is added.
+     */
+    @Override
+    public void CollectDirtyRegions(final DirtyRegions dirty_regions){
+        if ( !is_visible ) {
+            dirty_regions.Add(MARGIN, MARGIN, drawn_box_width, drawn_box_height);
+            return;
+        }
+        if (font_metrics == null) {
+            dirty_regions.AddAll();
+            return;
+        }
+
+        final boolean was_refreshed = RefreshIfDue();
+        if (was_refreshed || drawn_box_width == 0) {
+            dirty_regions.Add(MARGIN, MARGIN, drawn_box_width, drawn_box_height);
+            dirty_regions.Add( MARGIN, MARGIN, MeasureBoxWidth(), MeasureBoxHeight() );
+        }
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when the text lines were rebuilt, because there were none yet or the
+     *   refresh interval elapsed.
+     */
+    private boolean RefreshIfDue(){
+        final long current_time = System.nanoTime();
+        if (lines.length > 0 && current_time - last_refresh_time < REFRESH_INTERVAL_NANOSECONDS) {
+            return false;
+        }
+
+        RefreshLines();
+        last_refresh_time = current_time;
+        return true;
+    }
+
+    /**
+     * Assertives of Entrance:
+     * - font_metrics was taken from a Graphics2D using FONT.
+     */
+    private int MeasureBoxWidth(){
+        int box_width = 0;
+        for (final String line : lines) {
+            box_width = Math.max(box_width, font_metrics.stringWidth(line));
+        }
+        return box_width + 2 * PADDING;
+    }
+
+    private int MeasureBoxHeight(){
+        return lines.length * font_metrics.getHeight() + 2 * PADDING;
+    }
+
+    /**
+     * Description:
+     * 1. Formats the FPS line.
+     * 2. Formats one line per profiler section (except the frame interval, already shown as FPS)
+     *    with its rolling p50, p95 and p99 in milliseconds.
+     * 3. In lazy image loading mode, formats a line with the atlas page cache's counters.
+     * 4. When repaints were recorded since the last refresh, formats a line with their mean
+     *    share of the screen, and starts accumulating again.
+     */
+    private void RefreshLines(){
+        final int section_count = profiler.GetSectionCount();
+        final boolean has_repaints = screen_pixel_count > 0;
+        final String[] refreshed_lines = new String[ section_count + (image_loader.IsLazy() ? 1 : 0) + (has_repaints ? 1 : 0) ];
+
+        refreshed_lines[0] = String.format("FPS %6.1f        p50     p95     p99", profiler.GetFramesPerSecond());
+        int line_index = 1;
+        for (int section = 0; section < section_count; section++) {
+            if (section == FrameProfiler.FRAME_INTERVAL_SECTION) {
+                continue;
+            }
+
+            final TimingHistogram histogram = profiler.GetHistogram(section);
+            refreshed_lines[line_index] = String.format("%-18s %7.2f %7.2f %7.2f ms",
+                profiler.GetSectionName(section),
+                histogram.GetWindowPercentile(MEDIAN_PERCENTILE) / NANOSECONDS_PER_MILLISECOND,
+                histogram.GetWindowPercentile(HIGH_PERCENTILE) / NANOSECONDS_PER_MILLISECOND,
+                histogram.GetWindowPercentile(TAIL_PERCENTILE) / NANOSECONDS_PER_MILLISECOND);
+            line_index++;
+        }
+
+        if ( image_loader.IsLazy() ) {
+            final ImageCache<Integer> page_cache = texture_atlas.GetPageCache();
+            refreshed_lines[line_index] = String.format("Pages %d MB/%d MB  hit %d  miss %d  evict %d",
+                page_cache.GetCachedBytes() / BYTES_PER_MEGABYTE, page_cache.GetMemoryBudget() / BYTES_PER_MEGABYTE,
+                page_cache.GetHitCount(), page_cache.GetMissCount(), page_cache.GetEvictionCount());
+            line_index++;
+        }
+
+        if (has_repaints) {
+            refreshed_lines[line_index] = String.format("Repainted %5.1f%% of the screen per frame",
+                PERCENT * repainted_pixel_count / screen_pixel_count);
+            repainted_pixel_count = 0;
+            screen_pixel_count = 0;
+        }
+
+        lines = refreshed_lines;
+    }
+}
@@ -1,22 +1,35 @@
 package view.renderers;
 
+import controller.atlas.TextureAtlas;
+import controller.entities.Facing;
+import controller.files_controllers.ImageController;
 import controller.files_managers.ImageManager;
 import controller.files_managers.TextFileManager;
 import controller.loaders.ImageLoader;
 import controller.loaders.TextFileLoader;
+import controller.profiling.FrameProfiler;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.HashMap;
+import view.animation.SpriteSet;
 import view.panels.Panel;
 
 /**
  * Description:
  * 1. Abstract base class for all game renderers.
  * 2. Stores screen dimensions used for rendering calculations.
- * 3. Holds references to resource managers and loaders for convenient access by subclasses.
+ * 3. Holds references to resource managers, loaders and the texture atlas for convenient access
+ *    by subclasses.
  * 4. Caches frequently used BufferedImage references in a local map for performance,
  *    avoiding repeated lookups through the loader during rendering.
- * 5. Subclasses (Map, Character) implement the Render() method with their specific logic.
+ * 5. Registers a FrameProfiler section per renderer, so each one's render time is measured.
+ * 6. Subclasses (Map, Character) implement the Render() method with their specific logic, and
+ *    may override Update() and Interpolate() to take part in the game loop.
+ * 7. RefreshAssets() replaces the used images that the TextureAtlas changed since they were
+ *    fetched (hot reload); subclasses react to each one through OnImageRefreshed().
+ * 8. CollectDirtyRegions() reports the screen areas the next Render() changes, so the game
+ *    panel only repaints those (see DirtyRegions).
  */
 public abstract class Renderer{
 
@@ -29,11 +42,20 @@ public abstract class Renderer{
     protected final TextFileLoader textfile_loader = TextFileLoader.GetInstance();
     protected final ImageLoader image_loader = ImageLoader.GetInstance();
 
+    // Images are drawn from the atlas pages, not from the individually loaded images
+    protected final TextureAtlas texture_atlas = TextureAtlas.GetInstance();
+
+    // Every renderer gets its own timing section, named after its class
+    private final int profiler_section = FrameProfiler.GetInstance().RegisterSection( getClass().getSimpleName() );
+
     // Keeping the buffered used images saves time - better than using image_loader.GetImage() all the time when rendering
     // This way the image is duplicated, but it's still better than transfering the data all the time when rendering
     // TODO: actually, check if what is said above it's true - maybe in BufferedImage's works with pointers...
     protected final java.util.Map<Integer, BufferedImage> used_images = new HashMap<>();
 
+    // TextureAtlas version of each used image, so RefreshAssets() only fetches the stale ones again
+    private final java.util.Map<Integer, Integer> used_image_versions = new HashMap<>();
+
     protected Renderer(){};
 
     /**
@@ -49,5 +71,128 @@ public abstract class Renderer{
         this.screen_height = screen_height;
     }
 
+    public int GetProfilerSection(){
+        return profiler_section;
+    }
+
+    /**
+     * Description:
+     * Advances the renderer's state by one fixed update tick. Renderers without state to advance
+     * don't need to override it.
+     *
+     * Parameters:
+     * - step_seconds: The fixed duration of a tick, in seconds.
+     */
+    public void Update(final double step_seconds){}
+
+    /**
+     * Description:
+     * Prepares the renderer's state for a frame drawn between two update ticks. Renderers without
+     * moving elements don't need to override it.
+     *
+     * Parameters:
+     * - interpolation: How far the frame is between the previous tick (0) and the next one (1).
+     */
+    public void Interpolate(final float interpolation){}
+
+    /**
+     * Description:
+     * Fetches the image's view from the TextureAtlas and stores it in used_images, with the
+     * atlas version it was fetched at.
+     *
+     * Restrictions:
+     * - Exits the application (through TextureAtlas) if the image wasn't packed.
+     * - In lazy mode, blocks while the image's page is made resident; renderers hint the pages
+     *   they're about to use through TextureAtlas.Prefetch() first.
+     */
+    protected BufferedImage UseImage(final ImageController image_controller){
+        final BufferedImage image = texture_atlas.GetImage(image_controller);
+        used_images.put(image_controller.GetID(), image);
+        used_image_versions.put( image_controller.GetID(), texture_atlas.GetVersion(image_controller.GetID()) );
+        return image;
+    }
+
+    /**
+     * Description:
+     * Hints the TextureAtlas with every direction's image, fetches each through UseImage() and
+     * builds a SpriteSet from them.
+     *
+     * Parameters:
+     * - sprite_names: The name of each direction's image, indexed by Facing ordinal.
+     * - frames_per_strip: How many frames each image holds, side by side.
+     * - idle_frame_seconds, walk_frame_seconds: The frame durations of the idle and walking clips.
+     *
+     * Restrictions:
+     * - Exits the application (through TextureAtlas) if an image isn't registered.
+     */
+    protected SpriteSet LoadSpriteSet(final String[] sprite_names, final int frames_per_strip,
+                                      final double idle_frame_seconds, final double walk_frame_seconds){
+        final ImageController[] image_controllers = new ImageController[Facing.COUNT];
+        for (int facing = 0; facing < Facing.COUNT; facing++) {
+            image_controllers[facing] = image_manager.GetImage(sprite_names[facing]);
+        }
+        texture_atlas.Prefetch( Arrays.asList(image_controllers) );
+
+        final int[] image_ids = new int[Facing.COUNT];
+        final BufferedImage[] images = new BufferedImage[Facing.COUNT];
+        for (int facing = 0; facing < Facing.COUNT; facing++) {
+            images[facing] = UseImage(image_controllers[facing]);
+            image_ids[facing] = image_controllers[facing].GetID();
+        }
+        return new SpriteSet(image_ids, images, frames_per_strip, idle_frame_seconds, walk_frame_seconds);
+    }
+
+    protected void ClearUsedImages(){
+        used_images.clear();
+        used_image_versions.clear();
+    }
+
+    /**
+     * Description:
+     * 1. For every used image whose TextureAtlas version changed since it was fetched, fetches
+     *    its view again and stores it in used_images.
+     * 2. Calls OnImageRefreshed() for each of them.
+     *
+     * Assertives of Entrance:
+     * - The TextureAtlas was refreshed (see TextureAtlas.Refresh()).
+     */
+    public void RefreshAssets(){
+        for (final java.util.Map.Entry<Integer, BufferedImage> used_image : used_images.entrySet()) {
+            final int image_id = used_image.getKey();
+            final int atlas_version = texture_atlas.GetVersion(image_id);
+            if ( atlas_version == used_image_versions.getOrDefault(image_id, 0) ) {
+                continue;
+            }
+
+            final BufferedImage image = texture_atlas.GetImage( image_manager.GetImage(image_id) );
+            used_image.setValue(image);
+            used_image_versions.put(image_id, atlas_version);
+            OnImageRefreshed(image_id, image);
+        }
+    }
+
+    /**
+     * Description:
+     * Called by RefreshAssets() for every used image that changed. Renderers that keep the image
+     * somewhere else than used_images, or derived data, update them here.
+     */
+    protected void OnImageRefreshed(final int image_id, final BufferedImage image){}
+
+    /**
+     * Description:
+     * Adds to dirty_regions every screen area whose pixels differ between what the last Render()
+     * drew and what the next one draws: where the renderer drew before, and where it will draw.
+     * Renderers that don't track what they drew keep this default, which repaints the whole screen.
+     *
+     * Assertives of Entrance:
+     * - Called right before the frame's Render(), with the renderer interpolated and the Camera updated.
+     *
+     * Restrictions:
+     * - Must not change what Render() draws: the panel may collect several times per frame.
+     */
+    public void CollectDirtyRegions(final DirtyRegions dirty_regions){
+        dirty_regions.AddAll();
+    }
+
     public abstract void Render(final Graphics2D graphics_2d, final Panel panel);
 }
\ No newline at end of file
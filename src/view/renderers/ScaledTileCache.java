@@ -0,0 +1,350 @@
+package view.renderers;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Description:
+ * 1. Cache of tile images pre-scaled to the current block size, so rendering is a plain
+ *    1:1 copy instead of a rescale of the source image on every draw.
+ * 2. Because tile borders are truncated to whole pixels, a tile is either the minimum tile
+ *    size or one pixel bigger in each axis; the cache keeps those (up to) four size variants.
+ * 3. Every size variant is a single page holding all the scaled tiles in a grid of equal cells,
+ *    the same way the TextureAtlas holds the source images, so drawing a chunk reads from one
+ *    image per variant instead of one image per tile.
+ * 4. Pages are created as compatible images of the destination's GraphicsConfiguration,
+ *    so Java2D can keep them in an accelerated format.
+ * 5. For the ParallelTileRasterizer, which copies pixels itself, also exposes every page as
+ *    premultiplied ARGB ints, extracted once per page after it's (re)built.
+ *
+ * Restrictions:
+ * - The cache is only rebuilt when the tile dimensions or the source images change; Build()
+ *   must not be called on every frame.
+ */
+public class ScaledTileCache {
+
+    // Tile sizes differ by at most one pixel from the minimum size (see Map.CalculateBorderPositions)
+    private static final int SIZE_VARIANTS = 2;
+
+    public static final int NO_CELL = -1;
+    public static final int NO_VARIANT = -1;
+
+    private static final int ALPHA_SHIFT = 24;
+    private static final int RED_SHIFT = 16;
+    private static final int GREEN_SHIFT = 8;
+    private static final int CHANNEL_MASK = 0xFF;
+    private static final int CHANNEL_MAXIMUM = 255;
+
+    // Indexed by width_variant * SIZE_VARIANTS + height_variant
+    private final BufferedImage[] scaled_pages = new BufferedImage[SIZE_VARIANTS * SIZE_VARIANTS];
+
+    // Premultiplied ARGB pixels of each page (same indexes), extracted by PreparePagePixels(); null until then
+    private final int[][] page_pixels = new int[SIZE_VARIANTS * SIZE_VARIANTS][];
+
+    // Whether each cell of each page has no transparent pixel, computed along with page_pixels
+    private final boolean[][] opaque_cells = new boolean[SIZE_VARIANTS * SIZE_VARIANTS][];
+
+    // Indexed by tile ID: the tile's cell in every page, or NO_CELL
+    private int[] tile_cells = new int[0];
+    private int cell_columns = 1;
+
+    private int minimum_tile_width;
+    private int minimum_tile_height;
+
+    private boolean is_valid = false;
+
+    /**
+     * Description:
+     * 1. Stores the new minimum tile dimensions.
+     * 2. Invalidates the cache only when the dimensions actually changed.
+     *
+     * Parameters:
+     * - minimum_tile_width: The truncated block width, in pixels.
+     * - minimum_tile_height: The truncated block height, in pixels.
+     */
+    public void SetTileDimensions(final int minimum_tile_width, final int minimum_tile_height){
+        if (this.minimum_tile_width == minimum_tile_width && this.minimum_tile_height == minimum_tile_height) {
+            return;
+        }
+
+        this.minimum_tile_width = minimum_tile_width;
+        this.minimum_tile_height = minimum_tile_height;
+        Invalidate();
+    }
+
+    public void Invalidate(){
+        is_valid = false;
+    }
+
+    public boolean IsValid(){
+        return is_valid;
+    }
+
+    /**
+     * Objective: Rebuilds every size variant's page of scaled tiles.
+     *
+     * Description:
+     * 1. Gives every non-null source tile a cell, in tile ID order, in a grid as close to square
+     *    as possible.
+     * 2. For each width/height variant, creates a compatible page of that grid's size and draws
+     *    every source tile scaled into its cell.
+     * 3. Marks the cache as valid.
+     *
+     * Parameters:
+     * - source_tiles: Tile images indexed by tile ID (usually views into the TextureAtlas);
+     *   null entries are skipped.
+     * - graphics_configuration: The configuration of the surface the tiles will be drawn on.
+     *
+     * Assertives of Departure:
+     * - DrawTile() draws every non-null source tile at every size variant with positive dimensions.
+     */
+    public void Build(final BufferedImage[] source_tiles, final GraphicsConfiguration graphics_configuration){
+        tile_cells = new int[source_tiles.length];
+        int cell_count = 0;
+        for (int tile_id = 0; tile_id < source_tiles.length; tile_id++) {
+            tile_cells[tile_id] = source_tiles[tile_id] == null ? NO_CELL : cell_count++;
+        }
+
+        cell_columns = Math.max( 1, (int) Math.ceil(Math.sqrt(cell_count)) );
+        final int cell_rows = Math.max( 1, (cell_count + cell_columns - 1) / cell_columns );
+
+        for (int width_variant = 0; width_variant < SIZE_VARIANTS; width_variant++) {
+            for (int height_variant = 0; height_variant < SIZE_VARIANTS; height_variant++) {
+                final int variant = width_variant * SIZE_VARIANTS + height_variant;
+                final int tile_width = minimum_tile_width + width_variant;
+                final int tile_height = minimum_tile_height + height_variant;
+                if (tile_width <= 0 || tile_height <= 0) {
+                    scaled_pages[variant] = null;
+                    continue;
+                }
+
+                scaled_pages[variant] = ScalePage(source_tiles, tile_width, tile_height, cell_rows, graphics_configuration);
+            }
+        }
+
+        Arrays.fill(page_pixels, null);
+        is_valid = true;
+    }
+
+    private BufferedImage ScalePage(final BufferedImage[] source_tiles, final int tile_width, final int tile_height, final int cell_rows,
+                                    final GraphicsConfiguration graphics_configuration){
+        final BufferedImage scaled_page = graphics_configuration.createCompatibleImage(cell_columns * tile_width, cell_rows * tile_height, Transparency.TRANSLUCENT);
+
+        final Graphics2D scaled_graphics = scaled_page.createGraphics();
+        scaled_graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        for (int tile_id = 0; tile_id < source_tiles.length; tile_id++) {
+            final int cell = tile_cells[tile_id];
+            if (cell == NO_CELL) {
+                continue;
+            }
+            scaled_graphics.drawImage(source_tiles[tile_id], (cell % cell_columns) * tile_width, (cell / cell_columns) * tile_height, tile_width, tile_height, null);
+        }
+        scaled_graphics.dispose();
+
+        return scaled_page;
+    }
+
+    /**
+     * Description:
+     * 1. Replaces a single tile's cell in every size variant's page with the new source image,
+     *    scaled, so a reloaded tile doesn't rebuild the whole cache.
+     * 2. When the cache isn't valid, does nothing: the next Build() reads the new image anyway.
+     * 3. When the tile has no cell yet, invalidates the cache instead.
+     * 4. Drops the pages' extracted pixels, extracted again by the next PreparePagePixels().
+     *
+     * Parameters:
+     * - tile_id: The reloaded tile.
+     * - source_tile: Its new source image.
+     */
+    public void RefreshTile(final int tile_id, final BufferedImage source_tile){
+        if (!is_valid) {
+            return;
+        }
+        if (tile_id >= tile_cells.length || tile_cells[tile_id] == NO_CELL) {
+            Invalidate();
+            return;
+        }
+
+        final int cell = tile_cells[tile_id];
+        for (int width_variant = 0; width_variant < SIZE_VARIANTS; width_variant++) {
+            for (int height_variant = 0; height_variant < SIZE_VARIANTS; height_variant++) {
+                final BufferedImage scaled_page = scaled_pages[width_variant * SIZE_VARIANTS + height_variant];
+                if (scaled_page == null) {
+                    continue;
+                }
+                page_pixels[width_variant * SIZE_VARIANTS + height_variant] = null;
+
+                final int tile_width = minimum_tile_width + width_variant;
+                final int tile_height = minimum_tile_height + height_variant;
+                final int cell_x = (cell % cell_columns) * tile_width;
+                final int cell_y = (cell / cell_columns) * tile_height;
+
+                final Graphics2D scaled_graphics = scaled_page.createGraphics();
+                scaled_graphics.setComposite(AlphaComposite.Clear);
+                scaled_graphics.fillRect(cell_x, cell_y, tile_width, tile_height);
+                scaled_graphics.setComposite(AlphaComposite.SrcOver);
+                scaled_graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                scaled_graphics.drawImage(source_tile, cell_x, cell_y, tile_width, tile_height, null);
+                scaled_graphics.dispose();
+            }
+        }
+    }
+
+    /**
+     * Description:
+     * Copies the tile's pre-scaled cell 1:1 to the given position.
+     *
+     * Parameters:
+     * - graphics_2d: The destination, usually a chunk image.
+     * - tile_id: The tile to draw; tiles without a source image are skipped.
+     * - x_position, y_position: The tile's top-left corner in the destination.
+     * - tile_width, tile_height: The tile's on-screen size; sizes that aren't a cached variant are skipped.
+     *
+     * Restrictions:
+     * - Must not allocate: it runs once per tile whenever a chunk is redrawn.
+     */
+    public void DrawTile(final Graphics2D graphics_2d, final int tile_id, final int x_position, final int y_position, final int tile_width, final int tile_height){
+        final int width_variant = tile_width - minimum_tile_width;
+        final int height_variant = tile_height - minimum_tile_height;
+        if (width_variant < 0 || width_variant >= SIZE_VARIANTS || height_variant < 0 || height_variant >= SIZE_VARIANTS) {
+            return;
+        }
+        if (tile_id >= tile_cells.length || tile_cells[tile_id] == NO_CELL) {
+            return;
+        }
+
+        final BufferedImage scaled_page = scaled_pages[width_variant * SIZE_VARIANTS + height_variant];
+        final int cell = tile_cells[tile_id];
+        final int source_x = (cell % cell_columns) * tile_width;
+        final int source_y = (cell / cell_columns) * tile_height;
+        graphics_2d.drawImage(scaled_page, x_position, y_position, x_position + tile_width, y_position + tile_height,
+                              source_x, source_y, source_x + tile_width, source_y + tile_height, null);
+    }
+
+    /**
+     * Description:
+     * 1. For every page without extracted pixels, reads its pixels as ARGB ints, row by row.
+     * 2. Premultiplies each pixel's color by its alpha, so blending a tile over another is a
+     *    multiplication per channel.
+     * 3. Records which cells are fully opaque, so their rows can be copied without blending.
+     *
+     * Assertives of Entrance:
+     * - The cache is valid.
+     *
+     * Restrictions:
+     * - Must be called before GetPagePixels(), on the thread rendering, and not while other
+     *   threads read the pixels.
+     */
+    public void PreparePagePixels(){
+        for (int variant = 0; variant < scaled_pages.length; variant++) {
+            final BufferedImage scaled_page = scaled_pages[variant];
+            if (scaled_page == null || page_pixels[variant] != null) {
+                continue;
+            }
+
+            final int page_width = scaled_page.getWidth();
+            final int[] pixels = scaled_page.getRGB(0, 0, page_width, scaled_page.getHeight(), null, 0, page_width);
+            for (int pixel = 0; pixel < pixels.length; pixel++) {
+                pixels[pixel] = Premultiply(pixels[pixel]);
+            }
+            page_pixels[variant] = pixels;
+            opaque_cells[variant] = FindOpaqueCells(pixels, page_width, scaled_page.getHeight(), variant);
+        }
+    }
+
+    private boolean[] FindOpaqueCells(final int[] pixels, final int page_width, final int page_height, final int variant){
+        final int tile_width = minimum_tile_width + variant / SIZE_VARIANTS;
+        final int tile_height = minimum_tile_height + variant % SIZE_VARIANTS;
+        final int cell_rows = page_height / tile_height;
+
+        final boolean[] is_opaque = new boolean[cell_columns * cell_rows];
+        Arrays.fill(is_opaque, true);
+        for (int y = 0; y < cell_rows * tile_height; y++) {
+            for (int x = 0; x < cell_columns * tile_width; x++) {
+                if (pixels[y * page_width + x] >>> ALPHA_SHIFT != CHANNEL_MAXIMUM) {
+                    is_opaque[(y / tile_height) * cell_columns + x / tile_width] = false;
+                }
+            }
+        }
+        return is_opaque;
+    }
+
+    private static int Premultiply(final int argb){
+        final int alpha = argb >>> ALPHA_SHIFT;
+        if (alpha == CHANNEL_MAXIMUM) {
+            return argb;
+        }
+
+        return (alpha << ALPHA_SHIFT)
+             | (PremultiplyChannel((argb >>> RED_SHIFT) & CHANNEL_MASK, alpha) << RED_SHIFT)
+             | (PremultiplyChannel((argb >>> GREEN_SHIFT) & CHANNEL_MASK, alpha) << GREEN_SHIFT)
+             | PremultiplyChannel(argb & CHANNEL_MASK, alpha);
+    }
+
+    private static int PremultiplyChannel(final int channel, final int alpha){
+        return (channel * alpha + CHANNEL_MAXIMUM / 2) / CHANNEL_MAXIMUM;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the variant (page) holding tiles of the given on-screen size.
+     * - Returns NO_VARIANT when that size isn't cached.
+     */
+    public int GetVariant(final int tile_width, final int tile_height){
+        final int width_variant = tile_width - minimum_tile_width;
+        final int height_variant = tile_height - minimum_tile_height;
+        if (width_variant < 0 || width_variant >= SIZE_VARIANTS || height_variant < 0 || height_variant >= SIZE_VARIANTS) {
+            return NO_VARIANT;
+        }
+        return width_variant * SIZE_VARIANTS + height_variant;
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the variant's premultiplied ARGB pixels, row by row, GetPageWidth() per row.
+     * - Returns null when the variant has no page (a non-positive tile size).
+     *
+     * Assertives of Entrance:
+     * - PreparePagePixels() was called since the cache was last built or refreshed.
+     *
+     * Restrictions:
+     * - Callers must not modify the returned array.
+     */
+    public int[] GetPagePixels(final int variant){
+        return page_pixels[variant];
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns true when none of the cell's pixels in the variant's page is transparent, even partly.
+     *
+     * Assertives of Entrance:
+     * - PreparePagePixels() was called since the cache was last built or refreshed, and the
+     *   variant has a page.
+     */
+    public boolean IsCellOpaque(final int variant, final int cell){
+        return opaque_cells[variant][cell];
+    }
+
+    public int GetPageWidth(final int variant){
+        return scaled_pages[variant].getWidth();
+    }
+
+    /**
+     * Expected Returns:
+     * - Returns the tile's cell in every page; cells are laid out GetCellColumns() per row.
+     * - Returns NO_CELL when the tile has no source image.
+     */
+    public int GetCell(final int tile_id){
+        return tile_id < tile_cells.length ? tile_cells[tile_id] : NO_CELL;
+    }
+
+    public int GetCellColumns(){
+        return cell_columns;
+    }
+}